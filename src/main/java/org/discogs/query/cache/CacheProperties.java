@@ -0,0 +1,94 @@
+package org.discogs.query.cache;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Cache settings bound from the {@code cache} section of {@code application.yml}.
+ *
+ * @param dataDirectory the directory holding the persistent tier, or {@code null} to keep every
+ *     cache in memory only
+ * @param defaultTtl the time to live of caches without their own settings
+ * @param defaultMaximumWeight the maximum estimated in-memory size of caches without their own
+ *     settings
+ * @param caches the settings of individual caches, keyed by cache name
+ */
+@ConfigurationProperties(prefix = "cache")
+public record CacheProperties(
+    Path dataDirectory,
+    @DefaultValue("10m") Duration defaultTtl,
+    @DefaultValue("16MB") DataSize defaultMaximumWeight,
+    Map<String, Spec> caches) {
+
+  /**
+   * Settings of a single cache. Unset values fall back to the defaults.
+   *
+   * @param ttl how long an entry is served after it is written
+   * @param maximumWeight the maximum estimated size of the entries held in memory, as weighed by
+   *     {@link RetainedSizeWeigher}
+   * @param refreshAfter the age at which an entry is refreshed in the background while still being
+   *     served, or {@code null} to refresh only on expiry
+   * @param serveStaleFor how long an entry is kept after its TTL, to be served while Discogs is
+   *     unavailable, or {@code null} to drop it on expiry
+   */
+  public record Spec(
+      Duration ttl, DataSize maximumWeight, Duration refreshAfter, Duration serveStaleFor) {
+
+    /**
+     * Creates settings without refresh-ahead or stale retention.
+     *
+     * @param ttl how long an entry lives after it is written
+     * @param maximumWeight the maximum estimated size of the entries held in memory
+     */
+    public Spec(final Duration ttl, final DataSize maximumWeight) {
+      this(ttl, maximumWeight, null, null);
+    }
+  }
+
+  /**
+   * Returns the time to live of the named cache.
+   *
+   * @param cacheName the cache name
+   * @return the configured TTL, or the default
+   */
+  public Duration ttl(final String cacheName) {
+    Spec spec = spec(cacheName);
+    return spec != null && spec.ttl() != null ? spec.ttl() : defaultTtl;
+  }
+
+  /**
+   * Returns the freshness policy of the named cache.
+   *
+   * @param cacheName the cache name
+   * @return the policy built from the TTL, refresh point and stale period of the cache
+   */
+  public FreshnessPolicy freshness(final String cacheName) {
+    Spec spec = spec(cacheName);
+    Duration ttl = ttl(cacheName);
+    Duration refreshAfter = spec != null && spec.refreshAfter() != null ? spec.refreshAfter() : ttl;
+    Duration serveStaleFor =
+        spec != null && spec.serveStaleFor() != null ? spec.serveStaleFor() : Duration.ZERO;
+    return new FreshnessPolicy(ttl, refreshAfter, serveStaleFor);
+  }
+
+  /**
+   * Returns the maximum estimated in-memory size of the named cache.
+   *
+   * @param cacheName the cache name
+   * @return the configured maximum weight in bytes, or the default
+   */
+  public long maximumWeight(final String cacheName) {
+    Spec spec = spec(cacheName);
+    DataSize weight =
+        spec != null && spec.maximumWeight() != null ? spec.maximumWeight() : defaultMaximumWeight;
+    return weight.toBytes();
+  }
+
+  private Spec spec(final String cacheName) {
+    return caches != null ? caches.get(cacheName) : null;
+  }
+}
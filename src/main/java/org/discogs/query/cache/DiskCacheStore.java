@@ -0,0 +1,364 @@
+package org.discogs.query.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.helpers.LogHelper;
+
+/**
+ * An append-only, file-backed key-value store used as the persistent tier of a {@link
+ * TwoTierCache}.
+ *
+ * <p>Each store owns one log file. A put appends a record holding the SHA-256 hash of the key, the
+ * expiry time and the JSON encoded value; an eviction appends a tombstone. An in-memory index maps
+ * each key hash to the position of its latest value and is rebuilt by scanning the log on startup,
+ * so entries survive restarts. A torn record at the end of the log, left by a crash mid-write, is
+ * truncated away. Keys are only stored as hashes, so URLs carrying the API token never reach the
+ * disk.
+ *
+ * <p>Once the log grows to more than twice the size of its live entries, it is compacted by
+ * rewriting the live entries to a new file that atomically replaces the old one.
+ */
+@Slf4j
+public class DiskCacheStore implements Closeable {
+
+  private static final byte PUT = 1;
+  private static final byte REMOVE = 2;
+  private static final int HASH_LENGTH = 32;
+  private static final int HEADER_LENGTH = 1 + HASH_LENGTH + Long.BYTES + Integer.BYTES;
+  private static final long MIN_COMPACTION_BYTES = 1L << 20;
+  private static final HexFormat HEX = HexFormat.of();
+
+  private final String name;
+  private final Path file;
+  private final ObjectMapper objectMapper;
+  private final Class<?> valueType;
+  private final Map<String, Location> index = new ConcurrentHashMap<>();
+  private final AtomicLong liveBytes = new AtomicLong();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private FileChannel channel;
+
+  /**
+   * A value read from the store.
+   *
+   * @param value the decoded value
+   * @param expiresAtMillis when the entry expires, in epoch milliseconds
+   */
+  public record StoredValue(Object value, long expiresAtMillis) {}
+
+  private record Location(long offset, int length, long expiresAtMillis) {
+
+    private boolean isExpired(final long nowMillis) {
+      return nowMillis >= expiresAtMillis;
+    }
+
+    private long recordBytes() {
+      return HEADER_LENGTH + (long) length;
+    }
+  }
+
+  /**
+   * Opens the store for the named cache, creating its log file if needed and loading the index of
+   * unexpired entries.
+   *
+   * @param name the cache name, also used as the log file name
+   * @param directory the directory holding the log file
+   * @param objectMapper the mapper encoding and decoding values
+   * @param valueType the type of the values held by the cache
+   * @throws IOException if the log cannot be opened or read
+   */
+  public DiskCacheStore(
+      final String name,
+      final Path directory,
+      final ObjectMapper objectMapper,
+      final Class<?> valueType)
+      throws IOException {
+    this.name = name;
+    this.objectMapper = objectMapper;
+    this.valueType = valueType;
+    Files.createDirectories(directory);
+    this.file = directory.resolve(name + ".log");
+    this.channel = open(file);
+    load();
+  }
+
+  /**
+   * Reads the unexpired value stored for the key.
+   *
+   * @param key the cache key
+   * @return the value and its expiry, or empty if absent, expired or unreadable
+   */
+  public Optional<StoredValue> get(final Object key) {
+    String hash = HEX.formatHex(hash(key));
+    lock.readLock().lock();
+    try {
+      Location location = index.get(hash);
+      if (location == null) {
+        return Optional.empty();
+      }
+      if (location.isExpired(System.currentTimeMillis())) {
+        drop(hash, location);
+        return Optional.empty();
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(location.length());
+      readFully(buffer, location.offset());
+      Object value = objectMapper.readValue(buffer.array(), valueType);
+      return Optional.of(new StoredValue(value, location.expiresAtMillis()));
+    } catch (final IOException e) {
+      LogHelper.warn(() -> "Failed to read entry from persistent cache {}", name, e);
+      return Optional.empty();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Appends the value for the key, replacing any earlier value.
+   *
+   * @param key the cache key
+   * @param value the value to store
+   * @param ttl how long the entry lives
+   */
+  public void put(final Object key, final Object value, final Duration ttl) {
+    byte[] bytes;
+    try {
+      bytes = objectMapper.writeValueAsBytes(value);
+    } catch (final JsonProcessingException e) {
+      LogHelper.warn(() -> "Failed to encode entry for persistent cache {}", name, e);
+      return;
+    }
+    byte[] hash = hash(key);
+    long expiresAtMillis = System.currentTimeMillis() + ttl.toMillis();
+    lock.writeLock().lock();
+    try {
+      long offset = append(PUT, hash, expiresAtMillis, bytes);
+      Location location = new Location(offset + HEADER_LENGTH, bytes.length, expiresAtMillis);
+      Location previous = index.put(HEX.formatHex(hash), location);
+      liveBytes.addAndGet(location.recordBytes() - (previous != null ? previous.recordBytes() : 0));
+      compactIfNeeded();
+    } catch (final IOException e) {
+      LogHelper.warn(() -> "Failed to write entry to persistent cache {}", name, e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes the value for the key, if present.
+   *
+   * @param key the cache key
+   */
+  public void remove(final Object key) {
+    byte[] hash = hash(key);
+    String hex = HEX.formatHex(hash);
+    lock.writeLock().lock();
+    try {
+      Location previous = index.remove(hex);
+      if (previous != null) {
+        liveBytes.addAndGet(-previous.recordBytes());
+        append(REMOVE, hash, 0, new byte[0]);
+      }
+    } catch (final IOException e) {
+      LogHelper.warn(() -> "Failed to write tombstone to persistent cache {}", name, e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Removes every entry by truncating the log. */
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      channel.truncate(0);
+      index.clear();
+      liveBytes.set(0);
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Failed to clear persistent cache " + name, e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of entries in the index, including any that expired but were not yet read.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return index.size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    lock.writeLock().lock();
+    try {
+      if (channel.isOpen()) {
+        channel.force(true);
+        channel.close();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void load() throws IOException {
+    long size = channel.size();
+    long position = 0;
+    long now = System.currentTimeMillis();
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      while (position + HEADER_LENGTH <= size) {
+        byte type = in.readByte();
+        byte[] hash = in.readNBytes(HASH_LENGTH);
+        long expiresAtMillis = in.readLong();
+        int length = in.readInt();
+        boolean valid = (type == PUT || type == REMOVE) && length >= 0;
+        if (!valid || position + HEADER_LENGTH + length > size) {
+          break;
+        }
+        in.skipNBytes(length);
+        String hex = HEX.formatHex(hash);
+        Location previous = index.remove(hex);
+        if (previous != null) {
+          liveBytes.addAndGet(-previous.recordBytes());
+        }
+        if (type == PUT && expiresAtMillis > now) {
+          Location location = new Location(position + HEADER_LENGTH, length, expiresAtMillis);
+          index.put(hex, location);
+          liveBytes.addAndGet(location.recordBytes());
+        }
+        position += HEADER_LENGTH + (long) length;
+      }
+    }
+    if (position < size) {
+      long validBytes = position;
+      LogHelper.warn(
+          () -> "Truncating persistent cache {} from {} to {} bytes after an incomplete record",
+          name,
+          size,
+          validBytes);
+      channel.truncate(position);
+    }
+    LogHelper.info(() -> "Loaded {} entries into persistent cache {}", index.size(), name);
+  }
+
+  private long append(
+      final byte type, final byte[] hash, final long expiresAtMillis, final byte[] value)
+      throws IOException {
+    long offset = channel.size();
+    ByteBuffer record = ByteBuffer.allocate(HEADER_LENGTH + value.length);
+    record.put(type).put(hash).putLong(expiresAtMillis).putInt(value.length).put(value).flip();
+    writeFully(channel, record, offset);
+    return offset;
+  }
+
+  private void compactIfNeeded() throws IOException {
+    long size = channel.size();
+    if (size < MIN_COMPACTION_BYTES || size <= 2 * liveBytes.get()) {
+      return;
+    }
+    Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+    Map<String, Location> moved = new HashMap<>();
+    long position = 0;
+    long now = System.currentTimeMillis();
+    try (FileChannel out =
+        FileChannel.open(
+            compacted,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      for (Map.Entry<String, Location> entry : index.entrySet()) {
+        Location location = entry.getValue();
+        if (location.isExpired(now)) {
+          continue;
+        }
+        ByteBuffer record = ByteBuffer.allocate(HEADER_LENGTH + location.length());
+        record
+            .put(PUT)
+            .put(HEX.parseHex(entry.getKey()))
+            .putLong(location.expiresAtMillis())
+            .putInt(location.length());
+        readFully(record, location.offset());
+        record.flip();
+        writeFully(out, record, position);
+        moved.put(
+            entry.getKey(),
+            new Location(position + HEADER_LENGTH, location.length(), location.expiresAtMillis()));
+        position += location.recordBytes();
+      }
+      out.force(true);
+    }
+    channel.close();
+    Files.move(
+        compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    channel = open(file);
+    index.clear();
+    index.putAll(moved);
+    liveBytes.set(position);
+    long before = size;
+    long after = position;
+    LogHelper.info(() -> "Compacted persistent cache {} from {} to {} bytes", name, before, after);
+  }
+
+  private void drop(final String hash, final Location location) {
+    if (index.remove(hash, location)) {
+      liveBytes.addAndGet(-location.recordBytes());
+    }
+  }
+
+  private void readFully(final ByteBuffer buffer, final long offset) throws IOException {
+    long position = offset;
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position);
+      if (read < 0) {
+        throw new IOException("Unexpected end of persistent cache " + name);
+      }
+      position += read;
+    }
+  }
+
+  private static void writeFully(
+      final FileChannel target, final ByteBuffer buffer, final long offset) throws IOException {
+    long position = offset;
+    while (buffer.hasRemaining()) {
+      position += target.write(buffer, position);
+    }
+  }
+
+  private static FileChannel open(final Path path) throws IOException {
+    return FileChannel.open(
+        path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+  }
+
+  private static byte[] hash(final Object key) {
+    try {
+      return MessageDigest.getInstance("SHA-256")
+          .digest(String.valueOf(key).getBytes(StandardCharsets.UTF_8));
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
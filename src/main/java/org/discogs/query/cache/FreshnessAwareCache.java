@@ -0,0 +1,149 @@
+package org.discogs.query.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import org.discogs.query.cache.FreshnessPolicy.Freshness;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * A Spring cache over Caffeine that tracks the freshness of its entries under a {@link
+ * FreshnessPolicy}.
+ *
+ * <p>The Caffeine cache must expire entries after the policy's {@link FreshnessPolicy#lifetime()
+ * lifetime}. An entry's age is derived from its remaining expiry, so no timestamp is stored with
+ * the value. Ordinary lookups only see entries within their TTL; {@link #getEntry(Object)} also
+ * returns entries retained past it, along with their freshness.
+ */
+public class FreshnessAwareCache extends AbstractValueAdaptingCache {
+
+  private final String name;
+  private final Cache<Object, Object> memoryCache;
+  private final FreshnessPolicy policy;
+
+  /**
+   * A cached value together with its freshness.
+   *
+   * @param value the cached value, which may be {@code null}
+   * @param freshness the freshness of the entry
+   */
+  public record Entry(Object value, Freshness freshness) {}
+
+  /**
+   * Creates a cache.
+   *
+   * @param name the cache name
+   * @param memoryCache the Caffeine cache, built with a variable expiry policy
+   * @param policy the freshness policy of the entries
+   */
+  public FreshnessAwareCache(
+      final String name, final Cache<Object, Object> memoryCache, final FreshnessPolicy policy) {
+    super(true);
+    this.name = name;
+    this.memoryCache = memoryCache;
+    this.policy = policy;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Cache<Object, Object> getNativeCache() {
+    return memoryCache;
+  }
+
+  /**
+   * Returns the freshness policy of this cache.
+   *
+   * @return the policy
+   */
+  public FreshnessPolicy getPolicy() {
+    return policy;
+  }
+
+  /**
+   * Returns the entry for the key, including an entry retained past its TTL.
+   *
+   * @param key the key to look up
+   * @return the entry, or {@code null} if none is held
+   */
+  public Entry getEntry(final Object key) {
+    Object stored = findStored(key);
+    if (stored == null) {
+      return null;
+    }
+    return new Entry(fromStoreValue(stored), policy.freshnessAt(age(key)));
+  }
+
+  @Override
+  protected Object lookup(final Object key) {
+    Object stored = findStored(key);
+    return stored != null && policy.freshnessAt(age(key)) != Freshness.STALE ? stored : null;
+  }
+
+  /**
+   * Finds the stored value for the key, regardless of its freshness.
+   *
+   * @param key the key to look up
+   * @return the stored value, or {@code null} if none is held
+   */
+  protected Object findStored(final Object key) {
+    return memoryCache.getIfPresent(key);
+  }
+
+  /**
+   * Returns the time since the entry for the key was written, derived from its remaining expiry.
+   * Entries without a known expiry are treated as new.
+   *
+   * @param key the key of the entry
+   * @return the age of the entry
+   */
+  private Duration age(final Object key) {
+    return memoryCache
+        .policy()
+        .expireVariably()
+        .flatMap(expiry -> expiry.getExpiresAfter(key))
+        .map(remaining -> policy.lifetime().minus(remaining))
+        .orElse(Duration.ZERO);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Unlike Caffeine's own loading, concurrent misses are not serialized here; the API client
+   * coalesces them before they reach the cache.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(final Object key, final Callable<T> valueLoader) {
+    Object cached = lookup(key);
+    if (cached != null) {
+      return (T) fromStoreValue(cached);
+    }
+    T loaded;
+    try {
+      loaded = valueLoader.call();
+    } catch (final Exception e) {
+      throw new ValueRetrievalException(key, valueLoader, e);
+    }
+    put(key, loaded);
+    return loaded;
+  }
+
+  @Override
+  public void put(final Object key, final Object value) {
+    memoryCache.put(key, toStoreValue(value));
+  }
+
+  @Override
+  public void evict(final Object key) {
+    memoryCache.invalidate(key);
+  }
+
+  @Override
+  public void clear() {
+    memoryCache.invalidateAll();
+  }
+}
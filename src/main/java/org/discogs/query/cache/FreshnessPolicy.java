@@ -0,0 +1,77 @@
+package org.discogs.query.cache;
+
+import java.time.Duration;
+
+/**
+ * How long the entries of a cache stay fresh, and how long they are kept afterwards.
+ *
+ * <p>An entry is {@link Freshness#FRESH} until its refresh point, after which it is still served
+ * but {@link Freshness#REFRESH_DUE}, so callers can refresh it in the background. Once its time to
+ * live has passed it is {@link Freshness#STALE}: ordinary lookups miss, but the entry is retained
+ * for the stale period so it can be served when Discogs is unavailable.
+ *
+ * @param ttl how long an entry is served by ordinary lookups
+ * @param refreshAfter the age at which an entry is due for a background refresh, at most the TTL
+ * @param serveStaleFor how long an entry is retained after its TTL, for serving while unavailable
+ */
+public record FreshnessPolicy(Duration ttl, Duration refreshAfter, Duration serveStaleFor) {
+
+  /** The freshness of a cached entry. */
+  public enum Freshness {
+    FRESH,
+    REFRESH_DUE,
+    STALE
+  }
+
+  /**
+   * Creates a policy, capping the refresh point at the TTL.
+   *
+   * @param ttl how long an entry is served by ordinary lookups
+   * @param refreshAfter the age at which an entry is due for a background refresh
+   * @param serveStaleFor how long an entry is retained after its TTL
+   */
+  public FreshnessPolicy {
+    refreshAfter = refreshAfter.compareTo(ttl) < 0 ? refreshAfter : ttl;
+  }
+
+  /**
+   * Creates a policy without refresh-ahead or stale retention.
+   *
+   * @param ttl how long an entry lives
+   * @return the policy
+   */
+  public static FreshnessPolicy expireAfter(final Duration ttl) {
+    return new FreshnessPolicy(ttl, ttl, Duration.ZERO);
+  }
+
+  /**
+   * Returns how long an entry is held in total, which is the expiry of both cache tiers.
+   *
+   * @return the TTL plus the stale period
+   */
+  public Duration lifetime() {
+    return ttl.plus(serveStaleFor);
+  }
+
+  /**
+   * Returns whether entries go through any state other than {@link Freshness#FRESH}.
+   *
+   * @return true if entries are refreshed ahead or retained after their TTL
+   */
+  public boolean isTracked() {
+    return refreshAfter.compareTo(ttl) < 0 || serveStaleFor.isPositive();
+  }
+
+  /**
+   * Classifies an entry of the given age.
+   *
+   * @param age the time since the entry was written
+   * @return the freshness of the entry
+   */
+  public Freshness freshnessAt(final Duration age) {
+    if (age.compareTo(ttl) >= 0) {
+      return Freshness.STALE;
+    }
+    return age.compareTo(refreshAfter) >= 0 ? Freshness.REFRESH_DUE : Freshness.FRESH;
+  }
+}
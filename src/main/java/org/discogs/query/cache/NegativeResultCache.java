@@ -0,0 +1,69 @@
+package org.discogs.query.cache;
+
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.helpers.LogHelper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers Discogs lookups that found nothing, so repeated requests for unsellable pressings,
+ * missing releases or empty collections do not spend rate limit budget on the same misses.
+ *
+ * <p>Outcomes are held in their own short-lived cache as a shared {@link Kind} constant per key,
+ * instead of as full empty responses in the caches of the resource. They are never refreshed
+ * ahead of expiry.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NegativeResultCache {
+
+  public static final String CACHE_NAME = "negativeResults";
+
+  private final CacheManager cacheManager;
+
+  /** What a lookup found instead of a result. */
+  public enum Kind {
+    /** The resource exists but holds nothing, such as a release without listings. */
+    EMPTY,
+    /** The resource does not exist. */
+    NOT_FOUND
+  }
+
+  /**
+   * Returns the remembered outcome of a lookup.
+   *
+   * @param key the key of the resource
+   * @return the outcome, or empty if the lookup has not recently found nothing
+   */
+  public Optional<Kind> get(final ResourceKey key) {
+    return cache().map(cache -> cache.get(key, Kind.class));
+  }
+
+  /**
+   * Remembers that a lookup found nothing.
+   *
+   * @param key the key of the resource
+   * @param kind what the lookup found
+   */
+  public void put(final ResourceKey key, final Kind kind) {
+    LogHelper.debug(() -> "Caching {} outcome for {}", kind, key);
+    cache().ifPresent(cache -> cache.put(key, kind));
+  }
+
+  /**
+   * Forgets the outcome of a lookup, once it has found something.
+   *
+   * @param key the key of the resource
+   */
+  public void evict(final ResourceKey key) {
+    cache().ifPresent(cache -> cache.evict(key));
+  }
+
+  private Optional<Cache> cache() {
+    return Optional.ofNullable(cacheManager.getCache(CACHE_NAME));
+  }
+}
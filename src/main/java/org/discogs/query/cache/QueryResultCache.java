@@ -0,0 +1,134 @@
+package org.discogs.query.cache;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.helpers.LogHelper;
+import org.discogs.query.model.DiscogsEntryDTO;
+import org.discogs.query.model.DiscogsQueryDTO;
+import org.discogs.query.model.DiscogsResultDTO;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the final result of each search query, so a repeated query skips the search, filtering,
+ * pricing, collection and UK filtering steps entirely.
+ *
+ * <p>Results are keyed by the normalized query together with the settings that change its output.
+ * When the marketplace price of a release is refreshed, every cached result listing that release
+ * is invalidated, while results for other releases stay cached. Invalidation is checked lazily on
+ * read: each refresh is timestamped, and a result cached before a refresh of any of its releases
+ * is dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryResultCache {
+
+  public static final String CACHE_NAME = "queryResults";
+
+  private final CacheManager cacheManager;
+  private final CacheProperties cacheProperties;
+  private final Map<Long, Long> priceRefreshedAtNanos = new ConcurrentHashMap<>();
+
+  /**
+   * Identifies a cached query result.
+   *
+   * @param query the normalized query
+   * @param username the lower-cased user whose collection was filtered out, or {@code null}
+   * @param filterForUk whether entries not shipping from the UK were filtered out
+   */
+  public record Key(DiscogsQueryDTO query, String username, boolean filterForUk) {
+
+    /**
+     * Creates a key, treating usernames case-insensitively and a blank username as none.
+     *
+     * @param query the normalized query
+     * @param username the user whose collection is filtered out, if any
+     * @param filterForUk whether entries not shipping from the UK are filtered out
+     * @return the key
+     */
+    public static Key of(
+        final DiscogsQueryDTO query, final String username, final boolean filterForUk) {
+      String user =
+          username == null || username.isBlank() ? null : username.trim().toLowerCase(Locale.ROOT);
+      return new Key(query, user, filterForUk);
+    }
+  }
+
+  /**
+   * A cached result and when it was cached.
+   *
+   * @param result the final query result
+   * @param cachedAtNanos the {@link System#nanoTime()} at which the result was cached
+   */
+  record Snapshot(DiscogsResultDTO result, long cachedAtNanos) {}
+
+  /**
+   * Returns the cached result of a query, unless the price of one of its releases has been
+   * refreshed since.
+   *
+   * @param key the key of the query
+   * @return the cached result, or empty on a miss
+   */
+  public Optional<DiscogsResultDTO> get(final Key key) {
+    Optional<Cache> cache = cache();
+    Snapshot snapshot = cache.map(c -> c.get(key, Snapshot.class)).orElse(null);
+    if (snapshot == null) {
+      return Optional.empty();
+    }
+    if (isOutdated(snapshot)) {
+      LogHelper.debug(() -> "Cached result for {} has refreshed prices, dropping it", key);
+      cache.get().evict(key);
+      return Optional.empty();
+    }
+    LogHelper.debug(() -> "Query result cache hit for {}", key);
+    return Optional.of(snapshot.result());
+  }
+
+  /**
+   * Caches the final result of a query.
+   *
+   * @param key the key of the query
+   * @param result the result
+   */
+  public void put(final Key key, final DiscogsResultDTO result) {
+    Snapshot snapshot = new Snapshot(result, System.nanoTime());
+    cache().ifPresent(cache -> cache.put(key, snapshot));
+  }
+
+  /**
+   * Invalidates the cached results listing a release, after its marketplace price was refreshed.
+   *
+   * @param releaseId the ID of the release
+   */
+  public void invalidateRelease(final long releaseId) {
+    long now = System.nanoTime();
+    priceRefreshedAtNanos.put(releaseId, now);
+    // A refresh older than the TTL can no longer predate any cached result.
+    long ttlNanos = cacheProperties.ttl(CACHE_NAME).toNanos();
+    priceRefreshedAtNanos.values().removeIf(refreshedAt -> now - refreshedAt > ttlNanos);
+    LogHelper.debug(() -> "Invalidated cached query results listing release {}", releaseId);
+  }
+
+  private boolean isOutdated(final Snapshot snapshot) {
+    if (snapshot.result().results() == null || priceRefreshedAtNanos.isEmpty()) {
+      return false;
+    }
+    for (DiscogsEntryDTO entry : snapshot.result().results()) {
+      Long refreshedAt = priceRefreshedAtNanos.get((long) entry.id());
+      if (refreshedAt != null && refreshedAt - snapshot.cachedAtNanos() >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Optional<Cache> cache() {
+    return Optional.ofNullable(cacheManager.getCache(CACHE_NAME));
+  }
+}
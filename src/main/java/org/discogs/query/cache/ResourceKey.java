@@ -0,0 +1,52 @@
+package org.discogs.query.cache;
+
+/**
+ * Identifies a Discogs resource independently of the URL used to fetch it.
+ *
+ * <p>Keys are generated alongside each request URL by {@link
+ * org.discogs.query.util.DiscogsUrlBuilder} and used for caching and request coalescing. The API
+ * token, parameter order and URL formatting therefore have no effect on cache hits. Comparing and
+ * hashing a key is cheaper than doing so for a full URL, and the {@code toString} form is stable
+ * across restarts, which the persistent cache tier relies on.
+ */
+public sealed interface ResourceKey {
+
+  /**
+   * A release, with its marketplace price in the given currency.
+   *
+   * @param id the release ID
+   * @param currency the currency of the lowest price
+   */
+  record Release(long id, String currency) implements ResourceKey {}
+
+  /**
+   * The marketplace statistics of a release.
+   *
+   * @param id the release ID
+   * @param currency the currency of the lowest price
+   */
+  record MarketplaceStats(long id, String currency) implements ResourceKey {}
+
+  /**
+   * A page of database search results.
+   *
+   * @param query the search parameters, sorted by name and lower-cased, without the token or page
+   * @param page the page number
+   */
+  record Search(String query, int page) implements ResourceKey {}
+
+  /**
+   * The instances of a release in a user's collection.
+   *
+   * @param user the Discogs username
+   * @param releaseId the release ID
+   */
+  record Collection(String user, long releaseId) implements ResourceKey {}
+
+  /**
+   * The UK marketplace listings of a release, scraped from the Discogs website.
+   *
+   * @param releaseId the release ID, as requested
+   */
+  record MarketplaceListings(String releaseId) implements ResourceKey {}
+}
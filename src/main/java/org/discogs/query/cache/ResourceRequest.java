@@ -0,0 +1,45 @@
+package org.discogs.query.cache;
+
+import org.discogs.query.limits.Deadline;
+
+/**
+ * A request for a Discogs resource: the URL to fetch, the key identifying what it returns and the
+ * deadline of the search it is made for.
+ *
+ * @param key the key the response is cached and coalesced under
+ * @param url the URL to fetch, including the API token
+ * @param deadline the deadline by which the response is needed; rate limit waits, retries and the
+ *     HTTP exchange are abandoned once it passes
+ */
+public record ResourceRequest(ResourceKey key, String url, Deadline deadline) {
+
+  /**
+   * Creates a request without a deadline.
+   *
+   * @param key the key the response is cached and coalesced under
+   * @param url the URL to fetch, including the API token
+   */
+  public ResourceRequest(final ResourceKey key, final String url) {
+    this(key, url, Deadline.none());
+  }
+
+  /**
+   * Returns a copy of this request bounded by the given deadline.
+   *
+   * @param newDeadline the deadline by which the response is needed
+   * @return the bounded request
+   */
+  public ResourceRequest withDeadline(final Deadline newDeadline) {
+    return new ResourceRequest(key, url, newDeadline);
+  }
+
+  /**
+   * Returns the key only, so the API token in the URL never ends up in logs.
+   *
+   * @return the string form of the key
+   */
+  @Override
+  public String toString() {
+    return key.toString();
+  }
+}
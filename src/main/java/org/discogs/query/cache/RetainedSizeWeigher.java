@@ -0,0 +1,145 @@
+package org.discogs.query.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import org.discogs.query.domain.api.DiscogsCollectionRelease;
+import org.discogs.query.domain.api.DiscogsEntry;
+import org.discogs.query.domain.api.DiscogsMarketplaceResult;
+import org.discogs.query.domain.api.DiscogsResult;
+import org.discogs.query.domain.api.ReleaseMatchProfile;
+import org.discogs.query.model.DiscogsEntryDTO;
+import org.discogs.query.model.DiscogsResultDTO;
+
+/**
+ * A Caffeine {@link Weigher} that weighs cache entries by an estimate of their retained heap size
+ * in bytes, so a release profile with a long tracklist counts for more than a marketplace price.
+ *
+ * <p>The estimate walks the fields of the cached Discogs types and charges a fixed overhead per
+ * object plus the length of each string, assuming compact Latin-1 strings. It is deliberately
+ * cheap rather than exact; what matters is that the relative weights of entries are right.
+ */
+public class RetainedSizeWeigher implements Weigher<Object, Object> {
+
+  static final int OBJECT_OVERHEAD = 16;
+  static final int REFERENCE = 4;
+  static final int STRING_OVERHEAD = 40;
+  static final int UNKNOWN_VALUE = 256;
+
+  @Override
+  public int weigh(final Object key, final Object value) {
+    long estimate = sizeOf(key) + sizeOf(value);
+    return (int) Math.min(Integer.MAX_VALUE, Math.max(1, estimate));
+  }
+
+  /**
+   * Estimates the retained size of a cached key or value.
+   *
+   * @param value the key or value
+   * @return the estimated size in bytes
+   */
+  static long sizeOf(final Object value) {
+    return switch (value) {
+      case null -> 0;
+      case String string -> sizeOf(string);
+      case ReleaseMatchProfile profile -> sizeOf(profile);
+      case DiscogsResult result ->
+          OBJECT_OVERHEAD + REFERENCE + sizeOf(result.getResults(), RetainedSizeWeigher::sizeOf);
+      case DiscogsMarketplaceResult ignored -> 3 * OBJECT_OVERHEAD + 3 * REFERENCE + 8;
+      case DiscogsCollectionRelease collection -> sizeOf(collection);
+      case ResourceKey key -> sizeOf(key);
+      case NegativeResultCache.Kind ignored -> 0; // Shared constants
+      case QueryResultCache.Snapshot snapshot ->
+          OBJECT_OVERHEAD + REFERENCE + Long.BYTES + sizeOf(snapshot.result());
+      default -> UNKNOWN_VALUE;
+    };
+  }
+
+  private static long sizeOf(final ResourceKey key) {
+    return OBJECT_OVERHEAD
+        + switch (key) {
+          case ResourceKey.Search search -> REFERENCE + Integer.BYTES + sizeOf(search.query());
+          case ResourceKey.Collection collection ->
+              REFERENCE + Long.BYTES + sizeOf(collection.user());
+          case ResourceKey.MarketplaceListings listings -> REFERENCE + sizeOf(listings.releaseId());
+          default -> REFERENCE + Long.BYTES; // The currency string is a shared constant
+        };
+  }
+
+  private static long sizeOf(final DiscogsResultDTO result) {
+    return OBJECT_OVERHEAD
+        + 2 * REFERENCE
+        + UNKNOWN_VALUE // The query
+        + sizeOf(result.results(), RetainedSizeWeigher::sizeOf);
+  }
+
+  private static long sizeOf(final DiscogsEntryDTO entry) {
+    return OBJECT_OVERHEAD
+        + 11 * REFERENCE
+        + sizeOf(entry.title())
+        + sizeOf(entry.format(), RetainedSizeWeigher::sizeOf)
+        + sizeOf(entry.url())
+        + sizeOf(entry.uri())
+        + sizeOf(entry.country())
+        + sizeOf(entry.year());
+  }
+
+  private static long sizeOf(final String string) {
+    return string == null ? 0 : STRING_OVERHEAD + string.length();
+  }
+
+  private static long sizeOf(final ReleaseMatchProfile profile) {
+    return OBJECT_OVERHEAD
+        + 3 * REFERENCE
+        + Long.BYTES
+        + 1
+        + sizeOf(profile.artistNames())
+        + sizeOf(profile.trackTitles())
+        + sizeOf(profile.trackArtistNames());
+  }
+
+  private static long sizeOf(final String[] strings) {
+    long size = OBJECT_OVERHEAD + (long) strings.length * REFERENCE;
+    for (String string : strings) {
+      size += sizeOf(string);
+    }
+    return size;
+  }
+
+  private static long sizeOf(final DiscogsEntry entry) {
+    return OBJECT_OVERHEAD
+        + 11 * REFERENCE
+        + sizeOf(entry.getTitle())
+        + sizeOf(entry.getUrl())
+        + sizeOf(entry.getUri())
+        + sizeOf(entry.getCountry())
+        + sizeOf(entry.getYear())
+        + sizeOf(entry.getFormat(), RetainedSizeWeigher::sizeOf)
+        + 3 * OBJECT_OVERHEAD;
+  }
+
+  private static long sizeOf(final DiscogsCollectionRelease collection) {
+    List<DiscogsCollectionRelease.Release> releases = collection.releases();
+    return 2 * OBJECT_OVERHEAD
+        + UNKNOWN_VALUE
+        + sizeOf(
+            releases,
+            release ->
+                OBJECT_OVERHEAD
+                    + 6 * REFERENCE
+                    + sizeOf(release.date_added())
+                    + (release.basic_information() != null ? 2 * UNKNOWN_VALUE : 0));
+  }
+
+  private static <T> long sizeOf(final Collection<T> values, final ToLongFunction<T> sizeOf) {
+    if (values == null) {
+      return 0;
+    }
+    long size = OBJECT_OVERHEAD + (long) values.size() * REFERENCE;
+    for (T value : values) {
+      size += value == null ? 0 : sizeOf.applyAsLong(value);
+    }
+    return size;
+  }
+}
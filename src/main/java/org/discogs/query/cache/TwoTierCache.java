@@ -0,0 +1,88 @@
+package org.discogs.query.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.time.Duration;
+
+/**
+ * A Spring cache that reads through an in-memory Caffeine cache and a persistent {@link
+ * DiskCacheStore}.
+ *
+ * <p>Lookups are served from memory when possible. On a memory miss, the disk tier is consulted
+ * and a hit is promoted back into memory for the rest of its original lifetime, so an entry never
+ * outlives its lifetime by being promoted, and its freshness carries over. Writes and evictions go
+ * to both tiers. Null values are only held in memory.
+ */
+public class TwoTierCache extends FreshnessAwareCache {
+
+  private final DiskCacheStore diskStore;
+
+  /**
+   * Creates a two-tier cache.
+   *
+   * @param name the cache name
+   * @param memoryCache the in-memory tier, built with a variable expiry policy
+   * @param diskStore the persistent tier
+   * @param policy the freshness policy of the entries
+   */
+  public TwoTierCache(
+      final String name,
+      final Cache<Object, Object> memoryCache,
+      final DiskCacheStore diskStore,
+      final FreshnessPolicy policy) {
+    super(name, memoryCache, policy);
+    this.diskStore = diskStore;
+  }
+
+  /**
+   * Returns the persistent tier of this cache.
+   *
+   * @return the disk store
+   */
+  public DiskCacheStore getDiskStore() {
+    return diskStore;
+  }
+
+  @Override
+  protected Object findStored(final Object key) {
+    Object value = super.findStored(key);
+    if (value != null) {
+      return value;
+    }
+    Cache<Object, Object> memoryCache = getNativeCache();
+    return diskStore
+        .get(key)
+        .map(
+            stored -> {
+              Duration remaining =
+                  Duration.ofMillis(stored.expiresAtMillis() - System.currentTimeMillis());
+              memoryCache
+                  .policy()
+                  .expireVariably()
+                  .ifPresentOrElse(
+                      policy -> policy.put(key, stored.value(), remaining),
+                      () -> memoryCache.put(key, stored.value()));
+              return stored.value();
+            })
+        .orElse(null);
+  }
+
+  @Override
+  public void put(final Object key, final Object value) {
+    super.put(key, value);
+    if (value != null) {
+      diskStore.put(key, value, getPolicy().lifetime());
+    }
+  }
+
+  @Override
+  public void evict(final Object key) {
+    super.evict(key);
+    diskStore.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    diskStore.clear();
+  }
+}
@@ -0,0 +1,83 @@
+package org.discogs.query.cache;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.helpers.LogHelper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+/**
+ * A {@link CaffeineCacheManager} that backs selected caches with a persistent {@link
+ * DiskCacheStore}, adapting them as {@link TwoTierCache}s. Memory-only caches whose entries are
+ * refreshed ahead or retained past their TTL are adapted as {@link FreshnessAwareCache}s, and the
+ * rest remain plain Caffeine caches. The disk stores are flushed and closed when the application
+ * context shuts down.
+ */
+@Slf4j
+public class TwoTierCacheManager extends CaffeineCacheManager implements DisposableBean {
+
+  private final Map<String, PersistentTier> persistentTiers = new ConcurrentHashMap<>();
+  private final Map<String, FreshnessPolicy> freshnessPolicies = new ConcurrentHashMap<>();
+
+  private record PersistentTier(DiskCacheStore store, FreshnessPolicy policy) {}
+
+  /**
+   * Registers a cache whose in-memory tier is backed by the given disk store.
+   *
+   * @param name the cache name
+   * @param memoryCache the in-memory tier, built with a variable expiry policy
+   * @param diskStore the persistent tier
+   * @param policy the freshness policy of the entries
+   */
+  public void registerTwoTierCache(
+      final String name,
+      final com.github.benmanes.caffeine.cache.Cache<Object, Object> memoryCache,
+      final DiskCacheStore diskStore,
+      final FreshnessPolicy policy) {
+    persistentTiers.put(name, new PersistentTier(diskStore, policy));
+    registerCustomCache(name, memoryCache);
+  }
+
+  /**
+   * Registers a memory-only cache whose entries are tracked under the given freshness policy.
+   *
+   * @param name the cache name
+   * @param memoryCache the cache, built with a variable expiry policy
+   * @param policy the freshness policy of the entries
+   */
+  public void registerFreshnessAwareCache(
+      final String name,
+      final com.github.benmanes.caffeine.cache.Cache<Object, Object> memoryCache,
+      final FreshnessPolicy policy) {
+    freshnessPolicies.put(name, policy);
+    registerCustomCache(name, memoryCache);
+  }
+
+  @Override
+  protected Cache adaptCaffeineCache(
+      final String name, final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+    PersistentTier tier = persistentTiers.get(name);
+    if (tier != null) {
+      return new TwoTierCache(name, cache, tier.store(), tier.policy());
+    }
+    FreshnessPolicy policy = freshnessPolicies.get(name);
+    return policy != null
+        ? new FreshnessAwareCache(name, cache, policy)
+        : super.adaptCaffeineCache(name, cache);
+  }
+
+  @Override
+  public void destroy() {
+    persistentTiers.forEach(
+        (name, tier) -> {
+          try {
+            tier.store().close();
+          } catch (final IOException e) {
+            LogHelper.warn(() -> "Failed to close persistent cache {}", name, e);
+          }
+        });
+  }
+}
@@ -0,0 +1,31 @@
+/**
+ * Contains the caching infrastructure behind {@link org.discogs.query.config.CacheConfig}.
+ *
+ * <p>Discogs responses are cached in two tiers: an in-heap Caffeine cache backed by a persistent,
+ * append-only store on local disk, so that caches survive restarts instead of refilling from the
+ * rate-limited Discogs API.
+ *
+ * <p>Classes in this package include:
+ *
+ * <ul>
+ *   <li>{@link org.discogs.query.cache.CacheProperties} - Per-cache settings bound from {@code
+ *       application.yml}.
+ *   <li>{@link org.discogs.query.cache.DiskCacheStore} - The append-only, file-backed second tier.
+ *   <li>{@link org.discogs.query.cache.FreshnessAwareCache} - A cache tracking the freshness of
+ *       its entries for refresh-ahead and stale serving.
+ *   <li>{@link org.discogs.query.cache.FreshnessPolicy} - When entries are due for refresh or
+ *       stale.
+ *   <li>{@link org.discogs.query.cache.NegativeResultCache} - Remembers lookups that found
+ *       nothing.
+ *   <li>{@link org.discogs.query.cache.QueryResultCache} - Caches the final result of each search
+ *       query.
+ *   <li>{@link org.discogs.query.cache.ResourceKey} - Typed keys identifying Discogs resources.
+ *   <li>{@link org.discogs.query.cache.ResourceRequest} - A resource key and the URL to fetch it.
+ *   <li>{@link org.discogs.query.cache.RetainedSizeWeigher} - Weighs entries by estimated heap
+ *       size.
+ *   <li>{@link org.discogs.query.cache.TwoTierCache} - A Spring cache reading through both tiers.
+ *   <li>{@link org.discogs.query.cache.TwoTierCacheManager} - A Caffeine cache manager that adds
+ *       the persistent tier to selected caches.
+ * </ul>
+ */
+package org.discogs.query.cache;
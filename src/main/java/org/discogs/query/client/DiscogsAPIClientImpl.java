@@ -1,167 +1,732 @@
 package org.discogs.query.client;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.cache.FreshnessAwareCache;
+import org.discogs.query.cache.FreshnessPolicy.Freshness;
+import org.discogs.query.cache.NegativeResultCache;
+import org.discogs.query.cache.QueryResultCache;
+import org.discogs.query.cache.ResourceKey;
+import org.discogs.query.cache.ResourceRequest;
 import org.discogs.query.domain.api.DiscogsCollectionRelease;
+import org.discogs.query.domain.api.DiscogsLowestPriceResult;
 import org.discogs.query.domain.api.DiscogsMarketplaceResult;
 import org.discogs.query.domain.api.DiscogsRelease;
 import org.discogs.query.domain.api.DiscogsResult;
-import org.discogs.query.exceptions.DiscogsMarketplaceException;
+import org.discogs.query.exceptions.DeadlineExceededException;
 import org.discogs.query.exceptions.DiscogsSearchException;
 import org.discogs.query.helpers.LogHelper;
+import org.discogs.query.interfaces.AsyncHttpRequestService;
 import org.discogs.query.interfaces.CircuitBreakerService;
+import org.discogs.query.interfaces.CircuitBreakerService.Endpoint;
 import org.discogs.query.interfaces.DiscogsAPIClient;
-import org.discogs.query.interfaces.HttpRequestService;
+import org.discogs.query.interfaces.HedgingService;
 import org.discogs.query.interfaces.RateLimiterService;
+import org.discogs.query.interfaces.RequestCoalescingService;
 import org.discogs.query.interfaces.RetryService;
-import org.springframework.cache.annotation.Cacheable;
+import org.discogs.query.limits.Deadline;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
 
 /**
  * A client component for interacting with the Discogs API.
  *
- * <p>This class uses {@link HttpRequestService} to send HTTP requests to the Discogs API, handles
- * responses, and manages retries and rate limits using {@link RetryService} and {@link
+ * <p>This class uses {@link AsyncHttpRequestService} to send HTTP requests to the Discogs API,
+ * handles responses, and manages retries and rate limits using {@link RetryService} and {@link
  * RateLimiterService}. It leverages Spring's caching abstraction with Caffeine to cache API
  * responses for improved performance.
+ *
+ * <p>Each lookup has a blocking and a non-blocking variant. Both send their requests with the same
+ * asynchronous HTTP client, and read from and populate the same caches; the blocking variants
+ * wait for the exchange on the calling thread.
+ *
+ * <p>Cache misses go through {@link RequestCoalescingService}, so concurrent misses for the same
+ * resource share a single outbound call and rate limit permit.
+ *
+ * <p>Caches that track freshness, such as the marketplace cache, are read ahead of expiry: a value
+ * past its refresh point is served at once while a background refresh runs on spare rate limit
+ * budget, and a value past its TTL is served, flagged as stale, while the endpoint's circuit
+ * breaker is open.
+ *
+ * <p>Requests to endpoints with hedging enabled go through {@link HedgingService}, which sends a
+ * duplicate when a response is slow, and cancels the losing copy.
+ *
+ * <p>Every fetch is bounded by the {@link ResourceRequest#deadline() deadline} of its request: the
+ * rate limit wait, retries and the HTTP exchange are all abandoned once it passes or is cancelled,
+ * and a request whose deadline has already passed is not sent at all.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DiscogsAPIClientImpl implements DiscogsAPIClient {
 
-  public static final String CACHE_MISS_FOR_SEARCH_URL = "Cache miss for " + "searchUrl: {}";
+  public static final String CACHE_MISS = "Cache miss for {}";
 
-  private final HttpRequestService httpRequestService;
+  private static final Lookup<DiscogsResult> SEARCH =
+      new Lookup<>(
+          Endpoint.SEARCH,
+          "discogsResults",
+          DiscogsResult.class,
+          "Discogs Search API Request",
+          UnaryOperator.identity(),
+          EmptyResult.none());
+  private static final Lookup<String> STRING_SEARCH =
+      new Lookup<>(
+          Endpoint.SEARCH,
+          "stringResults",
+          String.class,
+          "Discogs Search API Request",
+          UnaryOperator.identity(),
+          EmptyResult.none());
+  private static final Lookup<DiscogsMarketplaceResult> MARKETPLACE =
+      new Lookup<>(
+          Endpoint.MARKETPLACE,
+          "marketplaceResults",
+          DiscogsMarketplaceResult.class,
+          "Discogs Marketplace API Request",
+          DiscogsMarketplaceResult::asStale,
+          new EmptyResult<>(
+              result ->
+                  result.getResult() == null
+                      && (result.getNumberForSale() == null || result.getNumberForSale() == 0),
+              () -> new DiscogsMarketplaceResult(null, 0)));
+  private static final Lookup<DiscogsCollectionRelease> COLLECTION =
+      new Lookup<>(
+          Endpoint.COLLECTION,
+          "collectionReleases",
+          DiscogsCollectionRelease.class,
+          "Discogs Collections Release API Request",
+          UnaryOperator.identity(),
+          new EmptyResult<>(
+              collection -> collection.releases() == null || collection.releases().isEmpty(),
+              () -> new DiscogsCollectionRelease(null, List.of())));
+  private static final Lookup<DiscogsRelease> RELEASE =
+      new Lookup<>(
+          Endpoint.RELEASE,
+          null, // Callers cache a compact ReleaseMatchProfile instead
+          DiscogsRelease.class,
+          "Discogs Release API Request",
+          UnaryOperator.identity(),
+          EmptyResult.none());
+
+  private final AsyncHttpRequestService asyncHttpRequestService;
   private final RateLimiterService rateLimiterService;
   private final RetryService retryService;
   private final CircuitBreakerService circuitBreakerService;
+  private final RequestCoalescingService requestCoalescingService;
+  private final HedgingService hedgingService;
+  private final CacheManager cacheManager;
+  private final NegativeResultCache negativeResultCache;
+  private final QueryResultCache queryResultCache;
+  private final Set<ResourceKey> refreshing = ConcurrentHashMap.newKeySet();
+
+  /**
+   * How one kind of resource is fetched and cached.
+   *
+   * @param endpoint the endpoint family whose circuit breaker guards the request
+   * @param cacheName the cache shared by the blocking and asynchronous lookups, or {@code null} if
+   *     responses are not cached
+   * @param responseType the class type of the response
+   * @param actionDescription a description of the action, used in logs and retries
+   * @param asStale marks a value served past its TTL as stale
+   * @param emptyResult how an empty response is recognized and recreated
+   * @param <T> the type of the response
+   */
+  private record Lookup<T>(
+      Endpoint endpoint,
+      String cacheName,
+      Class<T> responseType,
+      String actionDescription,
+      UnaryOperator<T> asStale,
+      EmptyResult<T> emptyResult) {}
+
+  /**
+   * The empty responses of a resource, which go to the {@link NegativeResultCache} instead of the
+   * resource's own cache.
+   *
+   * @param isEmpty whether a response holds nothing
+   * @param create recreates an empty response on a negative cache hit
+   * @param <T> the type of the response
+   */
+  private record EmptyResult<T>(Predicate<T> isEmpty, Supplier<T> create) {
+
+    /**
+     * Returns the empty results of a resource whose responses are never empty.
+     *
+     * @param <T> the type of the response
+     * @return empty results matching no response
+     */
+    static <T> EmptyResult<T> none() {
+      return new EmptyResult<>(value -> false, () -> null);
+    }
+  }
 
   /**
-   * Retrieves results from the Discogs API for a given search URL.
+   * Retrieves results from the Discogs API for a given search.
    *
-   * <p>This method is cached using Spring's caching abstraction with Caffeine.
+   * <p>Results are served from the {@code discogsResults} cache under the search's {@link
+   * ResourceKey}. Misses are fetched once however many callers ask at the same time.
    *
-   * @param searchUrl the URL to query the Discogs API
+   * @param request the search to fetch
    * @return an instance of {@link DiscogsResult} containing the API response data
    * @throws DiscogsSearchException if an error occurs while fetching data from the Discogs API
    */
-  @Cacheable(value = "discogsResults", key = "#searchUrl")
   @Override
-  public DiscogsResult getResultsForQuery(final String searchUrl) {
-    LogHelper.info(() -> CACHE_MISS_FOR_SEARCH_URL, searchUrl);
-    return executeWithRateLimitAndRetry(
-        () -> httpRequestService.executeRequest(searchUrl, DiscogsResult.class),
-        "Discogs Search API Request");
+  public DiscogsResult getResultsForQuery(final ResourceRequest request) {
+    return getCachedOrFetch(SEARCH, request);
   }
 
   /**
-   * Retrieves a string result from the Discogs API for a given search URL.
+   * Retrieves a string result from the Discogs API for a given search.
    *
-   * <p>This method is cached using Spring's caching abstraction with Caffeine.
+   * <p>Results are served from the {@code stringResults} cache under the search's {@link
+   * ResourceKey}. Misses are fetched once however many callers ask at the same time.
    *
-   * @param searchUrl the URL to query the Discogs API
+   * @param request the search to fetch
    * @return a {@link String} containing the API response data
    * @throws DiscogsSearchException if an error occurs while fetching data from the Discogs API
    */
-  @Cacheable(value = "stringResults", key = "#searchUrl")
   @Override
-  public String getStringResultForQuery(final String searchUrl) {
-    LogHelper.info(() -> CACHE_MISS_FOR_SEARCH_URL, searchUrl);
-    return executeWithRateLimitAndRetry(
-        () -> httpRequestService.executeRequest(searchUrl, String.class),
-        "Discogs Search API Request");
+  public String getStringResultForQuery(final ResourceRequest request) {
+    return getCachedOrFetch(STRING_SEARCH, request);
   }
 
   /**
    * Checks whether the given item is listed on the Discogs Marketplace.
    *
-   * <p>This method is cached using Spring's caching abstraction with Caffeine.
+   * <p>Results are served from the {@code marketplaceResults} cache, which also holds the prices
+   * carried by fetched releases. Listings found empty are answered from the {@link
+   * NegativeResultCache}. Prices past their
+   * refresh point are served at once and refreshed in the background, and while the marketplace
+   * circuit breaker is open, prices past their TTL are served {@link
+   * DiscogsMarketplaceResult#isStale() flagged as stale}.
    *
-   * @param url the URL pointing to the item on the Discogs Marketplace
+   * @param request the item on the Discogs Marketplace
    * @return a {@link DiscogsMarketplaceResult} object containing the details of the item on the
    *     marketplace
    * @throws DiscogsSearchException if an error occurs while fetching data from the Discogs API
    */
-  @Cacheable(value = "marketplaceResults", key = "#url")
   @Override
-  public DiscogsMarketplaceResult getMarketplaceResultForQuery(final String url) {
-    LogHelper.info(() -> "Cache miss for url: {}", url);
-    return executeWithRateLimitAndRetry(
-        () -> httpRequestService.executeRequest(url, DiscogsMarketplaceResult.class),
-        "Discogs Marketplace API Request");
+  public DiscogsMarketplaceResult getMarketplaceResultForQuery(final ResourceRequest request) {
+    return getCachedOrFetch(MARKETPLACE, request);
   }
 
   /**
-   * Checks whether the given item is listed on the Discogs Marketplace.
+   * Retrieves a page of releases from a user's Discogs collection.
    *
-   * <p>This method is cached using Spring's caching abstraction with Caffeine.
+   * <p>Pages are served from the {@code collectionReleases} cache, and empty pages are answered
+   * from the {@link NegativeResultCache}.
    *
-   * @param url the URL pointing to the item on the Discogs Marketplace
-   * @return a {@link DiscogsCollectionRelease} object containing the details of the item on the
-   *     marketplace
+   * @param request the collection page to fetch
+   * @return a {@link DiscogsCollectionRelease} object containing the releases on the page
    * @throws DiscogsSearchException if an error occurs while fetching data from the Discogs API
    */
-  @Cacheable(value = "collectionReleases", key = "#url")
   @Override
-  public DiscogsCollectionRelease getCollectionReleases(final String url) {
-    LogHelper.info(() -> "Cache miss for url: {}", url);
-    return executeWithRateLimitAndRetry(
-        () -> httpRequestService.executeRequest(url, DiscogsCollectionRelease.class),
-        "Discogs Collections Release API Request");
+  public DiscogsCollectionRelease getCollectionReleases(final ResourceRequest request) {
+    return getCachedOrFetch(COLLECTION, request);
   }
 
   /**
-   * Checks whether the given item is listed on the Discogs Marketplace.
+   * Retrieves the full details of a release, including its tracklist and marketplace price.
    *
-   * <p>This method is cached using Spring's caching abstraction with Caffeine.
+   * <p>Full releases are not cached, as callers cache the compact {@link
+   * org.discogs.query.domain.api.ReleaseMatchProfile} they need instead. The price a release
+   * carries is stored in the {@code marketplaceResults} cache, and releases found missing are
+   * answered from the {@link NegativeResultCache}.
    *
-   * @param url the URL pointing to the item on the Discogs Marketplace
-   * @return a {@link DiscogsRelease} object containing the details of the item on the marketplace
+   * @param request the release to fetch
+   * @return a {@link DiscogsRelease} object containing the details of the release
    * @throws DiscogsSearchException if an error occurs while fetching data from the Discogs API
    */
-  @Cacheable(value = "releaseResults", key = "#url")
   @Override
-  public DiscogsRelease getRelease(final String url) {
-    LogHelper.info(() -> "Cache miss for url: {}", url);
-    return executeWithRateLimitAndRetry(
-        () -> httpRequestService.executeRequest(url, DiscogsRelease.class),
-        "Discogs Release API Request");
+  public DiscogsRelease getRelease(final ResourceRequest request) {
+    return getCachedOrFetch(RELEASE, request);
+  }
+
+  @Override
+  public CompletableFuture<DiscogsResult> getResultsForQueryAsync(final ResourceRequest request) {
+    return getCachedOrFetchAsync(SEARCH, request);
+  }
+
+  @Override
+  public CompletableFuture<DiscogsRelease> getReleaseAsync(final ResourceRequest request) {
+    return getCachedOrFetchAsync(RELEASE, request);
+  }
+
+  @Override
+  public CompletableFuture<DiscogsCollectionRelease> getCollectionReleasesAsync(
+      final ResourceRequest request) {
+    return getCachedOrFetchAsync(COLLECTION, request);
+  }
+
+  @Override
+  public CompletableFuture<DiscogsMarketplaceResult> getMarketplaceResultForQueryAsync(
+      final ResourceRequest request) {
+    return getCachedOrFetchAsync(MARKETPLACE, request);
+  }
+
+  /**
+   * Serves the requested value from its cache when present, otherwise fetches it and stores the
+   * response in the cache. Lookups recently found empty or missing are answered from the {@link
+   * NegativeResultCache} without a request. A value due for refresh is served and refreshed in the
+   * background. A value past its TTL is only served, flagged as stale, if the fetch is rejected by
+   * an open circuit breaker.
+   *
+   * @param lookup how the resource is fetched and cached
+   * @param request the URL to query and the key to cache the response under
+   * @param <T> the type of the response
+   * @return the cached or fetched value
+   */
+  private <T> T getCachedOrFetch(final Lookup<T> lookup, final ResourceRequest request) {
+    Optional<T> negative = negativeResult(lookup, request);
+    if (negative.isPresent()) {
+      return negative.get();
+    }
+    Optional<Cache> cache = cacheOf(lookup);
+    FreshnessAwareCache.Entry cached = cache.map(c -> cachedEntry(c, request.key())).orElse(null);
+    if (isServable(cached)) {
+      return serveCached(lookup, cache.get(), request, cached);
+    }
+
+    LogHelper.info(() -> CACHE_MISS, request);
+    try {
+      return fetchCoalesced(lookup, request, cache);
+    } catch (final DiscogsSearchException e) {
+      if (cached != null && isCircuitOpen(e)) {
+        return serveStale(lookup, request, cached);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Asynchronous counterpart of {@link #getCachedOrFetch}. A miss is fetched without blocking, and
+   * the cache is populated before the in-flight entry is released, so later callers find the
+   * cached value.
+   *
+   * @param lookup how the resource is fetched and cached
+   * @param request the URL to query and the key to cache the response under
+   * @param <T> the type of the response
+   * @return a future completed with the cached or fetched value
+   */
+  private <T> CompletableFuture<T> getCachedOrFetchAsync(
+      final Lookup<T> lookup, final ResourceRequest request) {
+    Optional<T> negative;
+    try {
+      negative = negativeResult(lookup, request);
+    } catch (final DiscogsSearchException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    if (negative.isPresent()) {
+      return CompletableFuture.completedFuture(negative.get());
+    }
+    Optional<Cache> cache = cacheOf(lookup);
+    FreshnessAwareCache.Entry cached = cache.map(c -> cachedEntry(c, request.key())).orElse(null);
+    if (isServable(cached)) {
+      return CompletableFuture.completedFuture(serveCached(lookup, cache.get(), request, cached));
+    }
+
+    LogHelper.info(() -> CACHE_MISS, request);
+    CompletableFuture<T> fetched =
+        requestCoalescingService.executeAsync(
+            lookup.responseType(),
+            request.key(),
+            () ->
+                executeWithRateLimitAsync(
+                        lookup.endpoint(),
+                        () ->
+                            hedgingService.hedge(
+                                lookup.endpoint(),
+                                () ->
+                                    asyncHttpRequestService.executeRequestAsync(
+                                        request.url(), lookup.responseType(), request.deadline())),
+                        lookup.actionDescription(),
+                        request.deadline())
+                    .whenComplete(
+                        (result, throwable) -> {
+                          if (throwable == null) {
+                            store(lookup, cache, request.key(), result);
+                          } else {
+                            rememberIfNotFound(request, throwable);
+                          }
+                        }));
+    if (cached == null) {
+      return fetched;
+    }
+    return fetched.exceptionally(
+        throwable -> {
+          if (isCircuitOpen(throwable)) {
+            return serveStale(lookup, request, cached);
+          }
+          throw throwable instanceof CompletionException completionException
+              ? completionException
+              : new CompletionException(throwable);
+        });
+  }
+
+  private Optional<Cache> cacheOf(final Lookup<?> lookup) {
+    return lookup.cacheName() != null
+        ? Optional.ofNullable(cacheManager.getCache(lookup.cacheName()))
+        : Optional.empty();
+  }
+
+  private static FreshnessAwareCache.Entry cachedEntry(final Cache cache, final ResourceKey key) {
+    if (cache instanceof FreshnessAwareCache freshnessAwareCache) {
+      return freshnessAwareCache.getEntry(key);
+    }
+    Cache.ValueWrapper wrapper = cache.get(key);
+    return wrapper != null ? new FreshnessAwareCache.Entry(wrapper.get(), Freshness.FRESH) : null;
+  }
+
+  private static boolean isServable(final FreshnessAwareCache.Entry cached) {
+    return cached != null && cached.freshness() != Freshness.STALE;
+  }
+
+  private <T> T serveCached(
+      final Lookup<T> lookup,
+      final Cache cache,
+      final ResourceRequest request,
+      final FreshnessAwareCache.Entry cached) {
+    LogHelper.debug(() -> "Cache hit in {} for {}", lookup.cacheName(), request);
+    if (cached.freshness() == Freshness.REFRESH_DUE) {
+      refreshInBackground(lookup, cache, request);
+    }
+    return lookup.responseType().cast(cached.value());
+  }
+
+  private <T> T serveStale(
+      final Lookup<T> lookup,
+      final ResourceRequest request,
+      final FreshnessAwareCache.Entry cached) {
+    LogHelper.warn(
+        () -> "Circuit breaker is open for {}, serving stale {}",
+        lookup.actionDescription(),
+        request);
+    T value = lookup.responseType().cast(cached.value());
+    return value != null ? lookup.asStale().apply(value) : null;
+  }
+
+  /**
+   * Refreshes a cached value that is due for refresh, without blocking the caller. The refresh
+   * only runs if a rate limit permit is free right now, so it never delays or queues ahead of
+   * foreground requests; otherwise a later lookup tries again. At most one refresh per resource is
+   * in flight, and it is not retried.
+   *
+   * @param lookup how the resource is fetched and cached
+   * @param cache the cache to store the refreshed value in
+   * @param request the URL to query and the key to cache the response under
+   * @param <T> the type of the response
+   */
+  private <T> void refreshInBackground(
+      final Lookup<T> lookup, final Cache cache, final ResourceRequest request) {
+    if (!refreshing.add(request.key())) {
+      return;
+    }
+    if (!rateLimiterService.tryAcquireRateLimit()) {
+      refreshing.remove(request.key());
+      LogHelper.debug(() -> "No spare rate limit permit to refresh {}", request);
+      return;
+    }
+    LogHelper.debug(() -> "Refreshing {} in the background", request);
+    requestCoalescingService
+        .executeAsync(
+            lookup.responseType(),
+            request.key(),
+            () ->
+                circuitBreakerService
+                    .executeAsync(
+                        lookup.endpoint(),
+                        () ->
+                            asyncHttpRequestService.executeRequestAsync(
+                                request.url(), lookup.responseType()))
+                    .whenComplete(
+                        (result, throwable) -> {
+                          if (throwable == null) {
+                            store(lookup, Optional.of(cache), request.key(), result);
+                          }
+                        }))
+        .whenComplete(
+            (result, throwable) -> {
+              refreshing.remove(request.key());
+              if (throwable != null) {
+                LogHelper.warn(
+                    () -> "Background refresh of {} failed: {}", request, throwable.getMessage());
+              }
+            });
+  }
+
+  private static boolean isCircuitOpen(final Throwable throwable) {
+    for (Throwable t = throwable; t != null; t = t.getCause()) {
+      if (t instanceof CircuitBreakerService.CircuitBreakerOpenException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Fetches the requested resource with rate limit and retry logic, sharing the outbound call with
+   * any concurrent request for the same resource. The response is cached before the call is
+   * released to callers sharing it.
+   *
+   * @param lookup how the resource is fetched and cached
+   * @param request the URL to query and the key identifying the resource
+   * @param cache the cache to store the response in, if any
+   * @param <T> the type of the response
+   * @return the fetched value
+   */
+  private <T> T fetchCoalesced(
+      final Lookup<T> lookup, final ResourceRequest request, final Optional<Cache> cache) {
+    Endpoint endpoint = lookup.endpoint();
+    Class<T> responseType = lookup.responseType();
+    Deadline deadline = request.deadline();
+    Callable<T> call =
+        () ->
+            awaitExchange(
+                hedgingService.hedge(
+                    endpoint,
+                    () ->
+                        asyncHttpRequestService.executeRequestAsync(
+                            request.url(), responseType, deadline)));
+    return requestCoalescingService.execute(
+        responseType,
+        request.key(),
+        deadline,
+        () -> {
+          T result;
+          try {
+            result =
+                executeWithRateLimitAndRetry(
+                    endpoint, call, lookup.actionDescription(), deadline);
+          } catch (final RuntimeException e) {
+            rememberIfNotFound(request, e);
+            throw e;
+          }
+          store(lookup, cache, request.key(), result);
+          return result;
+        });
+  }
+
+  /**
+   * Answers a lookup from the {@link NegativeResultCache}.
+   *
+   * @param lookup how the resource is fetched and cached
+   * @param request the requested resource
+   * @param <T> the type of the response
+   * @return an empty response if the resource was recently found empty, otherwise empty
+   * @throws DiscogsSearchException if the resource was recently found missing
+   */
+  private <T> Optional<T> negativeResult(final Lookup<T> lookup, final ResourceRequest request) {
+    return negativeResultCache
+        .get(request.key())
+        .map(
+            kind -> {
+              LogHelper.debug(() -> "Negative cache hit ({}) for {}", kind, request);
+              if (kind == NegativeResultCache.Kind.NOT_FOUND) {
+                throw new DiscogsSearchException("Discogs resource not found: " + request);
+              }
+              return lookup.emptyResult().create().get();
+            });
+  }
+
+  /**
+   * Caches a fetched response: empty responses in the {@link NegativeResultCache}, anything else
+   * in the resource's own cache. A changed marketplace price invalidates the cached query results
+   * listing the release.
+   *
+   * <p>A release response already carries the marketplace lowest price and number for sale, so it
+   * is also stored as the release's marketplace statistics. The marketplace lookup that prices the
+   * same entry is then answered from the cache instead of making a second call to Discogs.
+   */
+  private <T> void store(
+      final Lookup<T> lookup, final Optional<Cache> cache, final ResourceKey key, final T result) {
+    if (key instanceof ResourceKey.MarketplaceStats stats && cache.isPresent()) {
+      invalidateQueriesIfPriceChanged(cache.get(), stats, result);
+    }
+    if (result != null && lookup.emptyResult().isEmpty().test(result)) {
+      negativeResultCache.put(key, NegativeResultCache.Kind.EMPTY);
+      cache.ifPresent(c -> c.evict(key));
+    } else {
+      cache.ifPresent(c -> c.put(key, result));
+    }
+    if (key instanceof ResourceKey.Release release
+        && result instanceof DiscogsRelease fetched
+        && fetched.getNumForSale() != null) {
+      store(
+          MARKETPLACE,
+          cacheOf(MARKETPLACE),
+          new ResourceKey.MarketplaceStats(release.id(), release.currency()),
+          marketplaceResultOf(fetched, release.currency()));
+    }
+  }
+
+  /**
+   * Builds the marketplace statistics embedded in a release response.
+   *
+   * @param release the fetched release
+   * @param currency the currency the release was priced in
+   * @return the lowest price and number for sale, without a price if nothing is for sale
+   */
+  private static DiscogsMarketplaceResult marketplaceResultOf(
+      final DiscogsRelease release, final String currency) {
+    int numberForSale = release.getNumForSale();
+    DiscogsLowestPriceResult lowestPrice =
+        numberForSale > 0
+            ? new DiscogsLowestPriceResult(currency, (float) release.getLowestPrice())
+            : null;
+    return new DiscogsMarketplaceResult(lowestPrice, numberForSale);
+  }
+
+  private void invalidateQueriesIfPriceChanged(
+      final Cache cache, final ResourceKey.MarketplaceStats key, final Object refreshed) {
+    FreshnessAwareCache.Entry previous = cachedEntry(cache, key);
+    if (previous != null
+        && previous.value() instanceof DiscogsMarketplaceResult previousResult
+        && !(refreshed instanceof DiscogsMarketplaceResult refreshedResult
+            && previousResult.hasSamePriceAs(refreshedResult))) {
+      LogHelper.debug(() -> "Marketplace price of release {} changed", key.id());
+      queryResultCache.invalidateRelease(key.id());
+    }
+  }
+
+  private void rememberIfNotFound(final ResourceRequest request, final Throwable failure) {
+    for (Throwable t = failure; t != null; t = t.getCause()) {
+      if (t instanceof HttpStatusCodeException statusException) {
+        if (statusException.getStatusCode().value() == HttpStatus.NOT_FOUND.value()) {
+          negativeResultCache.put(request.key(), NegativeResultCache.Kind.NOT_FOUND);
+        }
+        return;
+      }
+    }
+  }
+
+  /**
+   * Waits for an HTTP exchange on behalf of a blocking lookup, cancelling it if the calling thread
+   * is interrupted. The exchange itself is aborted when the deadline of its request passes or is
+   * cancelled, which ends the wait with a {@link DeadlineExceededException}.
+   *
+   * @param exchange the exchange, possibly hedged
+   * @param <T> the type of the response
+   * @return the response
+   * @throws Exception the failure of the exchange
+   */
+  private static <T> T awaitExchange(final CompletableFuture<T> exchange) throws Exception {
+    try {
+      return exchange.get();
+    } catch (final InterruptedException e) {
+      exchange.cancel(true);
+      Thread.currentThread().interrupt();
+      throw e;
+    } catch (final CancellationException e) {
+      throw new DeadlineExceededException("HTTP request cancelled with its deadline");
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof TimeoutException) {
+        throw new DeadlineExceededException("Deadline passed during the HTTP request");
+      }
+      if (e.getCause() instanceof Exception exception) {
+        throw exception;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Executes an asynchronous action once a rate limit permit is available, with retry logic and
+   * guarded by the circuit breaker. Each retry acquires a fresh permit. Neither the permit wait,
+   * the retry back-off nor the HTTP exchange blocks the calling thread.
+   *
+   * <p>Only the action itself runs inside the circuit breaker, so the permit wait and the retry
+   * back-off never count towards a slow call, and every attempt is recorded on its own.
+   *
+   * @param endpoint the endpoint family whose circuit breaker guards the action
+   * @param action supplier starting the asynchronous action
+   * @param actionDescription a description of the action being performed
+   * @param deadline the deadline capping the permit wait and the retries
+   * @param <T> the type of the result returned by the action
+   * @return a future completed with the result of the action, or failed with a {@link
+   *     DiscogsSearchException}
+   */
+  private <T> CompletableFuture<T> executeWithRateLimitAsync(
+      final Endpoint endpoint,
+      final Supplier<CompletableFuture<T>> action,
+      final String actionDescription,
+      final Deadline deadline) {
+    return retryService
+        .executeWithRetryAsync(
+            () ->
+                rateLimiterService
+                    .acquireRateLimitAsync(deadline)
+                    .thenCompose(ignored -> circuitBreakerService.executeAsync(endpoint, action)),
+            actionDescription,
+            deadline)
+        .exceptionally(
+            throwable -> {
+              throw translateAsyncFailure(throwable, actionDescription);
+            });
+  }
+
+  private static RuntimeException translateAsyncFailure(
+      final Throwable throwable, final String actionDescription) {
+    Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+    if (cause instanceof CircuitBreakerService.CircuitBreakerOpenException openException) {
+      LogHelper.warn(() -> "Circuit breaker is open for {}", actionDescription);
+      return new DiscogsSearchException(
+          "Service temporarily unavailable due to circuit breaker", openException);
+    }
+    Exception exception =
+        cause instanceof Exception e ? e : new CompletionException(cause.getMessage(), cause);
+    return new DiscogsSearchException("Failed to fetch data from Discogs API", exception);
   }
 
   /**
    * Executes a callable action with rate limit and retry logic.
    *
-   * <p>This method ensures the rate limit is respected before executing the action and retries the
-   * action in case of failure.
+   * <p>This method ensures the rate limit is respected before each attempt of the action and
+   * retries the action in case of failure. Only the action itself runs inside the circuit breaker,
+   * so each attempt is timed and recorded on its own.
    *
+   * @param endpoint the endpoint family whose circuit breaker guards the action
    * @param action the callable action to be executed
    * @param actionDescription a description of the action being performed
+   * @param deadline the deadline capping the permit waits and the retries
    * @param <T> the type of the result returned by the action
    * @return the result of the action
    * @throws DiscogsSearchException if an error occurs while fetching data from the Discogs API
    *     after all retry attempts
-   * @throws DiscogsMarketplaceException if an error occurs while fetching data from the Discogs
-   *     Marketplace API after all retry attempts
    */
   private <T> T executeWithRateLimitAndRetry(
-      final Callable<T> action, final String actionDescription) {
+      final Endpoint endpoint,
+      final Callable<T> action,
+      final String actionDescription,
+      final Deadline deadline) {
     try {
-      return circuitBreakerService.execute(
+      return retryService.executeWithRetry(
           () -> {
-            rateLimiterService.waitForRateLimit(); // Ensure rate limit
-            // before executing the action
-            return retryService.executeWithRetry(action, actionDescription);
-          });
+            rateLimiterService.waitForRateLimit(deadline); // Fresh permit per attempt
+            return circuitBreakerService.execute(endpoint, action::call);
+          },
+          actionDescription,
+          deadline);
     } catch (final CircuitBreakerService.CircuitBreakerOpenException e) {
       LogHelper.warn(() -> "Circuit breaker is open for {}", actionDescription);
       throw new DiscogsSearchException("Service temporarily unavailable due to circuit breaker", e);
     } catch (final Exception e) {
-      if (DiscogsMarketplaceResult.class.isAssignableFrom(action.getClass())) {
-        throw new DiscogsMarketplaceException(
-            "Failed to fetch data from Discogs Marketplace API", e);
-      }
       throw new DiscogsSearchException("Failed to fetch data from Discogs API", e);
     }
   }
@@ -6,10 +6,13 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.cache.NegativeResultCache;
+import org.discogs.query.cache.ResourceKey;
 import org.discogs.query.config.HttpConfig;
 import org.discogs.query.domain.website.DiscogsWebsiteResult;
 import org.discogs.query.exceptions.NoMarketplaceListingsException;
 import org.discogs.query.helpers.LogHelper;
+import org.discogs.query.interfaces.CircuitBreakerService;
 import org.discogs.query.interfaces.DiscogsWebScraperClient;
 import org.discogs.query.util.JsoupHelper;
 import org.jsoup.nodes.Document;
@@ -32,27 +35,64 @@ public class DiscogsWebScraperClientImpl implements DiscogsWebScraperClient {
 
   private final HttpConfig httpConfig;
   private final JsoupHelper jsoupHelper;
+  private final CircuitBreakerService circuitBreakerService;
+  private final NegativeResultCache negativeResultCache;
 
   /**
    * Scrapes the Discogs Marketplace website for listings of a given release ID and filters them by
-   * country (United Kingdom).
+   * country (United Kingdom). Releases recently found without listings are not scraped again until
+   * their {@link NegativeResultCache} entry expires.
    *
    * @param releaseId the Discogs release ID
    * @return a list of {@link DiscogsWebsiteResult} containing marketplace listings
    */
   @Override
   public List<DiscogsWebsiteResult> getMarketplaceResultsForRelease(final String releaseId) {
+    ResourceKey key = new ResourceKey.MarketplaceListings(releaseId);
+    if (negativeResultCache.get(key).isPresent()) {
+      LogHelper.debug(() -> "Release ID {} recently had no listings, skipping scrape", releaseId);
+      return new ArrayList<>();
+    }
     String url = "https://www.discogs.com/sell/release/" + releaseId + UK_FILTER;
     LogHelper.info(() -> "Fetching marketplace data for release ID: {}", releaseId);
 
-    Document doc = fetchDocumentWithRetry(url);
+    Document doc = fetchDocument(url);
 
     Elements listings = doc.select(".shortcut_navigable");
     if (listings.isEmpty()) {
       LogHelper.info(() -> "No listings found for release ID: {}", releaseId);
+      negativeResultCache.put(key, NegativeResultCache.Kind.EMPTY);
       return new ArrayList<>();
     }
-    return processListings(listings);
+    List<DiscogsWebsiteResult> results = processListings(listings);
+    if (results.isEmpty()) {
+      negativeResultCache.put(key, NegativeResultCache.Kind.EMPTY);
+    }
+    return results;
+  }
+
+  /**
+   * Fetches the HTML document from the given URL through the web scraper circuit breaker, so a
+   * struggling website is not hammered with retries.
+   *
+   * @param url the URL to fetch
+   * @return the fetched Document
+   * @throws NoMarketplaceListingsException if the document could not be fetched or the circuit is
+   *     open
+   */
+  private Document fetchDocument(final String url) {
+    try {
+      return circuitBreakerService.execute(
+          CircuitBreakerService.Endpoint.WEB_SCRAPER, () -> fetchDocumentWithRetry(url));
+    } catch (final CircuitBreakerService.CircuitBreakerOpenException e) {
+      LogHelper.warn(() -> "Circuit breaker is open for Discogs Marketplace scraping");
+      throw new NoMarketplaceListingsException(
+          "Discogs Marketplace scraping temporarily unavailable due to circuit breaker", e);
+    } catch (final RuntimeException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new NoMarketplaceListingsException("Failed to scrape data from Discogs Marketplace", e);
+    }
   }
 
   /**
@@ -90,8 +130,8 @@ public class DiscogsWebScraperClientImpl implements DiscogsWebScraperClient {
   }
 
   private List<DiscogsWebsiteResult> processListings(final Elements listings) {
-    // Process listings in parallel, filtering out null results
-    return listings.parallelStream()
+    // Listings are parsed on the calling scraper thread, as each takes only a few microseconds
+    return listings.stream()
         .map(this::extractResultFromListing)
         .filter(Objects::nonNull)
         .collect(Collectors.toList());
@@ -9,9 +9,9 @@
  *   <li>Error handling and logging related to API interactions.
  * </ul>
  *
- * <p>The classes in this package use {@link org.springframework.web.client.RestTemplate} to send
- * requests and handle responses from external APIs. They encapsulate the logic required to interact
- * with the Discogs API, including constructing requests, processing responses, and managing
- * exceptions.
+ * <p>The classes in this package use {@link org.discogs.query.interfaces.AsyncHttpRequestService}
+ * to send requests and handle responses from external APIs. They encapsulate the logic required to
+ * interact with the Discogs API, including constructing requests, processing responses, and
+ * managing exceptions.
  */
 package org.discogs.query.client;
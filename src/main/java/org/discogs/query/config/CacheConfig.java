@@ -1,10 +1,31 @@
 package org.discogs.query.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import org.discogs.query.cache.CacheProperties;
+import org.discogs.query.cache.DiskCacheStore;
+import org.discogs.query.cache.FreshnessAwareCache;
+import org.discogs.query.cache.FreshnessPolicy;
+import org.discogs.query.cache.NegativeResultCache;
+import org.discogs.query.cache.QueryResultCache;
+import org.discogs.query.cache.RetainedSizeWeigher;
+import org.discogs.query.cache.TwoTierCache;
+import org.discogs.query.cache.TwoTierCacheManager;
+import org.discogs.query.domain.api.DiscogsCollectionRelease;
+import org.discogs.query.domain.api.DiscogsMarketplaceResult;
+import org.discogs.query.domain.api.DiscogsResult;
+import org.discogs.query.domain.api.ReleaseMatchProfile;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,38 +33,108 @@ import org.springframework.context.annotation.Configuration;
  * Configuration class for setting up caching in the application.
  *
  * <p>This class is annotated with {@link Configuration}, indicating that it provides Spring
- * configuration. It defines a {@link CacheManager} bean that uses Caffeine for caching.
+ * configuration. It defines a {@link CacheManager} bean that uses Caffeine for caching, with a
+ * persistent on-disk tier behind the caches of Discogs API responses.
  */
 @Configuration
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfig {
 
+  /** The value type of each cache that is backed by the persistent tier. */
+  static final Map<String, Class<?>> PERSISTENT_CACHES =
+      Map.of(
+          "discogsResults", DiscogsResult.class,
+          "marketplaceResults", DiscogsMarketplaceResult.class,
+          "collectionReleases", DiscogsCollectionRelease.class,
+          "releaseProfiles", ReleaseMatchProfile.class);
+
+  private static final List<String> CACHE_NAMES =
+      List.of(
+          "discogsResults",
+          "stringResults",
+          "marketplaceResults",
+          "collectionReleases",
+          "releaseProfiles",
+          NegativeResultCache.CACHE_NAME,
+          QueryResultCache.CACHE_NAME);
+
   /**
    * Creates and configures a {@link CacheManager} bean using Caffeine.
    *
-   * <p>This method sets up a {@link CaffeineCacheManager} with specific cache settings:
+   * <p>Each cache expires entries after its own TTL and evicts once the estimated retained size of
+   * its in-memory entries, as weighed by {@link RetainedSizeWeigher}, passes its own maximum
+   * weight. Both are set under {@code cache.caches} in {@code application.yml}. Hit, miss and
+   * eviction statistics are recorded and published as {@code cache.*} metrics. When {@code
+   * cache.data-directory} is set, the caches of Discogs API responses are also written to an
+   * append-only store in that directory, which is read back on startup so the caches start warm.
    *
-   * <ul>
-   *   <li>Cache entries will expire 10 minutes after they are written.
-   *   <li>The cache will have a maximum size of 1000 entries.
-   * </ul>
+   * <p>Caches with a {@code refresh-after} or {@code serve-stale-for} setting track the freshness
+   * of their entries, which are then held for their TTL plus the stale period.
    *
+   * @param cacheProperties the cache settings
+   * @param objectMapper the mapper encoding values in the persistent tier
    * @return a configured {@link CacheManager} instance
    */
   @Bean
-  public CacheManager cacheManager() {
-    CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-    cacheManager.setCacheNames(
-        List.of(
-            "discogsResults",
-            "stringResults",
-            "marketplaceResults",
-            "collectionReleases",
-            "releaseResults"));
-    cacheManager.setCaffeine(
-        Caffeine.newBuilder()
-            .expireAfterWrite(10, TimeUnit.MINUTES) // Configure cache
-            // expiration
-            .maximumSize(1000)); // Configure maximum cache size
+  public CacheManager cacheManager(
+      final CacheProperties cacheProperties, final ObjectMapper objectMapper) {
+    TwoTierCacheManager cacheManager = new TwoTierCacheManager();
+    cacheManager.setCacheNames(List.of()); // Only the caches registered below
+    for (String name : CACHE_NAMES) {
+      FreshnessPolicy policy = cacheProperties.freshness(name);
+      Cache<Object, Object> memoryCache =
+          Caffeine.newBuilder()
+              .expireAfter(Expiry.writing((Object key, Object value) -> policy.lifetime()))
+              .maximumWeight(cacheProperties.maximumWeight(name))
+              .weigher(new RetainedSizeWeigher())
+              .recordStats()
+              .build();
+      Class<?> valueType = PERSISTENT_CACHES.get(name);
+      if (valueType != null && cacheProperties.dataDirectory() != null) {
+        cacheManager.registerTwoTierCache(
+            name, memoryCache, openStore(cacheProperties, name, valueType, objectMapper), policy);
+      } else if (policy.isTracked()) {
+        cacheManager.registerFreshnessAwareCache(name, memoryCache, policy);
+      } else {
+        cacheManager.registerCustomCache(name, memoryCache);
+      }
+    }
     return cacheManager;
   }
+
+  /**
+   * Publishes the statistics of freshness-aware and two-tier caches, which Spring Boot does not
+   * recognize as Caffeine caches. Besides the standard {@code cache.*} metrics of the in-memory
+   * tier, the number of entries in the persistent tier of a two-tier cache is published as {@code
+   * cache.disk.entries}.
+   *
+   * @return the meter binder provider for {@link FreshnessAwareCache}
+   */
+  @Bean
+  public CacheMeterBinderProvider<FreshnessAwareCache> twoTierCacheMeterBinderProvider() {
+    return (cache, tags) ->
+        registry -> {
+          new CaffeineCacheMetrics<>(cache.getNativeCache(), cache.getName(), tags)
+              .bindTo(registry);
+          if (cache instanceof TwoTierCache twoTierCache) {
+            Gauge.builder("cache.disk.entries", twoTierCache.getDiskStore(), DiskCacheStore::size)
+                .tags(tags)
+                .tag("cache", cache.getName())
+                .description("The number of entries in the persistent tier of the cache")
+                .register(registry);
+          }
+        };
+  }
+
+  private static DiskCacheStore openStore(
+      final CacheProperties cacheProperties,
+      final String name,
+      final Class<?> valueType,
+      final ObjectMapper objectMapper) {
+    try {
+      return new DiskCacheStore(name, cacheProperties.dataDirectory(), objectMapper, valueType);
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Failed to open persistent cache " + name, e);
+    }
+  }
 }
@@ -0,0 +1,180 @@
+package org.discogs.query.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.discogs.query.helpers.LogHelper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the executors used to fan out Discogs queries.
+ *
+ * <p>Every task submitted to the Discogs executor spends most of its time waiting on blocking HTTP
+ * calls, rate limit permits or retry back-off. By default each task therefore runs on its own
+ * virtual thread, so the number of in-flight Discogs calls is bounded by the rate limiter rather
+ * than by the number of CPU cores. A fixed pool of platform threads can be configured instead.
+ *
+ * <p>Asynchronous search jobs run on a separate, bounded executor. Each job thread waits for its
+ * queries on the Discogs executor, so the pool size bounds the number of jobs in progress, and the
+ * queue bounds the number of jobs accepted but not yet started.
+ *
+ * <p>Scraping the Discogs website runs on its own bounded executor as well, so a slow marketplace
+ * page only ties up scraper threads and never the Discogs API lookups or the common fork-join
+ * pool. Each executor is a bulkhead with its own {@link RejectionPolicy}, and is monitored through
+ * the {@code executor} metrics tagged with its name.
+ */
+@Configuration
+public class ExecutorConfig {
+
+  /** Bean name of the executor used for Discogs query, release and marketplace fan-out. */
+  public static final String DISCOGS_EXECUTOR = "discogsExecutor";
+
+  /** Bean name of the executor running asynchronous search jobs. */
+  public static final String JOB_EXECUTOR = "jobExecutor";
+
+  /** Bean name of the executor scraping the Discogs website. */
+  public static final String SCRAPER_EXECUTOR = "scraperExecutor";
+
+  @Value("${queries.executor.virtual-threads:true}")
+  private boolean virtualThreads;
+
+  @Value("${queries.executor.thread-name-prefix:discogs-query-}")
+  private String threadNamePrefix;
+
+  @Value("${queries.executor.platform-pool-size:16}")
+  private int platformPoolSize;
+
+  @Value("${queries.executor.queue-capacity:256}")
+  private int platformQueueCapacity;
+
+  @Value("${queries.executor.rejection-policy:CALLER_RUNS}")
+  private RejectionPolicy platformRejectionPolicy;
+
+  @Value("${queries.jobs.pool-size:4}")
+  private int jobPoolSize;
+
+  @Value("${queries.jobs.queue-capacity:32}")
+  private int jobQueueCapacity;
+
+  @Value("${queries.scraper.pool-size:4}")
+  private int scraperPoolSize;
+
+  @Value("${queries.scraper.queue-capacity:64}")
+  private int scraperQueueCapacity;
+
+  @Value("${queries.scraper.rejection-policy:CALLER_RUNS}")
+  private RejectionPolicy scraperRejectionPolicy;
+
+  /** What a bounded executor does with a task once its threads are busy and its queue is full. */
+  public enum RejectionPolicy {
+    /** The task is rejected with a {@link java.util.concurrent.RejectedExecutionException}. */
+    ABORT(new ThreadPoolExecutor.AbortPolicy()),
+    /** The task runs on the thread submitting it, slowing the submitter down. */
+    CALLER_RUNS(new ThreadPoolExecutor.CallerRunsPolicy());
+
+    private final RejectedExecutionHandler handler;
+
+    RejectionPolicy(final RejectedExecutionHandler handler) {
+      this.handler = handler;
+    }
+  }
+
+  /**
+   * Creates the executor used for Discogs fan-out work.
+   *
+   * <p>When {@code queries.executor.virtual-threads} is enabled, a new virtual thread is started
+   * for each task. Otherwise a fixed pool of {@code queries.executor.platform-pool-size} platform
+   * threads is used, with a queue of {@code queries.executor.queue-capacity} tasks.
+   *
+   * @param meterRegistry the registry for executor metrics
+   * @return the executor for Discogs fan-out work
+   */
+  @Bean(name = DISCOGS_EXECUTOR, destroyMethod = "close")
+  public ExecutorService discogsExecutor(final MeterRegistry meterRegistry) {
+    if (virtualThreads) {
+      LogHelper.info(() -> "Using virtual-thread-per-task executor for Discogs queries");
+      ThreadFactory factory = Thread.ofVirtual().name(threadNamePrefix, 0).factory();
+      return monitor(meterRegistry, Executors.newThreadPerTaskExecutor(factory), "discogs");
+    }
+    LogHelper.info(
+        () -> "Using fixed pool of {} platform threads for Discogs queries", platformPoolSize);
+    return monitor(
+        meterRegistry,
+        bounded(platformPoolSize, platformQueueCapacity, platformRejectionPolicy, threadNamePrefix),
+        "discogs");
+  }
+
+  /**
+   * Creates the executor running asynchronous search jobs.
+   *
+   * <p>At most {@code queries.jobs.pool-size} jobs run at once and at most {@code
+   * queries.jobs.queue-capacity} wait for a thread. Further jobs are rejected with a {@link
+   * java.util.concurrent.RejectedExecutionException}.
+   *
+   * @param meterRegistry the registry for executor metrics
+   * @return the executor for search jobs
+   */
+  @Bean(name = JOB_EXECUTOR, destroyMethod = "close")
+  public ExecutorService jobExecutor(final MeterRegistry meterRegistry) {
+    LogHelper.info(
+        () -> "Using {} job threads with a queue of {} search jobs",
+        jobPoolSize,
+        jobQueueCapacity);
+    return monitor(
+        meterRegistry,
+        bounded(jobPoolSize, jobQueueCapacity, RejectionPolicy.ABORT, "discogs-job-"),
+        "jobs");
+  }
+
+  /**
+   * Creates the executor scraping the Discogs website.
+   *
+   * <p>At most {@code queries.scraper.pool-size} pages are scraped at once and at most {@code
+   * queries.scraper.queue-capacity} wait for a thread. Further pages are handled according to
+   * {@code queries.scraper.rejection-policy}, which by default scrapes them on the submitting
+   * thread, so a busy scraper slows a request down instead of leaving entries out.
+   *
+   * @param meterRegistry the registry for executor metrics
+   * @return the executor for website scraping
+   */
+  @Bean(name = SCRAPER_EXECUTOR, destroyMethod = "close")
+  public ExecutorService scraperExecutor(final MeterRegistry meterRegistry) {
+    LogHelper.info(
+        () -> "Using {} scraper threads with a queue of {} pages",
+        scraperPoolSize,
+        scraperQueueCapacity);
+    return monitor(
+        meterRegistry,
+        bounded(scraperPoolSize, scraperQueueCapacity, scraperRejectionPolicy, "discogs-scraper-"),
+        "scraper");
+  }
+
+  private static ThreadPoolExecutor bounded(
+      final int poolSize,
+      final int queueCapacity,
+      final RejectionPolicy rejectionPolicy,
+      final String threadNamePrefix) {
+    ThreadFactory factory = Thread.ofPlatform().name(threadNamePrefix, 0).factory();
+    return new ThreadPoolExecutor(
+        poolSize,
+        poolSize,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        factory,
+        rejectionPolicy.handler);
+  }
+
+  private static ExecutorService monitor(
+      final MeterRegistry meterRegistry, final ExecutorService executor, final String name) {
+    return ExecutorServiceMetrics.monitor(meterRegistry, executor, name);
+  }
+}
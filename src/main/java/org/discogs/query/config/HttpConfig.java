@@ -2,9 +2,10 @@ package org.discogs.query.config;
 
 import java.util.List;
 import org.apache.hc.client5.http.config.RequestConfig;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
 import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,8 +13,6 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.web.client.RestTemplate;
 
 /** Configuration class for setting up HTTP-related beans with connection pooling and timeouts. */
 @Configuration
@@ -35,50 +34,37 @@ public class HttpConfig {
   private int readTimeout;
 
   /**
-   * Creates a connection manager with pooling configuration.
+   * Creates a non-blocking connection manager with pooling configuration.
    *
-   * @return configured connection manager
+   * @return configured async connection manager
    */
   @Bean
-  public PoolingHttpClientConnectionManager connectionManager() {
-    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
-    connectionManager.setMaxTotal(maxTotalConnections);
-    connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
-    return connectionManager;
-  }
-
-  /**
-   * Creates an HTTP client with connection pooling and timeout configuration.
-   *
-   * @return configured HTTP client
-   */
-  @Bean
-  public CloseableHttpClient httpClient() {
-    RequestConfig requestConfig =
-        RequestConfig.custom()
-            .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionTimeout))
-            .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
-            .build();
-
-    return HttpClients.custom()
-        .setConnectionManager(connectionManager())
-        .setDefaultRequestConfig(requestConfig)
-        .evictExpiredConnections()
-        .evictIdleConnections(TimeValue.ofSeconds(30))
+  public PoolingAsyncClientConnectionManager asyncConnectionManager() {
+    return PoolingAsyncClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(maxTotalConnections)
+        .setMaxConnPerRoute(maxConnectionsPerRoute)
         .build();
   }
 
   /**
-   * Creates a {@link RestTemplate} bean with connection pooling and timeout configuration. This
-   * bean is used to make HTTP requests to external services, such as the Discogs API.
+   * Creates a started, non-blocking HTTP client with connection pooling and timeout configuration.
+   * It is the only client sending requests to the Discogs API, so every exchange can be aborted
+   * when its deadline passes. Responses are delivered on the client's I/O reactor threads, so
+   * callers do not hold a thread for the duration of the round-trip.
    *
-   * @return a {@link RestTemplate} instance configured for use in the application
+   * @return configured and started async HTTP client
    */
-  @Bean
-  public RestTemplate restTemplate() {
-    HttpComponentsClientHttpRequestFactory factory =
-        new HttpComponentsClientHttpRequestFactory(httpClient());
-    return new RestTemplate(factory);
+  @Bean(destroyMethod = "close")
+  public CloseableHttpAsyncClient httpAsyncClient() {
+    CloseableHttpAsyncClient client =
+        HttpAsyncClients.custom()
+            .setConnectionManager(asyncConnectionManager())
+            .setDefaultRequestConfig(requestConfig())
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofSeconds(30))
+            .build();
+    client.start();
+    return client;
   }
 
   /**
@@ -95,4 +81,16 @@ public class HttpConfig {
     headers.set("User-Agent", userAgent);
     return headers;
   }
+
+  /**
+   * Builds the request configuration of the HTTP client.
+   *
+   * @return request configuration with connection request and response timeouts applied
+   */
+  private RequestConfig requestConfig() {
+    return RequestConfig.custom()
+        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionTimeout))
+        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
+        .build();
+  }
 }
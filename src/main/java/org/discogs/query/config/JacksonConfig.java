@@ -2,9 +2,12 @@ package org.discogs.query.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.discogs.query.config.deserializers.DiscogsCountryDeserializer;
 import org.discogs.query.config.deserializers.DiscogsFormatsDeserializer;
+import org.discogs.query.config.deserializers.DiscogsReleaseDeserializer;
 import org.discogs.query.config.deserializers.DiscogsTypesDeserializer;
+import org.discogs.query.domain.api.DiscogsRelease;
 import org.discogs.query.model.enums.DiscogCountries;
 import org.discogs.query.model.enums.DiscogsFormats;
 import org.discogs.query.model.enums.DiscogsTypes;
@@ -24,6 +27,16 @@ import org.springframework.context.annotation.Configuration;
  * the {@link ObjectMapper}. This setup ensures that any JSON processing involving {@link
  * DiscogsTypes} and {@link DiscogsFormats} will use the specified deserializers to convert JSON
  * strings into enum constants.
+ *
+ * <p>The same mapper decodes Discogs API responses in the HTTP client. {@link DiscogsRelease}
+ * payloads are decoded by the streaming {@link DiscogsReleaseDeserializer}, which skips the fields
+ * the application does not use, and the {@link BlackbirdModule} replaces reflective property
+ * access with generated accessors.
+ *
+ * <p>The mapper also binds request bodies, so it fails on unknown properties and a misspelled
+ * request field is rejected. Only the Discogs response types in {@code
+ * org.discogs.query.domain.api} ignore unknown properties, as Discogs adds fields to its responses
+ * over time.
  */
 @Configuration
 public class JacksonConfig {
@@ -34,7 +47,7 @@ public class JacksonConfig {
    * <p>This method initializes an {@link ObjectMapper} and configures it with a {@link
    * SimpleModule} that includes custom deserializers for {@link DiscogsTypes} and {@link
    * DiscogsFormats}. The deserializers handle the conversion of JSON strings to their respective
-   * enum values.
+   * enum values. Releases use the selective {@link DiscogsReleaseDeserializer}.
    *
    * @return a configured {@link ObjectMapper} instance with the custom deserializers registered
    */
@@ -45,7 +58,9 @@ public class JacksonConfig {
     module.addDeserializer(DiscogsTypes.class, new DiscogsTypesDeserializer());
     module.addDeserializer(DiscogsFormats.class, new DiscogsFormatsDeserializer());
     module.addDeserializer(DiscogCountries.class, new DiscogsCountryDeserializer());
+    module.addDeserializer(DiscogsRelease.class, new DiscogsReleaseDeserializer());
     mapper.registerModule(module);
+    mapper.registerModule(new BlackbirdModule());
     return mapper;
   }
 }
@@ -0,0 +1,72 @@
+package org.discogs.query.config.deserializers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.discogs.query.domain.api.DiscogsRelease;
+import org.discogs.query.domain.api.release.Artist;
+import org.discogs.query.domain.api.release.ExtraArtist;
+import org.discogs.query.domain.api.release.Track;
+
+/**
+ * Streaming deserializer for {@link DiscogsRelease} that decodes only the fields the filtering
+ * pipeline reads.
+ *
+ * <p>Release payloads carry formats, labels, identifiers, images, videos and more, none of which
+ * the application uses. This deserializer walks the token stream and binds the id, title, artists,
+ * extra artists, tracklist, lowest price and number for sale, skipping every other value without
+ * materializing it. Nested artists and tracks are bound by the regular bean deserializers.
+ */
+public class DiscogsReleaseDeserializer extends JsonDeserializer<DiscogsRelease> {
+
+  /**
+   * Deserializes a Discogs release JSON object, keeping only the fields used for filtering.
+   *
+   * @param jp the JSON parser positioned at the start of the release object
+   * @param ctxt the deserialization context
+   * @return the partially populated {@link DiscogsRelease}
+   * @throws IOException if there is an error reading the JSON content
+   */
+  @Override
+  public DiscogsRelease deserialize(final JsonParser jp, final DeserializationContext ctxt)
+      throws IOException {
+    if (!jp.isExpectedStartObjectToken()) {
+      return (DiscogsRelease) ctxt.handleUnexpectedToken(DiscogsRelease.class, jp);
+    }
+    DiscogsRelease release = new DiscogsRelease();
+    for (String field = jp.nextFieldName(); field != null; field = jp.nextFieldName()) {
+      jp.nextToken();
+      switch (field) {
+        case "id" -> release.setId(jp.getValueAsInt());
+        case "title" -> release.setTitle(jp.getValueAsString());
+        case "lowest_price" -> release.setLowestPrice(jp.getValueAsDouble());
+        case "num_for_sale" ->
+            release.setNumForSale(
+                jp.currentToken() == JsonToken.VALUE_NULL ? null : jp.getValueAsInt());
+        case "artists" -> release.setArtists(readList(jp, ctxt, Artist.class));
+        case "extraartists" -> release.setExtraArtists(readList(jp, ctxt, ExtraArtist.class));
+        case "tracklist" -> release.setTracklist(readList(jp, ctxt, Track.class));
+        default -> jp.skipChildren();
+      }
+    }
+    return release;
+  }
+
+  private static <T> List<T> readList(
+      final JsonParser jp, final DeserializationContext ctxt, final Class<T> elementType)
+      throws IOException {
+    if (jp.currentToken() != JsonToken.START_ARRAY) {
+      jp.skipChildren();
+      return null;
+    }
+    List<T> values = new ArrayList<>();
+    while (jp.nextToken() != JsonToken.END_ARRAY) {
+      values.add(ctxt.readValue(jp, elementType));
+    }
+    return values;
+  }
+}
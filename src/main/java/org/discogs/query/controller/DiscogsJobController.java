@@ -0,0 +1,109 @@
+package org.discogs.query.controller;
+
+import jakarta.validation.Valid;
+import java.net.URI;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.helpers.LogHelper;
+import org.discogs.query.interfaces.SearchJobService;
+import org.discogs.query.model.DiscogsRequestDTO;
+import org.discogs.query.model.EmailSearchRequestDTO;
+import org.discogs.query.model.SearchJobDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for running Discogs searches as asynchronous jobs. Submitting a search returns a job
+ * ID immediately; the job's progress and results are then polled, so large batches do not hold a
+ * request open while they are processed.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("discogs-query/jobs")
+public class DiscogsJobController {
+
+  private static final String APPLICATION_JSON_VALUE = MediaType.APPLICATION_JSON_VALUE;
+
+  private final SearchJobService searchJobService;
+
+  /**
+   * Queues a search as a job.
+   *
+   * @param discogsRequestDTO the data transfer objects containing the request
+   * @return a {@link ResponseEntity} containing the queued {@link SearchJobDTO} wrapped in {@link
+   *     HttpStatus#ACCEPTED}, with the job's location
+   */
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  @PostMapping(
+      value = "/search",
+      produces = APPLICATION_JSON_VALUE,
+      consumes = APPLICATION_JSON_VALUE)
+  public ResponseEntity<SearchJobDTO> submitSearch(
+      @RequestBody @Valid final DiscogsRequestDTO discogsRequestDTO) {
+    LogHelper.info(
+        () -> "Received search job request with {} queries", discogsRequestDTO.queries().size());
+    return accepted(searchJobService.submit(discogsRequestDTO, null));
+  }
+
+  /**
+   * Queues a search as a job that emails its final results to the caller once completed.
+   *
+   * @param request the data transfer object containing the request and email address
+   * @return a {@link ResponseEntity} containing the queued {@link SearchJobDTO} wrapped in {@link
+   *     HttpStatus#ACCEPTED}, with the job's location
+   */
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  @PostMapping(
+      value = "/search-and-email",
+      produces = APPLICATION_JSON_VALUE,
+      consumes = APPLICATION_JSON_VALUE)
+  public ResponseEntity<SearchJobDTO> submitSearchAndEmail(
+      @RequestBody @Valid final EmailSearchRequestDTO request) {
+    LogHelper.info(
+        () -> "Received search-and-email job request with {} queries", request.queries().size());
+    return accepted(
+        searchJobService.submit(
+            new DiscogsRequestDTO(request.queries(), request.username()), request.email()));
+  }
+
+  /**
+   * Returns the status, progress and results of a job. While the job runs, the results of the
+   * queries finished so far are included.
+   *
+   * @param id the ID of the job
+   * @return a {@link ResponseEntity} containing the {@link SearchJobDTO}, or {@link
+   *     HttpStatus#NOT_FOUND} if the job does not exist or has expired
+   */
+  @GetMapping(value = "/{id}", produces = APPLICATION_JSON_VALUE)
+  public ResponseEntity<SearchJobDTO> getJob(@PathVariable final String id) {
+    return ResponseEntity.of(searchJobService.find(id));
+  }
+
+  /**
+   * Cancels a job that has not finished yet.
+   *
+   * @param id the ID of the job
+   * @return a {@link ResponseEntity} containing the {@link SearchJobDTO}, or {@link
+   *     HttpStatus#NOT_FOUND} if the job does not exist or has expired
+   */
+  @DeleteMapping(value = "/{id}", produces = APPLICATION_JSON_VALUE)
+  public ResponseEntity<SearchJobDTO> cancelJob(@PathVariable final String id) {
+    return ResponseEntity.of(searchJobService.cancel(id));
+  }
+
+  private static ResponseEntity<SearchJobDTO> accepted(final SearchJobDTO job) {
+    return ResponseEntity.accepted()
+        .location(URI.create("/discogs-query/jobs/" + job.id()))
+        .body(job);
+  }
+}
@@ -1,7 +1,13 @@
 package org.discogs.query.controller;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.discogs.query.helpers.LogHelper;
@@ -10,10 +16,14 @@ import org.discogs.query.interfaces.EmailService;
 import org.discogs.query.interfaces.MappingService;
 import org.discogs.query.interfaces.QueryProcessingService;
 import org.discogs.query.interfaces.ResultCalculationService;
+import org.discogs.query.limits.Deadline;
 import org.discogs.query.model.DiscogsMapResultDTO;
+import org.discogs.query.model.DiscogsQueryDTO;
 import org.discogs.query.model.DiscogsRequestDTO;
 import org.discogs.query.model.DiscogsResultDTO;
 import org.discogs.query.model.EmailSearchRequestDTO;
+import org.discogs.query.model.SearchSummaryDTO;
+import org.discogs.query.model.enums.QueryStatus;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -23,6 +33,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Controller for handling Discogs query-related operations. This controller provides an API
@@ -53,7 +64,8 @@ public class DiscogsQueryController {
    *
    * @param discogsRequestDTO the data transfer objects containing the request
    * @return a {@link ResponseEntity} containing a list of {@link DiscogsMapResultDTO} wrapped in
-   *     {@link HttpStatus#OK} if results are found, or an empty list if no results are found
+   *     {@link HttpStatus#OK} if results are found or some query was not answered completely, each
+   *     carrying the status of its query, or no content if every query completed without results
    */
   @ResponseStatus(HttpStatus.OK)
   @PostMapping(
@@ -68,17 +80,12 @@ public class DiscogsQueryController {
     LogHelper.debug(() -> "Queries received: {}", discogsRequestDTO.queries());
 
     List<DiscogsResultDTO> resultDTOList =
-        queryProcessingService.processQueries(discogsRequestDTO, timeoutInSeconds);
+        queryProcessingService.processQueries(discogsRequestDTO, requestDeadline(), isFilterForUk);
 
-    if (resultDTOList.isEmpty() || hasNoEntries(resultDTOList)) {
+    if (hasNothingToReturn(resultDTOList)) {
       LogHelper.warn(() -> "No results found for the provided queries");
       return ResponseEntity.noContent().build();
     }
-    if (isFilterForUk) {
-      LogHelper.info(() -> "Filtering results to show items that ship from the UK");
-      resultDTOList = queryProcessingService.filterOutEntriesNotShippingFromUk(resultDTOList);
-      LogHelper.debug(() -> "Results after UK filter applied: {}", resultDTOList);
-    }
 
     int size = resultCalculationService.calculateSizeOfResults(resultDTOList);
     LogHelper.info(() -> "Returning {} results: {}", size, resultDTOList);
@@ -90,6 +97,53 @@ public class DiscogsQueryController {
     return ResponseEntity.ok().body(resultMapDTOList);
   }
 
+  /**
+   * Searches Discogs using the provided query data, streaming the results as server-sent events.
+   * Each query's results are mapped, deduplicated and sent in a {@code result} event as soon as
+   * that query finishes, so the first results arrive with the fastest query rather than the
+   * slowest. Queries answered completely without entries are not sent, and a query still running
+   * at the deadline is sent without entries and with the {@link QueryStatus#TIMED_OUT} status, as
+   * {@link #search(DiscogsRequestDTO)} returns it. A final {@code summary} event carrying a {@link
+   * SearchSummaryDTO} closes the stream.
+   *
+   * <p>As with {@link #search(DiscogsRequestDTO)}, duplicates are only removed within the results
+   * of each query, so a release found by two queries is sent in both of their events. If the
+   * stream closes early, for instance because the client disconnects, the request deadline is
+   * cancelled, which stops the Discogs work of the queries still running.
+   *
+   * @param discogsRequestDTO the data transfer objects containing the request
+   * @return an {@link SseEmitter} streaming a {@link DiscogsMapResultDTO} per query with entries
+   */
+  @PostMapping(
+      value = "/search/stream",
+      produces = MediaType.TEXT_EVENT_STREAM_VALUE,
+      consumes = APPLICATION_JSON_VALUE)
+  public SseEmitter searchStream(@RequestBody @Valid final DiscogsRequestDTO discogsRequestDTO) {
+
+    LogHelper.info(
+        () -> "Received streaming search request with {} queries",
+        discogsRequestDTO.queries().size());
+    LogHelper.debug(() -> "Queries received: {}", discogsRequestDTO.queries());
+
+    // Every query fails at the request deadline, so the stream itself never times out.
+    SseEmitter emitter = new SseEmitter(0L);
+    Deadline deadline = requestDeadline();
+    List<CompletableFuture<DiscogsResultDTO>> futures =
+        queryProcessingService.processQueriesAsync(discogsRequestDTO, deadline, isFilterForUk);
+    StreamedSearch search = new StreamedSearch(emitter, futures.size(), deadline);
+    emitter.onCompletion(search::close);
+    emitter.onTimeout(search::close);
+    emitter.onError(error -> search.close());
+    if (futures.isEmpty()) {
+      search.finish();
+    }
+    for (int i = 0; i < futures.size(); i++) {
+      DiscogsQueryDTO query = discogsRequestDTO.queries().get(i);
+      futures.get(i).whenComplete((result, error) -> search.onQueryComplete(query, result, error));
+    }
+    return emitter;
+  }
+
   /**
    * Searches Discogs using the provided query data and emails the results to the caller using
    * Mailtrap. Response body is identical to the standard search endpoint.
@@ -111,17 +165,14 @@ public class DiscogsQueryController {
 
     List<DiscogsResultDTO> resultDTOList =
         queryProcessingService.processQueries(
-            new DiscogsRequestDTO(request.queries(), request.username()), timeoutInSeconds);
+            new DiscogsRequestDTO(request.queries(), request.username()),
+            requestDeadline(),
+            isFilterForUk);
 
-    if (resultDTOList.isEmpty() || hasNoEntries(resultDTOList)) {
+    if (hasNothingToReturn(resultDTOList)) {
       LogHelper.warn(() -> "No results found for the provided queries");
       return ResponseEntity.noContent().build();
     }
-    if (isFilterForUk) {
-      LogHelper.info(() -> "Filtering results to show items that ship from the UK");
-      resultDTOList = queryProcessingService.filterOutEntriesNotShippingFromUk(resultDTOList);
-      LogHelper.debug(() -> "Results after UK filter applied: {}", resultDTOList);
-    }
 
     int size = resultCalculationService.calculateSizeOfResults(resultDTOList);
     LogHelper.info(() -> "Returning {} results: {}", size, resultDTOList);
@@ -142,12 +193,106 @@ public class DiscogsQueryController {
   }
 
   /**
-   * Checks if there are any entries in the provided result list.
+   * Starts the deadline of a request, shared by every query and Discogs request it makes.
+   *
+   * @return a {@link Deadline} {@code queries.timeout} seconds from now
+   */
+  private Deadline requestDeadline() {
+    return Deadline.after(Duration.ofSeconds(timeoutInSeconds));
+  }
+
+  /**
+   * Checks if there is anything to return in the provided result list. Incomplete results are
+   * returned even without entries, so that callers learn which queries to repeat.
    *
    * @param resultDTOList List of {@link DiscogsResultDTO} objects.
-   * @return true if all result lists are empty, false otherwise.
+   * @return true if every query was answered completely without entries, false otherwise.
+   */
+  private boolean hasNothingToReturn(final List<DiscogsResultDTO> resultDTOList) {
+    return resultDTOList.stream().noneMatch(DiscogsResultDTO::isWorthReturning);
+  }
+
+  /**
+   * Tracks a streamed search, sending each query's results as it completes and the summary once
+   * every query has completed. Queries complete on executor threads, so the counts are atomic and
+   * sending is left to the thread-safe {@link SseEmitter}. Each event is deduplicated on its own;
+   * no record of the entries already sent is kept across events.
    */
-  private boolean hasNoEntries(final List<DiscogsResultDTO> resultDTOList) {
-    return resultDTOList.stream().allMatch(dto -> dto.results().isEmpty());
+  private final class StreamedSearch {
+
+    private final SseEmitter emitter;
+    private final int queries;
+    private final Deadline deadline;
+    private final AtomicInteger remaining;
+    private final AtomicInteger results = new AtomicInteger();
+    private final AtomicInteger entries = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private StreamedSearch(final SseEmitter emitter, final int queries, final Deadline deadline) {
+      this.emitter = emitter;
+      this.queries = queries;
+      this.deadline = deadline;
+      this.remaining = new AtomicInteger(queries);
+    }
+
+    private void onQueryComplete(
+        final DiscogsQueryDTO query, final DiscogsResultDTO result, final Throwable error) {
+      if (closed.get()) {
+        return;
+      }
+      DiscogsResultDTO answered = result;
+      if (error instanceof TimeoutException) {
+        LogHelper.warn(() -> "Streamed query {} did not finish before the deadline", query);
+        answered = DiscogsResultDTO.unanswered(query, QueryStatus.TIMED_OUT);
+      } else if (error != null) {
+        LogHelper.error(() -> "Error processing streamed query", error);
+        failed.incrementAndGet();
+      }
+      if (answered != null && answered.isWorthReturning()) {
+        List<DiscogsMapResultDTO> mapped = mappingService.mapResultsToDTO(List.of(answered));
+        deduplicationService.filterDuplicateEntries(mapped);
+        DiscogsMapResultDTO resultMapDTO = mapped.getFirst();
+        results.incrementAndGet();
+        entries.addAndGet(countEntries(resultMapDTO));
+        send("result", resultMapDTO);
+      }
+      if (remaining.decrementAndGet() == 0) {
+        finish();
+      }
+    }
+
+    /**
+     * Stops the search once the stream has closed. Cancelling the request deadline fails the rate
+     * limit waits and aborts the HTTP exchanges of the queries still running, and keeps their
+     * remaining hits from being looked up. Nothing more is sent.
+     */
+    private void close() {
+      if (closed.compareAndSet(false, true) && remaining.get() > 0) {
+        LogHelper.info(() -> "Stream closed, cancelling {} running queries", remaining.get());
+        deadline.cancel();
+      }
+    }
+
+    private void finish() {
+      SearchSummaryDTO summary =
+          new SearchSummaryDTO(queries, results.get(), entries.get(), failed.get());
+      LogHelper.info(() -> "Streamed search complete: {}", summary);
+      send("summary", summary);
+      emitter.complete();
+    }
+
+    private void send(final String name, final Object data) {
+      try {
+        emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+      } catch (final IOException | IllegalStateException e) {
+        // The client has gone away; the container completes the emitter.
+        LogHelper.warn(() -> "Could not send {} event: {}", name, e.getMessage());
+      }
+    }
+
+    private static int countEntries(final DiscogsMapResultDTO resultMapDTO) {
+      return resultMapDTO.results().values().stream().mapToInt(List::size).sum();
+    }
   }
 }
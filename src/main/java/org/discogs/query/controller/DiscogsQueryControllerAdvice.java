@@ -1,6 +1,7 @@
 package org.discogs.query.controller;
 
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
 import org.discogs.query.exceptions.DiscogsMarketplaceException;
 import org.discogs.query.exceptions.DiscogsSearchException;
@@ -80,6 +81,20 @@ public class DiscogsQueryControllerAdvice {
         .body(new ErrorMessageDTO("Request took too long to process."));
   }
 
+  /**
+   * Handles {@link RejectedExecutionException} and returns a {@link ResponseEntity} with a 503
+   * Service Unavailable status and a custom error message.
+   *
+   * @param ex the {@link RejectedExecutionException} to handle
+   * @return a {@link ResponseEntity} containing the custom error message and HTTP status
+   */
+  @ExceptionHandler(RejectedExecutionException.class)
+  public ResponseEntity<ErrorMessageDTO> handleRejectedExecutionException(
+      final RejectedExecutionException ex) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .body(new ErrorMessageDTO("Too many search jobs are queued, try again later."));
+  }
+
   /**
    * Handles {@link IOException} and returns a {@link ResponseEntity} with a 500 Internal Server
    * Error status and a custom error message.
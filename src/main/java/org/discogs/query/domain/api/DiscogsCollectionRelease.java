@@ -1,5 +1,6 @@
 package org.discogs.query.domain.api;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.util.List;
 import java.util.Map;
 
@@ -9,10 +10,13 @@ import java.util.Map;
  * @param pagination Pagination details
  * @param releases The releases we got
  */
+@JsonIgnoreProperties(ignoreUnknown = true)
 public record DiscogsCollectionRelease(Pagination pagination, List<Release> releases) {
+  @JsonIgnoreProperties(ignoreUnknown = true)
   public record Pagination(
       int per_page, int items, int page, Map<String, String> urls, int pages) {}
 
+  @JsonIgnoreProperties(ignoreUnknown = true)
   public record Release(
       long instance_id,
       int rating,
@@ -21,6 +25,7 @@ public record DiscogsCollectionRelease(Pagination pagination, List<Release> rele
       String date_added,
       long id) {}
 
+  @JsonIgnoreProperties(ignoreUnknown = true)
   public record BasicInformation(
       List<Label> labels,
       List<Format> formats,
@@ -31,6 +36,7 @@ public record DiscogsCollectionRelease(Pagination pagination, List<Release> rele
       int year,
       long id) {}
 
+  @JsonIgnoreProperties(ignoreUnknown = true)
   public record Label(
       String name,
       String entity_type,
@@ -39,8 +45,10 @@ public record DiscogsCollectionRelease(Pagination pagination, List<Release> rele
       long id,
       String entity_type_name) {}
 
+  @JsonIgnoreProperties(ignoreUnknown = true)
   public record Format(List<String> descriptions, String name, String qty) {}
 
+  @JsonIgnoreProperties(ignoreUnknown = true)
   public record Artist(
       String join,
       String name,
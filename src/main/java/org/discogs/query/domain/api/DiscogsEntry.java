@@ -1,5 +1,6 @@
 package org.discogs.query.domain.api;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
@@ -16,11 +17,12 @@ import lombok.ToString;
  */
 @Getter
 @Setter
-@Builder
+@Builder(toBuilder = true)
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class DiscogsEntry {
 
   /** The unique identifier for the Discogs entry. */
@@ -55,4 +57,7 @@ public class DiscogsEntry {
 
   /** Number of copies for sale */
   private Integer numberForSale;
+
+  /** Marks the lowest price and number for sale as stale, served while Discogs was unavailable */
+  private Boolean stalePrice;
 }
@@ -1,6 +1,9 @@
 package org.discogs.query.domain.api;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Objects;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -21,6 +24,7 @@ import lombok.ToString;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class DiscogsMarketplaceResult {
 
   /**
@@ -40,4 +44,50 @@ public class DiscogsMarketplaceResult {
    */
   @JsonProperty("num_for_sale")
   private Integer numberForSale;
+
+  /**
+   * Whether this result was served from the cache past its time to live because Discogs was
+   * unavailable. This is not part of the API response and is never cached.
+   */
+  @JsonIgnore private boolean stale;
+
+  /**
+   * Creates a result that is not stale.
+   *
+   * @param result the lowest price result for the item
+   * @param numberForSale the number of items available for sale
+   */
+  public DiscogsMarketplaceResult(
+      final DiscogsLowestPriceResult result, final Integer numberForSale) {
+    this(result, numberForSale, false);
+  }
+
+  /**
+   * Returns a copy of this result flagged as stale, leaving the cached instance untouched.
+   *
+   * @return the stale copy
+   */
+  public DiscogsMarketplaceResult asStale() {
+    return new DiscogsMarketplaceResult(result, numberForSale, true);
+  }
+
+  /**
+   * Checks whether another result lists the same lowest price and number for sale.
+   *
+   * @param other the result to compare with
+   * @return true if both results would price a release identically
+   */
+  public boolean hasSamePriceAs(final DiscogsMarketplaceResult other) {
+    return Objects.equals(numberForSale, other.numberForSale)
+        && Objects.equals(priceValue(), other.priceValue())
+        && Objects.equals(priceCurrency(), other.priceCurrency());
+  }
+
+  private Float priceValue() {
+    return result != null ? result.getValue() : null;
+  }
+
+  private String priceCurrency() {
+    return result != null ? result.getCurrency() : null;
+  }
 }
@@ -61,6 +61,10 @@ public class DiscogsRelease {
   @JsonProperty("lowest_price")
   private double lowestPrice;
 
+  /** The number of copies listed for sale on the marketplace, if the response included it. */
+  @JsonProperty("num_for_sale")
+  private Integer numForSale;
+
   /** The identifier of the master release this release is associated with. */
   @JsonProperty("master_id")
   private int masterId;
@@ -0,0 +1,149 @@
+package org.discogs.query.domain.api;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import org.discogs.query.domain.api.release.Artist;
+import org.discogs.query.domain.api.release.ExtraArtist;
+import org.discogs.query.domain.api.release.Track;
+
+/**
+ * The parts of a {@link DiscogsRelease} that search results are filtered on, normalized and
+ * lower-cased once when the release is fetched.
+ *
+ * <p>This is what the release cache holds instead of the full release. Matching compares the
+ * stored names against a query value that has been normalized the same way, without allocating.
+ * The arrays are never modified after construction.
+ *
+ * @param id the release ID
+ * @param artistNames the names and name variations of the release artists, followed by the names
+ *     of the extra artists
+ * @param trackTitles the titles of the tracks
+ * @param trackArtistNames the names and name variations of the artists credited on tracks
+ * @param trackArtistsListed whether any track lists its artists, even if none are named
+ */
+public record ReleaseMatchProfile(
+    long id,
+    String[] artistNames,
+    String[] trackTitles,
+    String[] trackArtistNames,
+    boolean trackArtistsListed) {
+
+  /**
+   * Builds the profile of a release.
+   *
+   * @param release the release
+   * @param normalizer normalizes names and titles, as used on queries
+   * @return the profile
+   */
+  public static ReleaseMatchProfile of(
+      final DiscogsRelease release, final UnaryOperator<String> normalizer) {
+    Set<String> artistNames = new LinkedHashSet<>();
+    if (release.getArtists() != null) {
+      for (Artist artist : release.getArtists()) {
+        addNormalized(artistNames, artist.getName(), normalizer);
+        addNormalized(artistNames, artist.getAnv(), normalizer);
+      }
+    }
+    if (release.getExtraArtists() != null) {
+      for (ExtraArtist artist : release.getExtraArtists()) {
+        addNormalized(artistNames, artist.getName(), normalizer);
+      }
+    }
+    Set<String> trackTitles = new LinkedHashSet<>();
+    Set<String> trackArtistNames = new LinkedHashSet<>();
+    boolean trackArtistsListed = false;
+    for (Track track : tracklist(release)) {
+      addNormalized(trackTitles, track.getTitle(), normalizer);
+      if (track.getArtists() != null) {
+        trackArtistsListed = true;
+        for (Artist artist : track.getArtists()) {
+          addNormalized(trackArtistNames, artist.getName(), normalizer);
+          addNormalized(trackArtistNames, artist.getAnv(), normalizer);
+        }
+      }
+    }
+    return new ReleaseMatchProfile(
+        release.getId(),
+        artistNames.toArray(String[]::new),
+        trackTitles.toArray(String[]::new),
+        trackArtistNames.toArray(String[]::new),
+        trackArtistsListed);
+  }
+
+  /**
+   * Normalizes a query value the same way profile names are, for use with the matching methods.
+   *
+   * @param value the query value
+   * @param normalizer normalizes names and titles
+   * @return the normalized, lower-cased value, or {@code null} if the value is {@code null}
+   */
+  public static String normalize(final String value, final UnaryOperator<String> normalizer) {
+    String normalized = value != null ? normalizer.apply(value.toLowerCase(Locale.ENGLISH)) : null;
+    return normalized != null ? normalized.toLowerCase(Locale.ENGLISH) : null;
+  }
+
+  /**
+   * Checks whether a release artist, name variation or extra artist has the given name.
+   *
+   * @param artist the artist, as returned by {@link #normalize}
+   * @return true if the release credits the artist
+   */
+  public boolean hasArtist(final String artist) {
+    return containsEqual(artistNames, artist);
+  }
+
+  /**
+   * Checks whether a track title contains the given title.
+   *
+   * @param track the track title, as returned by {@link #normalize}
+   * @return true if any track title contains it
+   */
+  public boolean hasTrackContaining(final String track) {
+    if (track == null) {
+      return false;
+    }
+    for (String title : trackTitles) {
+      if (title.contains(track)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether an artist credited on a track has the given name.
+   *
+   * @param artist the artist, as returned by {@link #normalize}
+   * @return true if any track credits the artist
+   */
+  public boolean hasTrackArtist(final String artist) {
+    return containsEqual(trackArtistNames, artist);
+  }
+
+  private static boolean containsEqual(final String[] values, final String value) {
+    if (value == null) {
+      return false;
+    }
+    for (String candidate : values) {
+      if (candidate.equals(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<Track> tracklist(final DiscogsRelease release) {
+    return release.getTracklist() != null ? release.getTracklist() : List.of();
+  }
+
+  private static void addNormalized(
+      final Set<String> values, final String value, final UnaryOperator<String> normalizer) {
+    String normalized = normalize(value, normalizer);
+    if (normalized != null && !normalized.isEmpty()) {
+      values.add(normalized);
+    }
+  }
+}
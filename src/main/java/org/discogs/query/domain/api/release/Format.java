@@ -1,5 +1,6 @@
 package org.discogs.query.domain.api.release;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,6 +15,7 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class Format {
 
   /** A list of descriptions associated with the format (e.g., "Limited Edition", "Remastered"). */
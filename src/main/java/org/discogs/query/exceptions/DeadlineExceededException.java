@@ -0,0 +1,39 @@
+package org.discogs.query.exceptions;
+
+import java.util.concurrent.TimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception class signalling that work was skipped or abandoned because the deadline of
+ * the request it belongs to has passed. This exception is used to signify a service unavailable
+ * error (HTTP 503) in the application.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DeadlineExceededException extends RuntimeException {
+  /**
+   * Constructs a new {@link DeadlineExceededException} with the specified detail message.
+   *
+   * @param message the detail message for this exception
+   */
+  public DeadlineExceededException(final String message) {
+    super(message);
+  }
+
+  /**
+   * Checks whether a failure, or any of its causes, means the caller's deadline passed rather than
+   * that the work itself failed. An exchange cut off by its deadline fails with a {@link
+   * TimeoutException}.
+   *
+   * @param throwable the failure to inspect
+   * @return true if the deadline was exceeded
+   */
+  public static boolean isDeadlineExceeded(final Throwable throwable) {
+    for (Throwable t = throwable; t != null; t = t.getCause()) {
+      if (t instanceof DeadlineExceededException || t instanceof TimeoutException) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
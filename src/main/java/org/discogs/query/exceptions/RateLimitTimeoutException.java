@@ -0,0 +1,21 @@
+package org.discogs.query.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception class signalling that a rate limit permit could not be acquired before the
+ * caller's deadline. This exception is used to signify a service unavailable error (HTTP 503) in
+ * the application.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class RateLimitTimeoutException extends DeadlineExceededException {
+  /**
+   * Constructs a new {@link RateLimitTimeoutException} with the specified detail message.
+   *
+   * @param message the detail message for this exception
+   */
+  public RateLimitTimeoutException(final String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,41 @@
+package org.discogs.query.interfaces;
+
+import java.util.concurrent.CompletableFuture;
+import org.discogs.query.limits.Deadline;
+
+/**
+ * Service interface for handling HTTP requests without blocking the calling thread.
+ *
+ * <p>Implementations should complete the returned future from the HTTP client's I/O threads and
+ * abort the underlying exchange when the future is cancelled. Blocking callers wait for the future
+ * instead of using a separate blocking client, so their exchanges can be aborted as well.
+ */
+public interface AsyncHttpRequestService {
+
+  /**
+   * Executes an HTTP request to the specified URL and asynchronously returns the response as an
+   * instance of the specified type.
+   *
+   * @param url the URL to query
+   * @param responseType the class type of the response
+   * @param <T> the type of the response
+   * @return a {@link CompletableFuture} completed with the response body, or completed
+   *     exceptionally if the request fails
+   */
+  <T> CompletableFuture<T> executeRequestAsync(String url, Class<T> responseType);
+
+  /**
+   * Executes an HTTP request to the specified URL, aborting the exchange once the deadline passes.
+   * A request whose deadline has already passed is not sent.
+   *
+   * @param url the URL to query
+   * @param responseType the class type of the response
+   * @param deadline the deadline by which the response is needed
+   * @param <T> the type of the response
+   * @return a {@link CompletableFuture} completed with the response body, or completed
+   *     exceptionally if the request fails, with a {@link java.util.concurrent.TimeoutException} if
+   *     the deadline passes first
+   */
+  <T> CompletableFuture<T> executeRequestAsync(
+      String url, Class<T> responseType, Deadline deadline);
+}
@@ -1,8 +1,15 @@
 package org.discogs.query.interfaces;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 /**
  * Interface for circuit breaker implementation to handle persistent failures from external
  * services. Follows the circuit breaker pattern with CLOSED, OPEN, and HALF_OPEN states.
+ *
+ * <p>Each {@link Endpoint} has its own breaker, so an outage of one Discogs endpoint family does
+ * not block calls to the others.
  */
 public interface CircuitBreakerService {
 
@@ -16,6 +23,38 @@ public interface CircuitBreakerService {
     HALF_OPEN
   }
 
+  /** The upstream endpoint families, each guarded by its own breaker. */
+  enum Endpoint {
+    /** The Discogs database search API. */
+    SEARCH,
+    /** The Discogs release API. */
+    RELEASE,
+    /** The Discogs marketplace stats API. */
+    MARKETPLACE,
+    /** The Discogs user collection API. */
+    COLLECTION,
+    /** The scraped Discogs marketplace website. */
+    WEB_SCRAPER
+  }
+
+  /**
+   * Point-in-time view of a breaker.
+   *
+   * @param state the current state
+   * @param bufferedCalls the number of calls in the sliding window
+   * @param failedCalls the number of failed calls in the sliding window
+   * @param failureRate the percentage of failed calls in the sliding window
+   * @param slowCallRate the percentage of slow calls in the sliding window
+   * @param availableProbes the number of half-open probe permits left
+   */
+  record Snapshot(
+      State state,
+      int bufferedCalls,
+      int failedCalls,
+      float failureRate,
+      float slowCallRate,
+      int availableProbes) {}
+
   /** Exception thrown when the circuit breaker is open and a call is attempted. */
   class CircuitBreakerOpenException extends RuntimeException {
     /**
@@ -29,28 +68,43 @@ public interface CircuitBreakerService {
   }
 
   /**
-   * Executes an operation within the circuit breaker.
+   * Executes an operation within the circuit breaker of the given endpoint.
    *
+   * @param endpoint the endpoint the operation calls
    * @param operation the operation to execute
    * @param <T> the return type of the operation
    * @return the result of the operation
    * @throws Exception if the operation fails or circuit is open
    */
-  <T> T execute(OperationWithException<T> operation) throws Exception;
+  <T> T execute(Endpoint endpoint, OperationWithException<T> operation) throws Exception;
+
+  /**
+   * Executes an asynchronous operation within the circuit breaker of the given endpoint. The
+   * outcome of the returned future is recorded as a success or failure once it completes.
+   *
+   * @param endpoint the endpoint the operation calls
+   * @param operation supplier starting the asynchronous operation
+   * @param <T> the result type of the operation
+   * @return the operation's future, or a future failed with {@link CircuitBreakerOpenException} if
+   *     the circuit is open
+   */
+  <T> CompletableFuture<T> executeAsync(
+      Endpoint endpoint, Supplier<CompletableFuture<T>> operation);
 
   /**
-   * Gets the current state of the circuit breaker.
+   * Gets the current state of the circuit breaker of the given endpoint.
    *
+   * @param endpoint the endpoint
    * @return the current state
    */
-  State getState();
+  State getState(Endpoint endpoint);
 
   /**
-   * Gets the current failure count.
+   * Gets a snapshot of every breaker.
    *
-   * @return the failure count
+   * @return the snapshots keyed by endpoint
    */
-  int getFailureCount();
+  Map<Endpoint, Snapshot> getSnapshots();
 
   /**
    * Functional interface for operations that can throw exceptions.
@@ -1,5 +1,7 @@
 package org.discogs.query.interfaces;
 
+import java.util.concurrent.CompletableFuture;
+import org.discogs.query.cache.ResourceRequest;
 import org.discogs.query.domain.api.DiscogsCollectionRelease;
 import org.discogs.query.domain.api.DiscogsMarketplaceResult;
 import org.discogs.query.domain.api.DiscogsRelease;
@@ -11,46 +13,82 @@ import org.discogs.query.domain.api.DiscogsResult;
  * <p>This interface defines methods for querying the Discogs API and retrieving results in
  * different formats. Implementations of this interface should handle the specifics of making HTTP
  * requests to the Discogs API and processing the responses.
+ *
+ * <p>Each lookup takes a {@link ResourceRequest}: the URL is fetched, and the resource key is used
+ * to cache the response and coalesce concurrent requests.
  */
 public interface DiscogsAPIClient {
 
   /**
-   * Retrieves results from the Discogs API for a given search URL.
+   * Retrieves results from the Discogs API for a given search.
    *
-   * @param searchUrl the URL to query the Discogs API
+   * @param request the resource to fetch
    * @return an instance of {@link DiscogsResult} containing the API response data
    */
-  DiscogsResult getResultsForQuery(String searchUrl);
+  DiscogsResult getResultsForQuery(ResourceRequest request);
 
   /**
-   * Retrieves a string result from the Discogs API for a given search URL.
+   * Retrieves a string result from the Discogs API for a given search.
    *
-   * @param searchUrl the URL to query the Discogs API
+   * @param request the resource to fetch
    * @return a {@link String} containing the API response data
    */
-  String getStringResultForQuery(String searchUrl);
+  String getStringResultForQuery(ResourceRequest request);
 
   /**
    * Searches the website to see if a release exists
    *
-   * @param searchUrl URL to use
+   * @param request the resource to fetch
    * @return a {@link DiscogsRelease} result if found on the website.
    */
-  DiscogsRelease getRelease(String searchUrl);
+  DiscogsRelease getRelease(ResourceRequest request);
 
   /**
    * Searches the website to see if a release exists ina user's collection
    *
-   * @param searchUrl URL to use
+   * @param request the resource to fetch
    * @return a {@link DiscogsCollectionRelease} result if found on the website.
    */
-  DiscogsCollectionRelease getCollectionReleases(String searchUrl);
+  DiscogsCollectionRelease getCollectionReleases(ResourceRequest request);
 
   /**
    * Searches marketplace to see if release is on marketplace
    *
-   * @param url URL to use for search
+   * @param request the resource to fetch
    * @return Result to say if on marketplace
    */
-  DiscogsMarketplaceResult getMarketplaceResultForQuery(String url);
+  DiscogsMarketplaceResult getMarketplaceResultForQuery(ResourceRequest request);
+
+  /**
+   * Asynchronously retrieves results from the Discogs API for a given search.
+   *
+   * @param request the resource to fetch
+   * @return a future completed with the {@link DiscogsResult} for the search
+   */
+  CompletableFuture<DiscogsResult> getResultsForQueryAsync(ResourceRequest request);
+
+  /**
+   * Asynchronously retrieves the details of a release.
+   *
+   * @param request the resource to fetch
+   * @return a future completed with the {@link DiscogsRelease}
+   */
+  CompletableFuture<DiscogsRelease> getReleaseAsync(ResourceRequest request);
+
+  /**
+   * Asynchronously retrieves the releases in a user's collection.
+   *
+   * @param request the resource to fetch
+   * @return a future completed with the {@link DiscogsCollectionRelease}
+   */
+  CompletableFuture<DiscogsCollectionRelease> getCollectionReleasesAsync(ResourceRequest request);
+
+  /**
+   * Asynchronously retrieves the marketplace statistics for a release.
+   *
+   * @param request the resource to fetch
+   * @return a future completed with the {@link DiscogsMarketplaceResult}
+   */
+  CompletableFuture<DiscogsMarketplaceResult> getMarketplaceResultForQueryAsync(
+      ResourceRequest request);
 }
@@ -1,6 +1,7 @@
 package org.discogs.query.interfaces;
 
 import java.util.List;
+import org.discogs.query.limits.Deadline;
 import org.discogs.query.model.DiscogsResultDTO;
 
 /** Interface for managing Discogs collection operations and filtering owned releases. */
@@ -11,7 +12,9 @@ public interface DiscogsCollectionService {
    *
    * @param username Username to search against.
    * @param entries List of Discogs search results to filter, using their IDs.
+   * @param deadline the deadline of the request the collection lookups are made for
    * @return a filtered list of {@link DiscogsResultDTO} objects without owned releases
    */
-  List<DiscogsResultDTO> filterOwnedReleases(String username, List<DiscogsResultDTO> entries);
+  List<DiscogsResultDTO> filterOwnedReleases(
+      String username, List<DiscogsResultDTO> entries, Deadline deadline);
 }
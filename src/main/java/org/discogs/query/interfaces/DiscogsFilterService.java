@@ -1,20 +1,55 @@
 package org.discogs.query.interfaces;
 
+import java.util.function.Function;
 import org.discogs.query.domain.api.DiscogsEntry;
 import org.discogs.query.domain.api.DiscogsRelease;
 import org.discogs.query.domain.api.DiscogsResult;
+import org.discogs.query.domain.api.ReleaseMatchProfile;
+import org.discogs.query.limits.Deadline;
 import org.discogs.query.model.DiscogsQueryDTO;
 
 /** Service interface for filtering and sorting Discogs search results. */
 public interface DiscogsFilterService {
 
   /**
-   * Filters and sorts the search results based on the query DTO.
+   * The outcome of matching a search hit against a query.
+   *
+   * @param outcome whether the hit matches, or could not be decided
+   * @param fromHit whether the hit was decided from its own fields, without its release
+   */
+  record Match(Outcome outcome, boolean fromHit) {
+
+    /** Whether a search hit matches a query. */
+    public enum Outcome {
+      /** The hit matches the query. */
+      MATCHED,
+      /** The hit does not match the query. */
+      NOT_MATCHED,
+      /** The release of the hit could not be looked up to decide. */
+      UNAVAILABLE
+    }
+
+    /**
+     * Checks whether the hit matches the query.
+     *
+     * @return true if the hit matches
+     */
+    public boolean matched() {
+      return outcome == Outcome.MATCHED;
+    }
+  }
+
+  /**
+   * Creates a matcher deciding whether single search hits match a query, so that each hit can be
+   * matched as it passes through the search pipeline. The query is normalized once for all hits,
+   * and the release of a hit is only looked up when the hit's own fields do not decide it. Hits
+   * are never modified.
    *
    * @param discogsQueryDTO the search query data transfer object
-   * @param results the search results to be filtered and sorted
+   * @param deadline the deadline by which releases are needed
+   * @return the matcher for the hits of the query
    */
-  void filterAndSortResults(DiscogsQueryDTO discogsQueryDTO, DiscogsResult results);
+  Function<DiscogsEntry, Match> matcher(DiscogsQueryDTO discogsQueryDTO, Deadline deadline);
 
   /**
    * Retrieves a {@link DiscogsRelease} object based on the provided {@link DiscogsEntry}.
@@ -24,6 +59,24 @@ public interface DiscogsFilterService {
    */
   DiscogsRelease getReleaseDetails(DiscogsEntry discogsEntry);
 
+  /**
+   * Retrieves the {@link ReleaseMatchProfile} of the release behind a {@link DiscogsEntry}.
+   *
+   * @param discogsEntry the Discogs entry containing the release ID
+   * @return the {@link ReleaseMatchProfile} of the release
+   */
+  ReleaseMatchProfile getReleaseProfile(DiscogsEntry discogsEntry);
+
+  /**
+   * Retrieves the {@link ReleaseMatchProfile} of the release behind a {@link DiscogsEntry},
+   * abandoning the release lookup once the deadline passes.
+   *
+   * @param discogsEntry the Discogs entry containing the release ID
+   * @param deadline the deadline by which the profile is needed
+   * @return the {@link ReleaseMatchProfile} of the release
+   */
+  ReleaseMatchProfile getReleaseProfile(DiscogsEntry discogsEntry, Deadline deadline);
+
   /**
    * Filters out entries with null or zero lowest price from the given {@link DiscogsResult}.
    *
@@ -1,5 +1,8 @@
 package org.discogs.query.interfaces;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.discogs.query.limits.Deadline;
 import org.discogs.query.model.DiscogsQueryDTO;
 import org.discogs.query.model.DiscogsResultDTO;
 
@@ -17,4 +20,40 @@ public interface DiscogsQueryService {
    * @return a {@link DiscogsResultDTO} object containing the search results
    */
   DiscogsResultDTO searchBasedOnQuery(DiscogsQueryDTO discogsQueryDTO);
+
+  /**
+   * Searches the Discogs database based on the provided query, abandoning outstanding Discogs
+   * requests once the deadline passes. Entries whose lookups were abandoned are left out.
+   *
+   * @param discogsQueryDTO the search query data transfer object containing artist, track, and
+   *     optional format information
+   * @param deadline the deadline of the request the search is part of
+   * @return a {@link DiscogsResultDTO} object containing the search results
+   */
+  DiscogsResultDTO searchBasedOnQuery(DiscogsQueryDTO discogsQueryDTO, Deadline deadline);
+
+  /**
+   * Searches the Discogs database for several variants of the same query, such as the formats an
+   * {@code All Vinyls} query expands into. The search hits of all variants are merged by release
+   * ID before any release or marketplace lookups, so each release is looked up only once.
+   *
+   * @param discogsQueryDTOs the variants of the query, which must share their artist, album, track
+   *     and barcode
+   * @param deadline the deadline of the request the search is part of
+   * @return a {@link DiscogsResultDTO} object containing the merged search results
+   */
+  DiscogsResultDTO searchBasedOnQueries(List<DiscogsQueryDTO> discogsQueryDTOs, Deadline deadline);
+
+  /**
+   * Searches the Discogs database for several variants of the same query asynchronously, as {@link
+   * #searchBasedOnQueries(List, Deadline)} does. No thread waits on another task while the search
+   * runs, so the searches of many queries can share a bounded executor.
+   *
+   * @param discogsQueryDTOs the variants of the query, which must share their artist, album, track
+   *     and barcode
+   * @param deadline the deadline of the request the search is part of
+   * @return a future completed with the merged search results
+   */
+  CompletableFuture<DiscogsResultDTO> searchBasedOnQueriesAsync(
+      List<DiscogsQueryDTO> discogsQueryDTOs, Deadline deadline);
 }
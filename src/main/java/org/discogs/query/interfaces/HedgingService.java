@@ -0,0 +1,35 @@
+package org.discogs.query.interfaces;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.discogs.query.interfaces.CircuitBreakerService.Endpoint;
+
+/**
+ * Service interface for hedging slow Discogs requests.
+ *
+ * <p>A hedged request sends a duplicate once the original has been outstanding for longer than is
+ * usual for its endpoint, keeps whichever response arrives first and cancels the other.
+ */
+public interface HedgingService {
+
+  /**
+   * Returns whether requests to the given endpoint are hedged.
+   *
+   * @param endpoint the endpoint family
+   * @return true if hedging is enabled for the endpoint
+   */
+  boolean isEnabled(Endpoint endpoint);
+
+  /**
+   * Starts the request and, if it is still outstanding after the endpoint's hedge delay and the
+   * hedge budget allows, starts a duplicate. When hedging is disabled for the endpoint the request
+   * is simply started.
+   *
+   * @param endpoint the endpoint family the request targets
+   * @param request supplier starting one copy of the request; it may be called twice
+   * @param <T> the type of the result
+   * @return a future completed with the first successful response, or the last failure if every
+   *     copy fails
+   */
+  <T> CompletableFuture<T> hedge(Endpoint endpoint, Supplier<CompletableFuture<T>> request);
+}
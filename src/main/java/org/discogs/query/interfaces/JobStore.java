@@ -0,0 +1,38 @@
+package org.discogs.query.interfaces;
+
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import org.discogs.query.model.SearchJobDTO;
+
+/**
+ * Interface for storing the state of asynchronous search jobs.
+ *
+ * <p>Jobs are immutable snapshots. Every change goes through {@link #update}, so an
+ * implementation can apply it atomically, for example in a database transaction.
+ */
+public interface JobStore {
+
+  /**
+   * Stores a new job.
+   *
+   * @param job the job
+   */
+  void save(SearchJobDTO job);
+
+  /**
+   * Finds a job by its ID.
+   *
+   * @param id the ID of the job
+   * @return the job, or empty if it does not exist or has expired
+   */
+  Optional<SearchJobDTO> find(String id);
+
+  /**
+   * Atomically replaces a job with an updated copy.
+   *
+   * @param id the ID of the job
+   * @param update computes the updated job from the current one
+   * @return the updated job, or empty if it does not exist or has expired
+   */
+  Optional<SearchJobDTO> update(String id, UnaryOperator<SearchJobDTO> update);
+}
@@ -1,7 +1,9 @@
 package org.discogs.query.interfaces;
 
 import java.util.List;
+import org.discogs.query.domain.api.DiscogsEntry;
 import org.discogs.query.domain.api.DiscogsResult;
+import org.discogs.query.model.DiscogsEntryDTO;
 import org.discogs.query.model.DiscogsMapResultDTO;
 import org.discogs.query.model.DiscogsQueryDTO;
 import org.discogs.query.model.DiscogsResultDTO;
@@ -25,4 +27,12 @@ public interface MappingService {
    * @return a {@link DiscogsResultDTO} corresponding to the {@link DiscogsResult}
    */
   DiscogsResultDTO mapObjectToDTO(DiscogsResult discogsResult, DiscogsQueryDTO discogsQueryDTO);
+
+  /**
+   * Maps a single {@link DiscogsEntry} to a {@link DiscogsEntryDTO}.
+   *
+   * @param entry the {@link DiscogsEntry} object
+   * @return the {@link DiscogsEntryDTO} corresponding to the entry
+   */
+  DiscogsEntryDTO mapEntryToDTO(DiscogsEntry entry);
 }
@@ -1,6 +1,8 @@
 package org.discogs.query.interfaces;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.discogs.query.limits.Deadline;
 import org.discogs.query.model.DiscogsRequestDTO;
 import org.discogs.query.model.DiscogsResultDTO;
 
@@ -15,11 +17,43 @@ public interface QueryProcessingService {
    * from the Discogs API.
    *
    * @param discogsRequestDTO the {@link DiscogsRequestDTO} objects to process
-   * @param timeoutInSeconds the timeout in seconds for each query to be processed
+   * @param timeoutInSeconds the timeout in seconds for the whole request
    * @return a list of {@link DiscogsResultDTO} objects containing the query results
    */
   List<DiscogsResultDTO> processQueries(DiscogsRequestDTO discogsRequestDTO, long timeoutInSeconds);
 
+  /**
+   * Processes each Discogs query asynchronously as {@link #processQueries(DiscogsRequestDTO,
+   * long)} does, optionally keeping only entries shipping from the UK. Complete queries without
+   * any such entries are then left out.
+   *
+   * <p>All queries share the deadline. Outstanding Discogs requests are abandoned once it passes,
+   * and a query still unfinished at the deadline is returned without results and with the {@link
+   * org.discogs.query.model.enums.QueryStatus#TIMED_OUT} status, so this returns shortly after the
+   * deadline at the latest.
+   *
+   * @param discogsRequestDTO the {@link DiscogsRequestDTO} objects to process
+   * @param deadline the deadline of the whole request
+   * @param filterForUk whether to filter out entries not shipping from the UK
+   * @return a list of {@link DiscogsResultDTO} objects containing the query results
+   */
+  List<DiscogsResultDTO> processQueries(
+      DiscogsRequestDTO discogsRequestDTO, Deadline deadline, boolean filterForUk);
+
+  /**
+   * Starts processing each Discogs query asynchronously, returning as soon as the queries are
+   * submitted. Each future completes with the final result of its query, including the collection
+   * and UK filtering, independently of the others, so callers can use results as they arrive.
+   *
+   * @param discogsRequestDTO the {@link DiscogsRequestDTO} objects to process
+   * @param deadline the deadline of the whole request
+   * @param filterForUk whether to filter out entries not shipping from the UK
+   * @return a future per query, in the order of the queries in the request; a future still
+   *     incomplete at the deadline fails with a {@link java.util.concurrent.TimeoutException}
+   */
+  List<CompletableFuture<DiscogsResultDTO>> processQueriesAsync(
+      DiscogsRequestDTO discogsRequestDTO, Deadline deadline, boolean filterForUk);
+
   /**
    * Filters out Discogs entries that are not shipping from the UK marketplace.
    *
@@ -1,6 +1,8 @@
 package org.discogs.query.interfaces;
 
 import java.util.concurrent.CompletableFuture;
+import org.discogs.query.limits.Deadline;
+import org.springframework.http.HttpHeaders;
 
 /**
  * Service interface for managing rate limits.
@@ -15,6 +17,17 @@ public interface RateLimiterService {
    */
   void waitForRateLimit();
 
+  /**
+   * Waits for the rate limiter to allow a request to proceed, giving up once the deadline passes.
+   *
+   * @param deadline the deadline by which the permit must be granted
+   * @throws org.discogs.query.exceptions.RateLimitTimeoutException if no permit is granted before
+   *     the deadline
+   * @throws org.discogs.query.exceptions.DiscogsSearchException if the thread is interrupted while
+   *     waiting; the interrupt flag stays set
+   */
+  void waitForRateLimit(Deadline deadline);
+
   /**
    * Asynchronously acquires a rate limit permit. This method returns a CompletableFuture that
    * completes when a permit is available, allowing for non-blocking rate limit handling.
@@ -22,4 +35,29 @@ public interface RateLimiterService {
    * @return CompletableFuture that completes when a rate limit permit is acquired
    */
   CompletableFuture<Void> acquireRateLimitAsync();
+
+  /**
+   * Asynchronously acquires a rate limit permit that must be granted before the deadline.
+   *
+   * @param deadline the deadline by which the permit must be granted
+   * @return CompletableFuture that completes when a rate limit permit is acquired, or fails with a
+   *     {@link org.discogs.query.exceptions.RateLimitTimeoutException} once the deadline passes
+   */
+  CompletableFuture<Void> acquireRateLimitAsync(Deadline deadline);
+
+  /**
+   * Takes a rate limit permit only if one is available immediately and no other caller is queued
+   * for one. Used for optional requests that should not compete with required ones.
+   *
+   * @return true if a permit was taken
+   */
+  boolean tryAcquireRateLimit();
+
+  /**
+   * Feeds the rate limit headers of a Discogs response back into the limiter so that its budget
+   * tracks the limit reported by the server. Responses without rate limit headers are ignored.
+   *
+   * @param responseHeaders the headers of a Discogs API response, including error responses
+   */
+  void recordResponseHeaders(HttpHeaders responseHeaders);
 }
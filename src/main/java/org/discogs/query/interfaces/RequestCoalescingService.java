@@ -0,0 +1,46 @@
+package org.discogs.query.interfaces;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.discogs.query.cache.ResourceKey;
+import org.discogs.query.limits.Deadline;
+
+/**
+ * Service interface for coalescing concurrent requests for the same resource.
+ *
+ * <p>While a request for a resource is in flight, further requests for that resource share its
+ * outcome instead of issuing their own outbound call.
+ */
+public interface RequestCoalescingService {
+
+  /**
+   * Executes the request for the given resource, or waits for the outcome of a request for the
+   * same resource that is already in flight. A caller waiting for another request only waits until
+   * its own deadline, and executes the request itself if the other one was only cut off by the
+   * deadline of its caller.
+   *
+   * @param resourceType the type of resource being requested, used to separate keys and tag metrics
+   * @param resourceKey the key identifying the resource
+   * @param deadline the deadline of the caller
+   * @param request the request to execute when none is in flight
+   * @param <T> the type of the result
+   * @return the result of the request
+   * @throws org.discogs.query.exceptions.DeadlineExceededException if the deadline passes or is
+   *     cancelled while waiting for the request in flight
+   */
+  <T> T execute(
+      Class<T> resourceType, ResourceKey resourceKey, Deadline deadline, Supplier<T> request);
+
+  /**
+   * Asynchronously executes the request for the given resource, or joins a request for the same
+   * resource that is already in flight.
+   *
+   * @param resourceType the type of resource being requested, used to separate keys and tag metrics
+   * @param resourceKey the key identifying the resource
+   * @param request supplier starting the request when none is in flight
+   * @param <T> the type of the result
+   * @return a future completed with the result of the request
+   */
+  <T> CompletableFuture<T> executeAsync(
+      Class<T> resourceType, ResourceKey resourceKey, Supplier<CompletableFuture<T>> request);
+}
@@ -1,6 +1,9 @@
 package org.discogs.query.interfaces;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.discogs.query.limits.Deadline;
 
 /**
  * Service interface for handling retries.
@@ -21,4 +24,35 @@ public interface RetryService {
    * @throws Exception if the action fails after all retry attempts
    */
   <T> T executeWithRetry(Callable<T> action, String actionDescription) throws Exception;
+
+  /**
+   * Executes a callable action with retry logic, scheduling no attempt to start after the
+   * deadline.
+   *
+   * @param action the callable action to be executed
+   * @param actionDescription a description of the action being performed
+   * @param deadline the deadline capping the retries
+   * @param <T> the type of the result returned by the action
+   * @return the result of the action
+   * @throws Exception if the action fails after all retry attempts
+   */
+  <T> T executeWithRetry(Callable<T> action, String actionDescription, Deadline deadline)
+      throws Exception;
+
+  /**
+   * Executes an asynchronous action with retry logic. Failed attempts are rescheduled on a timer
+   * rather than blocking a thread, and no attempt is scheduled to start after the deadline.
+   *
+   * <p>The supplier is invoked once per attempt, so anything it acquires, such as a rate limit
+   * permit, is acquired afresh for every retry.
+   *
+   * @param attempt supplier starting one attempt of the action
+   * @param actionDescription a description of the action being performed
+   * @param deadline the deadline capping the retries
+   * @param <T> the type of the result returned by the action
+   * @return a future completed with the result of the first successful attempt, or failed with the
+   *     exception of the last attempt
+   */
+  <T> CompletableFuture<T> executeWithRetryAsync(
+      Supplier<CompletableFuture<T>> attempt, String actionDescription, Deadline deadline);
 }
@@ -0,0 +1,39 @@
+package org.discogs.query.interfaces;
+
+import java.util.Optional;
+import org.discogs.query.model.DiscogsRequestDTO;
+import org.discogs.query.model.SearchJobDTO;
+
+/**
+ * Interface for running search requests as asynchronous jobs, so large batches do not hold a
+ * request thread while they are processed.
+ */
+public interface SearchJobService {
+
+  /**
+   * Queues a search request as a job and returns immediately.
+   *
+   * @param discogsRequestDTO the request to process
+   * @param email the address to email the final results to, or {@code null}
+   * @return the queued job
+   * @throws java.util.concurrent.RejectedExecutionException if too many jobs are already queued
+   */
+  SearchJobDTO submit(DiscogsRequestDTO discogsRequestDTO, String email);
+
+  /**
+   * Finds a job, including the results of the queries finished so far.
+   *
+   * @param id the ID of the job
+   * @return the job, or empty if it does not exist or has expired
+   */
+  Optional<SearchJobDTO> find(String id);
+
+  /**
+   * Cancels a job that has not finished yet. Results of queries finished before cancellation are
+   * kept.
+   *
+   * @param id the ID of the job
+   * @return the job, or empty if it does not exist or has expired
+   */
+  Optional<SearchJobDTO> cancel(String id);
+}
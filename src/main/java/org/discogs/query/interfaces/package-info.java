@@ -9,8 +9,8 @@
  * <p>Interfaces in this package include:
  *
  * <ul>
- *   <li>{@link org.discogs.query.interfaces.HttpRequestService} - Defines methods for executing
- *       HTTP requests and handling responses.
+ *   <li>{@link org.discogs.query.interfaces.AsyncHttpRequestService} - Defines methods for
+ *       executing HTTP requests and handling responses.
  *   <li>{@link org.discogs.query.interfaces.RateLimiterService} - Defines methods for managing rate
  *       limits and ensuring compliance with API quotas.
  *   <li>{@link org.discogs.query.interfaces.RetryService} - Defines methods for executing actions
@@ -0,0 +1,162 @@
+package org.discogs.query.limits;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A point in time by which an operation must complete, measured on the {@link System#nanoTime()}
+ * clock. An unbounded deadline never expires.
+ *
+ * <p>A bounded deadline can also be cancelled when its caller no longer needs the result, for
+ * example because the client disconnected. A cancelled deadline counts as expired, so every check
+ * against it stops further work, and actions registered with {@link #onCancel(Runnable)} abort the
+ * work already waiting on it.
+ */
+public final class Deadline {
+
+  private static final Deadline NONE = new Deadline(0L, false);
+
+  private final long expiresAtNanos;
+  private final boolean bounded;
+  private final AtomicBoolean cancelled = new AtomicBoolean();
+  private final Set<Runnable> cancelActions = ConcurrentHashMap.newKeySet();
+
+  private Deadline(final long expiresAtNanos, final boolean bounded) {
+    this.expiresAtNanos = expiresAtNanos;
+    this.bounded = bounded;
+  }
+
+  /**
+   * Returns a deadline that never expires. It is shared, so it cannot be cancelled.
+   *
+   * @return the unbounded deadline
+   */
+  public static Deadline none() {
+    return NONE;
+  }
+
+  /**
+   * Returns a deadline expiring after the given duration from now.
+   *
+   * @param timeout the time remaining until the deadline expires
+   * @return the deadline
+   */
+  public static Deadline after(final Duration timeout) {
+    return new Deadline(System.nanoTime() + timeout.toNanos(), true);
+  }
+
+  /**
+   * Returns the {@link System#nanoTime()} value at which the deadline expires.
+   *
+   * @return the expiry time; meaningless when the deadline is unbounded
+   */
+  public long expiresAtNanos() {
+    return expiresAtNanos;
+  }
+
+  /**
+   * Returns whether the deadline expires at all.
+   *
+   * @return {@code true} unless this is the unbounded deadline
+   */
+  public boolean bounded() {
+    return bounded;
+  }
+
+  /**
+   * Returns the nanoseconds remaining until the deadline, which is negative once it has expired
+   * and zero once it has been cancelled.
+   *
+   * @return the remaining nanoseconds, or {@link Long#MAX_VALUE} for an unbounded deadline
+   */
+  public long remainingNanos() {
+    if (!bounded) {
+      return Long.MAX_VALUE;
+    }
+    long remaining = expiresAtNanos - System.nanoTime();
+    return isCancelled() ? Math.min(0, remaining) : remaining;
+  }
+
+  /**
+   * Returns the time remaining until the deadline, which is zero or negative once it has expired.
+   *
+   * @return the remaining time
+   */
+  public Duration remaining() {
+    return Duration.ofNanos(remainingNanos());
+  }
+
+  /**
+   * Checks whether the deadline has passed or been cancelled.
+   *
+   * @return {@code true} if the deadline is bounded and has passed or been cancelled
+   */
+  public boolean isExpired() {
+    return remainingNanos() <= 0;
+  }
+
+  /**
+   * Checks whether the deadline would have passed at the given {@link System#nanoTime()} value.
+   *
+   * @param nanoTime the time to check against
+   * @return {@code true} if the deadline is bounded and has been cancelled or expires before
+   *     {@code nanoTime}
+   */
+  public boolean isExpiredAt(final long nanoTime) {
+    return bounded && (isCancelled() || expiresAtNanos - nanoTime < 0);
+  }
+
+  /**
+   * Checks whether the deadline has been cancelled.
+   *
+   * @return {@code true} if {@link #cancel()} has been called
+   */
+  public boolean isCancelled() {
+    return cancelled.get();
+  }
+
+  /**
+   * Cancels the deadline, expiring it at once and running the registered cancel actions. Has no
+   * effect on the unbounded deadline or on a deadline that is already cancelled.
+   */
+  public void cancel() {
+    if (!bounded || !cancelled.compareAndSet(false, true)) {
+      return;
+    }
+    for (final Runnable action : cancelActions) {
+      if (cancelActions.remove(action)) {
+        action.run();
+      }
+    }
+  }
+
+  /**
+   * Registers an action to run when the deadline is cancelled. The action runs at once if the
+   * deadline is already cancelled, and never for the unbounded deadline. Work that finishes first
+   * should close the returned registration, so the deadline does not hold on to it.
+   *
+   * @param action the action aborting the work waiting on this deadline
+   * @return the registration, which removes the action when closed
+   */
+  public Registration onCancel(final Runnable action) {
+    if (!bounded) {
+      return () -> {};
+    }
+    cancelActions.add(action);
+    if (isCancelled() && cancelActions.remove(action)) {
+      action.run();
+    }
+    return () -> cancelActions.remove(action);
+  }
+
+  /** A cancel action registered with {@link #onCancel(Runnable)}. */
+  @FunctionalInterface
+  public interface Registration extends AutoCloseable {
+
+    /** Removes the cancel action, if it has not already run. */
+    @Override
+    void close();
+  }
+}
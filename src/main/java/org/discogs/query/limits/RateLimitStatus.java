@@ -0,0 +1,54 @@
+package org.discogs.query.limits;
+
+import java.util.Optional;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Snapshot of the Discogs rate limit window as reported on an API response.
+ *
+ * @param limit the total number of requests allowed in the moving one-minute window
+ * @param used the number of requests made in the current window
+ * @param remaining the number of requests still available in the current window
+ */
+public record RateLimitStatus(int limit, int used, int remaining) {
+
+  /** Header carrying the total number of requests allowed per minute. */
+  public static final String LIMIT_HEADER = "X-Discogs-Ratelimit";
+
+  /** Header carrying the number of requests made in the current window. */
+  public static final String USED_HEADER = "X-Discogs-Ratelimit-Used";
+
+  /** Header carrying the number of requests remaining in the current window. */
+  public static final String REMAINING_HEADER = "X-Discogs-Ratelimit-Remaining";
+
+  /**
+   * Reads the rate limit status from Discogs response headers.
+   *
+   * @param headers the response headers, may be {@code null}
+   * @return the status, or empty if the limit or remaining header is missing or malformed
+   */
+  public static Optional<RateLimitStatus> fromHeaders(final HttpHeaders headers) {
+    if (headers == null) {
+      return Optional.empty();
+    }
+    Integer limit = parse(headers.getFirst(LIMIT_HEADER));
+    Integer remaining = parse(headers.getFirst(REMAINING_HEADER));
+    if (limit == null || remaining == null || limit <= 0) {
+      return Optional.empty();
+    }
+    Integer used = parse(headers.getFirst(USED_HEADER));
+    return Optional.of(
+        new RateLimitStatus(limit, used != null ? used : limit - remaining, remaining));
+  }
+
+  private static Integer parse(final String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return Integer.valueOf(value.trim());
+    } catch (final NumberFormatException e) {
+      return null;
+    }
+  }
+}
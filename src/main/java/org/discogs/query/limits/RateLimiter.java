@@ -1,115 +1,423 @@
 package org.discogs.query.limits;
 
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.exceptions.RateLimitTimeoutException;
 import org.discogs.query.helpers.LogHelper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
- * An optimized rate limiter implementation that uses a queue-based approach instead of polling.
- * This restricts the number of operations to a specified limit per minute while allowing
- * non-blocking permit acquisition.
+ * A token-bucket rate limiter that spreads requests evenly over each minute instead of letting the
+ * whole quota burst at once.
+ *
+ * <p>Tokens refill continuously at {@code discogs.rate-limit} per minute, with nanosecond
+ * precision, up to a small burst capacity. Callers that find the bucket empty are queued in
+ * priority order, FIFO within a priority, and are woken by a single timer scheduled for the moment
+ * the head of the queue can be served, so no thread polls for permits. A permit is never handed to
+ * a new caller while others are queued.
+ *
+ * <p>When adaptive limiting is enabled, the budget is recalibrated from the rate limit headers on
+ * every Discogs response: the refill rate follows the reported per-minute limit, less a headroom
+ * margin, and stored tokens are trimmed to what the server reports as remaining. The limiter
+ * therefore slows down before Discogs starts answering 429 and speeds up when the authenticated
+ * limit is higher than configured.
  */
 @Slf4j
 @Component
 public class RateLimiter {
 
-  private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-  private final AtomicInteger requestCount = new AtomicInteger(0);
-  private final LinkedBlockingQueue<CompletableFuture<Void>> waitingQueue =
-      new LinkedBlockingQueue<>();
+  /** Priority of a permit request; higher priority waiters are served first. */
+  public enum Priority {
+    /** Served ahead of all other waiters. */
+    HIGH,
+    /** The default priority for Discogs requests. */
+    NORMAL,
+    /** Served only once no higher priority waiters remain. */
+    LOW
+  }
+
+  private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+  private static final Comparator<Waiter> WAITER_ORDER =
+      Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence);
 
-  @Value("${discogs.rate-limit}")
-  int maxRequestsPerMinute;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(WAITER_ORDER);
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("discogs-rate-limiter").daemon().factory());
+  private final int burstCapacity;
+  private final boolean adaptive;
+  private final double headroom;
+
+  private long nanosPerPermit;
+  private double storedPermits;
+  private long lastRefillNanos;
+  private long nextSequence;
+  private ScheduledFuture<?> pendingDrain;
 
   /**
-   * Initializes the RateLimiter with the specified request limit per minute. The scheduler resets
-   * the request count and processes queued requests every minute.
+   * Initializes a non-adaptive RateLimiter with the specified request limit per minute and burst
+   * capacity.
+   *
+   * @param maxRequestsPerMinute the number of permits refilled per minute
+   * @param burstCapacity the maximum number of permits that can be stored for immediate use
    */
-  public RateLimiter() {
-    LogHelper.debug(
-        () -> "Initializing RateLimiter with a maximum of {} requests per minute.",
-        maxRequestsPerMinute);
-    scheduler.scheduleAtFixedRate(this::resetRequestCountAndProcessQueue, 1, 1, TimeUnit.MINUTES);
-  }
-
-  /** Resets the request count and processes any queued requests. */
-  private void resetRequestCountAndProcessQueue() {
-    requestCount.set(0);
-    LogHelper.debug(() -> "Request count reset. Processing queued requests.");
-
-    // Process queued requests up to the rate limit
-    int processed = 0;
-    while (processed < maxRequestsPerMinute && !waitingQueue.isEmpty()) {
-      CompletableFuture<Void> queuedRequest = waitingQueue.poll();
-      if (queuedRequest != null) {
-        queuedRequest.complete(null);
-        requestCount.incrementAndGet();
-        processed++;
-      }
+  public RateLimiter(final int maxRequestsPerMinute, final int burstCapacity) {
+    this(maxRequestsPerMinute, burstCapacity, false, 1.0);
+  }
+
+  /**
+   * Initializes the RateLimiter with the specified request limit per minute and burst capacity. The
+   * bucket starts full.
+   *
+   * @param maxRequestsPerMinute the number of permits refilled per minute until the first Discogs
+   *     response recalibrates it
+   * @param burstCapacity the maximum number of permits that can be stored for immediate use
+   * @param adaptive whether to recalibrate from Discogs rate limit headers
+   * @param headroom the fraction of the reported limit to use, between 0 (exclusive) and 1
+   */
+  @Autowired
+  public RateLimiter(
+      @Value("${discogs.rate-limit}") final int maxRequestsPerMinute,
+      @Value("${discogs.rate-limit-burst:5}") final int burstCapacity,
+      @Value("${discogs.rate-limit-adaptive:true}") final boolean adaptive,
+      @Value("${discogs.rate-limit-headroom:0.9}") final double headroom) {
+    if (maxRequestsPerMinute <= 0 || burstCapacity <= 0) {
+      throw new IllegalArgumentException("Rate limit and burst capacity must be positive");
+    }
+    if (headroom <= 0 || headroom > 1) {
+      throw new IllegalArgumentException("Rate limit headroom must be in (0, 1]");
     }
-    LogHelper.debug(() -> "Processed {} queued requests.", processed);
+    this.burstCapacity = burstCapacity;
+    this.adaptive = adaptive;
+    this.headroom = headroom;
+    this.nanosPerPermit = NANOS_PER_MINUTE / maxRequestsPerMinute;
+    this.storedPermits = burstCapacity;
+    this.lastRefillNanos = System.nanoTime();
+    LogHelper.debug(
+        () -> "Initializing RateLimiter with {} requests per minute and a burst of {}.",
+        maxRequestsPerMinute,
+        burstCapacity);
   }
 
   /**
-   * Attempts to acquire a permit for a request.
+   * Attempts to acquire a permit for a request without waiting.
    *
-   * @return true if a request can be made immediately, false if the rate limit has been reached
+   * @return true if a permit was acquired, false if none is available or other callers are queued
    */
   public boolean tryAcquire() {
-    int currentCount = requestCount.incrementAndGet();
-    if (currentCount > maxRequestsPerMinute) {
-      requestCount.decrementAndGet(); // Roll back increment if limit exceeded
-      LogHelper.debug(() -> "Rate limit exceeded. Current request count: {}", currentCount - 1);
+    lock.lock();
+    try {
+      refill(System.nanoTime());
+      discardCompletedHead();
+      if (waiters.isEmpty() && storedPermits >= 1) {
+        storedPermits -= 1;
+        return true;
+      }
       return false;
+    } finally {
+      lock.unlock();
     }
-    LogHelper.debug(() -> "Permit acquired. Current request count: {}", currentCount);
-    return true;
   }
 
   /**
-   * Acquires a permit for a request, queuing the request if the rate limit is exceeded. This method
-   * returns a CompletableFuture that completes when a permit is available.
+   * Acquires a permit with normal priority and no deadline.
    *
    * @return CompletableFuture that completes when a permit is acquired
    */
   public CompletableFuture<Void> acquireAsync() {
-    if (tryAcquire()) {
-      return CompletableFuture.completedFuture(null);
+    return acquireAsync(Priority.NORMAL, Deadline.none());
+  }
+
+  /**
+   * Acquires a permit for a request, queuing the request if no permit is available. The returned
+   * future fails with a {@link RateLimitTimeoutException} if the permit cannot be granted before
+   * the deadline; when the current queue already makes that certain, it fails immediately.
+   *
+   * <p>Cancelling the returned future withdraws the request from the queue, and cancelling the
+   * deadline fails it at once.
+   *
+   * @param priority the priority of the request
+   * @param deadline the deadline by which the permit must be granted
+   * @return CompletableFuture that completes when a permit is acquired
+   */
+  public CompletableFuture<Void> acquireAsync(final Priority priority, final Deadline deadline) {
+    CompletableFuture<Void> queued = new CompletableFuture<>();
+    lock.lock();
+    try {
+      long now = System.nanoTime();
+      refill(now);
+      discardCompletedHead();
+      if (deadline.isCancelled()) {
+        return CompletableFuture.failedFuture(
+            new RateLimitTimeoutException("Rate limit permit no longer needed"));
+      }
+      if (waiters.isEmpty() && storedPermits >= 1) {
+        storedPermits -= 1;
+        return CompletableFuture.completedFuture(null);
+      }
+
+      long estimatedWait = estimateWaitNanos(priority);
+      if (deadline.isExpiredAt(now + estimatedWait)) {
+        LogHelper.debug(
+            () -> "Permit cannot be granted before deadline. Estimated wait: {} ms",
+            TimeUnit.NANOSECONDS.toMillis(estimatedWait));
+        return CompletableFuture.failedFuture(
+            new RateLimitTimeoutException("Rate limit permit not available before deadline"));
+      }
+
+      waiters.add(new Waiter(queued, priority, nextSequence++, deadline));
+      scheduleDrain(now);
+      LogHelper.debug(() -> "Request queued. Queue size: {}", waiters.size());
+    } finally {
+      lock.unlock();
+    }
+    // Registered outside the lock, as a deadline already cancelled runs the action at once
+    Deadline.Registration cancellation =
+        deadline.onCancel(
+            () ->
+                queued.completeExceptionally(
+                    new RateLimitTimeoutException("Rate limit permit no longer needed")));
+    queued.whenComplete((ignored, throwable) -> cancellation.close());
+    return queued;
+  }
+
+  /**
+   * Recalibrates the limiter from the rate limit status reported by Discogs. The refill rate is set
+   * to the reported limit scaled by the headroom, and stored tokens are capped so that the headroom
+   * share of the window stays unused. Ignored when adaptive limiting is disabled.
+   *
+   * @param status the rate limit status from the latest response
+   */
+  public void recalibrate(final RateLimitStatus status) {
+    if (!adaptive) {
+      return;
+    }
+    lock.lock();
+    try {
+      long now = System.nanoTime();
+      refill(now);
+      int budget = Math.max(1, (int) Math.floor(status.limit() * headroom));
+      long recalibrated = NANOS_PER_MINUTE / budget;
+      if (recalibrated != nanosPerPermit) {
+        LogHelper.info(
+            () -> "Recalibrating rate limit to {} requests per minute (Discogs limit {})",
+            budget,
+            status.limit());
+        nanosPerPermit = recalibrated;
+      }
+      int reserve = status.limit() - budget;
+      double available = Math.max(0, status.remaining() - reserve);
+      if (storedPermits > available) {
+        LogHelper.debug(
+            () -> "Discogs reports {} requests remaining; trimming stored permits to {}",
+            status.remaining(),
+            available);
+        storedPermits = available;
+      }
+      if (!waiters.isEmpty()) {
+        scheduleDrain(now);
+      }
+    } finally {
+      lock.unlock();
     }
+  }
 
-    CompletableFuture<Void> future = new CompletableFuture<>();
-    waitingQueue.offer(future);
-    LogHelper.debug(() -> "Request queued. Queue size: {}", waitingQueue.size());
-    return future;
+  /**
+   * Returns the current refill rate in permits per minute.
+   *
+   * @return the permits refilled per minute
+   */
+  public long getPermitsPerMinute() {
+    lock.lock();
+    try {
+      return NANOS_PER_MINUTE / nanosPerPermit;
+    } finally {
+      lock.unlock();
+    }
   }
 
-  /** Shuts down the scheduler, releasing all resources. */
+  /**
+   * Returns the number of requests currently waiting for a permit.
+   *
+   * @return the queue length
+   */
+  public int getQueueLength() {
+    lock.lock();
+    try {
+      return (int) waiters.stream().filter(waiter -> !waiter.future().isDone()).count();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Shuts down the scheduler, failing any queued requests. */
+  @PreDestroy
   public void shutdown() {
     log.info("Shutting down the RateLimiter scheduler...");
+    List<Waiter> remaining;
+    lock.lock();
+    try {
+      remaining = new ArrayList<>(waiters);
+      waiters.clear();
+    } finally {
+      lock.unlock();
+    }
+    remaining.forEach(
+        waiter ->
+            waiter
+                .future()
+                .completeExceptionally(new InterruptedException("Rate limiter shutdown")));
 
-    // Complete any remaining queued requests with interruption
-    waitingQueue.forEach(
-        future -> future.completeExceptionally(new InterruptedException("Rate limiter shutdown")));
-    waitingQueue.clear();
+    scheduler.shutdownNow();
+    LogHelper.info(() -> "RateLimiter scheduler shutdown completed.");
+  }
 
-    scheduler.shutdown();
+  /**
+   * Grants permits to queued requests in priority order, fails those whose deadline has passed and
+   * schedules the next wake-up if requests remain. Futures are completed outside the lock so that
+   * dependent stages never run while it is held.
+   */
+  private void drain() {
+    List<Waiter> granted = new ArrayList<>();
+    List<Waiter> expired = new ArrayList<>();
+    lock.lock();
     try {
-      if (!scheduler.awaitTermination(1, TimeUnit.MINUTES)) {
-        LogHelper.warn(() -> "Forcing shutdown of the scheduler...");
-        scheduler.shutdownNow();
+      pendingDrain = null;
+      long now = System.nanoTime();
+      refill(now);
+      waiters.removeIf(
+          waiter -> {
+            if (waiter.future().isDone()) {
+              return true;
+            }
+            if (waiter.deadline().isExpiredAt(now)) {
+              expired.add(waiter);
+              return true;
+            }
+            return false;
+          });
+      while (storedPermits >= 1 && !waiters.isEmpty()) {
+        storedPermits -= 1;
+        granted.add(waiters.poll());
       }
-    } catch (final InterruptedException e) {
-      Thread.currentThread().interrupt();
-      LogHelper.error(() -> "Shutdown interrupted. Forcing shutdown now.", e);
-      scheduler.shutdownNow();
+      if (!waiters.isEmpty()) {
+        scheduleDrain(now);
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    expired.forEach(
+        waiter ->
+            waiter
+                .future()
+                .completeExceptionally(
+                    new RateLimitTimeoutException("Rate limit permit not granted in time")));
+    int unused = 0;
+    for (final Waiter waiter : granted) {
+      if (!waiter.future().complete(null)) {
+        unused++;
+      }
+    }
+    if (unused > 0) {
+      returnPermits(unused);
+    }
+    LogHelper.debug(() -> "Granted {} queued requests.", granted.size());
+  }
+
+  /**
+   * Returns permits granted to requests that were cancelled before the grant landed.
+   *
+   * @param permits the number of permits to return
+   */
+  private void returnPermits(final int permits) {
+    lock.lock();
+    try {
+      storedPermits = Math.min(burstCapacity, storedPermits + permits);
+      if (!waiters.isEmpty()) {
+        scheduleDrain(System.nanoTime());
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Schedules the drain timer for the earlier of the next permit becoming available and the first
+   * queued deadline. An already scheduled drain that fires no later is kept. Must be called with
+   * the lock held.
+   *
+   * @param now the current {@link System#nanoTime()} value
+   */
+  private void scheduleDrain(final long now) {
+    long delay = storedPermits >= 1 ? 0 : (long) Math.ceil((1 - storedPermits) * nanosPerPermit);
+    for (final Waiter waiter : waiters) {
+      if (waiter.deadline().bounded()) {
+        delay = Math.min(delay, Math.max(0, waiter.deadline().expiresAtNanos() - now));
+      }
+    }
+    if (pendingDrain != null) {
+      if (pendingDrain.getDelay(TimeUnit.NANOSECONDS) <= delay) {
+        return;
+      }
+      pendingDrain.cancel(false);
+    }
+    if (!scheduler.isShutdown()) {
+      pendingDrain = scheduler.schedule(this::drain, delay, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Estimates how long a new request of the given priority would wait, assuming every request
+   * queued ahead of it is served first. Must be called with the lock held.
+   *
+   * @param priority the priority of the new request
+   * @return the estimated wait in nanoseconds
+   */
+  private long estimateWaitNanos(final Priority priority) {
+    long ahead =
+        waiters.stream()
+            .filter(waiter -> !waiter.future().isDone())
+            .filter(waiter -> waiter.priority().compareTo(priority) <= 0)
+            .count();
+    double deficit = ahead + 1 - storedPermits;
+    return deficit <= 0 ? 0 : (long) Math.ceil(deficit * nanosPerPermit);
+  }
+
+  /**
+   * Adds the tokens accrued since the last refill, capped at the burst capacity. Must be called
+   * with the lock held.
+   *
+   * @param now the current {@link System#nanoTime()} value
+   */
+  private void refill(final long now) {
+    long elapsed = now - lastRefillNanos;
+    if (elapsed > 0) {
+      storedPermits = Math.min(burstCapacity, storedPermits + (double) elapsed / nanosPerPermit);
+      lastRefillNanos = now;
+    }
+  }
+
+  /** Drops cancelled or completed requests from the head of the queue. */
+  private void discardCompletedHead() {
+    while (!waiters.isEmpty() && waiters.peek().future().isDone()) {
+      waiters.poll();
     }
-    LogHelper.info(() -> "RateLimiter scheduler shutdown completed.");
   }
+
+  private record Waiter(
+      CompletableFuture<Void> future, Priority priority, long sequence, Deadline deadline) {}
 }
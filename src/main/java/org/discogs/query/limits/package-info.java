@@ -8,8 +8,9 @@
  * <p>Classes and interfaces in this package include:
  *
  * <ul>
- *   <li>{@link org.discogs.query.limits.RateLimiter} - An interface for implementing rate limiting
- *       strategies.
+ *   <li>{@link org.discogs.query.limits.RateLimiter} - A token-bucket rate limiter with a priority
+ *       wait queue.
+ *   <li>{@link org.discogs.query.limits.Deadline} - A deadline by which a permit must be granted.
  * </ul>
  */
 package org.discogs.query.limits;
@@ -7,6 +7,10 @@ import java.util.List;
 /**
  * Data Transfer Object (DTO) representing an entry in Discogs. This class encapsulates details
  * about a Discogs entry such as ID, title, format, and URLs.
+ *
+ * <p>{@code stalePrice} is {@code true} when the lowest price and number for sale come from a
+ * cached marketplace result that was served past its time to live because Discogs was
+ * unavailable, and absent otherwise.
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record DiscogsEntryDTO(
@@ -19,4 +23,32 @@ public record DiscogsEntryDTO(
     String year,
     Boolean isOnMarketplace,
     Float lowestPrice,
-    Integer numberForSale) {}
+    Integer numberForSale,
+    Boolean stalePrice) {
+
+  /** Creates an entry whose price, if any, is current. */
+  public DiscogsEntryDTO(
+      final int id,
+      final String title,
+      final List<String> format,
+      final String url,
+      final String uri,
+      final String country,
+      final String year,
+      final Boolean isOnMarketplace,
+      final Float lowestPrice,
+      final Integer numberForSale) {
+    this(
+        id,
+        title,
+        format,
+        url,
+        uri,
+        country,
+        year,
+        isOnMarketplace,
+        lowestPrice,
+        numberForSale,
+        null);
+  }
+}
@@ -2,12 +2,27 @@ package org.discogs.query.model;
 
 import java.util.List;
 import java.util.Map;
+import org.discogs.query.model.enums.QueryStatus;
 
 /**
  * Data Transfer Object (DTO) representing the results of a Discogs search query. This class
  * encapsulates a map of {@link DiscogsEntryDTO} objects that match the search criteria.
+ *
+ * <p>{@code status} and {@code skippedEntries} are carried over from the {@link DiscogsResultDTO},
+ * so clients can tell incomplete results apart and repeat just the queries that need it.
  */
 public record DiscogsMapResultDTO(
     DiscogsQueryDTO searchQuery,
     Map<String, List<DiscogsEntryDTO>> results,
-    DiscogsEntryDTO cheapestItem) {}
+    DiscogsEntryDTO cheapestItem,
+    QueryStatus status,
+    int skippedEntries) {
+
+  /** Creates the results of a query that was answered completely. */
+  public DiscogsMapResultDTO(
+      final DiscogsQueryDTO searchQuery,
+      final Map<String, List<DiscogsEntryDTO>> results,
+      final DiscogsEntryDTO cheapestItem) {
+    this(searchQuery, results, cheapestItem, QueryStatus.COMPLETE, 0);
+  }
+}
@@ -1,9 +1,79 @@
 package org.discogs.query.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.List;
+import org.discogs.query.model.enums.QueryStatus;
 
 /**
  * Data Transfer Object (DTO) representing the results of a Discogs search query. This class
  * encapsulates a list of {@link DiscogsEntryDTO} objects that match the search criteria.
+ *
+ * <p>{@code status} tells how completely the query was answered, and {@code skippedEntries} counts
+ * the search hits left out because their release or marketplace lookups failed or ran out of time,
+ * rather than because they did not match.
  */
-public record DiscogsResultDTO(DiscogsQueryDTO searchQuery, List<DiscogsEntryDTO> results) {}
+public record DiscogsResultDTO(
+    DiscogsQueryDTO searchQuery,
+    List<DiscogsEntryDTO> results,
+    QueryStatus status,
+    int skippedEntries) {
+
+  /** Creates the results of a query that was answered completely. */
+  public DiscogsResultDTO(final DiscogsQueryDTO searchQuery, final List<DiscogsEntryDTO> results) {
+    this(searchQuery, results, QueryStatus.COMPLETE, 0);
+  }
+
+  /**
+   * Creates the results of a query that could not be answered at all.
+   *
+   * @param searchQuery the query
+   * @param status why the query could not be answered
+   * @return results without entries carrying the given status
+   */
+  public static DiscogsResultDTO unanswered(
+      final DiscogsQueryDTO searchQuery, final QueryStatus status) {
+    return new DiscogsResultDTO(searchQuery, List.of(), status, 0);
+  }
+
+  /**
+   * Returns these results with other entries, keeping their status.
+   *
+   * @param entries the entries
+   * @return the results with the given entries
+   */
+  public DiscogsResultDTO withResults(final List<DiscogsEntryDTO> entries) {
+    return new DiscogsResultDTO(searchQuery, entries, status, skippedEntries);
+  }
+
+  /**
+   * Returns these results with another status.
+   *
+   * @param newStatus how completely the query was answered
+   * @param skipped the number of entries left out because their lookups did not succeed
+   * @return the results with the given status
+   */
+  public DiscogsResultDTO withStatus(final QueryStatus newStatus, final int skipped) {
+    return new DiscogsResultDTO(searchQuery, results, newStatus, skipped);
+  }
+
+  /**
+   * Checks whether the query was answered completely, so that its results may be cached.
+   *
+   * @return true if the status is {@link QueryStatus#COMPLETE} and the results are present
+   */
+  @JsonIgnore
+  public boolean isComplete() {
+    return status == QueryStatus.COMPLETE && results != null;
+  }
+
+  /**
+   * Checks whether these results are worth returning to the caller, which they are if they have
+   * entries or are incomplete, in which case their status tells the caller what is missing.
+   *
+   * @return true if there are entries or the query was not answered completely
+   */
+  @JsonIgnore
+  public boolean isWorthReturning() {
+    return (results != null && !results.isEmpty()) || !isComplete();
+  }
+}
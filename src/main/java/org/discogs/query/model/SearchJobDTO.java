@@ -0,0 +1,94 @@
+package org.discogs.query.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.discogs.query.model.enums.SearchJobStatus;
+
+/**
+ * Data Transfer Object (DTO) representing the state of an asynchronous search job.
+ *
+ * <p>While the job runs, {@code results} holds the results of the queries finished so far, in the
+ * order they finished. Once the job has completed it holds the final results, in the order of the
+ * queries in the request. Queries without entries are left out.
+ *
+ * @param id the ID of the job
+ * @param status the status of the job
+ * @param totalQueries the number of queries in the request
+ * @param completedQueries the number of queries that have finished, including failed ones
+ * @param failedQueries the number of queries that failed
+ * @param results the partial or final results of the job
+ * @param error the reason the job failed, or {@code null}
+ */
+public record SearchJobDTO(
+    String id,
+    SearchJobStatus status,
+    int totalQueries,
+    int completedQueries,
+    int failedQueries,
+    List<DiscogsMapResultDTO> results,
+    String error) {
+
+  /**
+   * Creates a job that is waiting to run.
+   *
+   * @param id the ID of the job
+   * @param totalQueries the number of queries in the request
+   * @return the queued job
+   */
+  public static SearchJobDTO queued(final String id, final int totalQueries) {
+    return new SearchJobDTO(id, SearchJobStatus.QUEUED, totalQueries, 0, 0, List.of(), null);
+  }
+
+  /**
+   * Returns a copy of this job with a different status.
+   *
+   * @param newStatus the new status
+   * @param reason the reason the job failed, or {@code null}
+   * @return the updated job
+   */
+  public SearchJobDTO withStatus(final SearchJobStatus newStatus, final String reason) {
+    return new SearchJobDTO(
+        id, newStatus, totalQueries, completedQueries, failedQueries, results, reason);
+  }
+
+  /**
+   * Returns a copy of this job counting one more finished query.
+   *
+   * @param result the mapped result of the query, or {@code null} if it has no entries or failed
+   * @param failed whether the query failed
+   * @return the updated job
+   */
+  public SearchJobDTO withQueryFinished(final DiscogsMapResultDTO result, final boolean failed) {
+    List<DiscogsMapResultDTO> partialResults = results;
+    if (result != null) {
+      partialResults = new ArrayList<>(results);
+      partialResults.add(result);
+      partialResults = List.copyOf(partialResults);
+    }
+    return new SearchJobDTO(
+        id,
+        status,
+        totalQueries,
+        completedQueries + 1,
+        failedQueries + (failed ? 1 : 0),
+        partialResults,
+        error);
+  }
+
+  /**
+   * Returns a copy of this job that has completed with its final results.
+   *
+   * @param finalResults the final results, in the order of the queries in the request
+   * @return the completed job
+   */
+  public SearchJobDTO completed(final List<DiscogsMapResultDTO> finalResults) {
+    return new SearchJobDTO(
+        id,
+        SearchJobStatus.COMPLETED,
+        totalQueries,
+        completedQueries,
+        failedQueries,
+        List.copyOf(finalResults),
+        null);
+  }
+}
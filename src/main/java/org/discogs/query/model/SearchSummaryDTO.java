@@ -0,0 +1,12 @@
+package org.discogs.query.model;
+
+/**
+ * Data Transfer Object (DTO) summarizing a streamed search, sent once every query in the request
+ * has finished.
+ *
+ * @param queries the number of queries in the request
+ * @param results the number of queries whose results were sent
+ * @param entries the total number of entries sent across all results
+ * @param failed the number of queries that failed
+ */
+public record SearchSummaryDTO(int queries, int results, int entries, int failed) {}
@@ -0,0 +1,33 @@
+package org.discogs.query.model.enums;
+
+/**
+ * Enum representing how completely a query was answered. The values are ordered from the most to
+ * the least complete, so combining the statuses of the parts of a query keeps the worst one.
+ */
+public enum QueryStatus {
+
+  /** Every lookup of the query succeeded. */
+  COMPLETE,
+
+  /** Every lookup succeeded, but some prices come from cached results served past their TTL. */
+  DEGRADED,
+
+  /** Some lookups failed, so entries that could not be checked or priced were left out. */
+  PARTIAL,
+
+  /** The request deadline passed before every lookup finished, so entries were left out. */
+  TIMED_OUT,
+
+  /** The query could not be answered at all. */
+  FAILED;
+
+  /**
+   * Combines this status with the status of another part of the same query.
+   *
+   * @param other the status of the other part
+   * @return the less complete of the two statuses
+   */
+  public QueryStatus and(final QueryStatus other) {
+    return compareTo(other) >= 0 ? this : other;
+  }
+}
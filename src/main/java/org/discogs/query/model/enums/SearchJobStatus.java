@@ -0,0 +1,29 @@
+package org.discogs.query.model.enums;
+
+/** Enum representing the lifecycle of an asynchronous search job. */
+public enum SearchJobStatus {
+
+  /** The job is waiting for a free job thread. */
+  QUEUED,
+
+  /** The job's queries are being processed. */
+  RUNNING,
+
+  /** Every query of the job has finished. */
+  COMPLETED,
+
+  /** The job stopped because of an unexpected error. */
+  FAILED,
+
+  /** The job was cancelled before it finished. */
+  CANCELLED;
+
+  /**
+   * Checks whether the job has reached a final state and will not change again.
+   *
+   * @return true if the job has completed, failed or been cancelled
+   */
+  public boolean isFinished() {
+    return this == COMPLETED || this == FAILED || this == CANCELLED;
+  }
+}
@@ -33,14 +33,15 @@ public class MappingServiceImpl implements MappingService {
         entry.getYear(),
         entry.getIsOnMarketplace(),
         entry.getLowestPrice(),
-        entry.getNumberForSale());
+        entry.getNumberForSale(),
+        entry.getStalePrice());
   }
 
   /**
    * Converts a {@link DiscogsResultDTO} into a {@link DiscogsMapResultDTO}.
    *
    * @param discogsResultDTO the {@link DiscogsResultDTO} containing the list of entries
-   * @return a {@link DiscogsMapResultDTO} with entries grouped by title
+   * @return a {@link DiscogsMapResultDTO} with entries grouped by title, keeping the status
    * @throws IllegalArgumentException if {@code discogsResultDTO} is null
    */
   DiscogsMapResultDTO convertEntriesToMapByTitle(final DiscogsResultDTO discogsResultDTO) {
@@ -58,7 +59,11 @@ public class MappingServiceImpl implements MappingService {
                 Collectors.minBy(Comparator.comparing(DiscogsEntryDTO::lowestPrice)),
                 (groupMap, minOpt) ->
                     new DiscogsMapResultDTO(
-                        discogsResultDTO.searchQuery(), groupMap, minOpt.orElse(null))));
+                        discogsResultDTO.searchQuery(),
+                        groupMap,
+                        minOpt.orElse(null),
+                        discogsResultDTO.status(),
+                        discogsResultDTO.skippedEntries())));
   }
 
   @Override
@@ -85,6 +90,11 @@ public class MappingServiceImpl implements MappingService {
     }
   }
 
+  @Override
+  public DiscogsEntryDTO mapEntryToDTO(final DiscogsEntry entry) {
+    return convertEntryToEntryDTO(entry);
+  }
+
   private List<DiscogsEntryDTO> convertEntriesToDTOs(final List<DiscogsEntry> entries) {
     return entries.stream().map(MappingServiceImpl::convertEntryToEntryDTO).toList();
   }
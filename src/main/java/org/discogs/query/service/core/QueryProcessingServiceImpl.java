@@ -1,34 +1,60 @@
 package org.discogs.query.service.core;
 
 import jakarta.validation.Valid;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.Set;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.cache.QueryResultCache;
+import org.discogs.query.config.ExecutorConfig;
+import org.discogs.query.exceptions.DeadlineExceededException;
+import org.discogs.query.exceptions.NoMarketplaceListingsException;
 import org.discogs.query.helpers.LogHelper;
 import org.discogs.query.interfaces.DiscogsCollectionService;
 import org.discogs.query.interfaces.DiscogsQueryService;
 import org.discogs.query.interfaces.DiscogsWebScraperClient;
 import org.discogs.query.interfaces.NormalizationService;
 import org.discogs.query.interfaces.QueryProcessingService;
+import org.discogs.query.limits.Deadline;
 import org.discogs.query.model.DiscogsEntryDTO;
 import org.discogs.query.model.DiscogsQueryDTO;
 import org.discogs.query.model.DiscogsRequestDTO;
 import org.discogs.query.model.DiscogsResultDTO;
 import org.discogs.query.model.enums.DiscogsFormats;
+import org.discogs.query.model.enums.QueryStatus;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 /**
  * Service for processing Discogs queries using asynchronous tasks. This service handles query
  * processing, result filtering, and timeout management.
+ *
+ * <p>Queries are fanned out on the {@link ExecutorConfig#DISCOGS_EXECUTOR} executor rather than
+ * the common fork-join pool, as each task blocks on Discogs HTTP calls. A query is composed from
+ * the asynchronous search of its variants instead of waiting for it on a thread of its own, so
+ * only tasks doing Discogs work hold the executor's threads. The final result of each query is
+ * kept in the {@link QueryResultCache}, so repeated searches are answered without calling
+ * Discogs.
+ *
+ * <p>All queries of a request share one {@link Deadline}, which is passed down to every Discogs
+ * request they make. A query unfinished at the deadline is given up on, so a request takes no
+ * longer than its deadline however many variants its queries expand into. Cancelling the deadline
+ * stops the queries' remaining Discogs work in the same way. The variants of a query are searched
+ * together, so a release found by several of them is looked up only once.
+ *
+ * <p>UK listings are scraped on the {@link ExecutorConfig#SCRAPER_EXECUTOR} executor, so slow
+ * marketplace pages cannot hold up Discogs lookups. By default, an entry the scraper has no room
+ * for is scraped on the filtering thread. If the scraper is set to reject such entries instead,
+ * they are counted as skipped rather than failing the request.
  */
 @Slf4j
 @Service
@@ -39,6 +65,13 @@ public class QueryProcessingServiceImpl implements QueryProcessingService {
   private final NormalizationService normalizationService;
   private final DiscogsWebScraperClient discogsWebScraperClient;
   private final DiscogsCollectionService discogsCollectionService;
+  private final QueryResultCache queryResultCache;
+
+  @Qualifier(ExecutorConfig.DISCOGS_EXECUTOR)
+  private final Executor discogsExecutor;
+
+  @Qualifier(ExecutorConfig.SCRAPER_EXECUTOR)
+  private final Executor scraperExecutor;
 
   private List<DiscogsQueryDTO> generateQueriesBasedOnFormat(
       final @Valid DiscogsQueryDTO discogsQueryDTO) {
@@ -64,131 +97,247 @@ public class QueryProcessingServiceImpl implements QueryProcessingService {
   @Override
   public List<DiscogsResultDTO> processQueries(
       final DiscogsRequestDTO discogsRequestDTO, final long timeoutInSeconds) {
-    // Process each original query in parallel and collect unique results
-    List<DiscogsResultDTO> discogsResultDTOS =
-        discogsRequestDTO.queries().parallelStream()
-            .map(
-                originalQuery -> {
-                  List<DiscogsQueryDTO> expandedQueries =
-                      checkFormatOfQueryAndGenerateList(originalQuery);
-                  List<DiscogsQueryDTO> normalizedQueries =
-                      expandedQueries.stream().map(normalizationService::normalizeQuery).toList();
-                  List<CompletableFuture<DiscogsResultDTO>> futures =
-                      createFuturesForQueries(normalizedQueries);
-                  List<DiscogsResultDTO> combinedResults =
-                      handleFuturesWithTimeout(futures, timeoutInSeconds);
-                  Set<DiscogsEntryDTO> uniqueResults =
-                      combinedResults.stream()
-                          .flatMap(result -> result.results().stream())
-                          .collect(Collectors.toSet());
-                  return new DiscogsResultDTO(originalQuery, new ArrayList<>(uniqueResults));
-                })
-            .toList();
-
-    if (discogsRequestDTO.username() != null && !discogsRequestDTO.username().isBlank()) {
-      return discogsCollectionService.filterOwnedReleases(
-          discogsRequestDTO.username(), discogsResultDTOS);
-    }
-    return discogsResultDTOS;
+    return processQueries(
+        discogsRequestDTO, Deadline.after(Duration.ofSeconds(timeoutInSeconds)), false);
   }
 
-  private List<DiscogsQueryDTO> checkFormatOfQueryAndGenerateList(
-      final DiscogsQueryDTO discogsQueryDTO) {
-    return DiscogsFormats.ALL_VINYLS.getFormat().equalsIgnoreCase(discogsQueryDTO.format())
-        ? generateQueriesBasedOnFormat(discogsQueryDTO)
-        : Collections.singletonList(discogsQueryDTO);
+  @Override
+  public List<DiscogsResultDTO> processQueries(
+      final DiscogsRequestDTO discogsRequestDTO,
+      final Deadline deadline,
+      final boolean filterForUk) {
+    List<CompletableFuture<DiscogsResultDTO>> futures =
+        processQueriesAsync(discogsRequestDTO, deadline, filterForUk);
+    List<DiscogsResultDTO> discogsResultDTOS = new ArrayList<>(futures.size());
+    for (int i = 0; i < futures.size(); i++) {
+      discogsResultDTOS.add(joinBeforeDeadline(futures.get(i), discogsRequestDTO.queries().get(i)));
+    }
+
+    if (filterForUk) {
+      return discogsResultDTOS.stream().filter(DiscogsResultDTO::isWorthReturning).toList();
+    }
+    return discogsResultDTOS;
   }
 
   @Override
-  public List<DiscogsResultDTO> filterOutEntriesNotShippingFromUk(
-      final List<DiscogsResultDTO> results) {
-    return results.stream()
+  public List<CompletableFuture<DiscogsResultDTO>> processQueriesAsync(
+      final DiscogsRequestDTO discogsRequestDTO,
+      final Deadline deadline,
+      final boolean filterForUk) {
+    // Process each original query in parallel; each future completes with its unique results
+    return discogsRequestDTO.queries().stream()
         .map(
-            discogsResultDTO -> {
-              // Filter out DiscogsEntryDTOs that do not have UK marketplace listings
-              List<DiscogsEntryDTO> filteredEntries =
-                  discogsResultDTO.results().parallelStream()
-                      .filter(this::isUKMarketplaceEntry)
-                      .toList();
-              return new DiscogsResultDTO(discogsResultDTO.searchQuery(), filteredEntries);
+            originalQuery -> {
+              CompletableFuture<DiscogsResultDTO> future =
+                  processCachedQuery(
+                      originalQuery, discogsRequestDTO.username(), filterForUk, deadline);
+              return deadline.bounded()
+                  ? future.orTimeout(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS)
+                  : future;
             })
-        .filter(discogsResultDTO -> !discogsResultDTO.results().isEmpty())
         .toList();
   }
 
   /**
-   * Checks if a {@link DiscogsEntryDTO} has marketplace listings in the UK.
+   * Waits for the result of a query, replacing a query given up on at the deadline with one
+   * without results. Other failures are rethrown.
    *
-   * @param discogsEntryDTO the entry to check
-   * @return {@code true} if the entry has UK marketplace listings, {@code false} otherwise
+   * @param future the future of the query
+   * @param originalQuery the query as supplied in the request
+   * @return the result of the query
    */
-  private boolean isUKMarketplaceEntry(final DiscogsEntryDTO discogsEntryDTO) {
+  private static DiscogsResultDTO joinBeforeDeadline(
+      final CompletableFuture<DiscogsResultDTO> future, final DiscogsQueryDTO originalQuery) {
     try {
-      return !discogsWebScraperClient
-          .getMarketplaceResultsForRelease(String.valueOf(discogsEntryDTO.id()))
-          .isEmpty();
-    } catch (final Exception e) {
-      LogHelper.error(e::getMessage);
-      return false;
+      return future.join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof TimeoutException) {
+        LogHelper.warn(() -> "Query {} did not finish before the deadline", originalQuery);
+        return DiscogsResultDTO.unanswered(originalQuery, QueryStatus.TIMED_OUT);
+      }
+      throw e;
     }
   }
 
   /**
-   * Creates a list of asynchronous tasks (futures) for each query.
+   * Answers a single query from the request from the {@link QueryResultCache}, or processes it
+   * and caches the result. Only complete results are cached. Filtering the result blocks on HTTP
+   * calls, so it runs on the Discogs executor rather than on the thread that finished the search.
    *
-   * @param discogsQueryDTOList the list of {@link DiscogsQueryDTO} objects to process
-   * @return a list of {@link CompletableFuture} objects for each query
+   * @param originalQuery the query as supplied in the request
+   * @param username the user whose collection is filtered out, if any
+   * @param filterForUk whether to filter out entries not shipping from the UK
+   * @param deadline the deadline of the request
+   * @return a future completed with the final results for the original query
    */
-  private List<CompletableFuture<DiscogsResultDTO>> createFuturesForQueries(
-      final List<DiscogsQueryDTO> discogsQueryDTOList) {
-    return discogsQueryDTOList.stream()
-        .map(
-            query ->
-                CompletableFuture.supplyAsync(
-                    () -> {
-                      log.debug("Processing query: {}", query);
-                      return discogsQueryService.searchBasedOnQuery(query);
-                    }))
-        .toList();
+  private CompletableFuture<DiscogsResultDTO> processCachedQuery(
+      final DiscogsQueryDTO originalQuery,
+      final String username,
+      final boolean filterForUk,
+      final Deadline deadline) {
+    QueryResultCache.Key key =
+        QueryResultCache.Key.of(
+            normalizationService.normalizeQuery(originalQuery), username, filterForUk);
+    Optional<DiscogsResultDTO> cached = queryResultCache.get(key);
+    if (cached.isPresent()) {
+      return CompletableFuture.completedFuture(
+          new DiscogsResultDTO(originalQuery, cached.get().results()));
+    }
+
+    return processOriginalQuery(originalQuery, deadline)
+        .thenApplyAsync(
+            result -> filterAndCache(key, result, username, filterForUk, deadline),
+            discogsExecutor);
+  }
+
+  /**
+   * Filters the result of a query for the request and caches it if it is complete. A query whose
+   * deadline has passed or been cancelled by the time its search finishes is not filtered, as
+   * nobody waits for it any more; it is answered as timed out.
+   *
+   * @param key the key the result is cached under
+   * @param searched the result of the search
+   * @param username the user whose collection is filtered out, if any
+   * @param filterForUk whether to filter out entries not shipping from the UK
+   * @param deadline the deadline of the request
+   * @return the final result for the query
+   */
+  private DiscogsResultDTO filterAndCache(
+      final QueryResultCache.Key key,
+      final DiscogsResultDTO searched,
+      final String username,
+      final boolean filterForUk,
+      final Deadline deadline) {
+    if (deadline.isExpired()) {
+      return DiscogsResultDTO.unanswered(searched.searchQuery(), QueryStatus.TIMED_OUT);
+    }
+    DiscogsResultDTO result = searched;
+    if (key.username() != null) {
+      result =
+          discogsCollectionService
+              .filterOwnedReleases(username, List.of(result), deadline)
+              .getFirst();
+    }
+    if (filterForUk) {
+      result = filterEntriesNotShippingFromUk(result);
+    }
+    // Lookups abandoned at the deadline leave entries out, so such results are not cached
+    if (result.isComplete() && !deadline.isExpired()) {
+      queryResultCache.put(key, result);
+    }
+    return result;
   }
 
   /**
-   * Handles the completion of asynchronous tasks, enforcing a timeout for each query. If a query
-   * times out, the task is canceled.
+   * Expands and normalizes a single query from the request and searches for all of the resulting
+   * variants at once, so that releases found by several variants are only looked up once.
    *
-   * @param futures the list of {@link CompletableFuture} objects to process
-   * @param timeoutInSeconds the timeout in seconds for each query
-   * @return a list of {@link DiscogsResultDTO} objects, or an empty list if none are completed
-   *     within the timeout
+   * @param originalQuery the query as supplied in the request
+   * @param deadline the deadline of the request
+   * @return a future completed with the combined results for the original query
    */
-  private List<DiscogsResultDTO> handleFuturesWithTimeout(
-      final List<CompletableFuture<DiscogsResultDTO>> futures, final long timeoutInSeconds) {
-    return futures.stream()
-        .map(future -> getFutureResultWithTimeout(future, timeoutInSeconds))
-        .filter(Objects::nonNull)
-        .peek(result -> LogHelper.debug(() -> "Received result: {}", result))
+  private CompletableFuture<DiscogsResultDTO> processOriginalQuery(
+      final DiscogsQueryDTO originalQuery, final Deadline deadline) {
+    List<DiscogsQueryDTO> expandedQueries = checkFormatOfQueryAndGenerateList(originalQuery);
+    List<DiscogsQueryDTO> normalizedQueries =
+        expandedQueries.stream().map(normalizationService::normalizeQuery).toList();
+    LogHelper.debug(() -> "Processing queries: {}", normalizedQueries);
+    return discogsQueryService
+        .searchBasedOnQueriesAsync(normalizedQueries, deadline)
+        .handle(
+            (result, throwable) -> {
+              if (throwable != null) {
+                Throwable cause =
+                    throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                LogHelper.error(() -> "Error processing query", cause);
+                return DiscogsResultDTO.unanswered(
+                    originalQuery,
+                    DeadlineExceededException.isDeadlineExceeded(cause)
+                        ? QueryStatus.TIMED_OUT
+                        : QueryStatus.FAILED);
+              }
+              LogHelper.debug(() -> "Received result: {}", result);
+              if (result.results() == null) {
+                return DiscogsResultDTO.unanswered(originalQuery, QueryStatus.FAILED);
+              }
+              return new DiscogsResultDTO(
+                  originalQuery, result.results(), result.status(), result.skippedEntries());
+            });
+  }
+
+  private List<DiscogsQueryDTO> checkFormatOfQueryAndGenerateList(
+      final DiscogsQueryDTO discogsQueryDTO) {
+    return DiscogsFormats.ALL_VINYLS.getFormat().equalsIgnoreCase(discogsQueryDTO.format())
+        ? generateQueriesBasedOnFormat(discogsQueryDTO)
+        : Collections.singletonList(discogsQueryDTO);
+  }
+
+  @Override
+  public List<DiscogsResultDTO> filterOutEntriesNotShippingFromUk(
+      final List<DiscogsResultDTO> results) {
+    return results.stream()
+        .map(this::filterEntriesNotShippingFromUk)
+        .filter(DiscogsResultDTO::isWorthReturning)
         .toList();
   }
 
   /**
-   * Retrieves the result of a {@link CompletableFuture} with a specified timeout. If the future
-   * does not complete within the timeout, the task is canceled.
+   * Filters out the entries of a result without UK marketplace listings. Entries whose check could
+   * not run, because the scraper was saturated, failed or its circuit was open, are left out as
+   * skipped and mark the result as partial, so it is not cached.
    *
-   * @param future the {@link CompletableFuture} to retrieve the result from
-   * @param timeoutInSeconds the timeout in seconds
-   * @return the {@link DiscogsResultDTO} result, or {@code null} if the task was canceled or failed
+   * @param discogsResultDTO the result to filter
+   * @return the result with only the entries shipping from the UK
    */
-  private DiscogsResultDTO getFutureResultWithTimeout(
-      final CompletableFuture<DiscogsResultDTO> future, final long timeoutInSeconds) {
+  private DiscogsResultDTO filterEntriesNotShippingFromUk(final DiscogsResultDTO discogsResultDTO) {
+    List<DiscogsEntryDTO> entries = discogsResultDTO.results();
+    List<CompletableFuture<Boolean>> checks = new ArrayList<>(entries.size());
+    for (DiscogsEntryDTO entry : entries) {
+      try {
+        checks.add(
+            CompletableFuture.supplyAsync(() -> isUKMarketplaceEntry(entry), scraperExecutor));
+      } catch (final RejectedExecutionException e) {
+        checks.add(CompletableFuture.failedFuture(e));
+      }
+    }
+    List<DiscogsEntryDTO> filteredEntries = new ArrayList<>();
+    int failed = 0;
+    for (int i = 0; i < entries.size(); i++) {
+      Boolean shipsFromUk = checks.get(i).exceptionally(e -> null).join();
+      if (shipsFromUk == null) {
+        failed++;
+      } else if (shipsFromUk) {
+        filteredEntries.add(entries.get(i));
+      }
+    }
+    DiscogsResultDTO filtered = discogsResultDTO.withResults(filteredEntries);
+    if (failed == 0) {
+      return filtered;
+    }
+    int skipped = failed;
+    LogHelper.warn(
+        () -> "Could not check UK listings, skipped {} entries of query: {}",
+        skipped,
+        discogsResultDTO.searchQuery());
+    return filtered.withStatus(
+        filtered.status().and(QueryStatus.PARTIAL), filtered.skippedEntries() + skipped);
+  }
+
+  /**
+   * Checks if a {@link DiscogsEntryDTO} has marketplace listings in the UK.
+   *
+   * @param discogsEntryDTO the entry to check
+   * @return {@code true} if the entry has UK marketplace listings, {@code false} otherwise
+   * @throws NoMarketplaceListingsException if the marketplace could not be scraped
+   */
+  private boolean isUKMarketplaceEntry(final DiscogsEntryDTO discogsEntryDTO) {
     try {
-      return future.get(timeoutInSeconds, TimeUnit.SECONDS);
-    } catch (final InterruptedException | ExecutionException e) {
-      LogHelper.error(() -> "Error processing query", e);
-      return null;
-    } catch (final TimeoutException e) {
-      LogHelper.warn(() -> "Query processing timed out");
-      future.cancel(true);
-      return null;
+      return !discogsWebScraperClient
+          .getMarketplaceResultsForRelease(String.valueOf(discogsEntryDTO.id()))
+          .isEmpty();
+    } catch (final NoMarketplaceListingsException e) {
+      LogHelper.error(e::getMessage);
+      throw e;
     }
   }
 }
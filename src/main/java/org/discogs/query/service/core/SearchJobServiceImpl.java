@@ -0,0 +1,245 @@
+package org.discogs.query.service.core;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.UnaryOperator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.config.ExecutorConfig;
+import org.discogs.query.helpers.LogHelper;
+import org.discogs.query.interfaces.DeduplicationService;
+import org.discogs.query.interfaces.EmailService;
+import org.discogs.query.interfaces.JobStore;
+import org.discogs.query.interfaces.MappingService;
+import org.discogs.query.interfaces.QueryProcessingService;
+import org.discogs.query.interfaces.SearchJobService;
+import org.discogs.query.limits.Deadline;
+import org.discogs.query.model.DiscogsMapResultDTO;
+import org.discogs.query.model.DiscogsRequestDTO;
+import org.discogs.query.model.DiscogsResultDTO;
+import org.discogs.query.model.SearchJobDTO;
+import org.discogs.query.model.enums.SearchJobStatus;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service running search requests as asynchronous jobs on the {@link ExecutorConfig#JOB_EXECUTOR}
+ * executor.
+ *
+ * <p>A job thread starts the queries of its request and waits for them, recording each query's
+ * mapped and deduplicated results in the {@link JobStore} as soon as that query finishes. The job
+ * thread itself only waits, so the bounded job executor limits how many batches are processed at
+ * once, while the queries still fan out on the Discogs executor.
+ *
+ * <p>Cancelling a running job cancels the {@link Deadline} its queries share, which stops their
+ * remaining searches, lookups and rate limit waits, rather than only the job thread waiting for
+ * them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchJobServiceImpl implements SearchJobService {
+
+  private final QueryProcessingService queryProcessingService;
+  private final MappingService mappingService;
+  private final DeduplicationService deduplicationService;
+  private final EmailService emailService;
+  private final JobStore jobStore;
+  private final Map<String, Future<?>> runningJobs = new ConcurrentHashMap<>();
+  private final Map<String, Deadline> jobDeadlines = new ConcurrentHashMap<>();
+
+  @Qualifier(ExecutorConfig.JOB_EXECUTOR)
+  private final ExecutorService jobExecutor;
+
+  @Value("${queries.timeout:59}")
+  private int timeoutInSeconds;
+
+  @Value("${queries.filterForUk:true}")
+  private boolean isFilterForUk;
+
+  @Override
+  public SearchJobDTO submit(final DiscogsRequestDTO discogsRequestDTO, final String email) {
+    SearchJobDTO job =
+        SearchJobDTO.queued(UUID.randomUUID().toString(), discogsRequestDTO.queries().size());
+    jobStore.save(job);
+    FutureTask<Void> task = new FutureTask<>(() -> run(job.id(), discogsRequestDTO, email), null);
+    runningJobs.put(job.id(), task);
+    try {
+      jobExecutor.execute(task);
+    } catch (final RejectedExecutionException e) {
+      runningJobs.remove(job.id());
+      jobStore.update(
+          job.id(),
+          rejected -> rejected.withStatus(SearchJobStatus.FAILED, "Too many jobs are queued"));
+      LogHelper.warn(() -> "Rejected search job {}, too many jobs are queued", job.id());
+      throw e;
+    }
+    LogHelper.info(
+        () -> "Queued search job {} with {} queries", job.id(), discogsRequestDTO.queries().size());
+    return job;
+  }
+
+  @Override
+  public Optional<SearchJobDTO> find(final String id) {
+    return jobStore.find(id);
+  }
+
+  @Override
+  public Optional<SearchJobDTO> cancel(final String id) {
+    Optional<SearchJobDTO> job =
+        jobStore.update(
+            id,
+            current ->
+                current.status().isFinished()
+                    ? current
+                    : current.withStatus(SearchJobStatus.CANCELLED, null));
+    Deadline deadline = jobDeadlines.remove(id);
+    if (deadline != null) {
+      deadline.cancel();
+    }
+    Future<?> task = runningJobs.remove(id);
+    if (task != null) {
+      task.cancel(true);
+      LogHelper.info(() -> "Cancelled search job {}", id);
+    }
+    return job;
+  }
+
+  /**
+   * Runs a job on a job thread, unless it was cancelled while queued. The deadline of the queries
+   * starts when the job starts running, not when it was queued. It is registered before the job is
+   * marked as running, so a job cancelled from then on always finds it.
+   *
+   * @param id the ID of the job
+   * @param discogsRequestDTO the request to process
+   * @param email the address to email the final results to, or {@code null}
+   */
+  private void run(final String id, final DiscogsRequestDTO discogsRequestDTO, final String email) {
+    Deadline deadline = Deadline.after(Duration.ofSeconds(timeoutInSeconds));
+    jobDeadlines.put(id, deadline);
+    try {
+      if (!markRunning(id)) {
+        return;
+      }
+      List<DiscogsMapResultDTO> results = processQueries(id, discogsRequestDTO, deadline);
+      Optional<SearchJobDTO> completed =
+          updateIfRunning(id, job -> job.completed(results)).filter(this::isCompleted);
+      if (completed.isEmpty()) {
+        return;
+      }
+      LogHelper.info(() -> "Search job {} completed with {} results", id, results.size());
+      if (email != null && !results.isEmpty()) {
+        emailService.sendResults(email, subject(discogsRequestDTO.username()), results);
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LogHelper.info(() -> "Search job {} was interrupted", id);
+    } catch (final Exception e) {
+      LogHelper.error(() -> "Search job {} failed", id, e);
+      updateIfRunning(id, job -> job.withStatus(SearchJobStatus.FAILED, e.getMessage()));
+    } finally {
+      runningJobs.remove(id);
+      jobDeadlines.remove(id);
+    }
+  }
+
+  /**
+   * Processes the queries of a job, recording each query's results as soon as it finishes.
+   *
+   * @param id the ID of the job
+   * @param discogsRequestDTO the request to process
+   * @param deadline the deadline shared by the queries of the job
+   * @return the results of the queries with entries, in the order of the queries in the request
+   * @throws InterruptedException if the job was cancelled while waiting for its queries
+   */
+  private List<DiscogsMapResultDTO> processQueries(
+      final String id, final DiscogsRequestDTO discogsRequestDTO, final Deadline deadline)
+      throws InterruptedException, ExecutionException {
+    List<CompletableFuture<DiscogsResultDTO>> futures =
+        queryProcessingService.processQueriesAsync(discogsRequestDTO, deadline, isFilterForUk);
+    DiscogsMapResultDTO[] results = new DiscogsMapResultDTO[futures.size()];
+    CompletableFuture<?>[] recorded = new CompletableFuture<?>[futures.size()];
+    for (int i = 0; i < futures.size(); i++) {
+      int index = i;
+      recorded[i] =
+          futures
+              .get(i)
+              .handle(
+                  (result, error) -> {
+                    results[index] = recordQuery(id, result, error);
+                    return null;
+                  });
+    }
+    try {
+      CompletableFuture.allOf(recorded).get();
+    } catch (final InterruptedException e) {
+      deadline.cancel();
+      throw e;
+    }
+    return Arrays.stream(results).filter(Objects::nonNull).toList();
+  }
+
+  /**
+   * Maps and deduplicates the results of a finished query and adds them to the job.
+   *
+   * @param id the ID of the job
+   * @param result the results of the query, or {@code null} if it failed
+   * @param error the reason the query failed, or {@code null}
+   * @return the mapped results, or {@code null} if the query failed or was answered completely
+   *     without entries
+   */
+  private DiscogsMapResultDTO recordQuery(
+      final String id, final DiscogsResultDTO result, final Throwable error) {
+    DiscogsMapResultDTO mapped = null;
+    if (error != null) {
+      LogHelper.error(() -> "Query of search job {} failed", id, error);
+    } else if (result.isWorthReturning()) {
+      List<DiscogsMapResultDTO> mappedResults = mappingService.mapResultsToDTO(List.of(result));
+      deduplicationService.filterDuplicateEntries(mappedResults);
+      mapped = mappedResults.getFirst();
+    }
+    DiscogsMapResultDTO finished = mapped;
+    updateIfRunning(id, job -> job.withQueryFinished(finished, error != null));
+    return mapped;
+  }
+
+  private boolean markRunning(final String id) {
+    return jobStore
+        .update(
+            id,
+            job ->
+                job.status() == SearchJobStatus.QUEUED
+                    ? job.withStatus(SearchJobStatus.RUNNING, null)
+                    : job)
+        .filter(job -> job.status() == SearchJobStatus.RUNNING)
+        .isPresent();
+  }
+
+  private Optional<SearchJobDTO> updateIfRunning(
+      final String id, final UnaryOperator<SearchJobDTO> update) {
+    return jobStore.update(
+        id, job -> job.status() == SearchJobStatus.RUNNING ? update.apply(job) : job);
+  }
+
+  private boolean isCompleted(final SearchJobDTO job) {
+    return job.status() == SearchJobStatus.COMPLETED;
+  }
+
+  private static String subject(final String username) {
+    return "Discogs search results"
+        + (username != null && !username.isBlank() ? (" for " + username) : "");
+  }
+}
@@ -3,96 +3,75 @@ package org.discogs.query.service.discogs;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
-import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.cache.ResourceRequest;
 import org.discogs.query.domain.api.DiscogsEntry;
 import org.discogs.query.domain.api.DiscogsRelease;
 import org.discogs.query.domain.api.DiscogsResult;
-import org.discogs.query.domain.api.release.Artist;
-import org.discogs.query.domain.api.release.Track;
+import org.discogs.query.domain.api.ReleaseMatchProfile;
 import org.discogs.query.exceptions.DiscogsSearchException;
 import org.discogs.query.helpers.LogHelper;
 import org.discogs.query.interfaces.DiscogsAPIClient;
 import org.discogs.query.interfaces.DiscogsFilterService;
+import org.discogs.query.interfaces.DiscogsFilterService.Match.Outcome;
 import org.discogs.query.interfaces.NormalizationService;
+import org.discogs.query.limits.Deadline;
 import org.discogs.query.model.DiscogsQueryDTO;
+import org.discogs.query.model.enums.DiscogsFormats;
 import org.discogs.query.util.DiscogsUrlBuilder;
 import org.discogs.query.util.StringHelper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
 /**
- * Implementation of {@link DiscogsFilterService} for filtering and sorting Discogs search results.
- * This service handles the logic for applying filters based on the artist and track name, as well
- * as sorting results by price.
+ * Implementation of {@link DiscogsFilterService} for filtering Discogs search results. This service
+ * handles the logic for matching search hits against the artist and track name of a query. Hits
+ * are matched one at a time as they pass through the search pipeline, which also prices and sorts
+ * them.
+ *
+ * <p>Releases are matched through their {@link ReleaseMatchProfile}, which is cached instead of
+ * the full release and holds every name already normalized.
+ *
+ * <p>Release lookups are the largest use of the Discogs rate budget, so each search hit is first
+ * checked against the fields of the hit itself. Hits whose format or country rule them out are
+ * dropped, and hits of queries without a track whose title already names the artist are kept,
+ * both without fetching the release. The release is only fetched when its tracklist or credits
+ * are needed to decide. Every kept hit is priced from the marketplace later on, never from the
+ * cached profile, which outlives the prices of its release.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DiscogsFilterServiceImpl implements DiscogsFilterService {
 
+  static final String RELEASE_PROFILES = "releaseProfiles";
+
+  /** The number Discogs appends to artists sharing a name, such as "Nirvana (2)". */
+  private static final Pattern ARTIST_NUMBER = Pattern.compile("\\s*\\(\\d+\\)$");
+
+  private static final Match MATCHED_FROM_HIT = new Match(Outcome.MATCHED, true);
+  private static final Match NOT_MATCHED_FROM_HIT = new Match(Outcome.NOT_MATCHED, true);
+  private static final Match NOT_MATCHED = new Match(Outcome.NOT_MATCHED, false);
+  private static final Match UNAVAILABLE = new Match(Outcome.UNAVAILABLE, false);
+  private static final Match MATCHED = new Match(Outcome.MATCHED, false);
+
   private final DiscogsAPIClient discogsAPIClient;
   private final DiscogsUrlBuilder discogsUrlBuilder;
   private final StringHelper stringHelper;
   private final NormalizationService normalizationService;
+  private final CacheManager cacheManager;
 
-  /**
-   * Checks if the track title from the query DTO matches or is contained in the given track title.
-   *
-   * @param discogsQueryDTO the search query data transfer object containing the track title.
-   * @param track the {@link Track} object containing the track title.
-   * @return {@code true} if the track titles match or if the track title contains the query track
-   *     title, otherwise {@code false}.
-   */
-  private boolean isTrackEqualToOrContains(
-      final DiscogsQueryDTO discogsQueryDTO, final Track track) {
-    String title =
-        normalizationService.normalizeString(track.getTitle().toLowerCase(Locale.ENGLISH));
-    String normalizedQueryTrack = normalizationService.normalizeString(discogsQueryDTO.track());
-
-    return title.equalsIgnoreCase(normalizedQueryTrack)
-        || title.contains(normalizedQueryTrack.toLowerCase(Locale.ENGLISH));
-  }
-
-  /**
-   * Checks if the artist name from the query DTO matches the given artist name.
-   *
-   * @param discogsQueryDTO the search query data transfer object containing the artist name.
-   * @param artistName the artist name to compare with.
-   * @return {@code true} if the artist names match, otherwise {@code false}.
-   */
-  private boolean isArtistNameMatching(
-      final DiscogsQueryDTO discogsQueryDTO, final String artistName) {
-    String normalizedArtistName = normalizationService.normalizeString(artistName);
-    String normalizedDiscogsArtist = normalizationService.normalizeString(discogsQueryDTO.artist());
-
-    return normalizedArtistName.equalsIgnoreCase(normalizedDiscogsArtist);
-  }
-
-  /**
-   * Filters and sorts Discogs search results based on the provided query data. Filters out entries
-   * without a price and sorts the remaining entries by lowest price.
-   *
-   * @param discogsQueryDTO the search query data transfer object containing filter criteria.
-   * @param results the Discogs search results to be filtered and sorted.
-   */
   @Override
-  public void filterAndSortResults(
-      final DiscogsQueryDTO discogsQueryDTO, final DiscogsResult results) {
-    LogHelper.info(() -> "Filtering and sorting results for query: {}", discogsQueryDTO);
-
-    var filteredAndSortedResults =
-        results.getResults().parallelStream()
-            .filter(entry -> filterIfTrackOnAlbum(entry, discogsQueryDTO))
-            .filter(entry -> Objects.nonNull(entry.getLowestPrice()))
-            .sorted((e1, e2) -> Float.compare(e1.getLowestPrice(), e2.getLowestPrice()))
-            .toList();
-
-    LogHelper.info(
-        () -> "Filtered and sorted {} results out of {}",
-        filteredAndSortedResults.size(),
-        results.getResults().size());
-    results.setResults(filteredAndSortedResults);
+  public Function<DiscogsEntry, Match> matcher(
+      final DiscogsQueryDTO discogsQueryDTO, final Deadline deadline) {
+    ProfileQuery query = ProfileQuery.of(discogsQueryDTO, normalizationService::normalizeString);
+    return entry -> filterIfTrackOnAlbum(entry, discogsQueryDTO, query, deadline);
   }
 
   /**
@@ -105,10 +84,14 @@ public class DiscogsFilterServiceImpl implements DiscogsFilterService {
    */
   @Override
   public DiscogsRelease getReleaseDetails(final DiscogsEntry discogsEntry) {
+    return fetchRelease(discogsEntry, discogsUrlBuilder.buildReleaseRequest(discogsEntry));
+  }
+
+  private DiscogsRelease fetchRelease(
+      final DiscogsEntry discogsEntry, final ResourceRequest releaseRequest) {
     try {
-      String releaseUrl = discogsUrlBuilder.buildReleaseUrl(discogsEntry);
-      LogHelper.debug(() -> "Retrieving release details from URL: {}", releaseUrl);
-      DiscogsRelease release = discogsAPIClient.getRelease(releaseUrl);
+      LogHelper.debug(() -> "Retrieving release details for {}", releaseRequest);
+      DiscogsRelease release = discogsAPIClient.getRelease(releaseRequest);
       LogHelper.info(() -> "Retrieved release details for entry ID {}", discogsEntry.getId());
       return release;
     } catch (final Exception e) {
@@ -143,6 +126,40 @@ public class DiscogsFilterServiceImpl implements DiscogsFilterService {
     results.setResults(filteredResults);
   }
 
+  /**
+   * Returns the match profile of the release behind a Discogs entry, building and caching it from
+   * the full release on a miss.
+   *
+   * @param discogsEntry the Discogs entry containing the release ID.
+   * @return the {@link ReleaseMatchProfile} of the release.
+   * @throws DiscogsSearchException if an error occurs while retrieving the release details.
+   */
+  @Override
+  public ReleaseMatchProfile getReleaseProfile(final DiscogsEntry discogsEntry) {
+    return getReleaseProfile(discogsEntry, Deadline.none());
+  }
+
+  @Override
+  public ReleaseMatchProfile getReleaseProfile(
+      final DiscogsEntry discogsEntry, final Deadline deadline) {
+    ResourceRequest releaseRequest =
+        discogsUrlBuilder.buildReleaseRequest(discogsEntry).withDeadline(deadline);
+    Optional<Cache> cache = Optional.ofNullable(cacheManager.getCache(RELEASE_PROFILES));
+    ReleaseMatchProfile cached =
+        cache.map(c -> c.get(releaseRequest.key(), ReleaseMatchProfile.class)).orElse(null);
+    if (cached != null) {
+      return cached;
+    }
+    DiscogsRelease release = fetchRelease(discogsEntry, releaseRequest);
+    if (release == null) {
+      return null;
+    }
+    ReleaseMatchProfile profile =
+        ReleaseMatchProfile.of(release, normalizationService::normalizeString);
+    cache.ifPresent(c -> c.put(releaseRequest.key(), profile));
+    return profile;
+  }
+
   /**
    * Filters a Discogs entry based on whether it contains the specified track on the album. This
    * method checks if the artist and track match the query criteria and whether the entry is not
@@ -150,121 +167,155 @@ public class DiscogsFilterServiceImpl implements DiscogsFilterService {
    *
    * @param discogsEntry the Discogs entry to be filtered.
    * @param discogsQueryDTO the search query data transfer object containing filter criteria.
-   * @return {@code true} if the entry matches the query criteria, otherwise {@code false}.
+   * @param query the artist and track of the query, normalized like release profiles.
+   * @param deadline the deadline by which the release is needed.
+   * @return whether the entry matches the query criteria, or {@link Outcome#UNAVAILABLE} if its
+   *     release could not be retrieved.
    */
-  private boolean filterIfTrackOnAlbum(
-      final DiscogsEntry discogsEntry, final DiscogsQueryDTO discogsQueryDTO) {
+  private Match filterIfTrackOnAlbum(
+      final DiscogsEntry discogsEntry,
+      final DiscogsQueryDTO discogsQueryDTO,
+      final ProfileQuery query,
+      final Deadline deadline) {
     try {
       LogHelper.debug(() -> "Filtering track on album for entry ID {}", discogsEntry.getId());
-      DiscogsRelease release = getReleaseDetails(discogsEntry);
-      if (release == null) {
+      Match fromHit = filterOnSearchHit(discogsEntry, discogsQueryDTO, query);
+      if (fromHit != null) {
+        LogHelper.debug(
+            () -> "Entry ID {} decided from its search hit: {}", discogsEntry.getId(), fromHit);
+        return fromHit;
+      }
+      ReleaseMatchProfile profile = getReleaseProfile(discogsEntry, deadline);
+      if (profile == null) {
         LogHelper.error(() -> "No release details found for entry ID {}", discogsEntry.getId());
-        return false;
+        return UNAVAILABLE;
       }
 
       boolean isOnAlbum =
           !stringHelper.isNotVariousArtist(discogsQueryDTO.artist())
-              || filterArtists(discogsQueryDTO, release);
+              || profile.hasArtist(query.artist());
 
       if (stringHelper.isNotNullOrBlank(discogsQueryDTO.track())) {
         LogHelper.info(() -> "Track specified in query. Applying filter and sorting results...");
-        isOnAlbum = filterTracks(discogsQueryDTO, release);
+        isOnAlbum = filterTracks(query, profile);
       }
 
       if (isOnAlbum) {
         LogHelper.debug(
             () -> "Entry ID {} is on the album and matches the filters", discogsEntry.getId());
-        discogsEntry.setLowestPrice((float) release.getLowestPrice());
-      } else {
-        LogHelper.debug(() -> "Entry ID {} does not match album filters", discogsEntry.getId());
+        return MATCHED;
       }
-      return isOnAlbum;
+      LogHelper.debug(() -> "Entry ID {} does not match album filters", discogsEntry.getId());
+      return NOT_MATCHED;
     } catch (final Exception e) {
       LogHelper.error(
           () -> "Error filtering track on album for entry ID {}", discogsEntry.getId(), e);
-      return false;
+      return UNAVAILABLE;
     }
   }
 
   /**
-   * Filters a Discogs release based on the artist name provided in the query DTO. Checks both
-   * primary artists and extra artists for a match.
+   * Decides whether a search hit matches the query from the fields of the hit alone, where that
+   * is possible without its release. A hit whose format or country differs from the query does not
+   * match. A hit of a query without a track matches if the query is for various artists, or if
+   * the artist named in the hit's "Artist - Title" title is the artist of the query.
    *
-   * @param discogsQueryDTO the search query data transfer object containing the artist name.
-   * @param release the {@link DiscogsRelease} object containing the release details.
-   * @return {@code true} if the artist matches, otherwise {@code false}.
+   * @param discogsEntry the search hit.
+   * @param discogsQueryDTO the search query data transfer object containing filter criteria.
+   * @param query the normalized query.
+   * @return whether the hit matches, or {@code null} if the release is needed to decide.
    */
-  private boolean filterArtists(
-      final DiscogsQueryDTO discogsQueryDTO, final DiscogsRelease release) {
-    LogHelper.debug(() -> "Filtering artists for release ID {}", release.getId());
-    boolean isArtistMatch = isArtistMatchNameOrAnyNameVariations(discogsQueryDTO, release);
-    if (isArtistMatch) {
-      return isArtistMatch;
+  private Match filterOnSearchHit(
+      final DiscogsEntry discogsEntry,
+      final DiscogsQueryDTO discogsQueryDTO,
+      final ProfileQuery query) {
+    if (!query.allowsCountry(discogsEntry.getCountry())
+        || !query.allowsFormats(discogsEntry.getFormat())) {
+      return NOT_MATCHED_FROM_HIT;
     }
-    if (release.getExtraArtists() != null) {
-      LogHelper.debug(() -> "Checking extra artists for release ID {}", release.getId());
-      isArtistMatch =
-          release.getExtraArtists().parallelStream()
-              .anyMatch(artist -> isArtistNameMatching(discogsQueryDTO, artist.getName()));
+    if (stringHelper.isNotNullOrBlank(discogsQueryDTO.track())) {
+      return null;
     }
-    LogHelper.debug(
-        () -> "Artist match status for release ID {}: {}", release.getId(), isArtistMatch);
-    return isArtistMatch;
+    if (!stringHelper.isNotVariousArtist(discogsQueryDTO.artist())
+        || query.artist().equals(titleArtist(discogsEntry.getTitle()))) {
+      return MATCHED_FROM_HIT;
+    }
+    return null;
   }
 
-  private boolean isArtistMatchNameOrAnyNameVariations(
-      final DiscogsQueryDTO discogsQueryDTO, final DiscogsRelease release) {
-    return release.getArtists().parallelStream()
-        .anyMatch(
-            artist ->
-                isArtistNameMatching(discogsQueryDTO, artist.getName())
-                    || isArtistNameMatching(discogsQueryDTO, artist.getAnv()));
+  /**
+   * Extracts the artist from the "Artist - Title" title of a search hit, dropping the asterisk
+   * marking a name variation and the number telling apart artists sharing a name.
+   *
+   * @param title the title of the search hit.
+   * @return the normalized artist, or {@code null} if the title does not name one.
+   */
+  private String titleArtist(final String title) {
+    int separator = title != null ? title.indexOf(" - ") : -1;
+    if (separator <= 0) {
+      return null;
+    }
+    String named = title.substring(0, separator).replace("*", "").strip();
+    String artist = ARTIST_NUMBER.matcher(named).replaceFirst("");
+    return ReleaseMatchProfile.normalize(artist, normalizationService::normalizeString);
   }
 
   /**
-   * Filters a Discogs release based on the track name provided in the query DTO. Checks if any
-   * track on the release matches or contains the provided track name.
+   * Filters a release based on the track name provided in the query. Checks if any track on the
+   * release contains the track name and, when the tracks credit artists, that one of them is the
+   * artist of the query.
    *
-   * @param discogsQueryDTO the search query data transfer object containing the track name.
-   * @param release the {@link DiscogsRelease} object containing the release details.
+   * @param query the normalized artist and track of the query.
+   * @param profile the {@link ReleaseMatchProfile} of the release.
    * @return {@code true} if the track matches, otherwise {@code false}.
    */
-  private boolean filterTracks(
-      final DiscogsQueryDTO discogsQueryDTO, final DiscogsRelease release) {
-    LogHelper.debug(() -> "Filtering tracks for release ID {}", release.getId());
+  private static boolean filterTracks(final ProfileQuery query, final ReleaseMatchProfile profile) {
     boolean trackMatch =
-        release.getTracklist().parallelStream()
-            .anyMatch(track -> isTrackEqualToOrContains(discogsQueryDTO, track));
-    if (trackMatch && isTrackListContainingArtists(release.getTracklist())) {
-      trackMatch =
-          release.getTracklist().stream()
-              .map(Track::getArtists)
-              .filter(Objects::nonNull)
-              .anyMatch(artists -> isArtistInTrackList(artists, discogsQueryDTO));
-    }
-    LogHelper.debug(() -> "Track match status for release ID {}: {}", release.getId(), trackMatch);
+        profile.hasTrackContaining(query.track())
+            && (!profile.trackArtistsListed() || profile.hasTrackArtist(query.artist()));
+    LogHelper.debug(() -> "Track match status for release ID {}: {}", profile.id(), trackMatch);
     return trackMatch;
   }
 
-  private boolean isTrackListContainingArtists(final List<Track> tracklist) {
-    return !tracklist.parallelStream()
-        .filter(track -> track.getArtists() != null)
-        .toList()
-        .isEmpty();
-  }
+  /**
+   * The artist and track of a query, normalized once per query for matching against profiles, and
+   * the format and country search hits must have.
+   *
+   * @param artist the normalized artist
+   * @param track the normalized track
+   * @param formats the lower-cased words of the format, each of which a hit's formats must list
+   * @param country the country of release, or {@code null} if any country will do
+   */
+  private record ProfileQuery(String artist, String track, List<String> formats, String country) {
 
-  private boolean isArtistInTrackList(
-      final List<Artist> artists, final DiscogsQueryDTO discogsQueryDTO) {
-    for (final Artist artist : artists) {
-      boolean match = isArtistNameMatching(discogsQueryDTO, artist.getName());
-      if (match) {
-        return true;
+    static ProfileQuery of(
+        final DiscogsQueryDTO discogsQueryDTO, final UnaryOperator<String> normalizer) {
+      return new ProfileQuery(
+          ReleaseMatchProfile.normalize(discogsQueryDTO.artist(), normalizer),
+          ReleaseMatchProfile.normalize(discogsQueryDTO.track(), normalizer),
+          formatWords(discogsQueryDTO.format()),
+          discogsQueryDTO.country() != null ? discogsQueryDTO.country().getCountryName() : null);
+    }
+
+    private static List<String> formatWords(final String format) {
+      if (format == null
+          || format.isBlank()
+          || DiscogsFormats.ALL_VINYLS.getFormat().equalsIgnoreCase(format)) {
+        return List.of();
       }
-      match = isArtistNameMatching(discogsQueryDTO, artist.getAnv());
-      if (match) {
+      return List.of(format.toLowerCase(Locale.ENGLISH).split("\\s+"));
+    }
+
+    boolean allowsCountry(final String hitCountry) {
+      return country == null || hitCountry == null || country.equalsIgnoreCase(hitCountry);
+    }
+
+    boolean allowsFormats(final List<String> hitFormats) {
+      if (formats.isEmpty() || hitFormats == null || hitFormats.isEmpty()) {
         return true;
       }
+      return formats.stream()
+          .allMatch(word -> hitFormats.stream().anyMatch(word::equalsIgnoreCase));
     }
-    return false;
   }
 }
@@ -1,41 +1,84 @@
 package org.discogs.query.service.discogs;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.cache.ResourceRequest;
+import org.discogs.query.config.ExecutorConfig;
 import org.discogs.query.domain.api.DiscogsEntry;
 import org.discogs.query.domain.api.DiscogsMarketplaceResult;
 import org.discogs.query.domain.api.DiscogsResult;
+import org.discogs.query.exceptions.DeadlineExceededException;
 import org.discogs.query.exceptions.DiscogsSearchException;
 import org.discogs.query.helpers.LogHelper;
 import org.discogs.query.interfaces.DiscogsAPIClient;
 import org.discogs.query.interfaces.DiscogsFilterService;
+import org.discogs.query.interfaces.DiscogsFilterService.Match;
+import org.discogs.query.interfaces.DiscogsFilterService.Match.Outcome;
 import org.discogs.query.interfaces.DiscogsQueryService;
 import org.discogs.query.interfaces.MappingService;
+import org.discogs.query.limits.Deadline;
+import org.discogs.query.model.DiscogsEntryDTO;
 import org.discogs.query.model.DiscogsQueryDTO;
 import org.discogs.query.model.DiscogsResultDTO;
 import org.discogs.query.model.enums.DiscogsFormats;
+import org.discogs.query.model.enums.QueryStatus;
 import org.discogs.query.util.DiscogsUrlBuilder;
 import org.discogs.query.util.StringHelper;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 /**
  * Implementation of {@link DiscogsQueryService} that interacts with the Discogs API. This service
  * handles search requests and processes the API responses.
+ *
+ * <p>The deadline of a search is attached to every Discogs request it makes, so the search,
+ * release and marketplace lookups all stop once it passes or is cancelled, and entries whose
+ * lookups did not finish in time are left out. Hits still waiting for the pipeline at that point
+ * are skipped without being looked up.
+ *
+ * <p>Entries left out because a lookup failed are counted, and the {@link QueryStatus} of the
+ * result tells whether it is complete, partial, cut off by the deadline or priced from stale
+ * marketplace results, so incomplete results are never passed off as complete ones.
+ *
+ * <p>The merged search hits pass through the search pipeline one at a time: each hit is matched,
+ * priced from the marketplace, checked for a price, given a fully qualified URI and mapped on the
+ * Discogs executor, so the lookups of different hits overlap. The priced entries are sorted once
+ * at the end. The searches of the variants and the hits of the pipeline are composed rather than
+ * joined, so no task on the Discogs executor waits for another one, and a bounded pool of platform
+ * threads cannot deadlock however many queries share it. Hits are copied rather than modified, as
+ * they are shared with the search results cache. The time spent in each stage is recorded in the
+ * {@value #STAGE_METRIC} timer, tagged by stage.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DiscogsQueryServiceImpl implements DiscogsQueryService {
 
+  static final String STAGE_METRIC = "discogs.search.stage";
   private static final String UNEXPECTED_ISSUE_OCCURRED = "Unexpected issue occurred";
+  private static final Comparator<DiscogsEntryDTO> BY_LOWEST_PRICE =
+      Comparator.comparing(DiscogsEntryDTO::lowestPrice);
   private final DiscogsAPIClient discogsAPIClient;
   private final MappingService mappingService;
   private final DiscogsUrlBuilder discogsUrlBuilder;
   private final DiscogsFilterService discogsFilterService;
   private final StringHelper stringHelper;
+  private final MeterRegistry meterRegistry;
+
+  @Qualifier(ExecutorConfig.DISCOGS_EXECUTOR)
+  private final Executor discogsExecutor;
 
   /**
    * Checks if the given {@link DiscogsQueryDTO} represents a compilation format.
@@ -55,38 +98,36 @@ public class DiscogsQueryServiceImpl implements DiscogsQueryService {
   }
 
   /**
-   * Updates the given {@link DiscogsEntry} with the lowest price and number for sale from the
-   * provided {@link DiscogsMarketplaceResult}.
+   * Adds search hits to merged ones, keeping the first hit for each release ID.
    *
-   * @param entry the DiscogsEntry to be updated.
-   * @param discogsMarketplaceResult the marketplace result containing price info.
+   * @param merged the merged hits by release ID
+   * @param entries the hits to add
    */
-  private static void setLowestPriceResultAndNumberForSale(
-      final DiscogsEntry entry, final DiscogsMarketplaceResult discogsMarketplaceResult) {
-    entry.setNumberForSale(discogsMarketplaceResult.getNumberForSale());
-    var lowestPriceResult = discogsMarketplaceResult.getResult();
-    if (lowestPriceResult != null) {
-      entry.setLowestPrice(lowestPriceResult.getValue());
-      LogHelper.debug(() -> "Amended lowest price for entry: {}", entry);
-    }
-  }
-
-  private static Stream<DiscogsEntry> concatStreams(
-      final DiscogsResult results, final DiscogsResult compResults) {
-    return Stream.concat(results.getResults().stream(), compResults.getResults().stream())
-        .distinct();
+  private static void mergeById(
+      final Map<Integer, DiscogsEntry> merged, final List<DiscogsEntry> entries) {
+    entries.forEach(entry -> merged.putIfAbsent(entry.getId(), entry));
   }
 
-  private static DiscogsEntry filterAndProcessEntry(
-      final DiscogsEntry entry, final DiscogsMarketplaceResult discogsMarketplaceResult) {
-    if (discogsMarketplaceResult != null) {
-      setLowestPriceResultAndNumberForSale(entry, discogsMarketplaceResult);
-      return entry;
-    } else {
-      LogHelper.warn(
-          () -> "Entry {} does not ship from United Kingdom or marketplace result is null.", entry);
-      return null;
-    }
+  /**
+   * Prices a matched search hit from its marketplace result and gives it a fully qualified URI. A
+   * hit with nothing for sale is left without a price rather than priced from an older lookup. The
+   * hit itself is left untouched.
+   *
+   * @param hit the matched search hit
+   * @param marketplaceResult the marketplace result of the hit
+   * @param uri the fully qualified URI of the hit
+   * @return a priced copy of the hit
+   */
+  private static DiscogsEntry priced(
+      final DiscogsEntry hit, final DiscogsMarketplaceResult marketplaceResult, final String uri) {
+    var lowestPriceResult = marketplaceResult.getResult();
+    Float lowestPrice = lowestPriceResult != null ? lowestPriceResult.getValue() : null;
+    return hit.toBuilder()
+        .uri(uri)
+        .lowestPrice(lowestPrice)
+        .numberForSale(marketplaceResult.getNumberForSale())
+        .stalePrice(marketplaceResult.isStale() ? Boolean.TRUE : null)
+        .build();
   }
 
   /**
@@ -98,108 +139,306 @@ public class DiscogsQueryServiceImpl implements DiscogsQueryService {
    */
   @Override
   public DiscogsResultDTO searchBasedOnQuery(final DiscogsQueryDTO discogsQueryDTO) {
+    return searchBasedOnQuery(discogsQueryDTO, Deadline.none());
+  }
+
+  /**
+   * Searches the Discogs database based on the provided query, within the given deadline.
+   *
+   * @param discogsQueryDTO the search query containing artist, track, and optional format
+   *     information
+   * @param deadline the deadline of the request the search is part of
+   * @return a {@link DiscogsResultDTO} with the search results and how completely they were found,
+   *     or without results if the search itself failed
+   */
+  @Override
+  public DiscogsResultDTO searchBasedOnQuery(
+      final DiscogsQueryDTO discogsQueryDTO, final Deadline deadline) {
+    return searchBasedOnQueries(List.of(discogsQueryDTO), deadline);
+  }
+
+  /**
+   * Searches the Discogs database for each variant of a query, then filters and prices the merged
+   * hits once. Releases found by several variants are only looked up once.
+   *
+   * @param discogsQueryDTOs the variants of the query, sharing their artist, album and track
+   * @param deadline the deadline of the request the search is part of
+   * @return a {@link DiscogsResultDTO} for the first variant with the merged search results and
+   *     how completely they were found, or without results if every search failed
+   */
+  @Override
+  public DiscogsResultDTO searchBasedOnQueries(
+      final List<DiscogsQueryDTO> discogsQueryDTOs, final Deadline deadline) {
     try {
-      LogHelper.info(() -> "Starting search for query: {}", discogsQueryDTO);
-      String searchUrl = discogsUrlBuilder.buildSearchUrl(discogsQueryDTO);
-      LogHelper.debug(() -> "Built search URL: {}", searchUrl);
-      DiscogsResult results = performSearch(searchUrl);
-      LogHelper.info(() -> "Received {} results from Discogs API", results.getResults().size());
-
-      if (stringHelper.isNotNullOrBlank(discogsQueryDTO.barcode())) {
-        return mappingService.mapObjectToDTO(results, discogsQueryDTO);
+      return searchBasedOnQueriesAsync(discogsQueryDTOs, deadline).join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
       }
+      throw e;
+    }
+  }
 
-      if (isCompilationFormat(discogsQueryDTO)
-          && !stringHelper.isNotNullOrBlank(discogsQueryDTO.album())) {
-        LogHelper.info(() -> "Processing compilation search...");
-        processCompilationSearch(discogsQueryDTO, results);
-        LogHelper.info(
-            () -> "Total results after processing compilation search: {}",
-            results.getResults().size());
-      }
+  @Override
+  public CompletableFuture<DiscogsResultDTO> searchBasedOnQueriesAsync(
+      final List<DiscogsQueryDTO> discogsQueryDTOs, final Deadline deadline) {
+    DiscogsQueryDTO discogsQueryDTO = discogsQueryDTOs.getFirst();
+    LogHelper.info(() -> "Starting search for query: {}", discogsQueryDTOs);
+    return planSearch(discogsQueryDTOs, deadline)
+        .thenCompose(
+            plan -> {
+              if (stringHelper.isNotNullOrBlank(discogsQueryDTO.barcode())) {
+                return CompletableFuture.completedFuture(
+                    barcodeResult(discogsQueryDTO, plan, deadline));
+              }
+              return runPipeline(plan, deadline)
+                  .thenApply(pipeline -> pipelineResult(discogsQueryDTO, plan, pipeline, deadline));
+            })
+        .exceptionally(
+            throwable ->
+                failedSearch(
+                    discogsQueryDTO,
+                    throwable instanceof CompletionException ? throwable.getCause() : throwable));
+  }
 
-      correctUriForResultEntries(results);
-      LogHelper.debug(() -> "URIs for result entries corrected");
-      filterAndSortResults(discogsQueryDTO, results);
-      getLowestPriceOnMarketplace(results);
-      discogsFilterService.filterOutEmptyLowestPrice(results);
-      DiscogsResultDTO resultDTO = mappingService.mapObjectToDTO(results, discogsQueryDTO);
-      LogHelper.info(
-          () -> "Search processing completed successfully for query: {}", discogsQueryDTO);
-      return resultDTO;
-    } catch (final DiscogsSearchException e) {
+  /**
+   * Maps the search hits of a barcode search, which are neither matched nor priced.
+   *
+   * @param discogsQueryDTO the query the result is for
+   * @param plan the merged search hits
+   * @param deadline the deadline of the search
+   * @return the result of the search
+   */
+  private DiscogsResultDTO barcodeResult(
+      final DiscogsQueryDTO discogsQueryDTO, final SearchPlan plan, final Deadline deadline) {
+    List<DiscogsEntryDTO> hits =
+        plan.hits().stream()
+            .map(hit -> mappingService.mapEntryToDTO(hit.toBuilder().uri(uriOf(hit)).build()))
+            .toList();
+    return new DiscogsResultDTO(discogsQueryDTO, hits)
+        .withStatus(plan.status(QueryStatus.COMPLETE, deadline), 0);
+  }
+
+  private static DiscogsResultDTO pipelineResult(
+      final DiscogsQueryDTO discogsQueryDTO,
+      final SearchPlan plan,
+      final PipelineResult pipeline,
+      final Deadline deadline) {
+    QueryStatus status = plan.status(pipeline.status(deadline), deadline);
+    DiscogsResultDTO resultDTO =
+        new DiscogsResultDTO(discogsQueryDTO, pipeline.entries())
+            .withStatus(status, pipeline.skipped());
+    LogHelper.info(
+        () -> "Search processing completed with status {} for query: {}", status, discogsQueryDTO);
+    return resultDTO;
+  }
+
+  /**
+   * Turns the failure of a search into a result without entries, or rethrows it if it was not a
+   * failure of the Discogs API.
+   *
+   * @param discogsQueryDTO the query the search was for
+   * @param failure the failure of the search
+   * @return a result without entries, telling whether the search failed or ran out of time
+   * @throws DiscogsSearchException if the failure was unexpected
+   */
+  private static DiscogsResultDTO failedSearch(
+      final DiscogsQueryDTO discogsQueryDTO, final Throwable failure) {
+    if (failure instanceof DiscogsSearchException e) {
       LogHelper.error(
           () -> "DiscogsSearchException while processing query: {}. Error: {}",
           discogsQueryDTO,
           e.getMessage(),
           e);
-      return new DiscogsResultDTO(null, null);
-    } catch (final Exception e) {
-      LogHelper.error(
-          () -> UNEXPECTED_ISSUE_OCCURRED + " while processing query: {}. Error: {}",
+      return DiscogsResultDTO.unanswered(
           discogsQueryDTO,
-          e.getMessage(),
-          e);
-      throw new DiscogsSearchException(UNEXPECTED_ISSUE_OCCURRED, e);
+          DeadlineExceededException.isDeadlineExceeded(e)
+              ? QueryStatus.TIMED_OUT
+              : QueryStatus.FAILED);
     }
+    LogHelper.error(
+        () -> UNEXPECTED_ISSUE_OCCURRED + " while processing query: {}. Error: {}",
+        discogsQueryDTO,
+        failure.getMessage(),
+        failure);
+    throw new DiscogsSearchException(
+        UNEXPECTED_ISSUE_OCCURRED,
+        failure instanceof Exception e ? e : new CompletionException(failure));
   }
 
   /**
-   * Performs a search request to the Discogs API and retrieves results.
+   * The search hits of every variant of a query, merged by release ID, before any release or
+   * marketplace lookups.
    *
-   * @param searchUrl the URL for the search request
-   * @return a {@link DiscogsResult} containing search results
+   * @param hits the merged search hits
+   * @param filterQuery the query the merged hits are filtered on, which leaves out the format of
+   *     several variants, as each variant's hits were already searched by its own format
+   * @param failedSearches the number of variants whose search failed
    */
-  private DiscogsResult performSearch(final String searchUrl) {
-    LogHelper.info(() -> "Sending search request to Discogs API...");
-    return discogsAPIClient.getResultsForQuery(searchUrl);
+  private record SearchPlan(
+      List<DiscogsEntry> hits, DiscogsQueryDTO filterQuery, int failedSearches) {
+
+    /**
+     * Combines the status of the lookups with the searches that failed.
+     *
+     * @param lookupStatus the status of the release and marketplace lookups
+     * @param deadline the deadline of the search
+     * @return the status of the whole search
+     */
+    QueryStatus status(final QueryStatus lookupStatus, final Deadline deadline) {
+      if (failedSearches == 0) {
+        return lookupStatus;
+      }
+      return lookupStatus.and(deadline.isExpired() ? QueryStatus.TIMED_OUT : QueryStatus.PARTIAL);
+    }
   }
 
   /**
-   * Filters and sorts the search results based on the query.
+   * Searches for every variant of a query concurrently on the Discogs executor, and merges their
+   * hits by release ID once every search has finished.
    *
-   * @param discogsQueryDTO the search query
-   * @param results the search results to be filtered and sorted
+   * @param discogsQueryDTOs the variants of the query
+   * @param deadline the deadline of the search
+   * @return a future completed with the merged search hits, or failed with the failure of the last
+   *     variant if the search of every variant failed
    */
-  private void filterAndSortResults(
-      final DiscogsQueryDTO discogsQueryDTO, final DiscogsResult results) {
-    LogHelper.info(() -> "Filtering and sorting results");
-    discogsFilterService.filterAndSortResults(discogsQueryDTO, results);
-    LogHelper.info(() -> "Filtering and sorting completed");
+  private CompletableFuture<SearchPlan> planSearch(
+      final List<DiscogsQueryDTO> discogsQueryDTOs, final Deadline deadline) {
+    List<CompletableFuture<List<DiscogsEntry>>> futures =
+        discogsQueryDTOs.stream()
+            .map(
+                query ->
+                    CompletableFuture.supplyAsync(() -> search(query, deadline), discogsExecutor))
+            .toList();
+    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+        .handle((ignored, throwable) -> mergeSearches(discogsQueryDTOs, futures));
+  }
+
+  /**
+   * Merges the hits of the finished searches of every variant of a query.
+   *
+   * @param discogsQueryDTOs the variants of the query
+   * @param futures the finished searches, in the order of the variants
+   * @return the merged search hits
+   * @throws RuntimeException the failure of the last variant if the search of every variant failed
+   */
+  private static SearchPlan mergeSearches(
+      final List<DiscogsQueryDTO> discogsQueryDTOs,
+      final List<CompletableFuture<List<DiscogsEntry>>> futures) {
+    if (futures.size() == 1) {
+      return new SearchPlan(futures.getFirst().join(), discogsQueryDTOs.getFirst(), 0);
+    }
+    Map<Integer, DiscogsEntry> merged = new LinkedHashMap<>();
+    RuntimeException failure = null;
+    int failed = 0;
+    for (CompletableFuture<List<DiscogsEntry>> future : futures) {
+      try {
+        mergeById(merged, future.join());
+      } catch (final CompletionException e) {
+        LogHelper.warn(() -> "Search of a query variant failed: {}", e.getCause().getMessage());
+        failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+        failed++;
+      }
+    }
+    if (failed == futures.size()) {
+      throw failure;
+    }
+    int hits = merged.size();
+    LogHelper.info(
+        () -> "Merged the hits of {} query variants into {} releases", futures.size(), hits);
+    DiscogsQueryDTO first = discogsQueryDTOs.getFirst();
+    DiscogsQueryDTO filterQuery =
+        new DiscogsQueryDTO(
+            first.artist(),
+            first.album(),
+            first.track(),
+            first.title(),
+            null,
+            first.country(),
+            first.types(),
+            first.barcode());
+    return new SearchPlan(List.copyOf(merged.values()), filterQuery, failed);
+  }
+
+  /**
+   * Searches for a single variant of a query, including the compilation search it may need.
+   *
+   * @param discogsQueryDTO the variant of the query
+   * @param deadline the deadline of the search
+   * @return the search hits
+   */
+  private List<DiscogsEntry> search(
+      final DiscogsQueryDTO discogsQueryDTO, final Deadline deadline) {
+    return time(
+        "search",
+        () -> {
+          ResourceRequest searchRequest =
+              discogsUrlBuilder.buildSearchRequest(discogsQueryDTO).withDeadline(deadline);
+          LogHelper.debug(() -> "Built search request: {}", searchRequest);
+          List<DiscogsEntry> hits = performSearch(searchRequest).getResults();
+          LogHelper.info(() -> "Received {} results from Discogs API", hits.size());
+
+          if (isCompilationFormat(discogsQueryDTO)
+              && !stringHelper.isNotNullOrBlank(discogsQueryDTO.album())
+              && !stringHelper.isNotNullOrBlank(discogsQueryDTO.barcode())) {
+            LogHelper.info(() -> "Processing compilation search...");
+            List<DiscogsEntry> merged = processCompilationSearch(discogsQueryDTO, hits, deadline);
+            LogHelper.info(
+                () -> "Total results after processing compilation search: {}", merged.size());
+            return merged;
+          }
+          return hits;
+        });
+  }
+
+  /**
+   * Performs a search request to the Discogs API and retrieves results.
+   *
+   * @param searchRequest the search request
+   * @return a {@link DiscogsResult} containing search results
+   */
+  private DiscogsResult performSearch(final ResourceRequest searchRequest) {
+    LogHelper.info(() -> "Sending search request to Discogs API...");
+    return discogsAPIClient.getResultsForQuery(searchRequest);
   }
 
   /**
    * Processes compilation search results by merging them with the original results.
    *
    * @param discogsQueryDTO the search query
-   * @param results the original search results
+   * @param hits the original search hits
+   * @param deadline the deadline of the search
+   * @return the original hits followed by the compilation hits not among them
    */
-  private void processCompilationSearch(
-      final DiscogsQueryDTO discogsQueryDTO, final DiscogsResult results) {
+  private List<DiscogsEntry> processCompilationSearch(
+      final DiscogsQueryDTO discogsQueryDTO,
+      final List<DiscogsEntry> hits,
+      final Deadline deadline) {
     LogHelper.debug(() -> "Generating compilation search URL for query: {}", discogsQueryDTO);
-    String searchUrl = discogsUrlBuilder.generateCompilationSearchUrl(discogsQueryDTO);
-    LogHelper.debug(() -> "Compilation search URL: {}", searchUrl);
-    DiscogsResult compResults = discogsAPIClient.getResultsForQuery(searchUrl);
+    ResourceRequest searchRequest =
+        discogsUrlBuilder.generateCompilationSearchRequest(discogsQueryDTO).withDeadline(deadline);
+    LogHelper.debug(() -> "Compilation search request: {}", searchRequest);
+    DiscogsResult compResults = discogsAPIClient.getResultsForQuery(searchRequest);
     LogHelper.info(
         () -> "Received {} compilation results from Discogs API", compResults.getResults().size());
-    List<DiscogsEntry> mergedResults = concatStreams(results, compResults).toList();
-    results.setResults(mergedResults);
+    Map<Integer, DiscogsEntry> merged = new LinkedHashMap<>();
+    mergeById(merged, hits);
+    mergeById(merged, compResults.getResults());
     LogHelper.debug(
-        () -> "Merged results with compilation results. Total results: {}",
-        results.getResults().size());
+        () -> "Merged results with compilation results. Total results: {}", merged.size());
+    return new ArrayList<>(merged.values());
   }
 
   /**
-   * Corrects the URIs for result entries to ensure they are fully qualified.
+   * Returns the fully qualified URI of a search hit.
    *
-   * @param results the search results containing entries with URIs
+   * @param entry the search hit
+   * @return the URI of the hit, prefixed with the Discogs website if it is relative
    */
-  private void correctUriForResultEntries(final DiscogsResult results) {
-    LogHelper.debug(() -> "Correcting URIs for result entries");
-    results.getResults().parallelStream()
-        .filter(entry -> !entry.getUri().contains(discogsUrlBuilder.getDiscogsWebsiteBaseUrl()))
-        .forEach(entry -> entry.setUri(buildCorrectUri(entry)));
-    LogHelper.debug(() -> "URI correction completed");
+  private String uriOf(final DiscogsEntry entry) {
+    return entry.getUri().contains(discogsUrlBuilder.getDiscogsWebsiteBaseUrl())
+        ? entry.getUri()
+        : buildCorrectUri(entry);
   }
 
   /**
@@ -213,37 +452,161 @@ public class DiscogsQueryServiceImpl implements DiscogsQueryService {
   }
 
   /**
-   * Retrieves the lowest price for each entry from the marketplace and updates the entry.
+   * Runs every merged search hit through the search pipeline concurrently on the Discogs executor,
+   * then sorts the priced entries by lowest price once every hit has been through.
    *
-   * @param results the search results containing entries
+   * @param plan the merged search hits and the query they are matched against
+   * @param deadline the deadline of the search
+   * @return a future completed with the sorted entries and the number of hits left out because a
+   *     lookup failed
    */
-  private void getLowestPriceOnMarketplace(final DiscogsResult results) {
-    if (results == null || results.getResults().isEmpty()) {
-      LogHelper.warn(() -> "No results found in DiscogsResult.");
-      return;
-    }
-    List<DiscogsEntry> filteredResults =
-        results.getResults().parallelStream()
+  private CompletableFuture<PipelineResult> runPipeline(
+      final SearchPlan plan, final Deadline deadline) {
+    Function<DiscogsEntry, Match> matcher =
+        discogsFilterService.matcher(plan.filterQuery(), deadline);
+    List<CompletableFuture<Processed>> futures =
+        plan.hits().stream()
             .map(
-                entry -> {
-                  try {
-                    var discogsMarketplaceResult = getDiscogsMarketplaceResult(entry);
-                    return filterAndProcessEntry(entry, discogsMarketplaceResult);
-                  } catch (final Exception e) {
-                    LogHelper.error(
-                        () -> "Failed to process entry: {} due to {}", entry, e.getMessage(), e);
-                    return null;
-                  }
-                })
-            .filter(Objects::nonNull)
+                hit ->
+                    CompletableFuture.supplyAsync(
+                        () -> process(hit, matcher, deadline), discogsExecutor))
             .toList();
-    results.setResults(filteredResults);
+    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+        .thenApply(ignored -> collect(futures));
+  }
+
+  /**
+   * Collects the entries of the hits that made it through the search pipeline and sorts them.
+   *
+   * @param futures the finished pipeline of every hit
+   * @return the sorted entries and the number of hits left out because a lookup failed
+   */
+  private PipelineResult collect(final List<CompletableFuture<Processed>> futures) {
+    List<DiscogsEntryDTO> entries = new ArrayList<>();
+    int skipped = 0;
+    for (CompletableFuture<Processed> future : futures) {
+      Processed processed = future.join();
+      if (processed.entry() != null) {
+        entries.add(processed.entry());
+      } else if (processed.skipped()) {
+        skipped++;
+      }
+    }
+    List<DiscogsEntryDTO> sorted =
+        time("sort", () -> entries.stream().sorted(BY_LOWEST_PRICE).toList());
+    int left = skipped;
+    LogHelper.info(
+        () -> "Kept {} of {} search hits, skipping {} whose lookups failed",
+        sorted.size(),
+        futures.size(),
+        left);
+    return new PipelineResult(sorted, skipped);
+  }
+
+  /**
+   * Takes a single search hit through the stages of the search pipeline: matching, marketplace
+   * enrichment, then the price check and mapping.
+   *
+   * @param hit the search hit
+   * @param matcher the matcher for the query
+   * @param deadline the deadline of the search
+   * @return the mapped entry, or why the hit was left out
+   */
+  private Processed process(
+      final DiscogsEntry hit,
+      final Function<DiscogsEntry, Match> matcher,
+      final Deadline deadline) {
+    if (deadline.isExpired()) {
+      return Processed.SKIPPED;
+    }
+    Match match = time("match", () -> matcher.apply(hit));
+    if (match.outcome() == Outcome.UNAVAILABLE) {
+      return Processed.SKIPPED;
+    }
+    if (!match.matched()) {
+      return Processed.DROPPED;
+    }
+    DiscogsMarketplaceResult marketplaceResult;
+    try {
+      marketplaceResult = time("enrich", () -> getDiscogsMarketplaceResult(hit, deadline));
+    } catch (final Exception e) {
+      LogHelper.error(() -> "Failed to process entry: {} due to {}", hit, e.getMessage(), e);
+      return Processed.SKIPPED;
+    }
+    if (marketplaceResult == null) {
+      LogHelper.warn(
+          () -> "Entry {} does not ship from United Kingdom or marketplace result is null.", hit);
+      return Processed.DROPPED;
+    }
+    return time(
+        "map",
+        () -> {
+          DiscogsEntry entry = priced(hit, marketplaceResult, uriOf(hit));
+          if (entry.getLowestPrice() == null || entry.getLowestPrice() == 0f) {
+            return Processed.DROPPED;
+          }
+          LogHelper.debug(() -> "Amended lowest price for entry: {}", entry);
+          return new Processed(mappingService.mapEntryToDTO(entry), false);
+        });
+  }
+
+  /**
+   * Records the time spent in a stage of the search pipeline.
+   *
+   * @param stage the name of the stage
+   * @param action the work done in the stage
+   * @param <T> the type of the result of the stage
+   * @return the result of the stage
+   */
+  private <T> T time(final String stage, final Supplier<T> action) {
+    return Timer.builder(STAGE_METRIC)
+        .description("Time spent in each stage of the search pipeline")
+        .tag("stage", stage)
+        .register(meterRegistry)
+        .record(action);
+  }
+
+  /**
+   * What became of a search hit in the search pipeline.
+   *
+   * @param entry the mapped entry, or {@code null} if the hit was left out
+   * @param skipped whether the hit was left out because a lookup failed, rather than because it did
+   *     not match or has no price
+   */
+  private record Processed(DiscogsEntryDTO entry, boolean skipped) {
+    static final Processed DROPPED = new Processed(null, false);
+    static final Processed SKIPPED = new Processed(null, true);
+  }
+
+  /**
+   * The outcome of the search pipeline.
+   *
+   * @param entries the priced entries, sorted by lowest price
+   * @param skipped the number of hits left out because their lookups did not succeed
+   */
+  private record PipelineResult(List<DiscogsEntryDTO> entries, int skipped) {
+
+    /**
+     * Determines the status of the pipeline from the hits it left out and the prices it used.
+     *
+     * @param deadline the deadline of the search
+     * @return the status of the release and marketplace lookups
+     */
+    QueryStatus status(final Deadline deadline) {
+      if (skipped > 0) {
+        return deadline.isExpired() ? QueryStatus.TIMED_OUT : QueryStatus.PARTIAL;
+      }
+      boolean stale = entries.stream().anyMatch(entry -> Boolean.TRUE.equals(entry.stalePrice()));
+      return stale ? QueryStatus.DEGRADED : QueryStatus.COMPLETE;
+    }
   }
 
-  private DiscogsMarketplaceResult getDiscogsMarketplaceResult(final DiscogsEntry entry) {
+  private DiscogsMarketplaceResult getDiscogsMarketplaceResult(
+      final DiscogsEntry entry, final Deadline deadline) {
     LogHelper.debug(() -> "Generating marketplace URL for entry: {}", entry);
-    String marketplaceUrl = discogsUrlBuilder.buildMarketplaceUrl(entry);
+    ResourceRequest marketplaceRequest =
+        discogsUrlBuilder.buildMarketplaceRequest(entry).withDeadline(deadline);
     LogHelper.debug(() -> "Getting marketplace result for entry: {}", entry);
-    return discogsAPIClient.getMarketplaceResultForQuery(marketplaceUrl);
+    return discogsAPIClient.getMarketplaceResultForQuery(marketplaceRequest);
   }
 }
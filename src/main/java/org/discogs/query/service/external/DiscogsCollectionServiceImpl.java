@@ -4,10 +4,12 @@ import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.cache.ResourceRequest;
 import org.discogs.query.domain.api.DiscogsCollectionRelease;
 import org.discogs.query.helpers.LogHelper;
 import org.discogs.query.interfaces.DiscogsAPIClient;
 import org.discogs.query.interfaces.DiscogsCollectionService;
+import org.discogs.query.limits.Deadline;
 import org.discogs.query.model.DiscogsEntryDTO;
 import org.discogs.query.model.DiscogsResultDTO;
 import org.discogs.query.util.DiscogsUrlBuilder;
@@ -27,7 +29,7 @@ public class DiscogsCollectionServiceImpl implements DiscogsCollectionService {
 
   @Override
   public List<DiscogsResultDTO> filterOwnedReleases(
-      final String username, final List<DiscogsResultDTO> entries) {
+      final String username, final List<DiscogsResultDTO> entries, final Deadline deadline) {
     if (!searchCollection || entries == null || entries.isEmpty()) {
       if (entries == null || entries.isEmpty()) {
         LogHelper.warn(() -> "No entries provided for filtering.");
@@ -39,7 +41,7 @@ public class DiscogsCollectionServiceImpl implements DiscogsCollectionService {
             entry -> {
               List<DiscogsEntryDTO> filtered =
                   Optional.ofNullable(entry.results()).orElse(List.of()).stream()
-                      .filter(release -> !isReleaseOwnedByUser(username, release.id()))
+                      .filter(release -> !isReleaseOwnedByUser(username, release.id(), deadline))
                       .toList();
               if (filtered.isEmpty()) {
                 LogHelper.warn(
@@ -47,7 +49,7 @@ public class DiscogsCollectionServiceImpl implements DiscogsCollectionService {
               } else {
                 LogHelper.info(() -> "Filtered results for {}: {}", entry.searchQuery(), filtered);
               }
-              return new DiscogsResultDTO(entry.searchQuery(), filtered);
+              return entry.withResults(filtered);
             })
         .toList();
   }
@@ -57,13 +59,18 @@ public class DiscogsCollectionServiceImpl implements DiscogsCollectionService {
    *
    * @param username Discogs username.
    * @param releaseId ID of the release to check.
+   * @param deadline the deadline of the request the lookup is made for.
    * @return true if the release is owned by the user, false otherwise.
    */
-  private boolean isReleaseOwnedByUser(final String username, final int releaseId) {
+  private boolean isReleaseOwnedByUser(
+      final String username, final int releaseId, final Deadline deadline) {
     try {
-      String collectionUrl =
-          discogsUrlBuilder.buildCollectionSearchUrl(username, String.valueOf(releaseId));
-      DiscogsCollectionRelease ownedRelease = discogsAPIClient.getCollectionReleases(collectionUrl);
+      ResourceRequest collectionRequest =
+          discogsUrlBuilder
+              .buildCollectionSearchRequest(username, releaseId)
+              .withDeadline(deadline);
+      DiscogsCollectionRelease ownedRelease =
+          discogsAPIClient.getCollectionReleases(collectionRequest);
       var releases = Optional.ofNullable(ownedRelease.releases()).orElse(List.of());
       boolean owned =
           releases.stream()
@@ -0,0 +1,30 @@
+package org.discogs.query.service.infrastructure;
+
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.discogs.query.interfaces.CircuitBreakerService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the state of each circuit breaker at {@code
+ * /actuator/circuitbreakers}.
+ */
+@Component
+@Endpoint(id = "circuitbreakers")
+@RequiredArgsConstructor
+public class CircuitBreakerEndpoint {
+
+  private final CircuitBreakerService circuitBreakerService;
+
+  /**
+   * Returns a snapshot of every circuit breaker.
+   *
+   * @return the snapshots keyed by endpoint
+   */
+  @ReadOperation
+  public Map<CircuitBreakerService.Endpoint, CircuitBreakerService.Snapshot> circuitBreakers() {
+    return circuitBreakerService.getSnapshots();
+  }
+}
@@ -1,127 +1,160 @@
 package org.discogs.query.service.infrastructure;
 
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.exceptions.DeadlineExceededException;
 import org.discogs.query.helpers.LogHelper;
 import org.discogs.query.interfaces.CircuitBreakerService;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 
 /**
  * Circuit breaker implementation to handle persistent failures from external services. Follows the
  * circuit breaker pattern with CLOSED, OPEN, and HALF_OPEN states.
+ *
+ * <p>Every {@link Endpoint} gets its own {@link SlidingWindowCircuitBreaker} built from the same
+ * settings. A breaker opens when the failure rate or slow-call rate over its sliding window reaches
+ * the configured threshold, and lets a bounded number of probe calls through when half-open.
  */
 @Slf4j
 @Service
 public class CircuitBreakerServiceImpl implements CircuitBreakerService {
 
-  /** Circuit breaker state management. */
-  private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
-
-  /** Counters for tracking failures */
-  private final AtomicInteger failureCount = new AtomicInteger(0);
-
-  /** Counter for tracking successful calls in HALF_OPEN state */
-  private final AtomicInteger successCount = new AtomicInteger(0);
-
-  /** Timestamp of the last failure to determine when to reset the circuit breaker. */
-  private final AtomicLong lastFailureTime = new AtomicLong(0);
-
-  /** Configuration properties for the circuit breaker. */
-  @Value("${circuit-breaker.failure-threshold:5}")
-  private int failureThreshold;
-
-  /** Timeout duration for the circuit breaker to reset from OPEN to HALF_OPEN state. */
-  @Value("${circuit-breaker.timeout-duration:60000}")
-  private long timeoutDuration; // milliseconds
+  private final Map<Endpoint, SlidingWindowCircuitBreaker> breakers;
 
   /**
-   * Maximum number of successful calls required to reset the circuit breaker from HALF_OPEN to
-   * CLOSED state.
+   * Creates a breaker for every endpoint.
+   *
+   * @param slidingWindowSize the number of most recent calls evaluated by each breaker
+   * @param minimumCalls the number of calls needed before the rates are evaluated
+   * @param failureRateThreshold the failure percentage at or above which a breaker opens
+   * @param slowCallRateThreshold the slow-call percentage at or above which a breaker opens
+   * @param slowCallDuration the duration in milliseconds beyond which a call counts as slow
+   * @param timeoutDuration the time in milliseconds a breaker stays OPEN before allowing probes
+   * @param halfOpenMaxCalls the number of probe calls allowed while HALF_OPEN
    */
-  @Value("${circuit-breaker.half-open-max-calls:3}")
-  private int halfOpenMaxCalls;
+  public CircuitBreakerServiceImpl(
+      @Value("${circuit-breaker.sliding-window-size:20}") final int slidingWindowSize,
+      @Value("${circuit-breaker.minimum-calls:10}") final int minimumCalls,
+      @Value("${circuit-breaker.failure-rate-threshold:50}") final float failureRateThreshold,
+      @Value("${circuit-breaker.slow-call-rate-threshold:80}") final float slowCallRateThreshold,
+      @Value("${circuit-breaker.slow-call-duration:10000}") final long slowCallDuration,
+      @Value("${circuit-breaker.timeout-duration:60000}") final long timeoutDuration,
+      @Value("${circuit-breaker.half-open-max-calls:3}") final int halfOpenMaxCalls) {
+    SlidingWindowCircuitBreaker.Settings settings =
+        new SlidingWindowCircuitBreaker.Settings(
+            slidingWindowSize,
+            Math.min(minimumCalls, slidingWindowSize),
+            failureRateThreshold,
+            slowCallRateThreshold,
+            TimeUnit.MILLISECONDS.toNanos(slowCallDuration),
+            TimeUnit.MILLISECONDS.toNanos(timeoutDuration),
+            halfOpenMaxCalls);
+    Map<Endpoint, SlidingWindowCircuitBreaker> byEndpoint = new EnumMap<>(Endpoint.class);
+    for (final Endpoint endpoint : Endpoint.values()) {
+      byEndpoint.put(endpoint, new SlidingWindowCircuitBreaker(endpoint.name(), settings));
+    }
+    this.breakers = Collections.unmodifiableMap(byEndpoint);
+  }
 
   @Override
-  public <T> T execute(final OperationWithException<T> operation) throws Exception {
-    State currentState = state.get();
-
-    if (currentState == State.OPEN) {
-      if (shouldAttemptReset()) {
-        state.set(State.HALF_OPEN);
-        successCount.set(0);
-        LogHelper.info(() -> "Circuit breaker transitioning from OPEN to HALF_OPEN");
-      } else {
-        LogHelper.warn(() -> "Circuit breaker is OPEN - rejecting call");
-        throw new CircuitBreakerOpenException("Circuit breaker is OPEN");
-      }
-    }
+  public <T> T execute(final Endpoint endpoint, final OperationWithException<T> operation)
+      throws Exception {
+    SlidingWindowCircuitBreaker breaker = breakers.get(endpoint);
+    SlidingWindowCircuitBreaker.Permission permission = breaker.acquirePermission();
 
     try {
       T result = operation.execute();
-      onSuccess();
+      breaker.onResult(permission, true);
       return result;
     } catch (final Exception e) {
-      onFailure();
+      onFailure(breaker, permission, e);
       throw e;
     }
   }
 
-  /** Records a successful operation. */
-  private void onSuccess() {
-    State currentState = state.get();
-
-    if (currentState == State.HALF_OPEN) {
-      int successes = successCount.incrementAndGet();
-      if (successes >= halfOpenMaxCalls) {
-        reset();
-        LogHelper.info(
-            () -> "Circuit breaker reset to CLOSED after {} successful calls", successes);
-      }
-    } else if (currentState == State.CLOSED) {
-      failureCount.set(0);
+  @Override
+  public <T> CompletableFuture<T> executeAsync(
+      final Endpoint endpoint, final Supplier<CompletableFuture<T>> operation) {
+    SlidingWindowCircuitBreaker breaker = breakers.get(endpoint);
+    SlidingWindowCircuitBreaker.Permission permission;
+    try {
+      permission = breaker.acquirePermission();
+    } catch (final CircuitBreakerOpenException e) {
+      return CompletableFuture.failedFuture(e);
     }
-  }
-
-  /** Records a failed operation. */
-  private void onFailure() {
-    lastFailureTime.set(System.currentTimeMillis());
-    int failures = failureCount.incrementAndGet();
-
-    State currentState = state.get();
 
-    if (currentState == State.HALF_OPEN
-        || (currentState == State.CLOSED && failures >= failureThreshold)) {
-      state.set(State.OPEN);
-      LogHelper.warn(() -> "Circuit breaker opening after {} failures", failures);
+    try {
+      return operation
+          .get()
+          .whenComplete(
+              (result, throwable) -> {
+                if (throwable == null) {
+                  breaker.onResult(permission, true);
+                } else {
+                  onFailure(breaker, permission, throwable);
+                }
+              });
+    } catch (final RuntimeException e) {
+      onFailure(breaker, permission, e);
+      return CompletableFuture.failedFuture(e);
     }
   }
 
-  /** Resets the circuit breaker to CLOSED state. */
-  private void reset() {
-    state.set(State.CLOSED);
-    failureCount.set(0);
-    successCount.set(0);
+  /**
+   * Records a failed call, unless it was abandoned because the caller's deadline passed. Such a
+   * call says nothing about the health of the endpoint, so its permission is released unrecorded.
+   * A client error such as a 404 is an answer from a healthy endpoint and is recorded as a success,
+   * so it still counts towards the slow-call rate.
+   */
+  private static void onFailure(
+      final SlidingWindowCircuitBreaker breaker,
+      final SlidingWindowCircuitBreaker.Permission permission,
+      final Throwable failure) {
+    if (DeadlineExceededException.isDeadlineExceeded(failure)) {
+      breaker.release(permission);
+    } else if (isClientError(failure)) {
+      breaker.onResult(permission, true);
+    } else {
+      breaker.onResult(permission, false);
+    }
   }
 
   /**
-   * Determines if the circuit breaker should attempt to reset from OPEN to HALF_OPEN.
+   * Determines whether the failure is a client error the endpoint answered deliberately. Request
+   * timeouts and rate limiting are excluded, since they signal an endpoint under strain.
    *
-   * @return true if timeout period has elapsed
+   * @param failure the failure to inspect, along with its causes
+   * @return true if the failure is a 4xx response other than 408 or 429
    */
-  private boolean shouldAttemptReset() {
-    return System.currentTimeMillis() - lastFailureTime.get() >= timeoutDuration;
+  private static boolean isClientError(final Throwable failure) {
+    for (Throwable t = failure; t != null; t = t.getCause()) {
+      if (t instanceof HttpClientErrorException clientException) {
+        int statusCode = clientException.getStatusCode().value();
+        return statusCode != HttpStatus.REQUEST_TIMEOUT.value()
+            && statusCode != HttpStatus.TOO_MANY_REQUESTS.value();
+      }
+    }
+    return false;
   }
 
   @Override
-  public State getState() {
-    return state.get();
+  public State getState(final Endpoint endpoint) {
+    return breakers.get(endpoint).snapshot().state();
   }
 
   @Override
-  public int getFailureCount() {
-    return failureCount.get();
+  public Map<Endpoint, Snapshot> getSnapshots() {
+    Map<Endpoint, Snapshot> snapshots = new EnumMap<>(Endpoint.class);
+    breakers.forEach((endpoint, breaker) -> snapshots.put(endpoint, breaker.snapshot()));
+    LogHelper.debug(() -> "Circuit breaker snapshots: {}", snapshots);
+    return snapshots;
   }
 }
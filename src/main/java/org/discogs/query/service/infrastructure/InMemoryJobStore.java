@@ -0,0 +1,53 @@
+package org.discogs.query.service.infrastructure;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.interfaces.JobStore;
+import org.discogs.query.model.SearchJobDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link JobStore} keeping jobs on the heap of this instance.
+ *
+ * <p>Jobs expire {@code queries.jobs.retention} after their last update and at most {@code
+ * queries.jobs.max-stored} jobs are kept, so finished jobs whose results were never fetched do not
+ * accumulate. Jobs are lost on restart and are not shared between instances.
+ */
+@Slf4j
+@Component
+public class InMemoryJobStore implements JobStore {
+
+  private final Cache<String, SearchJobDTO> jobs;
+
+  /**
+   * Creates the store.
+   *
+   * @param retention how long a job is kept after its last update
+   * @param maxStored the maximum number of jobs kept
+   */
+  public InMemoryJobStore(
+      @Value("${queries.jobs.retention:1h}") final Duration retention,
+      @Value("${queries.jobs.max-stored:1000}") final long maxStored) {
+    this.jobs = Caffeine.newBuilder().expireAfterWrite(retention).maximumSize(maxStored).build();
+  }
+
+  @Override
+  public void save(final SearchJobDTO job) {
+    jobs.put(job.id(), job);
+  }
+
+  @Override
+  public Optional<SearchJobDTO> find(final String id) {
+    return Optional.ofNullable(jobs.getIfPresent(id));
+  }
+
+  @Override
+  public Optional<SearchJobDTO> update(final String id, final UnaryOperator<SearchJobDTO> update) {
+    return Optional.ofNullable(jobs.asMap().computeIfPresent(id, (key, job) -> update.apply(job)));
+  }
+}
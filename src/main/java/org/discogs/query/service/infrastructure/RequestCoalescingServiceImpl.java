@@ -0,0 +1,174 @@
+package org.discogs.query.service.infrastructure;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.cache.ResourceKey;
+import org.discogs.query.exceptions.DeadlineExceededException;
+import org.discogs.query.exceptions.DiscogsSearchException;
+import org.discogs.query.helpers.LogHelper;
+import org.discogs.query.interfaces.RequestCoalescingService;
+import org.discogs.query.limits.Deadline;
+import org.springframework.stereotype.Service;
+
+/**
+ * Single-flight implementation of {@link RequestCoalescingService}.
+ *
+ * <p>In-flight requests are tracked in a table keyed by resource type and {@link ResourceKey}. The
+ * first caller for a key executes the request; callers arriving while it is in flight are handed
+ * the same outcome, so they share its outbound call and rate limit permit. The entry is removed as
+ * soon as the request completes, after which the response caches take over.
+ *
+ * <p>Requests of different searches share a call although their deadlines differ. A blocking
+ * caller therefore waits for the shared call only until its own deadline, and a call cut off by the
+ * deadline of its leader is not shared as a failure: callers with time left run it again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RequestCoalescingServiceImpl implements RequestCoalescingService {
+
+  static final String REQUESTS_METRIC = "discogs.requests";
+
+  /** The outcome of a shared request that the waiting caller has to run again itself. */
+  private static final Object RUN_AGAIN = new Object();
+
+  private final Map<InFlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+  private final MeterRegistry meterRegistry;
+
+  @Override
+  public <T> T execute(
+      final Class<T> resourceType,
+      final ResourceKey resourceKey,
+      final Deadline deadline,
+      final Supplier<T> request) {
+    InFlightKey key = new InFlightKey(resourceType, resourceKey);
+    CompletableFuture<Object> leader = new CompletableFuture<>();
+    CompletableFuture<Object> existing;
+    while ((existing = inFlight.putIfAbsent(key, leader)) != null) {
+      recordCoalesced(resourceType, key);
+      Object outcome = awaitShared(existing, deadline);
+      if (outcome != RUN_AGAIN) {
+        return resourceType.cast(outcome);
+      }
+      LogHelper.debug(
+          () -> "Shared request for {} hit its caller's deadline, running it again",
+          key.resourceKey());
+    }
+
+    counter(resourceType, "executed").increment();
+    try {
+      T result = request.get();
+      inFlight.remove(key, leader);
+      leader.complete(result);
+      return result;
+    } catch (final RuntimeException | Error e) {
+      inFlight.remove(key, leader);
+      leader.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  @Override
+  public <T> CompletableFuture<T> executeAsync(
+      final Class<T> resourceType,
+      final ResourceKey resourceKey,
+      final Supplier<CompletableFuture<T>> request) {
+    InFlightKey key = new InFlightKey(resourceType, resourceKey);
+    CompletableFuture<Object> leader = new CompletableFuture<>();
+    CompletableFuture<Object> existing = inFlight.putIfAbsent(key, leader);
+    if (existing != null) {
+      recordCoalesced(resourceType, key);
+      return existing.thenApply(resourceType::cast);
+    }
+
+    counter(resourceType, "executed").increment();
+    CompletableFuture<T> started;
+    try {
+      started = request.get();
+    } catch (final RuntimeException e) {
+      started = CompletableFuture.failedFuture(e);
+    }
+    started.whenComplete(
+        (result, throwable) -> {
+          inFlight.remove(key, leader);
+          if (throwable != null) {
+            leader.completeExceptionally(throwable);
+          } else {
+            leader.complete(result);
+          }
+        });
+    // Hand out a dependent stage so a caller cancelling its future cannot fail the shared one.
+    return leader.thenApply(resourceType::cast);
+  }
+
+  /**
+   * The in-flight table key. The resource type keeps, for example, the raw and mapped responses of
+   * the same search apart.
+   *
+   * @param resourceType the type of resource being requested
+   * @param resourceKey the key of the resource
+   */
+  private record InFlightKey(Class<?> resourceType, ResourceKey resourceKey) {}
+
+  /**
+   * Waits for the outcome of a request in flight until the deadline of the waiting caller passes
+   * or is cancelled.
+   *
+   * @param shared the outcome of the request in flight
+   * @param deadline the deadline of the waiting caller
+   * @return the result of the shared request, or {@link #RUN_AGAIN} if it was cut off by the
+   *     deadline of its own caller while the waiting caller still has time left
+   */
+  private static Object awaitShared(
+      final CompletableFuture<Object> shared, final Deadline deadline) {
+    // Wait on a dependent stage, so cancelling the wait leaves the shared request alone
+    CompletableFuture<Object> waiting = shared.thenApply(Function.identity());
+    try (Deadline.Registration ignored = deadline.onCancel(() -> waiting.cancel(false))) {
+      return waiting.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+    } catch (final TimeoutException | CancellationException e) {
+      throw new DeadlineExceededException("Deadline passed while waiting for a shared request");
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DiscogsSearchException("Interrupted while waiting for a shared request", e);
+    } catch (final ExecutionException e) {
+      Throwable cause = e.getCause();
+      boolean cutOff =
+          DeadlineExceededException.isDeadlineExceeded(cause)
+              || cause instanceof CancellationException;
+      if (cutOff && !deadline.isExpired()) {
+        return RUN_AGAIN;
+      }
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new DiscogsSearchException("Shared request failed", (Exception) cause);
+    }
+  }
+
+  private void recordCoalesced(final Class<?> resourceType, final InFlightKey key) {
+    LogHelper.debug(() -> "Joining in-flight request for {}", key.resourceKey());
+    counter(resourceType, "coalesced").increment();
+  }
+
+  private Counter counter(final Class<?> resourceType, final String outcome) {
+    return Counter.builder(REQUESTS_METRIC)
+        .description("Outbound Discogs requests by whether they were executed or coalesced")
+        .tag("resource", resourceType.getSimpleName())
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
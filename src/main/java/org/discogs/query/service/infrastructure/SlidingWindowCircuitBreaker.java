@@ -0,0 +1,245 @@
+package org.discogs.query.service.infrastructure;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.discogs.query.helpers.LogHelper;
+import org.discogs.query.interfaces.CircuitBreakerService.CircuitBreakerOpenException;
+import org.discogs.query.interfaces.CircuitBreakerService.Snapshot;
+import org.discogs.query.interfaces.CircuitBreakerService.State;
+
+/**
+ * A single named circuit breaker that trips on the failure rate and slow-call rate over a
+ * count-based sliding window of the most recent calls.
+ *
+ * <p>While OPEN, calls are rejected until the open duration has elapsed. The breaker then moves to
+ * HALF_OPEN and hands out a fixed number of probe permits; callers beyond those are rejected as if
+ * the breaker were open. A failed or slow probe reopens the breaker, and once every probe has
+ * succeeded it closes with an empty window.
+ */
+class SlidingWindowCircuitBreaker {
+
+  private static final byte SUCCESS = 0;
+  private static final byte FAILURE = 1;
+  private static final byte SLOW = 2;
+
+  private final String name;
+  private final Settings settings;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final byte[] window;
+
+  private State state = State.CLOSED;
+  private int windowIndex;
+  private int bufferedCalls;
+  private int failedCalls;
+  private int slowCalls;
+  private long openedAtNanos;
+  private Semaphore probePermits;
+  private int successfulProbes;
+
+  /**
+   * Settings shared by every breaker.
+   *
+   * @param slidingWindowSize the number of most recent calls whose outcomes are evaluated
+   * @param minimumCalls the number of calls needed in the window before the rates are evaluated
+   * @param failureRateThreshold the failure percentage at or above which the breaker opens
+   * @param slowCallRateThreshold the slow-call percentage at or above which the breaker opens
+   * @param slowCallDurationNanos the duration beyond which a call counts as slow
+   * @param openDurationNanos how long the breaker stays OPEN before allowing probes
+   * @param halfOpenPermits the number of probe calls allowed in HALF_OPEN
+   */
+  record Settings(
+      int slidingWindowSize,
+      int minimumCalls,
+      float failureRateThreshold,
+      float slowCallRateThreshold,
+      long slowCallDurationNanos,
+      long openDurationNanos,
+      int halfOpenPermits) {}
+
+  /**
+   * Permission to make one call through the breaker.
+   *
+   * @param startNanos when the call started, used to detect slow calls
+   * @param probe the half-open permit pool the call drew from, or {@code null} if CLOSED
+   */
+  record Permission(long startNanos, Semaphore probe) {}
+
+  /**
+   * Creates a breaker in the CLOSED state.
+   *
+   * @param name the name used in logs and exceptions
+   * @param settings the breaker settings
+   */
+  SlidingWindowCircuitBreaker(final String name, final Settings settings) {
+    this.name = name;
+    this.settings = settings;
+    this.window = new byte[settings.slidingWindowSize()];
+  }
+
+  /**
+   * Acquires permission for a call, moving from OPEN to HALF_OPEN once the open duration has
+   * elapsed.
+   *
+   * @return the permission, which must be passed to {@link #onResult}
+   * @throws CircuitBreakerOpenException if the breaker is OPEN or no probe permit is left
+   */
+  Permission acquirePermission() {
+    lock.lock();
+    try {
+      long now = System.nanoTime();
+      if (state == State.OPEN && now - openedAtNanos >= settings.openDurationNanos()) {
+        transitionTo(State.HALF_OPEN);
+      }
+      if (state == State.CLOSED) {
+        return new Permission(now, null);
+      }
+      if (state == State.HALF_OPEN && probePermits.tryAcquire()) {
+        return new Permission(now, probePermits);
+      }
+    } finally {
+      lock.unlock();
+    }
+    LogHelper.warn(() -> "Circuit breaker {} is OPEN - rejecting call", name);
+    throw new CircuitBreakerOpenException("Circuit breaker " + name + " is OPEN");
+  }
+
+  /**
+   * Records the outcome of a permitted call.
+   *
+   * @param permission the permission returned by {@link #acquirePermission()}
+   * @param success whether the call succeeded
+   */
+  void onResult(final Permission permission, final boolean success) {
+    boolean slow = System.nanoTime() - permission.startNanos() > settings.slowCallDurationNanos();
+    lock.lock();
+    try {
+      if (permission.probe() != null) {
+        onProbeResult(permission.probe(), success && !slow);
+      } else if (state == State.CLOSED) {
+        record((byte) ((success ? SUCCESS : FAILURE) | (slow ? SLOW : 0)));
+        evaluateWindow();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases the permission of a call whose outcome should not count, such as one abandoned by
+   * its caller. A probe permit is handed back so that another call can probe the endpoint.
+   *
+   * @param permission the permission returned by {@link #acquirePermission()}
+   */
+  void release(final Permission permission) {
+    lock.lock();
+    try {
+      if (state == State.HALF_OPEN && permission.probe() == probePermits) {
+        probePermits.release();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns a point-in-time view of the breaker.
+   *
+   * @return the snapshot
+   */
+  Snapshot snapshot() {
+    lock.lock();
+    try {
+      return new Snapshot(
+          state,
+          bufferedCalls,
+          failedCalls,
+          rate(failedCalls),
+          rate(slowCalls),
+          state == State.HALF_OPEN ? probePermits.availablePermits() : 0);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void onProbeResult(final Semaphore probe, final boolean healthy) {
+    if (state != State.HALF_OPEN || probe != probePermits) {
+      // A probe from an earlier half-open period; its outcome no longer matters.
+      return;
+    }
+    if (!healthy) {
+      LogHelper.warn(() -> "Circuit breaker {} probe failed, reopening", name);
+      transitionTo(State.OPEN);
+      return;
+    }
+    successfulProbes++;
+    if (successfulProbes >= settings.halfOpenPermits()) {
+      LogHelper.info(
+          () -> "Circuit breaker {} reset to CLOSED after {} successful probes",
+          name,
+          successfulProbes);
+      transitionTo(State.CLOSED);
+    }
+  }
+
+  private void record(final byte outcome) {
+    if (bufferedCalls == window.length) {
+      byte evicted = window[windowIndex];
+      failedCalls -= evicted & FAILURE;
+      slowCalls -= (evicted & SLOW) >> 1;
+    } else {
+      bufferedCalls++;
+    }
+    window[windowIndex] = outcome;
+    failedCalls += outcome & FAILURE;
+    slowCalls += (outcome & SLOW) >> 1;
+    windowIndex = (windowIndex + 1) % window.length;
+  }
+
+  private void evaluateWindow() {
+    if (bufferedCalls < settings.minimumCalls()) {
+      return;
+    }
+    float failureRate = rate(failedCalls);
+    float slowCallRate = rate(slowCalls);
+    if (failureRate >= settings.failureRateThreshold()
+        || slowCallRate >= settings.slowCallRateThreshold()) {
+      LogHelper.warn(
+          () -> "Circuit breaker {} opening. Failure rate: {}%, slow call rate: {}%",
+          name,
+          failureRate,
+          slowCallRate);
+      transitionTo(State.OPEN);
+    }
+  }
+
+  private float rate(final int calls) {
+    return bufferedCalls == 0 ? 0f : calls * 100f / bufferedCalls;
+  }
+
+  private void transitionTo(final State newState) {
+    State previous = state;
+    state = newState;
+    switch (newState) {
+      case OPEN -> openedAtNanos = System.nanoTime();
+      case HALF_OPEN -> {
+        probePermits = new Semaphore(settings.halfOpenPermits());
+        successfulProbes = 0;
+      }
+      case CLOSED -> {
+        windowIndex = 0;
+        bufferedCalls = 0;
+        failedCalls = 0;
+        slowCalls = 0;
+      }
+    }
+    LogHelper.info(
+        () -> "Circuit breaker {} transitioning from {} to {}", name, previous, newState);
+    if (newState == State.OPEN) {
+      LogHelper.debug(
+          () -> "Circuit breaker {} will allow probes in {} ms",
+          name,
+          TimeUnit.NANOSECONDS.toMillis(settings.openDurationNanos()));
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package org.discogs.query.service.requests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.Header;
+import org.discogs.query.exceptions.DeadlineExceededException;
+import org.discogs.query.exceptions.DiscogsSearchException;
+import org.discogs.query.helpers.LogHelper;
+import org.discogs.query.interfaces.AsyncHttpRequestService;
+import org.discogs.query.interfaces.RateLimiterService;
+import org.discogs.query.limits.Deadline;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ * Non-blocking implementation of {@link AsyncHttpRequestService} backed by the pooled {@link
+ * CloseableHttpAsyncClient} from {@link org.discogs.query.config.HttpConfig}.
+ *
+ * <p>Error responses are translated into Spring's {@link HttpClientErrorException} and {@link
+ * HttpServerErrorException} types, which retry and circuit breaker logic classify by status code.
+ *
+ * <p>Bodies are decoded by the shared {@link ObjectMapper} from {@link
+ * org.discogs.query.config.JacksonConfig}.
+ *
+ * <p>An exchange with a deadline is aborted when the deadline passes or is cancelled, releasing
+ * its connection, instead of running on until the client's response timeout.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AsyncHttpRequestServiceImpl implements AsyncHttpRequestService {
+
+  private final CloseableHttpAsyncClient httpAsyncClient;
+  private final HttpHeaders headers;
+  private final ObjectMapper objectMapper;
+  private final RateLimiterService rateLimiterService;
+
+  @Override
+  public <T> CompletableFuture<T> executeRequestAsync(
+      final String url, final Class<T> responseType) {
+    return executeRequestAsync(url, responseType, Deadline.none());
+  }
+
+  @Override
+  public <T> CompletableFuture<T> executeRequestAsync(
+      final String url, final Class<T> responseType, final Deadline deadline) {
+    if (deadline.isExpired()) {
+      LogHelper.warn(() -> "Deadline passed, not sending async HTTP request to URL: {}", url);
+      return CompletableFuture.failedFuture(
+          new DeadlineExceededException("Deadline passed before the HTTP request was sent"));
+    }
+    LogHelper.info(() -> "Executing async HTTP request to URL: {}", url);
+
+    CompletableFuture<SimpleHttpResponse> responseFuture = new CompletableFuture<>();
+    Future<SimpleHttpResponse> exchange =
+        httpAsyncClient.execute(
+            SimpleRequestProducer.create(buildRequest(url)),
+            SimpleResponseConsumer.create(),
+            new FutureCallback<>() {
+              @Override
+              public void completed(final SimpleHttpResponse response) {
+                responseFuture.complete(response);
+              }
+
+              @Override
+              public void failed(final Exception e) {
+                LogHelper.error(() -> "Error executing async HTTP request to URL: {}", url, e);
+                responseFuture.completeExceptionally(
+                    new DiscogsSearchException("HTTP request failed", e));
+              }
+
+              @Override
+              public void cancelled() {
+                responseFuture.cancel(false);
+              }
+            });
+
+    CompletableFuture<T> result =
+        responseFuture.thenApply(response -> readResponse(url, response, responseType));
+    if (deadline.bounded()) {
+      result.orTimeout(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+    }
+    Deadline.Registration cancellation = deadline.onCancel(() -> result.cancel(true));
+    result.whenComplete(
+        (ignored, throwable) -> {
+          cancellation.close();
+          if (result.isCancelled()) {
+            LogHelper.debug(() -> "Async HTTP request to URL {} cancelled by caller", url);
+            exchange.cancel(true);
+          } else if (throwable instanceof TimeoutException) {
+            LogHelper.warn(() -> "Deadline passed, aborting async HTTP request to URL: {}", url);
+            exchange.cancel(true);
+          }
+        });
+    return result;
+  }
+
+  private SimpleHttpRequest buildRequest(final String url) {
+    SimpleRequestBuilder builder = SimpleRequestBuilder.get(url);
+    headers.forEach((name, values) -> values.forEach(value -> builder.addHeader(name, value)));
+    return builder.build();
+  }
+
+  private <T> T readResponse(
+      final String url, final SimpleHttpResponse response, final Class<T> responseType) {
+    int statusCode = response.getCode();
+    LogHelper.info(() -> "Received async HTTP response with status code: {}", statusCode);
+    HttpHeaders responseHeaders = toHttpHeaders(response);
+    rateLimiterService.recordResponseHeaders(responseHeaders);
+
+    if (statusCode >= 400) {
+      throw translateErrorResponse(url, response, responseHeaders);
+    }
+
+    byte[] body = response.getBodyBytes();
+    if (body == null || body.length == 0) {
+      LogHelper.warn(() -> "Discogs API response body is empty.");
+      throw new DiscogsSearchException("Failed to fetch data from Discogs API");
+    }
+
+    if (String.class.equals(responseType)) {
+      return responseType.cast(new String(body, StandardCharsets.UTF_8));
+    }
+    try {
+      return objectMapper.readValue(body, responseType);
+    } catch (final IOException e) {
+      LogHelper.error(() -> "Failed to decode async HTTP response from URL: {}", url, e);
+      throw new DiscogsSearchException("HTTP request failed", e);
+    }
+  }
+
+  private static HttpHeaders toHttpHeaders(final SimpleHttpResponse response) {
+    HttpHeaders responseHeaders = new HttpHeaders();
+    for (final Header header : response.getHeaders()) {
+      responseHeaders.add(header.getName(), header.getValue());
+    }
+    return responseHeaders;
+  }
+
+  private DiscogsSearchException translateErrorResponse(
+      final String url, final SimpleHttpResponse response, final HttpHeaders responseHeaders) {
+    HttpStatusCode status = HttpStatusCode.valueOf(response.getCode());
+    byte[] body = response.getBodyBytes();
+
+    Exception cause =
+        status.is4xxClientError()
+            ? HttpClientErrorException.create(
+                status, response.getReasonPhrase(), responseHeaders, body, StandardCharsets.UTF_8)
+            : HttpServerErrorException.create(
+                status, response.getReasonPhrase(), responseHeaders, body, StandardCharsets.UTF_8);
+    LogHelper.error(() -> "Error executing async HTTP request to URL: {}", url, cause);
+    return new DiscogsSearchException("HTTP request failed", cause);
+  }
+}
@@ -0,0 +1,237 @@
+package org.discogs.query.service.requests;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.helpers.LogHelper;
+import org.discogs.query.interfaces.CircuitBreakerService.Endpoint;
+import org.discogs.query.interfaces.HedgingService;
+import org.discogs.query.interfaces.RateLimiterService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link HedgingService} that derives each endpoint's hedge delay from its recent
+ * latencies.
+ *
+ * <p>The latencies of the most recent successful responses are kept per endpoint, and a duplicate
+ * is sent once a request has been outstanding for longer than the configured percentile of them.
+ * No hedge is sent until enough samples have been collected.
+ *
+ * <p>Hedges draw on the shared rate limit, so two checks bound them. A hedge is only sent if a rate
+ * limit permit is available immediately without queueing behind other callers. Each original
+ * request also earns a fraction of a hedge credit, equal to the maximum hedge ratio, and a hedge
+ * spends a whole credit, so hedges never exceed that share of the requests sent.
+ */
+@Slf4j
+@Service
+public class HedgingServiceImpl implements HedgingService {
+
+  static final String HEDGES_METRIC = "discogs.hedges";
+  private static final double MAX_STORED_CREDITS = 10;
+  private static final ThreadFactory HEDGE_THREADS =
+      Thread.ofVirtual().name("discogs-hedge-", 0).factory();
+
+  private final boolean enabled;
+  private final Set<Endpoint> endpoints;
+  private final double maxHedgeRatio;
+  private final long minDelayMillis;
+  private final RateLimiterService rateLimiterService;
+  private final MeterRegistry meterRegistry;
+  private final Map<Endpoint, LatencyTracker> trackers = new EnumMap<>(Endpoint.class);
+  private final Executor hedgeExecutor = runnable -> HEDGE_THREADS.newThread(runnable).start();
+
+  private double hedgeCredits;
+
+  /**
+   * Creates the hedging service.
+   *
+   * @param enabled whether hedging is enabled at all
+   * @param endpoints the endpoint families whose requests are hedged
+   * @param percentile the latency percentile after which a duplicate is sent
+   * @param maxHedgeRatio the maximum number of hedges per original request
+   * @param minDelayMillis the minimum hedge delay, in milliseconds
+   * @param minSamples the number of latency samples required before hedging an endpoint
+   * @param rateLimiterService the rate limiter hedges take their permits from
+   * @param meterRegistry the registry for hedge metrics
+   */
+  public HedgingServiceImpl(
+      @Value("${discogs.hedging.enabled:false}") final boolean enabled,
+      @Value("${discogs.hedging.endpoints:RELEASE,MARKETPLACE}") final Set<Endpoint> endpoints,
+      @Value("${discogs.hedging.percentile:95}") final double percentile,
+      @Value("${discogs.hedging.max-hedge-ratio:0.05}") final double maxHedgeRatio,
+      @Value("${discogs.hedging.min-delay:100}") final long minDelayMillis,
+      @Value("${discogs.hedging.min-samples:20}") final int minSamples,
+      final RateLimiterService rateLimiterService,
+      final MeterRegistry meterRegistry) {
+    if (percentile <= 0 || percentile >= 100) {
+      throw new IllegalArgumentException("Hedging percentile must be in (0, 100)");
+    }
+    this.enabled = enabled;
+    this.endpoints = Set.copyOf(endpoints);
+    this.maxHedgeRatio = maxHedgeRatio;
+    this.minDelayMillis = minDelayMillis;
+    this.rateLimiterService = rateLimiterService;
+    this.meterRegistry = meterRegistry;
+    for (Endpoint endpoint : Endpoint.values()) {
+      trackers.put(endpoint, new LatencyTracker(percentile, minSamples));
+    }
+  }
+
+  @Override
+  public boolean isEnabled(final Endpoint endpoint) {
+    return enabled && endpoints.contains(endpoint);
+  }
+
+  @Override
+  public <T> CompletableFuture<T> hedge(
+      final Endpoint endpoint, final Supplier<CompletableFuture<T>> request) {
+    if (!isEnabled(endpoint)) {
+      return request.get();
+    }
+    earnCredit();
+    LatencyTracker tracker = trackers.get(endpoint);
+    Hedge<T> hedge = new Hedge<>(endpoint, tracker);
+    hedge.start(request, false);
+
+    long delayMillis = tracker.percentileMillis();
+    if (delayMillis >= 0) {
+      CompletableFuture.delayedExecutor(
+              Math.max(delayMillis, minDelayMillis), TimeUnit.MILLISECONDS, hedgeExecutor)
+          .execute(
+              () -> {
+                if (!hedge.result.isDone() && spendCredit()) {
+                  LogHelper.debug(
+                      () -> "Request to {} exceeded {} ms, sending hedge", endpoint, delayMillis);
+                  meterRegistry
+                      .counter(HEDGES_METRIC, "endpoint", tag(endpoint), "outcome", "sent")
+                      .increment();
+                  hedge.start(request, true);
+                }
+              });
+    }
+    return hedge.result;
+  }
+
+  private synchronized void earnCredit() {
+    hedgeCredits = Math.min(MAX_STORED_CREDITS, hedgeCredits + maxHedgeRatio);
+  }
+
+  /**
+   * Spends a hedge credit if one is available and a rate limit permit can be taken without
+   * waiting.
+   */
+  private synchronized boolean spendCredit() {
+    if (hedgeCredits < 1 || !rateLimiterService.tryAcquireRateLimit()) {
+      return false;
+    }
+    hedgeCredits -= 1;
+    return true;
+  }
+
+  private static String tag(final Endpoint endpoint) {
+    return endpoint.name().toLowerCase();
+  }
+
+  /** The copies of one hedged request, racing to complete {@link #result}. */
+  private final class Hedge<T> {
+
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private final List<CompletableFuture<T>> copies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final Endpoint endpoint;
+    private final LatencyTracker tracker;
+
+    private Hedge(final Endpoint endpoint, final LatencyTracker tracker) {
+      this.endpoint = endpoint;
+      this.tracker = tracker;
+      result.whenComplete((value, throwable) -> copies.forEach(copy -> copy.cancel(true)));
+    }
+
+    private void start(final Supplier<CompletableFuture<T>> request, final boolean isHedge) {
+      outstanding.incrementAndGet();
+      long startNanos = System.nanoTime();
+      CompletableFuture<T> copy;
+      try {
+        copy = request.get();
+      } catch (final RuntimeException e) {
+        copy = CompletableFuture.failedFuture(e);
+      }
+      copies.add(copy);
+      if (result.isDone()) {
+        copy.cancel(true);
+      }
+      copy.whenComplete(
+          (value, throwable) -> {
+            if (throwable == null) {
+              tracker.record(System.nanoTime() - startNanos);
+              if (isHedge && !result.isDone()) {
+                meterRegistry
+                    .counter(HEDGES_METRIC, "endpoint", tag(endpoint), "outcome", "won")
+                    .increment();
+              }
+              result.complete(value);
+            } else if (outstanding.decrementAndGet() == 0) {
+              result.completeExceptionally(
+                  throwable instanceof CompletionException && throwable.getCause() != null
+                      ? throwable.getCause()
+                      : throwable);
+            }
+          });
+    }
+  }
+
+  /** Keeps a ring buffer of recent latencies and the percentile derived from them. */
+  static final class LatencyTracker {
+
+    private static final int WINDOW = 256;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long[] samples = new long[WINDOW];
+    private final double percentile;
+    private final int minSamples;
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long percentileMillis = -1;
+
+    LatencyTracker(final double percentile, final int minSamples) {
+      this.percentile = percentile;
+      this.minSamples = Math.max(1, Math.min(minSamples, WINDOW));
+    }
+
+    synchronized void record(final long latencyNanos) {
+      samples[next] = latencyNanos;
+      next = (next + 1) % WINDOW;
+      count = Math.min(count + 1, WINDOW);
+      if (count >= minSamples && (++sinceRecompute >= RECOMPUTE_EVERY || percentileMillis < 0)) {
+        sinceRecompute = 0;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        percentileMillis = TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, index)]);
+      }
+    }
+
+    /**
+     * Returns the tracked percentile.
+     *
+     * @return the percentile latency in milliseconds, or -1 until enough samples are recorded
+     */
+    long percentileMillis() {
+      return percentileMillis;
+    }
+  }
+}
@@ -1,14 +1,25 @@
 package org.discogs.query.service.requests;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.exceptions.DiscogsSearchException;
 import org.discogs.query.helpers.LogHelper;
 import org.discogs.query.interfaces.RateLimiterService;
+import org.discogs.query.limits.Deadline;
+import org.discogs.query.limits.RateLimitStatus;
 import org.discogs.query.limits.RateLimiter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 
+/**
+ * Implementation of {@link RateLimiterService} backed by the token-bucket {@link RateLimiter}.
+ *
+ * <p>The asynchronous acquire is the primary path; the blocking variants park the calling thread
+ * on the same queued permit rather than polling for one. An interrupted waiter gives up its queued
+ * permit and fails, so the call it was guarding is never made.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -18,33 +29,66 @@ public class RateLimiterServiceImpl implements RateLimiterService {
 
   @Override
   public void waitForRateLimit() {
-    LogHelper.debug(() -> "Starting to check rate limiter status...");
-
-    while (!rateLimiter.tryAcquire()) {
-      try {
-        LogHelper.info(() -> "Rate limit reached. Waiting to acquire permit...");
-        TimeUnit.MILLISECONDS.sleep(100);
-      } catch (final InterruptedException e) {
-        Thread.currentThread().interrupt();
-        LogHelper.error(() -> "Thread interrupted while waiting for rate limit to reset", e);
-        return;
+    waitForRateLimit(Deadline.none());
+  }
+
+  @Override
+  public void waitForRateLimit(final Deadline deadline) {
+    LogHelper.debug(() -> "Waiting for rate limit permit...");
+    CompletableFuture<Void> permit = acquireRateLimitAsync(deadline);
+    try {
+      permit.get();
+    } catch (final InterruptedException e) {
+      permit.cancel(false);
+      Thread.currentThread().interrupt();
+      LogHelper.error(() -> "Thread interrupted while waiting for rate limit permit", e);
+      throw new DiscogsSearchException("Interrupted while waiting for rate limit permit", e);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
       }
+      throw new IllegalStateException("Failed to acquire rate limit permit", e.getCause());
     }
     LogHelper.debug(() -> "Acquired permit from rate limiter, proceeding with execution.");
   }
 
   @Override
   public CompletableFuture<Void> acquireRateLimitAsync() {
+    return acquireRateLimitAsync(Deadline.none());
+  }
+
+  @Override
+  public CompletableFuture<Void> acquireRateLimitAsync(final Deadline deadline) {
     LogHelper.debug(() -> "Attempting to acquire rate limit asynchronously...");
-    return rateLimiter
-        .acquireAsync()
-        .whenComplete(
-            (result, throwable) -> {
-              if (throwable == null) {
-                LogHelper.debug(() -> "Async rate limit permit acquired successfully.");
-              } else {
-                LogHelper.error(() -> "Failed to acquire async rate limit permit", throwable);
-              }
+    CompletableFuture<Void> permit =
+        rateLimiter.acquireAsync(RateLimiter.Priority.NORMAL, deadline);
+    // Logged on a side stage so callers hold the limiter's own future; cancelling it drops the
+    // queued request.
+    permit.whenComplete(
+        (result, throwable) -> {
+          if (throwable == null) {
+            LogHelper.debug(() -> "Async rate limit permit acquired successfully.");
+          } else if (permit.isCancelled()) {
+            LogHelper.debug(() -> "Async rate limit request cancelled by caller");
+          } else {
+            LogHelper.error(() -> "Failed to acquire async rate limit permit", throwable);
+          }
+        });
+    return permit;
+  }
+
+  @Override
+  public boolean tryAcquireRateLimit() {
+    return rateLimiter.tryAcquire();
+  }
+
+  @Override
+  public void recordResponseHeaders(final HttpHeaders responseHeaders) {
+    RateLimitStatus.fromHeaders(responseHeaders)
+        .ifPresent(
+            status -> {
+              LogHelper.debug(() -> "Discogs rate limit status: {}", status);
+              rateLimiter.recalibrate(status);
             });
   }
 }
@@ -2,149 +2,307 @@ package org.discogs.query.service.requests;
 
 import java.io.IOException;
 import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.discogs.query.helpers.LogHelper;
 import org.discogs.query.interfaces.RetryService;
+import org.discogs.query.limits.Deadline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.ResourceAccessException;
 
+/**
+ * Implementation of {@link RetryService} that reschedules failed attempts on a timer instead of
+ * sleeping on the calling thread.
+ *
+ * <p>Delays follow the server's {@code Retry-After} header when present, in either its
+ * delta-seconds or HTTP-date form, capped at the maximum delay. Otherwise full-jitter exponential
+ * backoff is used: a delay drawn uniformly between zero and {@code base * 2^(attempt - 1)}, capped
+ * at the maximum delay. A 429 without {@code Retry-After} draws from the full maximum delay. No
+ * retry is scheduled that would start after the caller's deadline.
+ */
 @Slf4j
 @Component
 public class RetryServiceImpl implements RetryService {
 
-  private static final int RETRY_COUNT = 3;
-  private static final long RETRY_DELAY = 2; // in seconds
+  private static final ThreadFactory RETRY_THREADS =
+      Thread.ofVirtual().name("discogs-retry-", 0).factory();
 
-  private static boolean isAttemptNumberLessThanMaximum(final int attempt) {
-    return attempt <= RETRY_COUNT;
+  private final int maxAttempts;
+  private final long baseDelayMillis;
+  private final long maxDelayMillis;
+  private final Executor retryExecutor = runnable -> RETRY_THREADS.newThread(runnable).start();
+
+  /**
+   * Creates the retry service.
+   *
+   * @param maxAttempts the maximum number of attempts, including the first
+   * @param baseDelayMillis the base delay for exponential backoff, in milliseconds
+   * @param maxDelayMillis the maximum delay between attempts, in milliseconds
+   */
+  public RetryServiceImpl(
+      @Value("${retry.max-attempts:3}") final int maxAttempts,
+      @Value("${retry.base-delay:2000}") final long baseDelayMillis,
+      @Value("${retry.max-delay:30000}") final long maxDelayMillis) {
+    this.maxAttempts = maxAttempts;
+    this.baseDelayMillis = baseDelayMillis;
+    this.maxDelayMillis = maxDelayMillis;
   }
 
+  /**
+   * Executes the action with retry logic, blocking until it succeeds or retries are exhausted.
+   * Retries run on a virtual thread once their delay elapses; the caller only waits for the
+   * outcome. Interrupting the caller cancels any retry still scheduled.
+   */
   @Override
   public <T> T executeWithRetry(final Callable<T> action, final String actionDescription)
       throws Exception {
-    int attempt = 1;
-    Exception lastException = null;
-
-    while (isAttemptNumberLessThanMaximum(attempt)) {
-      try {
-        LogHelper.info(
-            () -> "Attempting {}. Attempt {} of {}", actionDescription, attempt, RETRY_COUNT);
-        return action.call();
-      } catch (final Exception e) {
-        lastException = e;
-
-        // Check if this is a non-retryable error
-        if (!isRetryableException(e)) {
-          LogHelper.debug(
-              () -> "Non-retryable exception encountered, exiting retry logic: {}", e.getMessage());
-          throw e;
-        }
-
-        // Log the attempt
-        LogHelper.warn(
-            () -> "Error during {} on attempt {} of {}. Exception: {}",
-            actionDescription,
-            attempt,
-            RETRY_COUNT,
-            e.getMessage());
-
-        // If this was the last attempt, throw the exception
-        if (attempt == RETRY_COUNT) {
-          LogHelper.error(
-              () -> "All {} retry attempts exhausted for {}", RETRY_COUNT, actionDescription);
-          throw e;
-        }
-
-        // Delay before retry
-        delayThreadBasedOnException(e, attempt);
-        attempt++;
+    return executeWithRetry(action, actionDescription, Deadline.none());
+  }
+
+  @Override
+  public <T> T executeWithRetry(
+      final Callable<T> action, final String actionDescription, final Deadline deadline)
+      throws Exception {
+    CompletableFuture<T> outcome =
+        executeWithRetryAsync(() -> callNow(action), actionDescription, deadline);
+    try {
+      return outcome.get();
+    } catch (final InterruptedException e) {
+      outcome.cancel(true);
+      Thread.currentThread().interrupt();
+      throw e;
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof Exception exception) {
+        throw exception;
       }
+      throw e;
     }
+  }
+
+  @Override
+  public <T> CompletableFuture<T> executeWithRetryAsync(
+      final Supplier<CompletableFuture<T>> attempt,
+      final String actionDescription,
+      final Deadline deadline) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    AtomicReference<CompletableFuture<T>> current = new AtomicReference<>();
+    result.whenComplete(
+        (ignored, throwable) -> {
+          CompletableFuture<T> inFlight = current.get();
+          if (result.isCancelled() && inFlight != null) {
+            inFlight.cancel(true);
+          }
+        });
+    runAttempt(attempt, actionDescription, deadline, 1, result, current);
+    return result;
+  }
 
-    // This should never be reached, but adding for safety
-    if (lastException != null) {
-      throw lastException;
+  private <T> void runAttempt(
+      final Supplier<CompletableFuture<T>> attempt,
+      final String actionDescription,
+      final Deadline deadline,
+      final int attemptNumber,
+      final CompletableFuture<T> result,
+      final AtomicReference<CompletableFuture<T>> current) {
+    if (result.isDone()) {
+      return;
     }
-    throw new IllegalStateException("Retry logic reached unexpected state.");
+    LogHelper.info(
+        () -> "Attempting {}. Attempt {} of {}", actionDescription, attemptNumber, maxAttempts);
+
+    CompletableFuture<T> future;
+    try {
+      future = attempt.get();
+    } catch (final RuntimeException e) {
+      future = CompletableFuture.failedFuture(e);
+    }
+    current.set(future);
+    future.whenComplete(
+        (value, throwable) -> {
+          if (throwable == null) {
+            result.complete(value);
+            return;
+          }
+          Throwable cause = unwrap(throwable);
+          if (!(cause instanceof Exception exception) || !isRetryableException(exception)) {
+            LogHelper.debug(
+                () -> "Non-retryable exception encountered, exiting retry logic: {}",
+                cause.getMessage());
+            result.completeExceptionally(cause);
+            return;
+          }
+
+          LogHelper.warn(
+              () -> "Error during {} on attempt {} of {}. Exception: {}",
+              actionDescription,
+              attemptNumber,
+              maxAttempts,
+              exception.getMessage());
+          if (attemptNumber >= maxAttempts) {
+            LogHelper.error(
+                () -> "All {} retry attempts exhausted for {}", maxAttempts, actionDescription);
+            result.completeExceptionally(cause);
+            return;
+          }
+
+          long delayMillis = computeDelayMillis(exception, attemptNumber);
+          if (deadline.remainingNanos() < TimeUnit.MILLISECONDS.toNanos(delayMillis)) {
+            LogHelper.warn(
+                () -> "Retry of {} in {} ms would pass the deadline, giving up",
+                actionDescription,
+                delayMillis);
+            result.completeExceptionally(cause);
+            return;
+          }
+          LogHelper.info(() -> "Retrying {} in {} ms", actionDescription, delayMillis);
+          CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS, retryExecutor)
+              .execute(
+                  () ->
+                      runAttempt(
+                          attempt,
+                          actionDescription,
+                          deadline,
+                          attemptNumber + 1,
+                          result,
+                          current));
+        });
   }
 
   /**
-   * Determines if an exception should trigger a retry.
+   * Computes the delay before the next attempt, preferring the server's {@code Retry-After}. No
+   * delay exceeds the maximum delay, so a far-off {@code Retry-After} cannot hold a caller without
+   * a deadline indefinitely.
    *
-   * @param e the exception to evaluate
-   * @return true if the exception is transient and should be retried
+   * @param e the exception that failed the attempt
+   * @param attemptNumber the number of the attempt that failed, starting at one
+   * @return the delay in milliseconds
    */
-  private boolean isRetryableException(final Exception e) {
-    // Non-retryable client errors (4xx except 408, 429)
-    if (e instanceof HttpClientErrorException clientException) {
-      var statusCode = clientException.getStatusCode();
-      return statusCode.value() == HttpStatus.REQUEST_TIMEOUT.value()
-          || statusCode.value() == HttpStatus.TOO_MANY_REQUESTS.value()
-          || statusCode.value() == HttpStatus.LOCKED.value(); // 423 can sometimes be temporary
+  long computeDelayMillis(final Exception e, final int attemptNumber) {
+    Optional<Duration> retryAfter = findRetryAfter(e);
+    if (retryAfter.isPresent()) {
+      long requested = Math.max(0, retryAfter.get().toMillis());
+      long delay = Math.min(requested, maxDelayMillis);
+      LogHelper.info(
+          () -> "Server requested Retry-After of {} ms, waiting {} ms", requested, delay);
+      return delay;
     }
-
-    // Server errors (5xx) are generally retryable
-    if (e instanceof HttpServerErrorException) {
-      return true;
+    long ceiling;
+    if (is429StatusCodeException(e)) {
+      LogHelper.info(() -> "429 Status Code Received - Using extended delay");
+      ceiling = maxDelayMillis;
+    } else {
+      long exponential = baseDelayMillis << Math.min(attemptNumber - 1, 30);
+      ceiling = Math.min(maxDelayMillis, exponential);
     }
+    return ThreadLocalRandom.current().nextLong(ceiling + 1);
+  }
 
-    // Network-related exceptions are retryable
-    if (e instanceof ResourceAccessException
-        || e instanceof SocketTimeoutException
-        || e instanceof IOException) {
-      return true;
+  /**
+   * Reads the {@code Retry-After} header from the HTTP error in the exception's cause chain.
+   *
+   * @param e the exception to inspect
+   * @return the requested delay, or empty if no valid header is present
+   */
+  Optional<Duration> findRetryAfter(final Exception e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof HttpStatusCodeException statusException) {
+        HttpHeaders headers = statusException.getResponseHeaders();
+        String value = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        return parseRetryAfter(value);
+      }
     }
+    return Optional.empty();
+  }
 
-    // Check for specific nested exceptions
-    Throwable cause = e.getCause();
-    if (cause instanceof SocketTimeoutException
-        || cause instanceof IOException
-        || (cause instanceof HttpClientErrorException clientException
-            && (clientException.getStatusCode().value() == HttpStatus.REQUEST_TIMEOUT.value()
-                || clientException.getStatusCode().value()
-                    == HttpStatus.TOO_MANY_REQUESTS.value()))) {
-      return true;
+  private static Optional<Duration> parseRetryAfter(final String value) {
+    if (value == null || value.isBlank()) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(Duration.ofSeconds(Long.parseLong(value.trim())));
+    } catch (final NumberFormatException ignored) {
+      // Not delta-seconds; try the HTTP-date form below.
+    }
+    try {
+      ZonedDateTime retryAt =
+          ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+      return Optional.of(Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt));
+    } catch (final DateTimeParseException ignored) {
+      LogHelper.warn(() -> "Ignoring malformed Retry-After header: {}", value);
+      return Optional.empty();
     }
-
-    // Default to non-retryable for unknown exceptions
-    return false;
   }
 
-  private void delayThreadBasedOnException(final Exception e, final int attempt)
-      throws InterruptedException {
-    long delay = RETRY_DELAY;
+  /**
+   * Determines if an exception should trigger a retry. The exception and its causes are inspected,
+   * since HTTP errors usually arrive wrapped in a {@code DiscogsSearchException}.
+   *
+   * @param e the exception to evaluate
+   * @return true if the exception is transient and should be retried
+   */
+  private boolean isRetryableException(final Exception e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      // Non-retryable client errors (4xx except 408, 423, 429)
+      if (t instanceof HttpClientErrorException clientException) {
+        int statusCode = clientException.getStatusCode().value();
+        return statusCode == HttpStatus.REQUEST_TIMEOUT.value()
+            || statusCode == HttpStatus.TOO_MANY_REQUESTS.value()
+            || statusCode == HttpStatus.LOCKED.value(); // 423 can sometimes be temporary
+      }
 
-    if (is429StatusCodeException(e)) {
-      LogHelper.info(() -> "429 Status Code Received - Using extended delay");
-      delay = 30; // Long delay for rate limiting
-    } else if (isServerErrorException(e)) {
-      // Exponential backoff for server errors
-      delay = (long) (RETRY_DELAY * Math.pow(2, attempt - 1));
-      LogHelper.info(() -> "Server error detected - Using exponential backoff: {} seconds", delay);
-    } else {
-      LogHelper.info(() -> "Using standard retry delay: {} seconds", delay);
+      // Server errors (5xx) and network-related exceptions are retryable
+      if (t instanceof HttpServerErrorException
+          || t instanceof ResourceAccessException
+          || t instanceof SocketTimeoutException
+          || t instanceof IOException) {
+        return true;
+      }
     }
 
-    TimeUnit.SECONDS.sleep(delay);
+    // Default to non-retryable for unknown exceptions
+    return false;
   }
 
   boolean is429StatusCodeException(final Exception e) {
-    if (e instanceof HttpClientErrorException clientException) {
-      return clientException.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof HttpClientErrorException clientException) {
+        return clientException.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+      }
     }
+    return false;
+  }
 
-    Throwable cause = e.getCause();
-    return cause instanceof HttpClientErrorException clientException
-        && clientException.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+  private static <T> CompletableFuture<T> callNow(final Callable<T> action) {
+    try {
+      return CompletableFuture.completedFuture(action.call());
+    } catch (final Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
   }
 
-  private boolean isServerErrorException(final Exception e) {
-    return e instanceof HttpServerErrorException
-        || (e.getCause() instanceof HttpServerErrorException);
+  private static Throwable unwrap(final Throwable throwable) {
+    return throwable instanceof CompletionException && throwable.getCause() != null
+        ? throwable.getCause()
+        : throwable;
   }
 }
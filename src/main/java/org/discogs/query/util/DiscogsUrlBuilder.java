@@ -1,8 +1,13 @@
 package org.discogs.query.util;
 
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.TreeMap;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.discogs.query.cache.ResourceKey;
+import org.discogs.query.cache.ResourceRequest;
 import org.discogs.query.domain.api.DiscogsEntry;
 import org.discogs.query.helpers.LogHelper;
 import org.discogs.query.model.DiscogsQueryDTO;
@@ -10,9 +15,15 @@ import org.discogs.query.model.enums.DiscogQueryParams;
 import org.discogs.query.model.enums.DiscogsTypes;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.util.UriComponentsBuilder;
 
-/** Utility class to build URLs for Discogs API requests. */
+/**
+ * Utility class to build URLs for Discogs API requests.
+ *
+ * <p>The {@code build...Request} methods pair each URL with the {@link ResourceKey} of the
+ * resource it fetches, which the client uses for caching and request coalescing.
+ */
 @Getter
 @Slf4j
 @Component
@@ -22,6 +33,9 @@ public class DiscogsUrlBuilder {
   public static final String PER_PAGE = "per_page";
   public static final String PAGE = "page";
   public static final String TOKEN = "token";
+  public static final String CURRENCY_PARAM = "curr_abbr";
+  public static final String CURRENCY = "GBP";
+  private static final int FIRST_PAGE = 1;
   private final UriBuilderHelper uriBuilderHelper;
   private final StringHelper stringHelper;
 
@@ -80,18 +94,23 @@ public class DiscogsUrlBuilder {
    * @return the fully constructed search URL with query parameters
    */
   public String buildSearchUrl(final DiscogsQueryDTO discogsQueryDTO) {
-    LogHelper.debug(() -> "Building search URL with parameters: {}", discogsQueryDTO);
+    return buildSearchRequest(discogsQueryDTO).url();
+  }
 
-    UriComponentsBuilder uriBuilder =
-        UriComponentsBuilder.fromHttpUrl(discogsBaseUrl.concat(discogsSearchEndpoint))
-            .queryParam(PER_PAGE, pageSize)
-            .queryParam(PAGE, 1)
-            .queryParam(TOKEN, token);
+  /**
+   * Builds the search request, keyed by the normalized search parameters.
+   *
+   * @param discogsQueryDTO the search query data transfer object containing the search criteria
+   * @return the search URL with query parameters and its resource key
+   */
+  public ResourceRequest buildSearchRequest(final DiscogsQueryDTO discogsQueryDTO) {
+    LogHelper.debug(() -> "Building search URL with parameters: {}", discogsQueryDTO);
 
+    UriComponentsBuilder uriBuilder = searchUriBuilder();
     addQueryParams(uriBuilder, discogsQueryDTO);
     String searchUrl = getUrlString(uriBuilder);
     LogHelper.debug(() -> "Generated search URL: {}", searchUrl);
-    return searchUrl;
+    return new ResourceRequest(searchKey(uriBuilder), searchUrl);
   }
 
   /**
@@ -107,12 +126,23 @@ public class DiscogsUrlBuilder {
         UriComponentsBuilder.fromHttpUrl(
                 discogsBaseUrl.concat(releaseEndpoint).concat(String.valueOf(discogsEntry.getId())))
             .queryParam(TOKEN, token)
-            .queryParam("curr_abbr", "GBP")
+            .queryParam(CURRENCY_PARAM, CURRENCY)
             .toUriString();
     LogHelper.debug(() -> "Generated release URL: {}", releaseUrl);
     return releaseUrl;
   }
 
+  /**
+   * Builds the release request for the given DiscogsEntry.
+   *
+   * @param discogsEntry the Discogs entry containing the release ID
+   * @return the release URL and its resource key
+   */
+  public ResourceRequest buildReleaseRequest(final DiscogsEntry discogsEntry) {
+    return new ResourceRequest(
+        new ResourceKey.Release(discogsEntry.getId(), CURRENCY), buildReleaseUrl(discogsEntry));
+  }
+
   /**
    * Generates a URL to search against a user's discogs collection
    *
@@ -129,6 +159,19 @@ public class DiscogsUrlBuilder {
     return collectionsUrl;
   }
 
+  /**
+   * Generates a request to search against a user's discogs collection.
+   *
+   * @param username Username to use
+   * @param releaseId Release to use
+   * @return The collection URL and its resource key
+   */
+  public ResourceRequest buildCollectionSearchRequest(final String username, final long releaseId) {
+    return new ResourceRequest(
+        new ResourceKey.Collection(username, releaseId),
+        buildCollectionSearchUrl(username, String.valueOf(releaseId)));
+  }
+
   /**
    * Builds the marketplace URL for the given DiscogsEntry.
    *
@@ -142,12 +185,24 @@ public class DiscogsUrlBuilder {
         UriComponentsBuilder.fromHttpUrl(
                 discogsBaseUrl.concat(marketplaceUrl).concat(String.valueOf(discogsEntry.getId())))
             .queryParam(TOKEN, token)
-            .queryParam("curr_abbr", "GBP")
+            .queryParam(CURRENCY_PARAM, CURRENCY)
             .toUriString();
     LogHelper.debug(() -> "Generated marketplace URL: {}", releaseUrl);
     return releaseUrl;
   }
 
+  /**
+   * Builds the marketplace statistics request for the given DiscogsEntry.
+   *
+   * @param discogsEntry the Discogs entry containing the release ID
+   * @return the marketplace URL and its resource key
+   */
+  public ResourceRequest buildMarketplaceRequest(final DiscogsEntry discogsEntry) {
+    return new ResourceRequest(
+        new ResourceKey.MarketplaceStats(discogsEntry.getId(), CURRENCY),
+        buildMarketplaceUrl(discogsEntry));
+  }
+
   /**
    * Adds query parameters to the URI builder based on the DiscogsQueryDTO object. If a barcode is
    * supplied, only the barcode is used as a query parameter. Otherwise, other query parameters such
@@ -229,20 +284,56 @@ public class DiscogsUrlBuilder {
    * @return the fully constructed search URL with query parameters
    */
   public String generateCompilationSearchUrl(final DiscogsQueryDTO discogsQueryDTO) {
+    return generateCompilationSearchRequest(discogsQueryDTO).url();
+  }
+
+  /**
+   * Builds the search request for a compilation album, keyed by the normalized search parameters.
+   *
+   * @param discogsQueryDTO the search query data transfer object containing the search criteria
+   * @return the compilation search URL with query parameters and its resource key
+   */
+  public ResourceRequest generateCompilationSearchRequest(final DiscogsQueryDTO discogsQueryDTO) {
     LogHelper.debug(() -> "Building compilation search URL with parameters: {}", discogsQueryDTO);
     DiscogsQueryDTO dtoForUrl = generateDTOForSearching(discogsQueryDTO);
 
-    UriComponentsBuilder uriBuilder =
-        UriComponentsBuilder.fromHttpUrl(discogsBaseUrl.concat(discogsSearchEndpoint))
-            .queryParam(PER_PAGE, pageSize)
-            .queryParam(PAGE, 1)
-            .queryParam(TOKEN, token);
+    UriComponentsBuilder uriBuilder = searchUriBuilder();
     addQueryParams(uriBuilder, dtoForUrl);
     uriBuilderHelper.addIfNotNullOrBlank(
         uriBuilder, DiscogQueryParams.Q.getQueryType(), dtoForUrl.title());
     String compilationSearchUrl = getUrlString(uriBuilder);
     compilationSearchUrl = compilationSearchUrl.replace(" ", "+");
     LogHelper.debug(() -> "Generated compilation search URL: {}", compilationSearchUrl);
-    return compilationSearchUrl;
+    return new ResourceRequest(searchKey(uriBuilder), compilationSearchUrl);
+  }
+
+  private UriComponentsBuilder searchUriBuilder() {
+    return UriComponentsBuilder.fromHttpUrl(discogsBaseUrl.concat(discogsSearchEndpoint))
+        .queryParam(PER_PAGE, pageSize)
+        .queryParam(PAGE, FIRST_PAGE)
+        .queryParam(TOKEN, token);
+  }
+
+  /**
+   * Builds the key of a search from its query parameters, sorted by name and lower-cased, leaving
+   * out the token and page.
+   *
+   * @param uriBuilder the URI builder holding the search parameters
+   * @return the search key
+   */
+  private static ResourceKey.Search searchKey(final UriComponentsBuilder uriBuilder) {
+    MultiValueMap<String, String> queryParams = uriBuilder.build().getQueryParams();
+    StringJoiner query = new StringJoiner("&");
+    new TreeMap<>(queryParams)
+        .forEach(
+            (name, values) -> {
+              if (!TOKEN.equals(name) && !PAGE.equals(name)) {
+                values.stream()
+                    .map(value -> name + "=" + value.toLowerCase(Locale.ROOT))
+                    .sorted()
+                    .forEach(query::add);
+              }
+            });
+    return new ResourceKey.Search(query.toString(), FIRST_PAGE);
   }
 }
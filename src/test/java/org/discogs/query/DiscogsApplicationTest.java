@@ -11,13 +11,15 @@ import org.springframework.boot.test.context.SpringBootTest;
     properties = {
       "discogs.agent=test-agent",
       "discogs.token=test-token",
-      "spring.security.allowed-origins="
+      "spring.security.allowed-origins=",
+      "cache.data-directory="
     })
 class DiscogsApplicationTest {
 
   private String originalDiscogsAgent;
   private String originalDiscogsToken;
   private String originalAllowedOrigins;
+  private String originalCacheDataDir;
 
   @BeforeEach
   void setUp() {
@@ -25,11 +27,13 @@ class DiscogsApplicationTest {
     originalDiscogsAgent = System.getProperty("DISCOGS_AGENT");
     originalDiscogsToken = System.getProperty("DISCOGS_TOKEN");
     originalAllowedOrigins = System.getProperty("ALLOWED_ORIGINS");
+    originalCacheDataDir = System.getProperty("CACHE_DATA_DIR");
 
     // Set test values
     System.setProperty("DISCOGS_AGENT", "test-agent");
     System.setProperty("DISCOGS_TOKEN", "test-token");
     System.setProperty("ALLOWED_ORIGINS", "");
+    System.setProperty("CACHE_DATA_DIR", ""); // Keep the caches in memory only
   }
 
   @AfterEach
@@ -52,6 +56,12 @@ class DiscogsApplicationTest {
     } else {
       System.clearProperty("ALLOWED_ORIGINS");
     }
+
+    if (originalCacheDataDir != null) {
+      System.setProperty("CACHE_DATA_DIR", originalCacheDataDir);
+    } else {
+      System.clearProperty("CACHE_DATA_DIR");
+    }
   }
 
   @Test
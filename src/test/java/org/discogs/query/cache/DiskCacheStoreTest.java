@@ -0,0 +1,123 @@
+package org.discogs.query.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import org.discogs.query.config.JacksonConfig;
+import org.discogs.query.domain.api.DiscogsRelease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DiskCacheStoreTest {
+
+  private static final String KEY = "https://api.discogs.com/releases/1?token=secret";
+
+  @TempDir private Path directory;
+
+  private ObjectMapper objectMapper;
+
+  @BeforeEach
+  void setUp() {
+    objectMapper = new JacksonConfig().objectMapper();
+  }
+
+  private DiskCacheStore open() throws IOException {
+    return new DiskCacheStore("releaseResults", directory, objectMapper, DiscogsRelease.class);
+  }
+
+  private static DiscogsRelease release(final int id, final String title) {
+    return DiscogsRelease.builder().id(id).title(title).lowestPrice(9.99).build();
+  }
+
+  @Test
+  void testEntriesSurviveReopen() throws IOException {
+    try (DiskCacheStore store = open()) {
+      store.put(KEY, release(1, "Original"), Duration.ofHours(1));
+      store.put(KEY, release(1, "Updated"), Duration.ofHours(1));
+    }
+
+    try (DiskCacheStore store = open()) {
+      DiscogsRelease release = (DiscogsRelease) store.get(KEY).orElseThrow().value();
+      assertEquals("Updated", release.getTitle());
+      assertEquals(9.99, release.getLowestPrice());
+      assertEquals(1, store.size());
+    }
+  }
+
+  @Test
+  void testKeysAreStoredAsHashes() throws IOException {
+    try (DiskCacheStore store = open()) {
+      store.put(KEY, release(1, "Title"), Duration.ofHours(1));
+    }
+
+    Path log = directory.resolve("releaseResults.log");
+    assertFalse(Files.readString(log, StandardCharsets.ISO_8859_1).contains("secret"));
+  }
+
+  @Test
+  void testExpiredAndRemovedEntriesAreNotReturned() throws IOException {
+    try (DiskCacheStore store = open()) {
+      store.put("expired", release(1, "Expired"), Duration.ZERO);
+      store.put("removed", release(2, "Removed"), Duration.ofHours(1));
+      store.remove("removed");
+
+      assertTrue(store.get("expired").isEmpty());
+      assertTrue(store.get("removed").isEmpty());
+    }
+
+    try (DiskCacheStore store = open()) {
+      assertTrue(store.get("removed").isEmpty());
+      assertEquals(0, store.size());
+    }
+  }
+
+  @Test
+  void testTornRecordIsTruncatedOnLoad() throws IOException {
+    try (DiskCacheStore store = open()) {
+      store.put(KEY, release(1, "Complete"), Duration.ofHours(1));
+    }
+    Path log = directory.resolve("releaseResults.log");
+    long completeSize = Files.size(log);
+    Files.write(log, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+
+    try (DiskCacheStore store = open()) {
+      assertEquals("Complete", ((DiscogsRelease) store.get(KEY).orElseThrow().value()).getTitle());
+    }
+    assertEquals(completeSize, Files.size(log));
+  }
+
+  @Test
+  void testLogIsCompactedOnceMostlyStale() throws IOException {
+    String title = "x".repeat(10_000);
+    try (DiskCacheStore store = open()) {
+      for (int i = 0; i < 300; i++) {
+        store.put(KEY, release(i, title), Duration.ofHours(1));
+      }
+    }
+
+    assertTrue(Files.size(directory.resolve("releaseResults.log")) < 1 << 20);
+    try (DiskCacheStore store = open()) {
+      assertEquals(299, ((DiscogsRelease) store.get(KEY).orElseThrow().value()).getId());
+    }
+  }
+
+  @Test
+  void testClearRemovesEverything() throws IOException {
+    try (DiskCacheStore store = open()) {
+      store.put(KEY, release(1, "Title"), Duration.ofHours(1));
+      store.clear();
+
+      assertTrue(store.get(KEY).isEmpty());
+    }
+    assertEquals(0, Files.size(directory.resolve("releaseResults.log")));
+  }
+}
@@ -0,0 +1,82 @@
+package org.discogs.query.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.discogs.query.cache.FreshnessPolicy.Freshness;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FreshnessAwareCacheTest {
+
+  private static final FreshnessPolicy POLICY =
+      new FreshnessPolicy(Duration.ofMinutes(10), Duration.ofMinutes(5), Duration.ofHours(1));
+
+  private final AtomicLong nanos = new AtomicLong();
+  private FreshnessAwareCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache =
+        new FreshnessAwareCache(
+            "marketplaceResults",
+            Caffeine.newBuilder()
+                .ticker(nanos::get)
+                .expireAfter(Expiry.writing((Object k, Object v) -> POLICY.lifetime()))
+                .build(),
+            POLICY);
+    cache.put("key", "value");
+  }
+
+  @Test
+  void testEntryIsFreshUntilRefreshPoint() {
+    advance(Duration.ofMinutes(4));
+
+    assertEquals(new FreshnessAwareCache.Entry("value", Freshness.FRESH), cache.getEntry("key"));
+  }
+
+  @Test
+  void testEntryPastRefreshPointIsStillServed() {
+    advance(Duration.ofMinutes(6));
+
+    assertEquals(Freshness.REFRESH_DUE, cache.getEntry("key").freshness());
+    assertEquals("value", cache.get("key", String.class));
+  }
+
+  @Test
+  void testEntryPastTtlIsRetainedButHiddenFromLookups() {
+    advance(Duration.ofMinutes(11));
+
+    assertEquals(new FreshnessAwareCache.Entry("value", Freshness.STALE), cache.getEntry("key"));
+    assertNull(cache.get("key"));
+    assertEquals("loaded", cache.get("key", () -> "loaded"));
+    assertEquals(Freshness.FRESH, cache.getEntry("key").freshness());
+  }
+
+  @Test
+  void testEntryIsDroppedAfterStalePeriod() {
+    advance(Duration.ofMinutes(71));
+
+    assertNull(cache.getEntry("key"));
+  }
+
+  @Test
+  void testPolicyWithoutRefreshOrStalePeriodIsNotTracked() {
+    assertFalse(FreshnessPolicy.expireAfter(Duration.ofMinutes(10)).isTracked());
+    assertTrue(POLICY.isTracked());
+    assertEquals(
+        Duration.ofMinutes(10),
+        new FreshnessPolicy(Duration.ofMinutes(10), Duration.ofHours(1), Duration.ZERO)
+            .refreshAfter());
+  }
+
+  private void advance(final Duration duration) {
+    nanos.addAndGet(duration.toNanos());
+  }
+}
@@ -0,0 +1,33 @@
+package org.discogs.query.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class NegativeResultCacheTest {
+
+  private static final ResourceKey KEY = new ResourceKey.Release(1, "GBP");
+
+  @Test
+  void testRemembersAndForgetsOutcome() {
+    NegativeResultCache cache =
+        new NegativeResultCache(new ConcurrentMapCacheManager(NegativeResultCache.CACHE_NAME));
+
+    cache.put(KEY, NegativeResultCache.Kind.NOT_FOUND);
+    assertEquals(Optional.of(NegativeResultCache.Kind.NOT_FOUND), cache.get(KEY));
+
+    cache.evict(KEY);
+    assertTrue(cache.get(KEY).isEmpty());
+  }
+
+  @Test
+  void testMissingCacheRemembersNothing() {
+    NegativeResultCache cache = new NegativeResultCache(new ConcurrentMapCacheManager("other"));
+
+    cache.put(KEY, NegativeResultCache.Kind.EMPTY);
+    assertTrue(cache.get(KEY).isEmpty());
+  }
+}
@@ -0,0 +1,85 @@
+package org.discogs.query.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.discogs.query.model.DiscogsEntryDTO;
+import org.discogs.query.model.DiscogsQueryDTO;
+import org.discogs.query.model.DiscogsResultDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.util.unit.DataSize;
+
+class QueryResultCacheTest {
+
+  private static final DiscogsQueryDTO QUERY =
+      new DiscogsQueryDTO("artist", null, "track", null, "vinyl", null, null, null);
+
+  private QueryResultCache queryResultCache;
+
+  @BeforeEach
+  void setUp() {
+    CacheProperties properties =
+        new CacheProperties(
+            null,
+            Duration.ofMinutes(10),
+            DataSize.ofMegabytes(1),
+            Map.of(
+                QueryResultCache.CACHE_NAME,
+                new CacheProperties.Spec(Duration.ofMinutes(10), DataSize.ofMegabytes(1))));
+    queryResultCache =
+        new QueryResultCache(
+            new ConcurrentMapCacheManager(QueryResultCache.CACHE_NAME), properties);
+  }
+
+  @Test
+  void testKeyIgnoresUsernameCaseAndBlankUsername() {
+    assertEquals(
+        QueryResultCache.Key.of(QUERY, "User ", true),
+        QueryResultCache.Key.of(QUERY, "user", true));
+    assertEquals(
+        QueryResultCache.Key.of(QUERY, " ", false), QueryResultCache.Key.of(QUERY, null, false));
+  }
+
+  @Test
+  void testPriceRefreshInvalidatesOnlyResultsListingTheRelease() {
+    QueryResultCache.Key withRelease = QueryResultCache.Key.of(QUERY, null, false);
+    QueryResultCache.Key withoutRelease = QueryResultCache.Key.of(QUERY, null, true);
+    DiscogsResultDTO listed = result(1, 2);
+    DiscogsResultDTO unlisted = result(3);
+    queryResultCache.put(withRelease, listed);
+    queryResultCache.put(withoutRelease, unlisted);
+
+    queryResultCache.invalidateRelease(2);
+
+    assertTrue(queryResultCache.get(withRelease).isEmpty());
+    assertEquals(Optional.of(unlisted), queryResultCache.get(withoutRelease));
+  }
+
+  @Test
+  void testResultCachedAfterRefreshIsServed() {
+    QueryResultCache.Key key = QueryResultCache.Key.of(QUERY, null, false);
+    queryResultCache.invalidateRelease(1);
+    DiscogsResultDTO result = result(1);
+    queryResultCache.put(key, result);
+
+    assertEquals(Optional.of(result), queryResultCache.get(key));
+  }
+
+  private static DiscogsResultDTO result(final int... releaseIds) {
+    List<DiscogsEntryDTO> entries =
+        Arrays.stream(releaseIds)
+            .mapToObj(
+                id ->
+                    new DiscogsEntryDTO(
+                        id, "Title", List.of("Vinyl"), "url", "uri", "UK", "2023", true, 1f, 1))
+            .toList();
+    return new DiscogsResultDTO(QUERY, entries);
+  }
+}
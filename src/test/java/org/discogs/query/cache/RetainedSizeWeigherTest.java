@@ -0,0 +1,56 @@
+package org.discogs.query.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import org.discogs.query.domain.api.DiscogsLowestPriceResult;
+import org.discogs.query.domain.api.DiscogsMarketplaceResult;
+import org.discogs.query.domain.api.ReleaseMatchProfile;
+import org.junit.jupiter.api.Test;
+
+class RetainedSizeWeigherTest {
+
+  private final RetainedSizeWeigher weigher = new RetainedSizeWeigher();
+
+  @Test
+  void testMatchProfileWithTracklistOutweighsMarketplaceResult() {
+    ReleaseMatchProfile profile =
+        new ReleaseMatchProfile(
+            1,
+            new String[] {"artist"},
+            Collections.nCopies(20, "a fairly long track title").toArray(String[]::new),
+            new String[] {"artist"},
+            true);
+    DiscogsMarketplaceResult price =
+        DiscogsMarketplaceResult.builder()
+            .result(new DiscogsLowestPriceResult("GBP", 9.99f))
+            .numberForSale(3)
+            .build();
+
+    int profileWeight = weigher.weigh(new ResourceKey.Release(1, "GBP"), profile);
+    int priceWeight = weigher.weigh(new ResourceKey.MarketplaceStats(1, "GBP"), price);
+
+    assertTrue(profileWeight > 5 * priceWeight);
+  }
+
+  @Test
+  void testStringWeightGrowsWithLength() {
+    assertEquals(RetainedSizeWeigher.STRING_OVERHEAD + 3, RetainedSizeWeigher.sizeOf("abc"));
+    assertTrue(weigher.weigh("k", "x".repeat(1000)) > weigher.weigh("k", "x"));
+  }
+
+  @Test
+  void testNegativeResultWeighsLessThanFullResult() {
+    ResourceKey key = new ResourceKey.MarketplaceStats(1, "GBP");
+    assertTrue(
+        weigher.weigh(key, NegativeResultCache.Kind.EMPTY)
+            < weigher.weigh(key, new DiscogsMarketplaceResult(null, 0)));
+    assertTrue(RetainedSizeWeigher.sizeOf(key) < RetainedSizeWeigher.UNKNOWN_VALUE);
+  }
+
+  @Test
+  void testUnknownValueUsesDefaultWeight() {
+    assertEquals(RetainedSizeWeigher.UNKNOWN_VALUE, RetainedSizeWeigher.sizeOf(new Object()));
+  }
+}
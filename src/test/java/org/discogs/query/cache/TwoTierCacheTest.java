@@ -0,0 +1,91 @@
+package org.discogs.query.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TwoTierCacheTest {
+
+  private static final Duration TTL = Duration.ofHours(1);
+
+  private Cache<Object, Object> memoryCache;
+  private DiskCacheStore diskStore;
+  private TwoTierCache cache;
+
+  @BeforeEach
+  void setUp() {
+    memoryCache =
+        Caffeine.newBuilder().expireAfter(Expiry.writing((Object k, Object v) -> TTL)).build();
+    diskStore = mock(DiskCacheStore.class);
+    cache =
+        new TwoTierCache(
+            "releaseResults", memoryCache, diskStore, FreshnessPolicy.expireAfter(TTL));
+  }
+
+  @Test
+  void testPutWritesBothTiers() {
+    cache.put("key", "value");
+
+    assertEquals("value", memoryCache.getIfPresent("key"));
+    verify(diskStore).put("key", "value", TTL);
+  }
+
+  @Test
+  void testDiskHitIsPromotedWithRemainingTtl() {
+    long expiresAt = System.currentTimeMillis() + Duration.ofMinutes(5).toMillis();
+    when(diskStore.get("key"))
+        .thenReturn(Optional.of(new DiskCacheStore.StoredValue("value", expiresAt)));
+
+    assertEquals("value", cache.get("key", String.class));
+
+    assertEquals("value", memoryCache.getIfPresent("key"));
+    Duration remaining =
+        memoryCache.policy().expireVariably().orElseThrow().getExpiresAfter("key").orElseThrow();
+    assertTrue(remaining.compareTo(Duration.ofMinutes(5)) <= 0);
+  }
+
+  @Test
+  void testMissInBothTiers() {
+    when(diskStore.get("key")).thenReturn(Optional.empty());
+
+    assertNull(cache.get("key"));
+  }
+
+  @Test
+  void testValueLoaderResultIsStoredInBothTiers() {
+    when(diskStore.get("key")).thenReturn(Optional.empty());
+
+    assertEquals("loaded", cache.get("key", () -> "loaded"));
+
+    verify(diskStore).put("key", "loaded", TTL);
+    assertEquals("loaded", memoryCache.getIfPresent("key"));
+  }
+
+  @Test
+  void testNullValuesStayInMemory() {
+    cache.put("key", null);
+
+    verify(diskStore, never()).put("key", null, TTL);
+  }
+
+  @Test
+  void testEvictRemovesFromBothTiers() {
+    cache.put("key", "value");
+    cache.evict("key");
+
+    assertNull(memoryCache.getIfPresent("key"));
+    verify(diskStore).remove("key");
+  }
+}
@@ -2,28 +2,78 @@ package org.discogs.query.client;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.discogs.query.cache.FreshnessAwareCache;
+import org.discogs.query.cache.FreshnessPolicy;
+import org.discogs.query.cache.NegativeResultCache;
+import org.discogs.query.cache.QueryResultCache;
+import org.discogs.query.cache.ResourceKey;
+import org.discogs.query.cache.ResourceRequest;
+import org.discogs.query.domain.api.DiscogsLowestPriceResult;
+import org.discogs.query.domain.api.DiscogsMarketplaceResult;
+import org.discogs.query.domain.api.DiscogsRelease;
 import org.discogs.query.domain.api.DiscogsResult;
+import org.discogs.query.exceptions.DeadlineExceededException;
 import org.discogs.query.exceptions.DiscogsSearchException;
+import org.discogs.query.interfaces.AsyncHttpRequestService;
 import org.discogs.query.interfaces.CircuitBreakerService;
-import org.discogs.query.interfaces.HttpRequestService;
+import org.discogs.query.interfaces.HedgingService;
 import org.discogs.query.interfaces.RateLimiterService;
+import org.discogs.query.interfaces.RequestCoalescingService;
 import org.discogs.query.interfaces.RetryService;
+import org.discogs.query.limits.Deadline;
+import org.discogs.query.service.infrastructure.RequestCoalescingServiceImpl;
+import org.discogs.query.service.requests.HedgingServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
 
 class DiscogsAPIClientImplTest {
 
-  @Mock private HttpRequestService httpRequestService;
+  private static final ResourceRequest SEARCH =
+      new ResourceRequest(new ResourceKey.Search("q=test", 1), "http://example.com/search");
+  private static final ResourceRequest RELEASE =
+      new ResourceRequest(new ResourceKey.Release(1, "GBP"), "http://example.com/releases/1");
+  private static final ResourceRequest MARKETPLACE =
+      new ResourceRequest(
+          new ResourceKey.MarketplaceStats(1, "GBP"), "http://example.com/marketplace/1");
+  private static final FreshnessPolicy MARKETPLACE_POLICY =
+      new FreshnessPolicy(Duration.ofMinutes(10), Duration.ofMinutes(5), Duration.ofHours(1));
+
+  @Mock private AsyncHttpRequestService asyncHttpRequestService;
 
   @Mock private RateLimiterService rateLimiterService;
 
@@ -31,6 +81,22 @@ class DiscogsAPIClientImplTest {
 
   @Mock private CircuitBreakerService circuitBreakerService;
 
+  @Mock private CacheManager cacheManager;
+
+  @Spy
+  private RequestCoalescingService requestCoalescingService =
+      new RequestCoalescingServiceImpl(new SimpleMeterRegistry());
+
+  @Spy
+  private HedgingService hedgingService =
+      new HedgingServiceImpl(false, Set.of(), 95, 0.05, 100, 20, null, new SimpleMeterRegistry());
+
+  @Spy
+  private NegativeResultCache negativeResultCache =
+      new NegativeResultCache(new ConcurrentMapCacheManager(NegativeResultCache.CACHE_NAME));
+
+  @Mock private QueryResultCache queryResultCache;
+
   @InjectMocks private DiscogsAPIClientImpl client;
 
   @BeforeEach
@@ -40,48 +106,317 @@ class DiscogsAPIClientImplTest {
 
   @Test
   void testGetResultsForQuerySuccess() throws Exception {
-    String searchUrl = "http://example.com/search";
     DiscogsResult expectedResult = new DiscogsResult();
 
-    when(circuitBreakerService.execute(any(CircuitBreakerService.OperationWithException.class)))
+    when(circuitBreakerService.execute(
+            eq(CircuitBreakerService.Endpoint.SEARCH),
+            any(CircuitBreakerService.OperationWithException.class)))
         .thenAnswer(
             invocation -> {
-              CircuitBreakerService.OperationWithException<?> operation = invocation.getArgument(0);
+              CircuitBreakerService.OperationWithException<?> operation = invocation.getArgument(1);
               return operation.execute();
             });
-    when(retryService.executeWithRetry(any(Callable.class), eq("Discogs Search API Request")))
-        .thenReturn(expectedResult);
+    when(retryService.executeWithRetry(
+            any(Callable.class), eq("Discogs Search API Request"), any()))
+        .thenAnswer(invocation -> invocation.<Callable<?>>getArgument(0).call());
+    when(asyncHttpRequestService.executeRequestAsync(
+            SEARCH.url(), DiscogsResult.class, Deadline.none()))
+        .thenReturn(CompletableFuture.completedFuture(expectedResult));
 
-    DiscogsResult result = client.getResultsForQuery(searchUrl);
+    DiscogsResult result = client.getResultsForQuery(SEARCH);
 
-    verify(circuitBreakerService).execute(any(CircuitBreakerService.OperationWithException.class));
-    verify(rateLimiterService).waitForRateLimit();
-    verify(retryService).executeWithRetry(any(Callable.class), eq("Discogs Search API Request"));
+    InOrder permitBeforeBreaker = inOrder(rateLimiterService, circuitBreakerService);
+    permitBeforeBreaker.verify(rateLimiterService).waitForRateLimit(Deadline.none());
+    permitBeforeBreaker
+        .verify(circuitBreakerService)
+        .execute(
+            eq(CircuitBreakerService.Endpoint.SEARCH),
+            any(CircuitBreakerService.OperationWithException.class));
+    verify(retryService)
+        .executeWithRetry(any(Callable.class), eq("Discogs Search API Request"), any());
     assertSame(expectedResult, result, "The result should match the expected result.");
   }
 
   @Test
   void testGetResultsForQueryRetryFailure() throws Exception {
-    String searchUrl = "http://example.com/search";
 
-    when(circuitBreakerService.execute(any(CircuitBreakerService.OperationWithException.class)))
+    when(circuitBreakerService.execute(
+            eq(CircuitBreakerService.Endpoint.SEARCH),
+            any(CircuitBreakerService.OperationWithException.class)))
         .thenAnswer(
             invocation -> {
-              CircuitBreakerService.OperationWithException<?> operation = invocation.getArgument(0);
+              CircuitBreakerService.OperationWithException<?> operation = invocation.getArgument(1);
               return operation.execute();
             });
-    when(retryService.executeWithRetry(any(Callable.class), eq("Discogs Search API Request")))
-        .thenThrow(new RuntimeException("Simulated error"));
+    when(retryService.executeWithRetry(
+            any(Callable.class), eq("Discogs Search API Request"), any()))
+        .thenAnswer(invocation -> invocation.<Callable<?>>getArgument(0).call());
+    when(asyncHttpRequestService.executeRequestAsync(
+            SEARCH.url(), DiscogsResult.class, Deadline.none()))
+        .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Simulated error")));
 
     try {
-      client.getResultsForQuery(searchUrl);
+      client.getResultsForQuery(SEARCH);
       fail("Expected DiscogsSearchException to be thrown.");
     } catch (final DiscogsSearchException e) {
       assertEquals("Failed to fetch data from Discogs API", e.getMessage());
     }
 
-    verify(circuitBreakerService).execute(any(CircuitBreakerService.OperationWithException.class));
-    verify(rateLimiterService).waitForRateLimit();
-    verify(retryService).executeWithRetry(any(Callable.class), eq("Discogs Search API Request"));
+    verify(circuitBreakerService)
+        .execute(
+            eq(CircuitBreakerService.Endpoint.SEARCH),
+            any(CircuitBreakerService.OperationWithException.class));
+    verify(rateLimiterService).waitForRateLimit(Deadline.none());
+    verify(retryService)
+        .executeWithRetry(any(Callable.class), eq("Discogs Search API Request"), any());
+  }
+
+  @Test
+  void testGetResultsForQueryAsyncFetchesAndCachesOnMiss() {
+    DiscogsResult searchResult = new DiscogsResult();
+    ConcurrentMapCache cache = new ConcurrentMapCache("discogsResults");
+
+    when(cacheManager.getCache("discogsResults")).thenReturn(cache);
+    when(circuitBreakerService.executeAsync(eq(CircuitBreakerService.Endpoint.SEARCH), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<CompletableFuture<?>>>getArgument(1).get());
+    when(retryService.executeWithRetryAsync(any(), eq("Discogs Search API Request"), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<CompletableFuture<?>>>getArgument(0).get());
+    when(rateLimiterService.acquireRateLimitAsync(Deadline.none()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    when(asyncHttpRequestService.executeRequestAsync(
+            SEARCH.url(), DiscogsResult.class, Deadline.none()))
+        .thenReturn(CompletableFuture.completedFuture(searchResult));
+
+    DiscogsResult result = client.getResultsForQueryAsync(SEARCH).join();
+
+    assertSame(searchResult, result);
+    assertSame(searchResult, cache.get(SEARCH.key(), DiscogsResult.class));
+    verify(rateLimiterService).acquireRateLimitAsync(Deadline.none());
+  }
+
+  @Test
+  void testGetResultsForQueryAsyncServesCachedValue() {
+    DiscogsResult searchResult = new DiscogsResult();
+    ConcurrentMapCache cache = new ConcurrentMapCache("discogsResults");
+    cache.put(SEARCH.key(), searchResult);
+
+    when(cacheManager.getCache("discogsResults")).thenReturn(cache);
+
+    assertSame(searchResult, client.getResultsForQueryAsync(SEARCH).join());
+    verify(asyncHttpRequestService, never()).executeRequestAsync(any(), any(), any());
+    verify(rateLimiterService, never()).acquireRateLimitAsync(any());
+  }
+
+  @Test
+  void testGetReleaseAsyncFetchesWithoutCaching() {
+    DiscogsRelease release = new DiscogsRelease();
+
+    when(circuitBreakerService.executeAsync(eq(CircuitBreakerService.Endpoint.RELEASE), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<CompletableFuture<?>>>getArgument(1).get());
+    when(retryService.executeWithRetryAsync(any(), eq("Discogs Release API Request"), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<CompletableFuture<?>>>getArgument(0).get());
+    when(rateLimiterService.acquireRateLimitAsync(Deadline.none()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    when(asyncHttpRequestService.executeRequestAsync(
+            RELEASE.url(), DiscogsRelease.class, Deadline.none()))
+        .thenReturn(CompletableFuture.completedFuture(release));
+
+    assertSame(release, client.getReleaseAsync(RELEASE).join());
+    verify(cacheManager, never()).getCache(any());
+  }
+
+  @Test
+  void testGetResultsForQueryAsyncCircuitOpen() {
+    when(retryService.executeWithRetryAsync(any(), eq("Discogs Search API Request"), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<CompletableFuture<?>>>getArgument(0).get());
+    when(rateLimiterService.acquireRateLimitAsync(Deadline.none()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    when(circuitBreakerService.executeAsync(eq(CircuitBreakerService.Endpoint.SEARCH), any()))
+        .thenReturn(
+            CompletableFuture.failedFuture(
+                new CircuitBreakerService.CircuitBreakerOpenException("Circuit breaker is OPEN")));
+
+    CompletableFuture<DiscogsResult> future = client.getResultsForQueryAsync(SEARCH);
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertEquals(
+        "Service temporarily unavailable due to circuit breaker",
+        exception.getCause().getMessage());
+  }
+
+  @Test
+  void testMarketplaceResultDueForRefreshIsServedAndRefreshed() {
+    AtomicLong nanos = new AtomicLong();
+    FreshnessAwareCache cache = marketplaceCache(nanos);
+    DiscogsMarketplaceResult cached = marketplaceResult(10f);
+    DiscogsMarketplaceResult refreshed = marketplaceResult(8f);
+    cache.put(MARKETPLACE.key(), cached);
+    nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+
+    when(cacheManager.getCache("marketplaceResults")).thenReturn(cache);
+    when(rateLimiterService.tryAcquireRateLimit()).thenReturn(true);
+    when(circuitBreakerService.executeAsync(
+            eq(CircuitBreakerService.Endpoint.MARKETPLACE), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<CompletableFuture<?>>>getArgument(1).get());
+    when(asyncHttpRequestService.executeRequestAsync(
+            MARKETPLACE.url(), DiscogsMarketplaceResult.class))
+        .thenReturn(CompletableFuture.completedFuture(refreshed));
+
+    assertSame(cached, client.getMarketplaceResultForQuery(MARKETPLACE));
+    assertSame(refreshed, cache.get(MARKETPLACE.key(), DiscogsMarketplaceResult.class));
+    verify(rateLimiterService, never()).waitForRateLimit(any());
+    verify(queryResultCache).invalidateRelease(1);
+  }
+
+  @Test
+  void testUnchangedMarketplacePriceKeepsQueryResults() {
+    AtomicLong nanos = new AtomicLong();
+    FreshnessAwareCache cache = marketplaceCache(nanos);
+    cache.put(MARKETPLACE.key(), marketplaceResult(10f));
+    nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+
+    when(cacheManager.getCache("marketplaceResults")).thenReturn(cache);
+    when(rateLimiterService.tryAcquireRateLimit()).thenReturn(true);
+    when(circuitBreakerService.executeAsync(
+            eq(CircuitBreakerService.Endpoint.MARKETPLACE), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<CompletableFuture<?>>>getArgument(1).get());
+    when(asyncHttpRequestService.executeRequestAsync(
+            MARKETPLACE.url(), DiscogsMarketplaceResult.class))
+        .thenReturn(CompletableFuture.completedFuture(marketplaceResult(10f)));
+
+    client.getMarketplaceResultForQuery(MARKETPLACE);
+
+    verify(queryResultCache, never()).invalidateRelease(anyLong());
+  }
+
+  @Test
+  void testStaleMarketplaceResultIsServedWhileCircuitOpen() throws Exception {
+    AtomicLong nanos = new AtomicLong();
+    FreshnessAwareCache cache = marketplaceCache(nanos);
+    DiscogsMarketplaceResult cached = marketplaceResult(10f);
+    cache.put(MARKETPLACE.key(), cached);
+    nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+
+    when(cacheManager.getCache("marketplaceResults")).thenReturn(cache);
+    when(retryService.executeWithRetry(any(Callable.class), any(), any()))
+        .thenAnswer(invocation -> invocation.<Callable<?>>getArgument(0).call());
+    when(circuitBreakerService.execute(
+            eq(CircuitBreakerService.Endpoint.MARKETPLACE),
+            any(CircuitBreakerService.OperationWithException.class)))
+        .thenThrow(
+            new CircuitBreakerService.CircuitBreakerOpenException("Circuit breaker is OPEN"));
+
+    DiscogsMarketplaceResult result = client.getMarketplaceResultForQuery(MARKETPLACE);
+
+    assertTrue(result.isStale());
+    assertEquals(10f, result.getResult().getValue());
+    assertFalse(cached.isStale());
+  }
+
+  @Test
+  void testEmptyMarketplaceResultIsServedFromNegativeCache() throws Exception {
+    ConcurrentMapCache cache = new ConcurrentMapCache("marketplaceResults");
+
+    when(cacheManager.getCache("marketplaceResults")).thenReturn(cache);
+    passThroughCircuitBreakerAndRetry(CircuitBreakerService.Endpoint.MARKETPLACE);
+    when(asyncHttpRequestService.executeRequestAsync(
+            MARKETPLACE.url(), DiscogsMarketplaceResult.class, Deadline.none()))
+        .thenReturn(CompletableFuture.completedFuture(new DiscogsMarketplaceResult(null, 0)));
+
+    client.getMarketplaceResultForQuery(MARKETPLACE);
+    DiscogsMarketplaceResult result = client.getMarketplaceResultForQuery(MARKETPLACE);
+
+    assertNull(result.getResult());
+    assertEquals(0, result.getNumberForSale());
+    assertNull(cache.get(MARKETPLACE.key()));
+    assertEquals(
+        Optional.of(NegativeResultCache.Kind.EMPTY), negativeResultCache.get(MARKETPLACE.key()));
+    verify(asyncHttpRequestService)
+        .executeRequestAsync(MARKETPLACE.url(), DiscogsMarketplaceResult.class, Deadline.none());
+  }
+
+  @Test
+  void testFetchedReleasePricesItsMarketplaceLookup() throws Exception {
+    ConcurrentMapCache cache = new ConcurrentMapCache("marketplaceResults");
+    DiscogsRelease release = DiscogsRelease.builder().id(1).lowestPrice(7.5).numForSale(3).build();
+
+    when(cacheManager.getCache("marketplaceResults")).thenReturn(cache);
+    passThroughCircuitBreakerAndRetry(CircuitBreakerService.Endpoint.RELEASE);
+    when(asyncHttpRequestService.executeRequestAsync(
+            RELEASE.url(), DiscogsRelease.class, Deadline.none()))
+        .thenReturn(CompletableFuture.completedFuture(release));
+
+    client.getRelease(RELEASE);
+    DiscogsMarketplaceResult result = client.getMarketplaceResultForQuery(MARKETPLACE);
+
+    assertEquals(7.5f, result.getResult().getValue());
+    assertEquals("GBP", result.getResult().getCurrency());
+    assertEquals(3, result.getNumberForSale());
+    verify(asyncHttpRequestService, never())
+        .executeRequestAsync(MARKETPLACE.url(), DiscogsMarketplaceResult.class, Deadline.none());
+  }
+
+  @Test
+  void testNotFoundReleaseIsNotRequestedAgain() throws Exception {
+    passThroughCircuitBreakerAndRetry(CircuitBreakerService.Endpoint.RELEASE);
+    when(asyncHttpRequestService.executeRequestAsync(
+            RELEASE.url(), DiscogsRelease.class, Deadline.none()))
+        .thenReturn(
+            CompletableFuture.failedFuture(
+                HttpClientErrorException.create(HttpStatus.NOT_FOUND, "", null, null, null)));
+
+    assertThrows(DiscogsSearchException.class, () -> client.getRelease(RELEASE));
+    assertThrows(DiscogsSearchException.class, () -> client.getRelease(RELEASE));
+
+    assertEquals(
+        Optional.of(NegativeResultCache.Kind.NOT_FOUND), negativeResultCache.get(RELEASE.key()));
+    verify(asyncHttpRequestService)
+        .executeRequestAsync(RELEASE.url(), DiscogsRelease.class, Deadline.none());
+  }
+
+  @Test
+  void testBlockingLookupEndsWhenItsExchangeIsAbortedWithTheDeadline() throws Exception {
+    Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+    CompletableFuture<DiscogsRelease> exchange = new CompletableFuture<>();
+    passThroughCircuitBreakerAndRetry(CircuitBreakerService.Endpoint.RELEASE);
+    when(asyncHttpRequestService.executeRequestAsync(RELEASE.url(), DiscogsRelease.class, deadline))
+        .thenReturn(exchange);
+    deadline.onCancel(() -> exchange.cancel(true));
+
+    CompletableFuture<DiscogsRelease> lookup =
+        CompletableFuture.supplyAsync(() -> client.getRelease(RELEASE.withDeadline(deadline)));
+    verify(asyncHttpRequestService, timeout(1000))
+        .executeRequestAsync(RELEASE.url(), DiscogsRelease.class, deadline);
+    deadline.cancel();
+
+    Throwable failure = assertThrows(CompletionException.class, lookup::join).getCause();
+    assertTrue(DeadlineExceededException.isDeadlineExceeded(failure));
+  }
+
+  private void passThroughCircuitBreakerAndRetry(final CircuitBreakerService.Endpoint endpoint)
+      throws Exception {
+    when(circuitBreakerService.execute(
+            eq(endpoint), any(CircuitBreakerService.OperationWithException.class)))
+        .thenAnswer(
+            invocation -> {
+              CircuitBreakerService.OperationWithException<?> operation = invocation.getArgument(1);
+              return operation.execute();
+            });
+    when(retryService.executeWithRetry(any(Callable.class), any(), any()))
+        .thenAnswer(invocation -> invocation.<Callable<?>>getArgument(0).call());
+  }
+
+  private static FreshnessAwareCache marketplaceCache(final AtomicLong nanos) {
+    return new FreshnessAwareCache(
+        "marketplaceResults",
+        Caffeine.newBuilder()
+            .ticker(nanos::get)
+            .expireAfter(Expiry.writing((Object k, Object v) -> MARKETPLACE_POLICY.lifetime()))
+            .build(),
+        MARKETPLACE_POLICY);
+  }
+
+  private static DiscogsMarketplaceResult marketplaceResult(final float lowestPrice) {
+    return new DiscogsMarketplaceResult(new DiscogsLowestPriceResult("GBP", lowestPrice), 1);
   }
 }
@@ -14,9 +14,14 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
+import org.discogs.query.cache.NegativeResultCache;
+import org.discogs.query.cache.ResourceKey;
 import org.discogs.query.config.HttpConfig;
 import org.discogs.query.domain.website.DiscogsWebsiteResult;
 import org.discogs.query.exceptions.NoMarketplaceListingsException;
+import org.discogs.query.interfaces.CircuitBreakerService;
+import org.discogs.query.service.infrastructure.CircuitBreakerServiceImpl;
 import org.discogs.query.util.JsoupHelper;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -27,7 +32,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.http.HttpHeaders;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +43,15 @@ class DiscogsWebScraperClientImplTest {
   private final String releaseId = "123456";
   @Mock private HttpConfig httpConfig;
   @Mock private JsoupHelper jsoupHelper;
+
+  @Spy
+  private CircuitBreakerService circuitBreakerService =
+      new CircuitBreakerServiceImpl(20, 10, 50, 80, 10_000, 60_000, 3);
+
+  @Spy
+  private NegativeResultCache negativeResultCache =
+      new NegativeResultCache(new ConcurrentMapCacheManager(NegativeResultCache.CACHE_NAME));
+
   @InjectMocks private DiscogsWebScraperClientImpl discogsWebScraperClient;
 
   @BeforeEach
@@ -85,6 +101,23 @@ class DiscogsWebScraperClientImplTest {
     verify(jsoupHelper).connect(anyString(), anyMap());
   }
 
+  @Test
+  void testReleaseWithoutListingsIsNotScrapedAgain() throws IOException {
+    Document mockDocument = mock(Document.class);
+    when(jsoupHelper.connect(anyString(), anyMap())).thenReturn(mockDocument);
+    when(mockDocument.select(".shortcut_navigable")).thenReturn(new Elements());
+
+    discogsWebScraperClient.getMarketplaceResultsForRelease(releaseId);
+    List<DiscogsWebsiteResult> results =
+        discogsWebScraperClient.getMarketplaceResultsForRelease(releaseId);
+
+    assertTrue(results.isEmpty());
+    verify(jsoupHelper).connect(anyString(), anyMap());
+    assertEquals(
+        Optional.of(NegativeResultCache.Kind.EMPTY),
+        negativeResultCache.get(new ResourceKey.MarketplaceListings(releaseId)));
+  }
+
   @Test
   void testGetMarketplaceResultsForRelease_ExceptionHandling() throws IOException {
     // Arrange
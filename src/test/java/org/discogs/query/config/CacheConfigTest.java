@@ -1,22 +1,108 @@
 package org.discogs.query.config;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import org.discogs.query.cache.CacheProperties;
+import org.discogs.query.cache.FreshnessAwareCache;
+import org.discogs.query.cache.TwoTierCache;
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.util.unit.DataSize;
 
 class CacheConfigTest {
 
+  @TempDir private Path dataDirectory;
+
   @Test
   void testCacheManagerConfiguration() {
     CacheConfig cacheConfig = new CacheConfig();
-    CacheManager cacheManager = cacheConfig.cacheManager();
+    CacheManager cacheManager =
+        cacheConfig.cacheManager(
+            new CacheProperties(null, Duration.ofMinutes(10), DataSize.ofMegabytes(16), Map.of()),
+            new JacksonConfig().objectMapper());
 
     assertInstanceOf(CaffeineCacheManager.class, cacheManager);
     CaffeineCacheManager caffeineCacheManager = (CaffeineCacheManager) cacheManager;
     assertNotNull(caffeineCacheManager.getCache("discogsResults")); // Ensure
     // discogsResults cache is configured
+    assertInstanceOf(CaffeineCache.class, caffeineCacheManager.getCache("releaseProfiles"));
+  }
+
+  @Test
+  void testPersistentTierForApiCaches() {
+    CacheManager cacheManager =
+        new CacheConfig()
+            .cacheManager(
+                new CacheProperties(
+                    dataDirectory,
+                    Duration.ofMinutes(10),
+                    DataSize.ofMegabytes(16),
+                    Map.of(
+                        "releaseProfiles",
+                        new CacheProperties.Spec(Duration.ofDays(7), DataSize.ofMegabytes(64)))),
+                new JacksonConfig().objectMapper());
+
+    assertInstanceOf(TwoTierCache.class, cacheManager.getCache("releaseProfiles"));
+    assertInstanceOf(TwoTierCache.class, cacheManager.getCache("marketplaceResults"));
+    assertInstanceOf(CaffeineCache.class, cacheManager.getCache("stringResults"));
+  }
+
+  @Test
+  void testMemoryOnlyCacheWithRefreshAheadTracksFreshness() {
+    CacheManager cacheManager =
+        new CacheConfig()
+            .cacheManager(
+                new CacheProperties(
+                    null,
+                    Duration.ofMinutes(10),
+                    DataSize.ofMegabytes(16),
+                    Map.of(
+                        "marketplaceResults",
+                        new CacheProperties.Spec(
+                            Duration.ofMinutes(10),
+                            DataSize.ofMegabytes(4),
+                            Duration.ofMinutes(5),
+                            Duration.ofHours(2)))),
+                new JacksonConfig().objectMapper());
+
+    FreshnessAwareCache cache =
+        assertInstanceOf(FreshnessAwareCache.class, cacheManager.getCache("marketplaceResults"));
+    assertEquals(Duration.ofMinutes(5), cache.getPolicy().refreshAfter());
+    assertInstanceOf(CaffeineCache.class, cacheManager.getCache("releaseProfiles"));
+  }
+
+  @Test
+  void testTwoTierCacheStatisticsArePublished() {
+    CacheConfig cacheConfig = new CacheConfig();
+    CacheManager cacheManager =
+        cacheConfig.cacheManager(
+            new CacheProperties(
+                dataDirectory, Duration.ofMinutes(10), DataSize.ofMegabytes(16), null),
+            new JacksonConfig().objectMapper());
+    TwoTierCache cache = (TwoTierCache) cacheManager.getCache("releaseProfiles");
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    cacheConfig.twoTierCacheMeterBinderProvider().getMeterBinder(cache, List.of()).bindTo(registry);
+    cache.get("missing");
+    cache.put("present", "value");
+
+    assertEquals(
+        1.0,
+        registry
+            .get("cache.gets")
+            .tags("cache", "releaseProfiles", "result", "miss")
+            .functionCounter()
+            .count());
+    assertEquals(1.0, registry.get("cache.disk.entries").gauge().value());
   }
 }
@@ -0,0 +1,76 @@
+package org.discogs.query.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ExecutorConfigTest {
+
+  @Test
+  void testDiscogsExecutorUsesVirtualThreads() {
+    ExecutorConfig executorConfig = new ExecutorConfig();
+    ReflectionTestUtils.setField(executorConfig, "virtualThreads", true);
+    ReflectionTestUtils.setField(executorConfig, "threadNamePrefix", "test-");
+
+    try (ExecutorService executor = executorConfig.discogsExecutor(new SimpleMeterRegistry())) {
+      boolean virtual =
+          CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), executor).join();
+      assertTrue(virtual);
+    }
+  }
+
+  @Test
+  void testDiscogsExecutorUsesPlatformThreadsWhenDisabled() {
+    ExecutorConfig executorConfig = new ExecutorConfig();
+    ReflectionTestUtils.setField(executorConfig, "virtualThreads", false);
+    ReflectionTestUtils.setField(executorConfig, "threadNamePrefix", "test-");
+    ReflectionTestUtils.setField(executorConfig, "platformPoolSize", 2);
+    ReflectionTestUtils.setField(executorConfig, "platformQueueCapacity", 4);
+    ReflectionTestUtils.setField(
+        executorConfig, "platformRejectionPolicy", ExecutorConfig.RejectionPolicy.CALLER_RUNS);
+
+    try (ExecutorService executor = executorConfig.discogsExecutor(new SimpleMeterRegistry())) {
+      boolean virtual =
+          CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), executor).join();
+      assertFalse(virtual);
+    }
+  }
+
+  @Test
+  void testScraperExecutorRejectsPagesBeyondItsQueue() {
+    ExecutorConfig executorConfig = new ExecutorConfig();
+    ReflectionTestUtils.setField(executorConfig, "scraperPoolSize", 1);
+    ReflectionTestUtils.setField(executorConfig, "scraperQueueCapacity", 1);
+    ReflectionTestUtils.setField(
+        executorConfig, "scraperRejectionPolicy", ExecutorConfig.RejectionPolicy.ABORT);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    CountDownLatch release = new CountDownLatch(1);
+    Runnable blocked =
+        () -> {
+          try {
+            release.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        };
+
+    try (ExecutorService executor = executorConfig.scraperExecutor(meterRegistry)) {
+      executor.execute(blocked);
+      executor.execute(blocked);
+
+      assertThrows(RejectedExecutionException.class, () -> executor.execute(blocked));
+      assertEquals(
+          1.0, meterRegistry.get("executor.queued").tag("name", "scraper").gauge().value());
+      release.countDown();
+    }
+  }
+}
@@ -1,8 +1,13 @@
 package org.discogs.query.config;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import org.discogs.query.domain.api.DiscogsResult;
+import org.discogs.query.model.DiscogsRequestDTO;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
@@ -24,4 +29,34 @@ class JacksonConfigTest {
       assertNotNull(objectMapper, "ObjectMapper should not be null");
     }
   }
+
+  /** Test that fields Discogs adds to its responses are ignored. */
+  @Test
+  void testUnknownPropertiesOfDiscogsResponsesAreIgnored() throws Exception {
+    ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    DiscogsResult result =
+        objectMapper.readValue(
+            """
+            {"pagination":{"page":1},"results":[{"id":1,"title":"Title","new_field":true}]}
+            """,
+            DiscogsResult.class);
+
+    assertEquals(1, result.getResults().getFirst().getId());
+  }
+
+  /** Test that a misspelled field in a request body is rejected. */
+  @Test
+  void testUnknownPropertiesOfRequestsAreRejected() {
+    ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    assertThrows(
+        UnrecognizedPropertyException.class,
+        () ->
+            objectMapper.readValue(
+                """
+                {"queries":[],"usernmae":"user"}
+                """,
+                DiscogsRequestDTO.class));
+  }
 }
@@ -11,7 +11,8 @@ import springfox.documentation.spring.web.plugins.Docket;
     properties = {
       "discogs.agent=test-agent",
       "discogs.token=test-token",
-      "spring.security.allowed-origins="
+      "spring.security.allowed-origins=",
+      "cache.data-directory="
     })
 class SpringFoxConfigTest {
 
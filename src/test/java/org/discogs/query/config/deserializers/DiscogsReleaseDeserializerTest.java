@@ -0,0 +1,84 @@
+package org.discogs.query.config.deserializers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import java.io.IOException;
+import org.discogs.query.config.JacksonConfig;
+import org.discogs.query.domain.api.DiscogsRelease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link DiscogsReleaseDeserializer}. */
+class DiscogsReleaseDeserializerTest {
+
+  private static final String RELEASE_JSON =
+      """
+      {
+        "id": 249504,
+        "title": "Never Gonna Give You Up",
+        "formats": [{"name": "Vinyl", "qty": "1", "descriptions": ["7\\"", "Single"]}],
+        "labels": [{"name": "RCA", "catno": "PB 41447", "id": 895}],
+        "artists": [{"name": "Rick Astley", "id": 72872, "anv": "", "join": ""}],
+        "extraartists": [{"name": "Stock, Aitken & Waterman", "role": "Producer", "id": 20942}],
+        "images": [{"type": "primary", "uri": "https://example.com/a.jpg"}],
+        "lowest_price": 0.63,
+        "num_for_sale": 58,
+        "tracklist": [
+          {"position": "A", "title": "Never Gonna Give You Up", "duration": "3:32",
+           "type_": "track", "extraartists": [{"name": "Someone", "role": "Mixed By"}]}
+        ],
+        "year": 1987
+      }
+      """;
+
+  private ObjectMapper objectMapper;
+
+  @BeforeEach
+  public void setUp() {
+    objectMapper = new JacksonConfig().objectMapper();
+  }
+
+  @Test
+  void testDeserializeKeepsFilteringFields() throws IOException {
+    DiscogsRelease release = objectMapper.readValue(RELEASE_JSON, DiscogsRelease.class);
+
+    assertEquals(249504, release.getId());
+    assertEquals("Never Gonna Give You Up", release.getTitle());
+    assertEquals(0.63, release.getLowestPrice());
+    assertEquals(58, release.getNumForSale());
+    assertEquals("Rick Astley", release.getArtists().getFirst().getName());
+    assertEquals("Producer", release.getExtraArtists().getFirst().getRole());
+    assertEquals("3:32", release.getTracklist().getFirst().getDuration());
+  }
+
+  @Test
+  void testDeserializeSkipsUnusedFields() throws IOException {
+    DiscogsRelease release = objectMapper.readValue(RELEASE_JSON, DiscogsRelease.class);
+
+    assertNull(release.getFormats());
+    assertNull(release.getLabels());
+    assertEquals(0, release.getYear());
+  }
+
+  @Test
+  void testDeserializeNullPriceAndLists() throws IOException {
+    DiscogsRelease release =
+        objectMapper.readValue(
+            "{\"id\": 1, \"lowest_price\": null, \"artists\": null}", DiscogsRelease.class);
+
+    assertEquals(1, release.getId());
+    assertEquals(0.0, release.getLowestPrice());
+    assertNull(release.getNumForSale());
+    assertNull(release.getArtists());
+  }
+
+  @Test
+  void testDeserializeRejectsNonObject() {
+    assertThrows(
+        MismatchedInputException.class, () -> objectMapper.readValue("[]", DiscogsRelease.class));
+  }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
 import org.discogs.query.exceptions.DiscogsMarketplaceException;
 import org.discogs.query.exceptions.DiscogsSearchException;
@@ -98,4 +99,15 @@ class DiscogsQueryControllerAdviceTest {
     assertEquals(
         "An unexpected error occurred: Generic error occurred", response.getBody().errorMessage());
   }
+
+  @Test
+  void testHandleRejectedExecutionException() {
+    // Act
+    ResponseEntity<ErrorMessageDTO> response =
+        controllerAdvice.handleRejectedExecutionException(new RejectedExecutionException());
+
+    // Assert
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    assertNotNull(response.getBody());
+  }
 }
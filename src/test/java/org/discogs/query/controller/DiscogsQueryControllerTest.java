@@ -0,0 +1,169 @@
+package org.discogs.query.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import org.discogs.query.interfaces.DeduplicationService;
+import org.discogs.query.interfaces.EmailService;
+import org.discogs.query.interfaces.MappingService;
+import org.discogs.query.interfaces.QueryProcessingService;
+import org.discogs.query.interfaces.ResultCalculationService;
+import org.discogs.query.limits.Deadline;
+import org.discogs.query.model.DiscogsEntryDTO;
+import org.discogs.query.model.DiscogsMapResultDTO;
+import org.discogs.query.model.DiscogsQueryDTO;
+import org.discogs.query.model.DiscogsResultDTO;
+import org.discogs.query.model.enums.QueryStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class DiscogsQueryControllerTest {
+
+  private static final String STREAM_REQUEST =
+      """
+      {"queries":[{"artist":"Artist","album":"Album"},{"artist":"Other","album":"Album"}]}
+      """;
+
+  private final DiscogsQueryDTO query =
+      new DiscogsQueryDTO("Artist", "Album", null, null, null, null, null, null);
+  private final DiscogsQueryDTO otherQuery =
+      new DiscogsQueryDTO("Other", "Album", null, null, null, null, null, null);
+
+  private QueryProcessingService queryProcessingService;
+  private MappingService mappingService;
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    queryProcessingService = mock(QueryProcessingService.class);
+    mappingService = mock(MappingService.class);
+    DiscogsQueryController controller =
+        new DiscogsQueryController(
+            queryProcessingService,
+            mappingService,
+            mock(ResultCalculationService.class),
+            mock(DeduplicationService.class),
+            mock(EmailService.class));
+    ReflectionTestUtils.setField(controller, "timeoutInSeconds", 30);
+    mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+  }
+
+  @Test
+  void searchStream_ShouldSendEachResultThenTheSummary() throws Exception {
+    DiscogsEntryDTO entry =
+        new DiscogsEntryDTO(
+            1, "Title", List.of("Vinyl"), "url", "uri", "UK", "2023", true, 10.0f, 5);
+    when(mappingService.mapResultsToDTO(anyList()))
+        .thenReturn(
+            List.of(
+                new DiscogsMapResultDTO(query, Map.of("Title", List.of(entry, entry)), entry)));
+    when(queryProcessingService.processQueriesAsync(any(), any(), eq(false)))
+        .thenReturn(
+            List.of(
+                CompletableFuture.completedFuture(new DiscogsResultDTO(query, List.of(entry))),
+                CompletableFuture.completedFuture(new DiscogsResultDTO(otherQuery, List.of()))));
+
+    String body = stream();
+
+    assertEquals(1, count(body, "event:result"));
+    assertTrue(body.indexOf("event:result") < body.indexOf("event:summary"));
+    assertTrue(body.contains("{\"queries\":2,\"results\":1,\"entries\":2,\"failed\":0}"));
+  }
+
+  @Test
+  void searchStream_ShouldSendQueriesCutOffByTheDeadlineAsTimedOut() throws Exception {
+    when(queryProcessingService.processQueriesAsync(any(), any(), eq(false)))
+        .thenReturn(
+            List.of(
+                CompletableFuture.failedFuture(new TimeoutException()),
+                CompletableFuture.failedFuture(new IllegalStateException("broken"))));
+    when(mappingService.mapResultsToDTO(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<DiscogsResultDTO> results = invocation.getArgument(0);
+              DiscogsResultDTO result = results.getFirst();
+              return List.of(
+                  new DiscogsMapResultDTO(
+                      result.searchQuery(), Map.of(), null, result.status(), 0));
+            });
+
+    String body = stream();
+
+    ArgumentCaptor<List<DiscogsResultDTO>> mapped = ArgumentCaptor.captor();
+    verify(mappingService).mapResultsToDTO(mapped.capture());
+    DiscogsResultDTO timedOut = mapped.getValue().getFirst();
+    assertEquals(query, timedOut.searchQuery());
+    assertEquals(QueryStatus.TIMED_OUT, timedOut.status());
+    assertEquals(1, count(body, "event:result"));
+    assertTrue(body.contains("\"status\":\"TIMED_OUT\""));
+    assertTrue(body.contains("{\"queries\":2,\"results\":1,\"entries\":0,\"failed\":1}"));
+  }
+
+  @Test
+  void searchStream_ShouldCancelTheDeadlineWhenTheStreamCloses() throws Exception {
+    CompletableFuture<DiscogsResultDTO> running = new CompletableFuture<>();
+    ArgumentCaptor<Deadline> deadline = ArgumentCaptor.forClass(Deadline.class);
+    when(queryProcessingService.processQueriesAsync(any(), deadline.capture(), eq(false)))
+        .thenReturn(
+            List.of(
+                CompletableFuture.completedFuture(new DiscogsResultDTO(query, List.of())),
+                running));
+
+    MvcResult result = start();
+    assertFalse(deadline.getValue().isCancelled());
+
+    ((MockAsyncContext) result.getRequest().getAsyncContext()).complete();
+    running.complete(
+        new DiscogsResultDTO(
+            otherQuery,
+            List.of(
+                new DiscogsEntryDTO(
+                    1, "Title", List.of("Vinyl"), "url", "uri", "UK", "2023", true, 10.0f, 5))));
+
+    assertTrue(deadline.getValue().isCancelled());
+    assertFalse(result.getResponse().getContentAsString().contains("event:summary"));
+    verify(mappingService, never()).mapResultsToDTO(anyList());
+  }
+
+  private MvcResult start() throws Exception {
+    return mockMvc
+        .perform(
+            post("/discogs-query/search/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .content(STREAM_REQUEST))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+  }
+
+  private String stream() throws Exception {
+    MvcResult result = start();
+    result.getAsyncResult();
+    return result.getResponse().getContentAsString();
+  }
+
+  private static int count(final String body, final String event) {
+    return body.split(event, -1).length - 1;
+  }
+}
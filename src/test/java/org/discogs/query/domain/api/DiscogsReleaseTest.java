@@ -58,6 +58,7 @@ class DiscogsReleaseTest {
             genres,
             labels,
             19.99,
+            4,
             54321,
             "http://master-url",
             "2023-09-11",
@@ -78,6 +79,7 @@ class DiscogsReleaseTest {
     assertEquals(genres, release.getGenres());
     assertEquals(labels, release.getLabels());
     assertEquals(19.99, release.getLowestPrice(), 0.01);
+    assertEquals(4, release.getNumForSale());
     assertEquals(54321, release.getMasterId());
     assertEquals("http://master-url", release.getMasterUrl());
     assertEquals("2023-09-11", release.getReleased());
@@ -0,0 +1,82 @@
+package org.discogs.query.domain.api;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.discogs.query.config.JacksonConfig;
+import org.discogs.query.domain.api.release.Artist;
+import org.discogs.query.domain.api.release.ExtraArtist;
+import org.discogs.query.domain.api.release.Track;
+import org.discogs.query.service.util.NormalizationServiceImpl;
+import org.junit.jupiter.api.Test;
+
+class ReleaseMatchProfileTest {
+
+  private final NormalizationServiceImpl normalizationService = new NormalizationServiceImpl();
+
+  @Test
+  void testProfileHoldsNormalizedNames() {
+    DiscogsRelease release = new DiscogsRelease();
+    release.setId(42);
+    release.setArtists(List.of(Artist.builder().name("Beyoncé").anv("Beyonce Knowles").build()));
+    ExtraArtist producer = new ExtraArtist();
+    producer.setName("Rick Rubin");
+    release.setExtraArtists(List.of(producer));
+    release.setTracklist(
+        List.of(
+            Track.builder().title("Crazy In Love").build(),
+            Track.builder().title("Naughty Girl").build()));
+
+    ReleaseMatchProfile profile =
+        ReleaseMatchProfile.of(release, normalizationService::normalizeString);
+
+    assertArrayEquals(
+        new String[] {"beyonce", "beyonce knowles", "rick rubin"}, profile.artistNames());
+    assertTrue(profile.hasArtist(normalize("BEYONCÉ")));
+    assertTrue(profile.hasArtist(normalize("Rick Rubin")));
+    assertTrue(profile.hasTrackContaining(normalize("in love")));
+    assertFalse(profile.hasTrackContaining(normalize("Halo")));
+    assertFalse(profile.trackArtistsListed());
+  }
+
+  @Test
+  void testTrackArtistsAreMatchedSeparately() {
+    DiscogsRelease release = new DiscogsRelease();
+    release.setTracklist(
+        List.of(
+            Track.builder()
+                .title("Track")
+                .artists(List.of(Artist.builder().name("Guest").build()))
+                .build()));
+
+    ReleaseMatchProfile profile =
+        ReleaseMatchProfile.of(release, normalizationService::normalizeString);
+
+    assertTrue(profile.trackArtistsListed());
+    assertTrue(profile.hasTrackArtist(normalize("guest")));
+    assertFalse(profile.hasArtist(normalize("guest")));
+    assertFalse(profile.hasArtist(null));
+  }
+
+  @Test
+  void testProfileSurvivesJsonRoundTrip() throws Exception {
+    ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    ReleaseMatchProfile profile =
+        new ReleaseMatchProfile(
+            7, new String[] {"artist"}, new String[] {"track"}, new String[0], true);
+
+    ReleaseMatchProfile read =
+        objectMapper.readValue(objectMapper.writeValueAsBytes(profile), ReleaseMatchProfile.class);
+
+    assertArrayEquals(profile.artistNames(), read.artistNames());
+    assertArrayEquals(profile.trackTitles(), read.trackTitles());
+    assertTrue(read.trackArtistsListed());
+  }
+
+  private String normalize(final String value) {
+    return ReleaseMatchProfile.normalize(value, normalizationService::normalizeString);
+  }
+}
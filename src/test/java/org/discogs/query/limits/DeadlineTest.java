@@ -0,0 +1,75 @@
+package org.discogs.query.limits;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class DeadlineTest {
+
+  @Test
+  void testUnboundedDeadlineNeverExpires() {
+    Deadline deadline = Deadline.none();
+
+    deadline.cancel();
+
+    assertFalse(deadline.isExpired());
+    assertFalse(deadline.isCancelled());
+    assertEquals(Long.MAX_VALUE, deadline.remainingNanos());
+  }
+
+  @Test
+  void testBoundedDeadlineExpires() {
+    assertFalse(Deadline.after(Duration.ofMinutes(1)).isExpired());
+    assertTrue(Deadline.after(Duration.ZERO).isExpired());
+  }
+
+  @Test
+  void testCancelledDeadlineCountsAsExpired() {
+    Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+
+    deadline.cancel();
+
+    assertTrue(deadline.isCancelled());
+    assertTrue(deadline.isExpired());
+    assertTrue(deadline.isExpiredAt(System.nanoTime()));
+    assertEquals(0, deadline.remainingNanos());
+  }
+
+  @Test
+  void testCancelRunsEachRegisteredActionOnce() {
+    Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+    AtomicInteger runs = new AtomicInteger();
+    deadline.onCancel(runs::incrementAndGet);
+
+    deadline.cancel();
+    deadline.cancel();
+
+    assertEquals(1, runs.get());
+  }
+
+  @Test
+  void testActionRegisteredAfterCancelRunsAtOnce() {
+    Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+    deadline.cancel();
+    AtomicInteger runs = new AtomicInteger();
+
+    deadline.onCancel(runs::incrementAndGet);
+
+    assertEquals(1, runs.get());
+  }
+
+  @Test
+  void testClosedRegistrationDoesNotRun() {
+    Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+    AtomicInteger runs = new AtomicInteger();
+
+    deadline.onCancel(runs::incrementAndGet).close();
+    deadline.cancel();
+
+    assertEquals(0, runs.get());
+  }
+}
@@ -1,64 +1,160 @@
 package org.discogs.query.limits;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import java.util.concurrent.TimeUnit;
-import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Disabled;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.discogs.query.exceptions.RateLimitTimeoutException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
-import org.springframework.beans.factory.annotation.Value;
 
-@Disabled
 class RateLimiterTest {
 
-  private RateLimiter rateLimiter;
+  // 6000 per minute refills one permit every 10 ms, keeping the tests fast.
+  private static final int RATE_LIMIT = 6000;
 
-  @Value("${discogs.rate-limit:60}")
-  // Default rate limit if not set in test environment
-  private int rateLimit;
+  private RateLimiter rateLimiter;
 
-  @BeforeEach
-  public void setUp() {
-    rateLimiter = new RateLimiter();
-    // Set the rate limit for testing
-    rateLimiter.maxRequestsPerMinute = rateLimit;
+  @AfterEach
+  void tearDown() {
+    rateLimiter.shutdown();
   }
 
-  /** Test that the rate limiter allows the number of requests up to the limit. */
+  /** Test that the rate limiter allows an initial burst up to its capacity. */
   @Test
-  void testAllowRequestsWithinLimit() {
-    for (int i = 0; i < rateLimit; i++) {
-      assertTrue(rateLimiter.tryAcquire(), "Request " + (i + 1) + " " + "should be allowed.");
+  void testAllowRequestsWithinBurst() {
+    rateLimiter = new RateLimiter(60, 3);
+    for (int i = 0; i < 3; i++) {
+      assertTrue(rateLimiter.tryAcquire(), "Request " + (i + 1) + " should be allowed.");
     }
+    assertFalse(rateLimiter.tryAcquire(), "Should not allow request beyond the burst.");
   }
 
-  /** Test that the rate limiter does not allow more requests than the limit. */
+  /** Test that queued requests are granted as tokens refill, in FIFO order. */
   @Test
-  void testDenyRequestsBeyondLimit() {
-    for (int i = 0; i < rateLimit; i++) {
-      assertTrue(rateLimiter.tryAcquire(), "Request " + (i + 1) + " " + "should be allowed.");
+  @Timeout(5)
+  void testQueuedRequestsGrantedInOrder() {
+    rateLimiter = new RateLimiter(RATE_LIMIT, 1);
+    assertTrue(rateLimiter.tryAcquire());
+
+    List<Integer> order = new CopyOnWriteArrayList<>();
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[5];
+    for (int i = 0; i < futures.length; i++) {
+      int index = i;
+      futures[i] = rateLimiter.acquireAsync().thenRun(() -> order.add(index));
     }
-    assertFalse(rateLimiter.tryAcquire(), "Should not allow request " + "beyond the limit.");
+    CompletableFuture.allOf(futures).join();
+
+    assertEquals(List.of(0, 1, 2, 3, 4), order);
   }
 
-  /** Test that the rate limiter resets the count after one minute. */
+  /** Test that higher priority requests are served ahead of queued lower priority ones. */
   @Test
-  @Timeout(value = 70)
-  // Adjust timeout as needed
-  void testRateLimiterResetsAfterOneMinute() throws InterruptedException {
-    for (int i = 0; i < rateLimit; i++) {
-      assertTrue(rateLimiter.tryAcquire(), "Request " + (i + 1) + " " + "should be allowed.");
-    }
-    assertFalse(rateLimiter.tryAcquire(), "Should not allow request " + "beyond the limit.");
+  @Timeout(5)
+  void testHighPriorityServedFirst() {
+    // A slower refill keeps both requests queued before the first permit arrives.
+    rateLimiter = new RateLimiter(240, 1);
+    assertTrue(rateLimiter.tryAcquire());
 
-    // Wait for rate limiter to reset
-    TimeUnit.SECONDS.sleep(65); // Sleep for longer than the reset period
+    List<String> order = new CopyOnWriteArrayList<>();
+    CompletableFuture<Void> low =
+        rateLimiter
+            .acquireAsync(RateLimiter.Priority.LOW, Deadline.none())
+            .thenRun(() -> order.add("low"));
+    CompletableFuture<Void> high =
+        rateLimiter
+            .acquireAsync(RateLimiter.Priority.HIGH, Deadline.none())
+            .thenRun(() -> order.add("high"));
+    CompletableFuture.allOf(low, high).join();
 
-    for (int i = 0; i < rateLimit; i++) {
-      assertTrue(
-          rateLimiter.tryAcquire(), "Request " + (i + 1) + " " + "should be allowed after reset.");
-    }
+    assertEquals(List.of("high", "low"), order);
+  }
+
+  /** Test that a request which cannot be served before its deadline fails immediately. */
+  @Test
+  void testDeadlineThatCannotBeMetFailsFast() {
+    rateLimiter = new RateLimiter(60, 1);
+    assertTrue(rateLimiter.tryAcquire());
+
+    CompletableFuture<Void> future =
+        rateLimiter.acquireAsync(
+            RateLimiter.Priority.NORMAL, Deadline.after(Duration.ofMillis(100)));
+
+    assertTrue(future.isCompletedExceptionally());
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertInstanceOf(RateLimitTimeoutException.class, exception.getCause());
+    assertEquals(0, rateLimiter.getQueueLength());
+  }
+
+  /** Test that cancelling a queued request removes it from the queue. */
+  @Test
+  void testCancelledRequestLeavesQueue() {
+    rateLimiter = new RateLimiter(60, 1);
+    assertTrue(rateLimiter.tryAcquire());
+
+    CompletableFuture<Void> future = rateLimiter.acquireAsync();
+    assertEquals(1, rateLimiter.getQueueLength());
+    future.cancel(false);
+
+    assertEquals(0, rateLimiter.getQueueLength());
+  }
+
+  /** Test that cancelling the deadline of a queued request fails it and frees its place. */
+  @Test
+  void testCancelledDeadlineFailsQueuedRequest() {
+    rateLimiter = new RateLimiter(60, 1);
+    assertTrue(rateLimiter.tryAcquire());
+    Deadline deadline = Deadline.after(Duration.ofMinutes(5));
+
+    CompletableFuture<Void> future =
+        rateLimiter.acquireAsync(RateLimiter.Priority.NORMAL, deadline);
+    assertEquals(1, rateLimiter.getQueueLength());
+    deadline.cancel();
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertInstanceOf(RateLimitTimeoutException.class, exception.getCause());
+    assertEquals(0, rateLimiter.getQueueLength());
+    assertTrue(
+        rateLimiter
+            .acquireAsync(RateLimiter.Priority.NORMAL, deadline)
+            .isCompletedExceptionally());
+  }
+
+  /** Test that the refill rate follows the limit reported by Discogs, less the headroom. */
+  @Test
+  void testRecalibrateFollowsReportedLimit() {
+    rateLimiter = new RateLimiter(25, 1, true, 0.9);
+
+    rateLimiter.recalibrate(new RateLimitStatus(60, 0, 60));
+
+    assertEquals(54, rateLimiter.getPermitsPerMinute());
+  }
+
+  /** Test that stored permits are withheld when Discogs reports the window nearly used up. */
+  @Test
+  void testRecalibrateTrimsPermitsWhenRemainingIsLow() {
+    rateLimiter = new RateLimiter(60, 5, true, 0.9);
+
+    rateLimiter.recalibrate(new RateLimitStatus(60, 54, 6));
+
+    assertFalse(rateLimiter.tryAcquire(), "Headroom share of the window should stay unused.");
+  }
+
+  /** Test that recalibration is ignored when adaptive limiting is disabled. */
+  @Test
+  void testRecalibrateIgnoredWhenNotAdaptive() {
+    rateLimiter = new RateLimiter(60, 1);
+
+    rateLimiter.recalibrate(new RateLimitStatus(240, 0, 240));
+
+    assertEquals(60, rateLimiter.getPermitsPerMinute());
   }
 }
@@ -17,7 +17,8 @@ import org.springframework.test.context.ContextConfiguration;
     properties = {
       "discogs.agent=test-agent",
       "discogs.token=test-token",
-      "spring.security.allowed-origins="
+      "spring.security.allowed-origins=",
+      "cache.data-directory="
     })
 @ContextConfiguration(classes = {NormalizedAspect.class})
 class NormalizedAspectTest {
@@ -72,7 +72,7 @@ class MappingServiceImplTest {
 
   private DiscogsEntry createDiscogsEntry() {
     return new DiscogsEntry(
-        1, "Title", List.of("Vinyl"), "url", "uri", "Country", "2020", true, 5.0f, 10);
+        1, "Title", List.of("Vinyl"), "url", "uri", "Country", "2020", true, 5.0f, 10, null);
   }
 
   private DiscogsEntryDTO createDiscogsEntryDTO(final int id, final String title) {
@@ -1,16 +1,29 @@
 package org.discogs.query.service.core;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.discogs.query.cache.QueryResultCache;
+import org.discogs.query.domain.website.DiscogsWebsiteResult;
+import org.discogs.query.exceptions.DiscogsSearchException;
+import org.discogs.query.exceptions.NoMarketplaceListingsException;
 import org.discogs.query.interfaces.DiscogsCollectionService;
 import org.discogs.query.interfaces.DiscogsQueryService;
 import org.discogs.query.interfaces.DiscogsWebScraperClient;
 import org.discogs.query.interfaces.NormalizationService;
+import org.discogs.query.limits.Deadline;
 import org.discogs.query.model.DiscogsEntryDTO;
 import org.discogs.query.model.DiscogsQueryDTO;
 import org.discogs.query.model.DiscogsRequestDTO;
@@ -18,12 +31,15 @@ import org.discogs.query.model.DiscogsResultDTO;
 import org.discogs.query.model.enums.DiscogCountries;
 import org.discogs.query.model.enums.DiscogsFormats;
 import org.discogs.query.model.enums.DiscogsTypes;
+import org.discogs.query.model.enums.QueryStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
 
 @ExtendWith(MockitoExtension.class)
 class QueryProcessingServiceImplTest {
@@ -36,6 +52,10 @@ class QueryProcessingServiceImplTest {
 
   @Mock private DiscogsCollectionService discogsCollectionService;
 
+  @Mock private QueryResultCache queryResultCache;
+
+  @Spy private Executor discogsExecutor = new SyncTaskExecutor();
+
   @InjectMocks private QueryProcessingServiceImpl queryProcessingService;
 
   private DiscogsQueryDTO queryDTO;
@@ -65,13 +85,215 @@ class QueryProcessingServiceImplTest {
             List.of(
                 new DiscogsEntryDTO(
                     1, "Title", List.of("Vinyl"), "url", "uri", "UK", "2023", true, 10.0f, 5)));
-    when(discogsQueryService.searchBasedOnQuery(any())).thenReturn(resultDTO);
+    when(discogsQueryService.searchBasedOnQueriesAsync(any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(resultDTO));
 
     List<DiscogsQueryDTO> queryDTOList = List.of(queryDTO);
     DiscogsRequestDTO discogsRequestDTO = new DiscogsRequestDTO(queryDTOList, null);
     List<DiscogsResultDTO> results = queryProcessingService.processQueries(discogsRequestDTO, 5);
 
     assertFalse(results.isEmpty());
-    verify(discogsQueryService, times(1)).searchBasedOnQuery(any());
+    verify(discogsQueryService, times(1)).searchBasedOnQueriesAsync(any(), any());
+    verify(queryResultCache)
+        .put(QueryResultCache.Key.of(queryDTO, null, false), results.getFirst());
+  }
+
+  @Test
+  void processQueries_ShouldServeCachedResultWithoutSearching() {
+    when(normalizationService.normalizeQuery(any())).thenReturn(queryDTO);
+    DiscogsResultDTO cached =
+        new DiscogsResultDTO(
+            queryDTO,
+            List.of(
+                new DiscogsEntryDTO(
+                    1, "Title", List.of("Vinyl"), "url", "uri", "UK", "2023", true, 10.0f, 5)));
+    when(queryResultCache.get(QueryResultCache.Key.of(queryDTO, " User ", true)))
+        .thenReturn(Optional.of(cached));
+
+    List<DiscogsResultDTO> results =
+        queryProcessingService.processQueries(
+            new DiscogsRequestDTO(List.of(queryDTO), "user"), Deadline.none(), true);
+
+    assertEquals(cached.results(), results.getFirst().results());
+    verify(discogsQueryService, never()).searchBasedOnQueriesAsync(any(), any());
+    verify(discogsWebScraperClient, never()).getMarketplaceResultsForRelease(any());
+  }
+
+  @Test
+  void processQueries_ShouldNotCacheFailedQuery() {
+    when(normalizationService.normalizeQuery(any())).thenReturn(queryDTO);
+    when(discogsQueryService.searchBasedOnQueriesAsync(any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(new DiscogsResultDTO(null, null)));
+
+    queryProcessingService.processQueries(new DiscogsRequestDTO(List.of(queryDTO), null), 5);
+
+    verify(queryResultCache, never()).put(any(), any());
+  }
+
+  @Test
+  void processQueries_ShouldAnswerFailedSearchWithoutResults() {
+    when(normalizationService.normalizeQuery(any())).thenReturn(queryDTO);
+    when(discogsQueryService.searchBasedOnQueriesAsync(any(), any()))
+        .thenReturn(CompletableFuture.failedFuture(new DiscogsSearchException("Discogs down")));
+
+    List<DiscogsResultDTO> results =
+        queryProcessingService.processQueries(
+            new DiscogsRequestDTO(List.of(queryDTO), null), Deadline.none(), false);
+
+    assertEquals(QueryStatus.FAILED, results.getFirst().status());
+    verify(queryResultCache, never()).put(any(), any());
+  }
+
+  @Test
+  void processQueries_ShouldKeepIncompleteQueryWhenFilteringForUk() {
+    when(normalizationService.normalizeQuery(any())).thenReturn(queryDTO);
+    when(discogsQueryService.searchBasedOnQueriesAsync(any(), any()))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                DiscogsResultDTO.unanswered(queryDTO, QueryStatus.FAILED)));
+
+    List<DiscogsResultDTO> results =
+        queryProcessingService.processQueries(
+            new DiscogsRequestDTO(List.of(queryDTO), null), Deadline.none(), true);
+
+    assertEquals(1, results.size());
+    assertEquals(QueryStatus.FAILED, results.getFirst().status());
+    verify(queryResultCache, never()).put(any(), any());
+  }
+
+  @Test
+  void processQueries_ShouldNotCacheQueryFinishedAfterDeadline() {
+    Deadline deadline = Deadline.after(Duration.ZERO);
+    DiscogsEntryDTO entry =
+        new DiscogsEntryDTO(
+            1, "Title", List.of("Vinyl"), "url", "uri", "UK", "2023", true, 10.0f, 5);
+    when(normalizationService.normalizeQuery(any())).thenReturn(queryDTO);
+    when(discogsQueryService.searchBasedOnQueriesAsync(any(), any()))
+        .thenReturn(
+            CompletableFuture.completedFuture(new DiscogsResultDTO(queryDTO, List.of(entry))));
+
+    queryProcessingService.processQueries(
+        new DiscogsRequestDTO(List.of(queryDTO), null), deadline, false);
+
+    verify(discogsQueryService).searchBasedOnQueriesAsync(List.of(queryDTO), deadline);
+    verify(queryResultCache, never()).put(any(), any());
+  }
+
+  @Test
+  void processQueriesAsync_ShouldNotFilterQueryWhoseDeadlineWasCancelled() {
+    Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+    DiscogsEntryDTO entry =
+        new DiscogsEntryDTO(
+            1, "Title", List.of("Vinyl"), "url", "uri", "UK", "2023", true, 10.0f, 5);
+    CompletableFuture<DiscogsResultDTO> search = new CompletableFuture<>();
+    when(normalizationService.normalizeQuery(any())).thenReturn(queryDTO);
+    when(discogsQueryService.searchBasedOnQueriesAsync(any(), any())).thenReturn(search);
+
+    CompletableFuture<DiscogsResultDTO> future =
+        queryProcessingService
+            .processQueriesAsync(new DiscogsRequestDTO(List.of(queryDTO), "user"), deadline, true)
+            .getFirst();
+    deadline.cancel();
+    search.complete(new DiscogsResultDTO(queryDTO, List.of(entry)));
+
+    assertEquals(QueryStatus.TIMED_OUT, future.join().status());
+    assertTrue(future.join().results().isEmpty());
+    verify(discogsCollectionService, never()).filterOwnedReleases(any(), any(), any());
+    verify(discogsWebScraperClient, never()).getMarketplaceResultsForRelease(any());
+    verify(queryResultCache, never()).put(any(), any());
+  }
+
+  @Test
+  void processQueries_ShouldSkipEntriesTheScraperRejects() {
+    DiscogsEntryDTO entry =
+        new DiscogsEntryDTO(
+            1, "Title", List.of("Vinyl"), "url", "uri", "UK", "2023", true, 10.0f, 5);
+    when(normalizationService.normalizeQuery(any())).thenReturn(queryDTO);
+    when(discogsQueryService.searchBasedOnQueriesAsync(any(), any()))
+        .thenReturn(
+            CompletableFuture.completedFuture(new DiscogsResultDTO(queryDTO, List.of(entry))));
+    Executor saturatedScraper =
+        task -> {
+          throw new RejectedExecutionException("Scraper queue is full");
+        };
+    QueryProcessingServiceImpl service =
+        new QueryProcessingServiceImpl(
+            discogsQueryService,
+            normalizationService,
+            discogsWebScraperClient,
+            discogsCollectionService,
+            queryResultCache,
+            discogsExecutor,
+            saturatedScraper);
+
+    List<DiscogsResultDTO> results =
+        service.processQueries(
+            new DiscogsRequestDTO(List.of(queryDTO), null), Deadline.none(), true);
+
+    assertEquals(1, results.size());
+    assertEquals(QueryStatus.PARTIAL, results.getFirst().status());
+    assertEquals(1, results.getFirst().skippedEntries());
+    assertTrue(results.getFirst().results().isEmpty());
+    verify(discogsWebScraperClient, never()).getMarketplaceResultsForRelease(any());
+    verify(queryResultCache, never()).put(any(), any());
+  }
+
+  @Test
+  void processQueries_ShouldSkipEntriesTheScraperFailsToCheck() {
+    DiscogsEntryDTO shipsFromUk =
+        new DiscogsEntryDTO(
+            1, "Title", List.of("Vinyl"), "url", "uri", "UK", "2023", true, 10.0f, 5);
+    DiscogsEntryDTO unchecked =
+        new DiscogsEntryDTO(
+            2, "Title", List.of("Vinyl"), "url", "uri", "UK", "2023", true, 10.0f, 5);
+    when(normalizationService.normalizeQuery(any())).thenReturn(queryDTO);
+    when(discogsQueryService.searchBasedOnQueriesAsync(any(), any()))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                new DiscogsResultDTO(queryDTO, List.of(shipsFromUk, unchecked))));
+    when(discogsWebScraperClient.getMarketplaceResultsForRelease("1"))
+        .thenReturn(
+            List.of(new DiscogsWebsiteResult("£10.00", "Mint (M)", "UK", "seller", "100%", "5")));
+    when(discogsWebScraperClient.getMarketplaceResultsForRelease("2"))
+        .thenThrow(new NoMarketplaceListingsException("Circuit breaker is open"));
+    QueryProcessingServiceImpl service =
+        new QueryProcessingServiceImpl(
+            discogsQueryService,
+            normalizationService,
+            discogsWebScraperClient,
+            discogsCollectionService,
+            queryResultCache,
+            discogsExecutor,
+            new SyncTaskExecutor());
+
+    List<DiscogsResultDTO> results =
+        service.processQueries(
+            new DiscogsRequestDTO(List.of(queryDTO), null), Deadline.none(), true);
+
+    assertEquals(QueryStatus.PARTIAL, results.getFirst().status());
+    assertEquals(1, results.getFirst().skippedEntries());
+    assertEquals(List.of(shipsFromUk), results.getFirst().results());
+    verify(queryResultCache, never()).put(any(), any());
+  }
+
+  @Test
+  void processQueriesAsync_ShouldCompleteAFuturePerQueryInOrder() {
+    DiscogsQueryDTO otherQuery =
+        new DiscogsQueryDTO("Other", null, null, null, null, null, null, null);
+    when(normalizationService.normalizeQuery(any())).thenAnswer(i -> i.getArgument(0));
+    when(discogsQueryService.searchBasedOnQueriesAsync(any(), any()))
+        .thenAnswer(
+            i ->
+                CompletableFuture.completedFuture(
+                    new DiscogsResultDTO(
+                        i.<List<DiscogsQueryDTO>>getArgument(0).getFirst(), List.of())));
+
+    List<CompletableFuture<DiscogsResultDTO>> futures =
+        queryProcessingService.processQueriesAsync(
+            new DiscogsRequestDTO(List.of(queryDTO, otherQuery), null), Deadline.none(), false);
+
+    assertEquals(2, futures.size());
+    assertEquals(queryDTO, futures.get(0).join().searchQuery());
+    assertEquals(otherQuery, futures.get(1).join().searchQuery());
   }
 }
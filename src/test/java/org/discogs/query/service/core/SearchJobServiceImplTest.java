@@ -0,0 +1,187 @@
+package org.discogs.query.service.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.discogs.query.interfaces.EmailService;
+import org.discogs.query.interfaces.QueryProcessingService;
+import org.discogs.query.limits.Deadline;
+import org.discogs.query.limits.RateLimiter;
+import org.discogs.query.model.DiscogsEntryDTO;
+import org.discogs.query.model.DiscogsQueryDTO;
+import org.discogs.query.model.DiscogsRequestDTO;
+import org.discogs.query.model.DiscogsResultDTO;
+import org.discogs.query.model.SearchJobDTO;
+import org.discogs.query.model.enums.SearchJobStatus;
+import org.discogs.query.service.infrastructure.InMemoryJobStore;
+import org.discogs.query.service.util.DeduplicationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class SearchJobServiceImplTest {
+
+  private static final DiscogsQueryDTO QUERY =
+      new DiscogsQueryDTO("artist", null, null, null, null, null, null, null);
+  private static final DiscogsQueryDTO OTHER_QUERY =
+      new DiscogsQueryDTO("other", null, null, null, null, null, null, null);
+
+  private final QueryProcessingService queryProcessingService = mock(QueryProcessingService.class);
+  private final EmailService emailService = mock(EmailService.class);
+  private final InMemoryJobStore jobStore = new InMemoryJobStore(Duration.ofMinutes(1), 10);
+
+  private ExecutorService jobExecutor;
+
+  @BeforeEach
+  void setUp() {
+    jobExecutor = new ExecutorServiceAdapter(new SyncTaskExecutor());
+  }
+
+  @Test
+  void testJobRecordsResultsInRequestOrderAndEmailsThem() {
+    CompletableFuture<DiscogsResultDTO> first = new CompletableFuture<>();
+    CompletableFuture<DiscogsResultDTO> second = new CompletableFuture<>();
+    when(queryProcessingService.processQueriesAsync(any(), any(), anyBoolean()))
+        .thenReturn(List.of(first, second));
+    // The second query finishes first, the first one without entries
+    second.complete(result(OTHER_QUERY, 2));
+    first.complete(new DiscogsResultDTO(QUERY, List.of()));
+
+    SearchJobDTO queued =
+        service().submit(new DiscogsRequestDTO(List.of(QUERY, OTHER_QUERY), null), "a@b.c");
+
+    SearchJobDTO job = jobStore.find(queued.id()).orElseThrow();
+    assertEquals(SearchJobStatus.COMPLETED, job.status());
+    assertEquals(2, job.completedQueries());
+    assertEquals(1, job.results().size());
+    assertEquals(OTHER_QUERY, job.results().getFirst().searchQuery());
+    verify(emailService).sendResults(eq("a@b.c"), any(), eq(job.results()));
+  }
+
+  @Test
+  void testFailedQueryIsCountedAndJobCompletes() {
+    when(queryProcessingService.processQueriesAsync(any(), any(), anyBoolean()))
+        .thenReturn(List.of(CompletableFuture.failedFuture(new IllegalStateException("boom"))));
+
+    SearchJobDTO queued = service().submit(new DiscogsRequestDTO(List.of(QUERY), null), null);
+
+    SearchJobDTO job = jobStore.find(queued.id()).orElseThrow();
+    assertEquals(SearchJobStatus.COMPLETED, job.status());
+    assertEquals(1, job.failedQueries());
+    verify(emailService, never()).sendResults(any(), any(), any());
+  }
+
+  @Test
+  void testQueuedJobCanBeCancelledBeforeItRuns() {
+    jobExecutor = mock(ExecutorService.class);
+    SearchJobServiceImpl service = service();
+
+    SearchJobDTO queued = service.submit(new DiscogsRequestDTO(List.of(QUERY), null), null);
+
+    assertEquals(SearchJobStatus.CANCELLED, service.cancel(queued.id()).orElseThrow().status());
+    verify(queryProcessingService, never()).processQueriesAsync(any(), any(), anyBoolean());
+  }
+
+  @Test
+  void testCancelledRunningJobMakesNoFurtherApiCalls() throws Exception {
+    RateLimiter limiter = new RateLimiter(6000, 1);
+    AtomicInteger apiCalls = new AtomicInteger();
+    AtomicReference<Deadline> jobDeadline = new AtomicReference<>();
+    CompletableFuture<DiscogsResultDTO> query = new CompletableFuture<>();
+    when(queryProcessingService.processQueriesAsync(any(), any(), anyBoolean()))
+        .thenAnswer(
+            invocation -> {
+              jobDeadline.set(invocation.getArgument(1));
+              callApi(limiter, jobDeadline.get(), apiCalls, query);
+              return List.of(query);
+            });
+    jobExecutor = Executors.newSingleThreadExecutor();
+    try {
+      SearchJobServiceImpl service = service();
+      ReflectionTestUtils.setField(service, "timeoutInSeconds", 30);
+      SearchJobDTO queued = service.submit(new DiscogsRequestDTO(List.of(QUERY), null), null);
+      while (apiCalls.get() < 3) {
+        Thread.sleep(5);
+      }
+
+      assertEquals(SearchJobStatus.CANCELLED, service.cancel(queued.id()).orElseThrow().status());
+
+      assertTrue(jobDeadline.get().isCancelled());
+      assertThrows(Exception.class, () -> query.get(1, TimeUnit.SECONDS));
+      int callsAtCancel = apiCalls.get();
+      Thread.sleep(100);
+      assertEquals(callsAtCancel, apiCalls.get());
+      assertEquals(SearchJobStatus.CANCELLED, jobStore.find(queued.id()).orElseThrow().status());
+    } finally {
+      jobExecutor.shutdownNow();
+      limiter.shutdown();
+    }
+  }
+
+  @Test
+  void testRejectedJobIsMarkedFailed() {
+    jobExecutor = mock(ExecutorService.class);
+    doThrow(new RejectedExecutionException()).when(jobExecutor).execute(any());
+    SearchJobServiceImpl service = service();
+    DiscogsRequestDTO request = new DiscogsRequestDTO(List.of(QUERY), null);
+
+    assertThrows(RejectedExecutionException.class, () -> service.submit(request, null));
+  }
+
+  private SearchJobServiceImpl service() {
+    return new SearchJobServiceImpl(
+        queryProcessingService,
+        new MappingServiceImpl(),
+        new DeduplicationServiceImpl(),
+        emailService,
+        jobStore,
+        jobExecutor);
+  }
+
+  /** Simulates a query making rate-limited API calls until its deadline stops it. */
+  private static void callApi(
+      final RateLimiter limiter,
+      final Deadline deadline,
+      final AtomicInteger apiCalls,
+      final CompletableFuture<DiscogsResultDTO> query) {
+    limiter
+        .acquireAsync(RateLimiter.Priority.NORMAL, deadline)
+        .whenComplete(
+            (permit, error) -> {
+              if (error != null) {
+                query.completeExceptionally(error);
+              } else {
+                apiCalls.incrementAndGet();
+                callApi(limiter, deadline, apiCalls, query);
+              }
+            });
+  }
+
+  private static DiscogsResultDTO result(final DiscogsQueryDTO query, final int id) {
+    return new DiscogsResultDTO(
+        query,
+        List.of(
+            new DiscogsEntryDTO(
+                id, "Title", List.of("Vinyl"), "url", "uri", "UK", "2023", true, 1f, 1)));
+  }
+}
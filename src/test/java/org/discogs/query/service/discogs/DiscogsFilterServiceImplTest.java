@@ -1,24 +1,44 @@
 package org.discogs.query.service.discogs;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.function.Function;
+import org.discogs.query.cache.ResourceKey;
+import org.discogs.query.cache.ResourceRequest;
 import org.discogs.query.domain.api.DiscogsEntry;
 import org.discogs.query.domain.api.DiscogsRelease;
-import org.discogs.query.domain.api.DiscogsResult;
+import org.discogs.query.domain.api.ReleaseMatchProfile;
+import org.discogs.query.domain.api.release.Artist;
+import org.discogs.query.domain.api.release.Track;
+import org.discogs.query.exceptions.DiscogsSearchException;
 import org.discogs.query.interfaces.DiscogsAPIClient;
+import org.discogs.query.interfaces.DiscogsFilterService.Match;
+import org.discogs.query.interfaces.DiscogsFilterService.Match.Outcome;
+import org.discogs.query.interfaces.NormalizationService;
+import org.discogs.query.limits.Deadline;
 import org.discogs.query.model.DiscogsQueryDTO;
 import org.discogs.query.model.enums.DiscogCountries;
 import org.discogs.query.model.enums.DiscogsTypes;
+import org.discogs.query.service.util.NormalizationServiceImpl;
 import org.discogs.query.util.DiscogsUrlBuilder;
+import org.discogs.query.util.StringHelper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 
 /** Unit tests for {@link DiscogsFilterServiceImpl}. */
 class DiscogsFilterServiceImplTest {
@@ -29,6 +49,12 @@ class DiscogsFilterServiceImplTest {
 
   @Mock private DiscogsUrlBuilder discogsUrlBuilder;
 
+  @Mock private CacheManager cacheManager;
+
+  @Spy private NormalizationService normalizationService = new NormalizationServiceImpl();
+
+  @Spy private StringHelper stringHelper = new StringHelper();
+
   @BeforeEach
   public void setUp() {
     MockitoAnnotations.openMocks(this);
@@ -43,16 +69,18 @@ class DiscogsFilterServiceImplTest {
     entry.setId(123);
 
     DiscogsRelease release = new DiscogsRelease();
-    when(discogsUrlBuilder.buildReleaseUrl(entry)).thenReturn("url");
-    when(discogsAPIClient.getRelease("url")).thenReturn(release);
+    ResourceRequest request =
+        new ResourceRequest(new ResourceKey.Release(123, "GBP"), "https://api.discogs.com/r/123");
+    when(discogsUrlBuilder.buildReleaseRequest(entry)).thenReturn(request);
+    when(discogsAPIClient.getRelease(request)).thenReturn(release);
 
     DiscogsRelease actualRelease = discogsFilterService.getReleaseDetails(entry);
     assertEquals(release, actualRelease);
   }
 
-  /** Tests filtering and sorting the results based on the query DTO. */
+  /** Tests that a hit whose release lacks the track of the query does not match. */
   @Test
-  void testFilterAndSortResults() {
+  void testMatcherRejectsReleasesWithoutTheTrack() {
     DiscogsQueryDTO queryDTO =
         new DiscogsQueryDTO(
             "Artist",
@@ -66,15 +94,127 @@ class DiscogsFilterServiceImplTest {
 
     DiscogsEntry entry = new DiscogsEntry();
     entry.setId(123);
-    entry.setLowestPrice(10.0f);
 
-    DiscogsResult result = new DiscogsResult();
-    result.setResults(List.of(entry));
+    when(discogsUrlBuilder.buildReleaseRequest(any(DiscogsEntry.class)))
+        .thenReturn(
+            new ResourceRequest(
+                new ResourceKey.Release(123, "GBP"), "https://api.discogs.com/r/123"));
+    when(discogsAPIClient.getRelease(any(ResourceRequest.class))).thenReturn(new DiscogsRelease());
+
+    Match match =
+        discogsFilterService.matcher(queryDTO, Deadline.none()).apply(entry);
+
+    assertEquals(Outcome.NOT_MATCHED, match.outcome());
+    assertFalse(match.fromHit());
+  }
+
+  /** Tests that a release is fetched once and then matched through its cached profile. */
+  @Test
+  void testReleaseProfileIsCachedAndMatched() {
+    DiscogsQueryDTO queryDTO =
+        new DiscogsQueryDTO("Artist", null, "Song", null, null, null, null, null);
+    ConcurrentMapCache cache = new ConcurrentMapCache(DiscogsFilterServiceImpl.RELEASE_PROFILES);
+    DiscogsRelease release = new DiscogsRelease();
+    release.setId(123);
+    release.setArtists(List.of(Artist.builder().name("The Artist").anv("Artist").build()));
+    release.setTracklist(List.of(Track.builder().title("A Song").build()));
+    ResourceRequest request =
+        new ResourceRequest(new ResourceKey.Release(123, "GBP"), "https://api.discogs.com/r/123");
+
+    when(cacheManager.getCache(DiscogsFilterServiceImpl.RELEASE_PROFILES)).thenReturn(cache);
+    when(discogsUrlBuilder.buildReleaseRequest(any(DiscogsEntry.class))).thenReturn(request);
+    when(discogsAPIClient.getRelease(request)).thenReturn(release);
+
+    for (int i = 0; i < 2; i++) {
+      DiscogsEntry entry = new DiscogsEntry();
+      entry.setId(123);
+
+      assertTrue(discogsFilterService.matcher(queryDTO, Deadline.none()).apply(entry).matched());
+    }
+    assertInstanceOf(ReleaseMatchProfile.class, cache.get(request.key()).get());
+    verify(discogsAPIClient, times(1)).getRelease(request);
+  }
 
-    when(discogsAPIClient.getRelease(anyString())).thenReturn(new DiscogsRelease());
+  /** Tests that the matcher neither prices nor otherwise modifies the hit. */
+  @Test
+  void testMatcherLeavesHitsUntouched() {
+    DiscogsQueryDTO queryDTO =
+        new DiscogsQueryDTO("Artist", null, "Song", null, null, null, null, null);
+    DiscogsRelease release = new DiscogsRelease();
+    release.setId(123);
+    release.setLowestPrice(9.5);
+    release.setArtists(List.of(Artist.builder().name("Artist").build()));
+    release.setTracklist(List.of(Track.builder().title("Song").build()));
+    DiscogsEntry entry = new DiscogsEntry();
+    entry.setId(123);
 
-    discogsFilterService.filterAndSortResults(queryDTO, result);
+    when(discogsUrlBuilder.buildReleaseRequest(any(DiscogsEntry.class)))
+        .thenReturn(
+            new ResourceRequest(
+                new ResourceKey.Release(123, "GBP"), "https://api.discogs.com/r/123"));
+    when(discogsAPIClient.getRelease(any())).thenReturn(release);
 
-    assertTrue(result.getResults().parallelStream().allMatch(e -> e.getLowestPrice() != null));
+    Match match =
+        discogsFilterService.matcher(queryDTO, Deadline.none()).apply(entry);
+
+    assertTrue(match.matched());
+    assertNull(entry.getLowestPrice());
+  }
+
+  /** Tests that entries whose release cannot be retrieved are reported as unavailable. */
+  @Test
+  void testUnavailableReleasesAreReported() {
+    DiscogsQueryDTO queryDTO =
+        new DiscogsQueryDTO("Artist", null, "Song", null, null, null, null, null);
+    DiscogsEntry entry = new DiscogsEntry();
+    entry.setId(123);
+
+    when(discogsUrlBuilder.buildReleaseRequest(any(DiscogsEntry.class)))
+        .thenReturn(
+            new ResourceRequest(
+                new ResourceKey.Release(123, "GBP"), "https://api.discogs.com/r/123"));
+    when(discogsAPIClient.getRelease(any()))
+        .thenThrow(new DiscogsSearchException("Discogs unavailable"));
+
+    Match match =
+        discogsFilterService.matcher(queryDTO, Deadline.none()).apply(entry);
+
+    assertEquals(Outcome.UNAVAILABLE, match.outcome());
+  }
+
+  /** Tests that hits are decided from their own fields when the release is not needed. */
+  @Test
+  void testSearchHitsAreDecidedWithoutRelease() {
+    DiscogsQueryDTO queryDTO =
+        new DiscogsQueryDTO(
+            "The Artist", "Album", null, null, "lp", DiscogCountries.UK, null, null);
+    DiscogsEntry named = new DiscogsEntry();
+    named.setId(1);
+    named.setTitle("Artist, The (2) - Album");
+    named.setFormat(List.of("Vinyl", "LP", "Album"));
+    named.setCountry("UK");
+    DiscogsEntry elsewhere = new DiscogsEntry();
+    elsewhere.setId(2);
+    elsewhere.setTitle("The Artist - Album");
+    elsewhere.setFormat(List.of("Vinyl", "LP"));
+    elsewhere.setCountry("US");
+    DiscogsEntry onCd = new DiscogsEntry();
+    onCd.setId(3);
+    onCd.setTitle("The Artist - Album");
+    onCd.setFormat(List.of("CD", "Album"));
+    onCd.setCountry("UK");
+    DiscogsEntry titled = new DiscogsEntry();
+    titled.setId(4);
+    titled.setTitle("The Artist* - Album");
+    titled.setFormat(List.of("Vinyl", "LP"));
+    Function<DiscogsEntry, Match> matcher =
+        discogsFilterService.matcher(queryDTO, Deadline.none());
+
+    assertEquals(Outcome.UNAVAILABLE, matcher.apply(named).outcome());
+    assertEquals(new Match(Outcome.NOT_MATCHED, true), matcher.apply(elsewhere));
+    assertEquals(new Match(Outcome.NOT_MATCHED, true), matcher.apply(onCd));
+    assertEquals(new Match(Outcome.MATCHED, true), matcher.apply(titled));
+    verify(discogsUrlBuilder, times(1)).buildReleaseRequest(named);
+    verify(discogsUrlBuilder, times(1)).buildReleaseRequest(any(DiscogsEntry.class));
   }
 }
@@ -1,35 +1,62 @@
 package org.discogs.query.service.discogs;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.discogs.query.cache.ResourceKey;
+import org.discogs.query.cache.ResourceRequest;
 import org.discogs.query.domain.api.DiscogsEntry;
+import org.discogs.query.domain.api.DiscogsLowestPriceResult;
+import org.discogs.query.domain.api.DiscogsMarketplaceResult;
 import org.discogs.query.domain.api.DiscogsResult;
 import org.discogs.query.exceptions.DiscogsSearchException;
 import org.discogs.query.interfaces.DiscogsAPIClient;
 import org.discogs.query.interfaces.DiscogsFilterService;
+import org.discogs.query.interfaces.DiscogsFilterService.Match;
 import org.discogs.query.interfaces.MappingService;
+import org.discogs.query.limits.Deadline;
+import org.discogs.query.model.DiscogsEntryDTO;
 import org.discogs.query.model.DiscogsQueryDTO;
 import org.discogs.query.model.DiscogsResultDTO;
 import org.discogs.query.model.enums.DiscogsFormats;
+import org.discogs.query.model.enums.QueryStatus;
+import org.discogs.query.service.core.MappingServiceImpl;
 import org.discogs.query.util.DiscogsUrlBuilder;
+import org.discogs.query.util.StringHelper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
 
 @ExtendWith(MockitoExtension.class)
 class DiscogsQueryServiceImplTest {
 
+  private static final ResourceRequest SEARCH_REQUEST =
+      new ResourceRequest(new ResourceKey.Search("artist=test", 1), "mocked-url");
+  private static final Match MATCHED = new Match(Match.Outcome.MATCHED, false);
+
   @Mock private DiscogsAPIClient discogsAPIClient;
 
   @Mock private MappingService mappingService;
@@ -38,6 +65,12 @@ class DiscogsQueryServiceImplTest {
 
   @Mock private DiscogsFilterService discogsFilterService;
 
+  @Spy private StringHelper stringHelper = new StringHelper();
+
+  @Spy private Executor discogsExecutor = new SyncTaskExecutor();
+
+  @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
   @InjectMocks private DiscogsQueryServiceImpl discogsQueryServiceImpl;
 
   private DiscogsQueryDTO discogsQueryDTO;
@@ -65,29 +98,29 @@ class DiscogsQueryServiceImplTest {
   @Test
   void testSearchBasedOnQuery_discogsSearchException() {
     // Setup mock behaviors
-    when(discogsUrlBuilder.buildSearchUrl(discogsQueryDTO)).thenReturn("mocked-url");
+    when(discogsUrlBuilder.buildSearchRequest(discogsQueryDTO)).thenReturn(SEARCH_REQUEST);
     doThrow(new DiscogsSearchException("API error"))
         .when(discogsAPIClient)
-        .getResultsForQuery(anyString());
+        .getResultsForQuery(any(ResourceRequest.class));
 
     // Perform the search
     DiscogsResultDTO result = discogsQueryServiceImpl.searchBasedOnQuery(discogsQueryDTO);
 
     // Verify behaviors
-    verify(discogsAPIClient, times(1)).getResultsForQuery(anyString());
+    verify(discogsAPIClient, times(1)).getResultsForQuery(any(ResourceRequest.class));
 
     // Validate results
-    assertEquals(new DiscogsResultDTO(null, null).toString(), result.toString());
-    // Empty DTO is expected on exception
+    // A DTO without entries saying the query failed is expected on exception
+    assertEquals(DiscogsResultDTO.unanswered(discogsQueryDTO, QueryStatus.FAILED), result);
   }
 
   @Test
   void testSearchBasedOnQuery_unexpectedException() {
     // Setup mock behaviors
-    when(discogsUrlBuilder.buildSearchUrl(discogsQueryDTO)).thenReturn("mocked-url");
+    when(discogsUrlBuilder.buildSearchRequest(discogsQueryDTO)).thenReturn(SEARCH_REQUEST);
     doThrow(new RuntimeException("Unexpected error"))
         .when(discogsAPIClient)
-        .getResultsForQuery(anyString());
+        .getResultsForQuery(any(ResourceRequest.class));
 
     // Perform the search and expect exception
     assertThrows(
@@ -97,7 +130,170 @@ class DiscogsQueryServiceImplTest {
         });
 
     // Verify behaviors
-    verify(discogsAPIClient, times(1)).getResultsForQuery(anyString());
+    verify(discogsAPIClient, times(1)).getResultsForQuery(any(ResourceRequest.class));
+  }
+
+  @Test
+  void testSearchBasedOnQueries_looksUpEachReleaseOnce() {
+    DiscogsQueryDTO lpQuery =
+        new DiscogsQueryDTO(
+            "Test Artist", null, "Test Track", null, DiscogsFormats.LP.getFormat(), null, null,
+            null);
+    DiscogsQueryDTO vinylQuery =
+        new DiscogsQueryDTO(
+            "Test Artist", null, "Test Track", null, DiscogsFormats.VINYL.getFormat(), null, null,
+            null);
+    when(discogsUrlBuilder.buildSearchRequest(any())).thenReturn(SEARCH_REQUEST);
+    when(discogsUrlBuilder.getDiscogsWebsiteBaseUrl()).thenReturn("https://www.discogs.com");
+    when(discogsAPIClient.getResultsForQuery(any(ResourceRequest.class)))
+        .thenAnswer(invocation -> new DiscogsResult(List.of(release(1))));
+    when(discogsUrlBuilder.buildMarketplaceRequest(any())).thenReturn(SEARCH_REQUEST);
+    when(discogsAPIClient.getMarketplaceResultForQuery(any()))
+        .thenReturn(new DiscogsMarketplaceResult());
+    when(discogsFilterService.matcher(any(), any())).thenReturn(entry -> MATCHED);
+
+    DiscogsResultDTO result =
+        discogsQueryServiceImpl.searchBasedOnQueries(
+            List.of(lpQuery, vinylQuery), Deadline.none());
+
+    assertEquals(QueryStatus.COMPLETE, result.status());
+    verify(discogsAPIClient, times(2)).getResultsForQuery(any(ResourceRequest.class));
+    verify(discogsFilterService).matcher(argThat(query -> query.format() == null), any());
+    verify(discogsAPIClient, times(1)).getMarketplaceResultForQuery(any());
+  }
+
+  @Test
+  void testSearchBasedOnQueriesAsync_needsNoSecondThread() throws Exception {
+    DiscogsQueryDTO lpQuery =
+        new DiscogsQueryDTO(
+            "Test Artist", "Album", null, null, DiscogsFormats.LP.getFormat(), null, null, null);
+    DiscogsQueryDTO vinylQuery =
+        new DiscogsQueryDTO(
+            "Test Artist", "Album", null, null, DiscogsFormats.VINYL.getFormat(), null, null, null);
+    when(discogsUrlBuilder.buildSearchRequest(any())).thenReturn(SEARCH_REQUEST);
+    when(discogsUrlBuilder.getDiscogsWebsiteBaseUrl()).thenReturn("https://www.discogs.com");
+    when(discogsAPIClient.getResultsForQuery(any(ResourceRequest.class)))
+        .thenAnswer(invocation -> new DiscogsResult(List.of(release(1), release(2))));
+    when(discogsFilterService.matcher(any(), any())).thenReturn(entry -> MATCHED);
+    when(discogsUrlBuilder.buildMarketplaceRequest(any())).thenReturn(SEARCH_REQUEST);
+    when(discogsAPIClient.getMarketplaceResultForQuery(any())).thenReturn(marketplaceResult(5f));
+    when(mappingService.mapEntryToDTO(any()))
+        .thenAnswer(
+            invocation -> new MappingServiceImpl().mapEntryToDTO(invocation.getArgument(0)));
+    ExecutorService singleThread = Executors.newSingleThreadExecutor();
+    DiscogsQueryServiceImpl service =
+        new DiscogsQueryServiceImpl(
+            discogsAPIClient,
+            mappingService,
+            discogsUrlBuilder,
+            discogsFilterService,
+            stringHelper,
+            meterRegistry,
+            singleThread);
+
+    try {
+      DiscogsResultDTO result =
+          service
+              .searchBasedOnQueriesAsync(List.of(lpQuery, vinylQuery), Deadline.none())
+              .get(5, TimeUnit.SECONDS);
+
+      assertEquals(QueryStatus.COMPLETE, result.status());
+      assertEquals(2, result.results().size());
+    } finally {
+      singleThread.shutdownNow();
+    }
+  }
+
+  @Test
+  void testSearchBasedOnQuery_pricesCopiesOfHitsAndSortsThem() {
+    DiscogsQueryDTO query =
+        new DiscogsQueryDTO(
+            "Test Artist", "Album", null, null, DiscogsFormats.LP.getFormat(), null, null, null);
+    DiscogsEntry first = release(1);
+    DiscogsEntry second = release(2);
+    when(discogsUrlBuilder.buildSearchRequest(query)).thenReturn(SEARCH_REQUEST);
+    when(discogsUrlBuilder.getDiscogsWebsiteBaseUrl()).thenReturn("https://www.discogs.com");
+    when(discogsAPIClient.getResultsForQuery(any(ResourceRequest.class)))
+        .thenReturn(new DiscogsResult(List.of(first, second)));
+    when(discogsFilterService.matcher(any(), any())).thenReturn(entry -> MATCHED);
+    when(discogsUrlBuilder.buildMarketplaceRequest(any())).thenReturn(SEARCH_REQUEST);
+    when(discogsAPIClient.getMarketplaceResultForQuery(any()))
+        .thenReturn(marketplaceResult(9f), marketplaceResult(4f));
+    when(mappingService.mapEntryToDTO(any()))
+        .thenAnswer(
+            invocation -> new MappingServiceImpl().mapEntryToDTO(invocation.getArgument(0)));
+
+    DiscogsResultDTO result = discogsQueryServiceImpl.searchBasedOnQuery(query, Deadline.none());
+
+    assertEquals(QueryStatus.COMPLETE, result.status());
+    assertEquals(List.of(2, 1), result.results().stream().map(DiscogsEntryDTO::id).toList());
+    assertEquals("https://www.discogs.com/release/2", result.results().getFirst().uri());
+    assertEquals(4f, result.results().getFirst().lowestPrice());
+    assertEquals("/release/2", second.getUri());
+    assertNull(second.getLowestPrice());
+    assertEquals(
+        1,
+        meterRegistry
+            .get(DiscogsQueryServiceImpl.STAGE_METRIC)
+            .tag("stage", "sort")
+            .timer()
+            .count());
+  }
+
+  @Test
+  void testSearchBasedOnQuery_dropsHitsWithNothingForSale() {
+    DiscogsQueryDTO query =
+        new DiscogsQueryDTO(
+            "Test Artist", "Album", null, null, DiscogsFormats.LP.getFormat(), null, null, null);
+    DiscogsEntry hit = release(1);
+    hit.setLowestPrice(12f);
+    when(discogsUrlBuilder.buildSearchRequest(query)).thenReturn(SEARCH_REQUEST);
+    when(discogsUrlBuilder.getDiscogsWebsiteBaseUrl()).thenReturn("https://www.discogs.com");
+    when(discogsAPIClient.getResultsForQuery(any(ResourceRequest.class)))
+        .thenReturn(new DiscogsResult(List.of(hit)));
+    when(discogsFilterService.matcher(any(), any())).thenReturn(entry -> MATCHED);
+    when(discogsUrlBuilder.buildMarketplaceRequest(any())).thenReturn(SEARCH_REQUEST);
+    when(discogsAPIClient.getMarketplaceResultForQuery(any()))
+        .thenReturn(new DiscogsMarketplaceResult(null, 0));
+
+    DiscogsResultDTO result = discogsQueryServiceImpl.searchBasedOnQuery(query, Deadline.none());
+
+    assertEquals(QueryStatus.COMPLETE, result.status());
+    assertTrue(result.results().isEmpty());
+    verify(mappingService, never()).mapEntryToDTO(any());
+  }
+
+  @Test
+  void testSearchBasedOnQuery_skipsHitsOnceTheDeadlineIsCancelled() {
+    DiscogsQueryDTO query =
+        new DiscogsQueryDTO(
+            "Test Artist", "Album", null, null, DiscogsFormats.LP.getFormat(), null, null, null);
+    Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+    when(discogsUrlBuilder.buildSearchRequest(query)).thenReturn(SEARCH_REQUEST);
+    when(discogsFilterService.matcher(any(), any())).thenReturn(entry -> MATCHED);
+    when(discogsAPIClient.getResultsForQuery(any(ResourceRequest.class)))
+        .thenAnswer(
+            invocation -> {
+              deadline.cancel();
+              return new DiscogsResult(List.of(release(1), release(2)));
+            });
+
+    DiscogsResultDTO result = discogsQueryServiceImpl.searchBasedOnQuery(query, deadline);
+
+    assertEquals(QueryStatus.TIMED_OUT, result.status());
+    assertEquals(2, result.skippedEntries());
+    verify(discogsAPIClient, never()).getMarketplaceResultForQuery(any());
+  }
+
+  private static DiscogsMarketplaceResult marketplaceResult(final float lowestPrice) {
+    return new DiscogsMarketplaceResult(new DiscogsLowestPriceResult("GBP", lowestPrice), 2);
+  }
+
+  private static DiscogsEntry release(final int id) {
+    DiscogsEntry entry = new DiscogsEntry();
+    entry.setId(id);
+    entry.setUri("/release/" + id);
+    return entry;
   }
 
   @Test
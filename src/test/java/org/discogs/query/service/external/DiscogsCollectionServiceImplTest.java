@@ -0,0 +1,70 @@
+package org.discogs.query.service.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import org.discogs.query.cache.ResourceKey;
+import org.discogs.query.cache.ResourceRequest;
+import org.discogs.query.domain.api.DiscogsCollectionRelease;
+import org.discogs.query.interfaces.DiscogsAPIClient;
+import org.discogs.query.limits.Deadline;
+import org.discogs.query.model.DiscogsEntryDTO;
+import org.discogs.query.model.DiscogsQueryDTO;
+import org.discogs.query.model.DiscogsResultDTO;
+import org.discogs.query.util.DiscogsUrlBuilder;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class DiscogsCollectionServiceImplTest {
+
+  private final DiscogsUrlBuilder discogsUrlBuilder = mock(DiscogsUrlBuilder.class);
+  private final DiscogsAPIClient discogsAPIClient = mock(DiscogsAPIClient.class);
+
+  @Test
+  void testOwnedReleaseIsFilteredOutWithinTheRequestDeadline() {
+    DiscogsCollectionServiceImpl service =
+        new DiscogsCollectionServiceImpl(discogsUrlBuilder, discogsAPIClient);
+    ReflectionTestUtils.setField(service, "searchCollection", true);
+    Deadline deadline = Deadline.after(Duration.ofSeconds(30));
+    when(discogsUrlBuilder.buildCollectionSearchRequest(any(), anyLong()))
+        .thenAnswer(
+            invocation ->
+                new ResourceRequest(
+                    new ResourceKey.Collection(
+                        invocation.getArgument(0), invocation.<Long>getArgument(1)),
+                    "url"));
+    when(discogsAPIClient.getCollectionReleases(any()))
+        .thenReturn(new DiscogsCollectionRelease(null, List.of()));
+    when(discogsAPIClient.getCollectionReleases(
+            new ResourceRequest(new ResourceKey.Collection("user", 1), "url", deadline)))
+        .thenReturn(
+            new DiscogsCollectionRelease(
+                null, List.of(new DiscogsCollectionRelease.Release(1, 0, null, 1, null, 1))));
+    DiscogsResultDTO result =
+        new DiscogsResultDTO(
+            new DiscogsQueryDTO("artist", null, null, null, null, null, null, null),
+            List.of(entry(1), entry(2)));
+
+    List<DiscogsResultDTO> filtered =
+        service.filterOwnedReleases("user", List.of(result), deadline);
+
+    assertEquals(List.of(entry(2)), filtered.getFirst().results());
+    ArgumentCaptor<ResourceRequest> requests = ArgumentCaptor.forClass(ResourceRequest.class);
+    verify(discogsAPIClient, times(2)).getCollectionReleases(requests.capture());
+    requests.getAllValues().forEach(request -> assertSame(deadline, request.deadline()));
+  }
+
+  private static DiscogsEntryDTO entry(final int id) {
+    return new DiscogsEntryDTO(
+        id, "Title", List.of("Vinyl"), "url", "uri", "UK", "2023", true, 1f, 1);
+  }
+}
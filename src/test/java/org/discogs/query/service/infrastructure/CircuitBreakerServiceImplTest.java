@@ -0,0 +1,175 @@
+package org.discogs.query.service.infrastructure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.discogs.query.exceptions.DeadlineExceededException;
+import org.discogs.query.interfaces.CircuitBreakerService;
+import org.discogs.query.interfaces.CircuitBreakerService.Endpoint;
+import org.discogs.query.interfaces.CircuitBreakerService.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+class CircuitBreakerServiceImplTest {
+
+  private CircuitBreakerServiceImpl circuitBreakerService;
+
+  @BeforeEach
+  void setUp() {
+    // Window of 4 calls, opening at 50% failures, 0 ms open duration and 2 probes.
+    circuitBreakerService = new CircuitBreakerServiceImpl(4, 4, 50, 100, 10_000, 0, 2);
+  }
+
+  @Test
+  void testOpensOnFailureRateForOneEndpointOnly() throws Exception {
+    circuitBreakerService = new CircuitBreakerServiceImpl(4, 4, 50, 100, 10_000, 60_000, 2);
+    succeed(Endpoint.MARKETPLACE);
+    succeed(Endpoint.MARKETPLACE);
+    fail(Endpoint.MARKETPLACE);
+    assertEquals(State.CLOSED, circuitBreakerService.getState(Endpoint.MARKETPLACE));
+    fail(Endpoint.MARKETPLACE);
+
+    assertEquals(State.OPEN, circuitBreakerService.getState(Endpoint.MARKETPLACE));
+    assertEquals(State.CLOSED, circuitBreakerService.getState(Endpoint.SEARCH));
+    assertThrows(
+        CircuitBreakerService.CircuitBreakerOpenException.class,
+        () -> succeed(Endpoint.MARKETPLACE));
+    assertEquals("ok", circuitBreakerService.execute(Endpoint.SEARCH, () -> "ok"));
+  }
+
+  @Test
+  void testHalfOpenLimitsProbesAndClosesAfterSuccessfulProbes() throws Exception {
+    tripOpen(Endpoint.RELEASE);
+
+    CompletableFuture<String> firstProbe = new CompletableFuture<>();
+    CompletableFuture<String> secondProbe = new CompletableFuture<>();
+    CompletableFuture<String> first =
+        circuitBreakerService.executeAsync(Endpoint.RELEASE, () -> firstProbe);
+    CompletableFuture<String> second =
+        circuitBreakerService.executeAsync(Endpoint.RELEASE, () -> secondProbe);
+    CompletableFuture<String> rejected =
+        circuitBreakerService.executeAsync(
+            Endpoint.RELEASE, () -> CompletableFuture.completedFuture("extra"));
+
+    assertEquals(State.HALF_OPEN, circuitBreakerService.getState(Endpoint.RELEASE));
+    CompletionException exception = assertThrows(CompletionException.class, rejected::join);
+    assertTrue(
+        exception.getCause() instanceof CircuitBreakerService.CircuitBreakerOpenException);
+
+    firstProbe.complete("one");
+    secondProbe.complete("two");
+    first.join();
+    second.join();
+    assertEquals(State.CLOSED, circuitBreakerService.getState(Endpoint.RELEASE));
+  }
+
+  @Test
+  void testFailedProbeReopens() throws Exception {
+    tripOpen(Endpoint.COLLECTION);
+
+    fail(Endpoint.COLLECTION);
+
+    assertEquals(State.OPEN, circuitBreakerService.getState(Endpoint.COLLECTION));
+  }
+
+  @Test
+  void testDeadlineCutOffsAreNotCountedAsFailures() throws Exception {
+    circuitBreakerService = new CircuitBreakerServiceImpl(4, 4, 50, 100, 10_000, 60_000, 2);
+    for (int i = 0; i < 4; i++) {
+      assertThrows(
+          DeadlineExceededException.class,
+          () ->
+              circuitBreakerService.execute(
+                  Endpoint.SEARCH,
+                  () -> {
+                    throw new DeadlineExceededException("too late");
+                  }));
+    }
+
+    assertEquals(State.CLOSED, circuitBreakerService.getState(Endpoint.SEARCH));
+    assertEquals("ok", circuitBreakerService.execute(Endpoint.SEARCH, () -> "ok"));
+  }
+
+  @Test
+  void testClientErrorsAreNotCountedAsFailures() {
+    circuitBreakerService = new CircuitBreakerServiceImpl(4, 4, 50, 100, 10_000, 60_000, 2);
+    for (int i = 0; i < 4; i++) {
+      CompletionException thrown =
+          assertThrows(
+              CompletionException.class,
+              () ->
+                  circuitBreakerService
+                      .executeAsync(
+                          Endpoint.RELEASE,
+                          () ->
+                              CompletableFuture.failedFuture(
+                                  HttpClientErrorException.create(
+                                      HttpStatus.NOT_FOUND, "Not Found", null, null, null)))
+                      .join());
+      assertTrue(thrown.getCause() instanceof HttpClientErrorException);
+    }
+
+    assertEquals(State.CLOSED, circuitBreakerService.getState(Endpoint.RELEASE));
+    assertEquals(0f, circuitBreakerService.getSnapshots().get(Endpoint.RELEASE).failureRate());
+  }
+
+  @Test
+  void testRateLimitedCallsAreCountedAsFailures() {
+    circuitBreakerService = new CircuitBreakerServiceImpl(4, 4, 50, 100, 10_000, 60_000, 2);
+    for (int i = 0; i < 4; i++) {
+      assertThrows(
+          HttpClientErrorException.class,
+          () ->
+              circuitBreakerService.execute(
+                  Endpoint.SEARCH,
+                  () -> {
+                    throw HttpClientErrorException.create(
+                        HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null);
+                  }));
+    }
+
+    assertEquals(State.OPEN, circuitBreakerService.getState(Endpoint.SEARCH));
+  }
+
+  @Test
+  void testSlowCallsTripBreaker() throws Exception {
+    circuitBreakerService = new CircuitBreakerServiceImpl(2, 2, 100, 50, 0, 60_000, 1);
+    circuitBreakerService.execute(Endpoint.WEB_SCRAPER, () -> sleepAndReturn("slow"));
+    circuitBreakerService.execute(Endpoint.WEB_SCRAPER, () -> sleepAndReturn("slow"));
+
+    assertEquals(State.OPEN, circuitBreakerService.getState(Endpoint.WEB_SCRAPER));
+    assertEquals(
+        100f, circuitBreakerService.getSnapshots().get(Endpoint.WEB_SCRAPER).slowCallRate());
+  }
+
+  private void tripOpen(final Endpoint endpoint) {
+    for (int i = 0; i < 4; i++) {
+      fail(endpoint);
+    }
+  }
+
+  private void succeed(final Endpoint endpoint) throws Exception {
+    circuitBreakerService.execute(endpoint, () -> "ok");
+  }
+
+  private void fail(final Endpoint endpoint) {
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            circuitBreakerService.execute(
+                endpoint,
+                () -> {
+                  throw new IllegalStateException("boom");
+                }));
+  }
+
+  private static String sleepAndReturn(final String value) throws InterruptedException {
+    Thread.sleep(2);
+    return value;
+  }
+}
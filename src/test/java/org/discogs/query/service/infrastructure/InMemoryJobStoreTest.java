@@ -0,0 +1,29 @@
+package org.discogs.query.service.infrastructure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.discogs.query.model.SearchJobDTO;
+import org.discogs.query.model.enums.SearchJobStatus;
+import org.junit.jupiter.api.Test;
+
+class InMemoryJobStoreTest {
+
+  private final InMemoryJobStore jobStore = new InMemoryJobStore(Duration.ofMinutes(1), 10);
+
+  @Test
+  void testUpdateReplacesStoredJob() {
+    jobStore.save(SearchJobDTO.queued("job", 2));
+
+    jobStore.update("job", job -> job.withStatus(SearchJobStatus.RUNNING, null));
+
+    assertEquals(SearchJobStatus.RUNNING, jobStore.find("job").orElseThrow().status());
+  }
+
+  @Test
+  void testUnknownJobIsNotCreatedByUpdate() {
+    assertTrue(jobStore.update("missing", job -> job).isEmpty());
+    assertTrue(jobStore.find("missing").isEmpty());
+  }
+}
@@ -0,0 +1,193 @@
+package org.discogs.query.service.infrastructure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.discogs.query.cache.ResourceKey;
+import org.discogs.query.exceptions.DeadlineExceededException;
+import org.discogs.query.exceptions.DiscogsSearchException;
+import org.discogs.query.limits.Deadline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RequestCoalescingServiceImplTest {
+
+  private static final ResourceKey RELEASE = new ResourceKey.Release(1, "GBP");
+
+  private SimpleMeterRegistry meterRegistry;
+  private RequestCoalescingServiceImpl requestCoalescingService;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    requestCoalescingService = new RequestCoalescingServiceImpl(meterRegistry);
+  }
+
+  @Test
+  void testConcurrentAsyncRequestsShareOneCall() {
+    CompletableFuture<String> response = new CompletableFuture<>();
+    AtomicInteger calls = new AtomicInteger();
+
+    CompletableFuture<String> first =
+        requestCoalescingService.executeAsync(
+            String.class,
+            new ResourceKey.Release(1, "GBP"),
+            () -> {
+              calls.incrementAndGet();
+              return response;
+            });
+    CompletableFuture<String> second =
+        requestCoalescingService.executeAsync(
+            String.class,
+            new ResourceKey.Release(1, "GBP"),
+            () -> {
+              calls.incrementAndGet();
+              return CompletableFuture.completedFuture("other");
+            });
+    response.complete("release");
+
+    assertEquals("release", first.join());
+    assertEquals("release", second.join());
+    assertEquals(1, calls.get());
+    assertEquals(1.0, coalescedCount());
+  }
+
+  @Test
+  void testFailureIsSharedAndEntryReleased() {
+    CompletableFuture<String> response = new CompletableFuture<>();
+    CompletableFuture<String> first =
+        requestCoalescingService.executeAsync(String.class, RELEASE, () -> response);
+    CompletableFuture<String> second =
+        requestCoalescingService.executeAsync(String.class, RELEASE, () -> response);
+    DiscogsSearchException failure = new DiscogsSearchException("boom");
+    response.completeExceptionally(failure);
+
+    assertSame(failure, assertThrows(CompletionException.class, first::join).getCause());
+    assertSame(failure, assertThrows(CompletionException.class, second::join).getCause());
+    assertEquals(
+        "next",
+        requestCoalescingService.execute(String.class, RELEASE, Deadline.none(), () -> "next"));
+  }
+
+  @Test
+  void testCancellingFollowerDoesNotCancelSharedRequest() {
+    CompletableFuture<String> response = new CompletableFuture<>();
+    CompletableFuture<String> first =
+        requestCoalescingService.executeAsync(String.class, RELEASE, () -> response);
+    CompletableFuture<String> second =
+        requestCoalescingService.executeAsync(String.class, RELEASE, () -> response);
+
+    second.cancel(true);
+    response.complete("release");
+
+    assertFalse(response.isCancelled());
+    assertEquals("release", first.join());
+  }
+
+  @Test
+  void testFollowerStopsWaitingAtItsOwnDeadline() throws Exception {
+    CompletableFuture<String> response = new CompletableFuture<>();
+    CompletableFuture<String> leader = lead(response);
+
+    assertThrows(
+        DeadlineExceededException.class,
+        () ->
+            requestCoalescingService.execute(
+                String.class, RELEASE, Deadline.after(Duration.ofMillis(50)), () -> "own"));
+    response.complete("release");
+
+    assertEquals("release", leader.get());
+  }
+
+  @Test
+  void testFollowerStopsWaitingWhenItsDeadlineIsCancelled() throws Exception {
+    CompletableFuture<String> response = new CompletableFuture<>();
+    CompletableFuture<String> leader = lead(response);
+    Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+
+    CompletableFuture<String> follower =
+        CompletableFuture.supplyAsync(
+            () -> requestCoalescingService.execute(String.class, RELEASE, deadline, () -> "own"));
+    awaitCoalesced();
+    deadline.cancel();
+
+    assertInstanceOf(
+        DeadlineExceededException.class,
+        assertThrows(CompletionException.class, follower::join).getCause());
+    response.complete("release");
+    assertEquals("release", leader.get());
+  }
+
+  @Test
+  void testFollowerRunsRequestAgainWhenLeaderHitItsDeadline() {
+    CompletableFuture<String> response = new CompletableFuture<>();
+    lead(response);
+
+    CompletableFuture<String> follower =
+        CompletableFuture.supplyAsync(
+            () ->
+                requestCoalescingService.execute(
+                    String.class, RELEASE, Deadline.after(Duration.ofMinutes(1)), () -> "own"));
+    awaitCoalesced();
+    response.completeExceptionally(new DeadlineExceededException("Leader deadline passed"));
+
+    assertEquals("own", follower.join());
+  }
+
+  @Test
+  void testSameKeyOfDifferentTypeIsNotCoalesced() {
+    CompletableFuture<String> pending = new CompletableFuture<>();
+    requestCoalescingService.executeAsync(String.class, RELEASE, () -> pending);
+
+    assertEquals(
+        1, requestCoalescingService.execute(Integer.class, RELEASE, Deadline.none(), () -> 1));
+    pending.complete("release");
+  }
+
+  /**
+   * Starts a blocking request on another thread, holding the in-flight entry until the given
+   * response completes.
+   */
+  private CompletableFuture<String> lead(final CompletableFuture<String> response) {
+    CompletableFuture<Void> started = new CompletableFuture<>();
+    CompletableFuture<String> leader =
+        CompletableFuture.supplyAsync(
+            () ->
+                requestCoalescingService.execute(
+                    String.class,
+                    RELEASE,
+                    Deadline.none(),
+                    () -> {
+                      started.complete(null);
+                      return response.join();
+                    }));
+    started.join();
+    return leader;
+  }
+
+  private void awaitCoalesced() {
+    var coalesced =
+        meterRegistry
+            .find(RequestCoalescingServiceImpl.REQUESTS_METRIC)
+            .tag("outcome", "coalesced");
+    while (coalesced.counter() == null) {
+      Thread.onSpinWait();
+    }
+  }
+
+  private double coalescedCount() {
+    return meterRegistry
+        .get(RequestCoalescingServiceImpl.REQUESTS_METRIC)
+        .tag("outcome", "coalesced")
+        .counter()
+        .count();
+  }
+}
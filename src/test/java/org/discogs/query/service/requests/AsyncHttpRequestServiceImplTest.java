@@ -0,0 +1,149 @@
+package org.discogs.query.service.requests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.discogs.query.config.JacksonConfig;
+import org.discogs.query.domain.api.DiscogsMarketplaceResult;
+import org.discogs.query.exceptions.DiscogsSearchException;
+import org.discogs.query.interfaces.RateLimiterService;
+import org.discogs.query.limits.Deadline;
+import org.discogs.query.limits.RateLimitStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpClientErrorException;
+
+class AsyncHttpRequestServiceImplTest {
+
+  private static final String URL = "http://example.com";
+
+  private CloseableHttpAsyncClient httpAsyncClient;
+  private Future<SimpleHttpResponse> exchange;
+  private RateLimiterService rateLimiterService;
+  private AsyncHttpRequestServiceImpl asyncHttpRequestService;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    httpAsyncClient = mock(CloseableHttpAsyncClient.class);
+    exchange = mock(Future.class);
+    rateLimiterService = mock(RateLimiterService.class);
+    asyncHttpRequestService =
+        new AsyncHttpRequestServiceImpl(
+            httpAsyncClient,
+            new HttpHeaders(),
+            new JacksonConfig().objectMapper(),
+            rateLimiterService);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void respondWith(final SimpleHttpResponse response) {
+    when(httpAsyncClient.execute(
+            any(AsyncRequestProducer.class),
+            any(AsyncResponseConsumer.class),
+            any(FutureCallback.class)))
+        .thenAnswer(
+            invocation -> {
+              FutureCallback<SimpleHttpResponse> callback = invocation.getArgument(2);
+              if (response != null) {
+                callback.completed(response);
+              }
+              return exchange;
+            });
+  }
+
+  @Test
+  void testExecuteRequestAsyncDecodesBody() {
+    respondWith(
+        SimpleHttpResponse.create(
+            200,
+            "{\"num_for_sale\":3,\"lowest_price\":{\"currency\":\"GBP\",\"value\":9.5},\"x\":1}",
+            ContentType.APPLICATION_JSON));
+
+    DiscogsMarketplaceResult result =
+        asyncHttpRequestService.executeRequestAsync(URL, DiscogsMarketplaceResult.class).join();
+
+    assertEquals(3, result.getNumberForSale());
+    assertEquals(9.5f, result.getResult().getValue());
+  }
+
+  @Test
+  void testExecuteRequestAsyncTranslatesClientError() {
+    SimpleHttpResponse response =
+        SimpleHttpResponse.create(429, "slow down", ContentType.TEXT_PLAIN);
+    response.addHeader(RateLimitStatus.REMAINING_HEADER, "0");
+    respondWith(response);
+
+    CompletableFuture<String> future =
+        asyncHttpRequestService.executeRequestAsync(URL, String.class);
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertInstanceOf(DiscogsSearchException.class, exception.getCause());
+    HttpClientErrorException cause =
+        assertInstanceOf(HttpClientErrorException.class, exception.getCause().getCause());
+    assertEquals(429, cause.getStatusCode().value());
+
+    ArgumentCaptor<HttpHeaders> headersCaptor = ArgumentCaptor.forClass(HttpHeaders.class);
+    verify(rateLimiterService).recordResponseHeaders(headersCaptor.capture());
+    assertEquals("0", headersCaptor.getValue().getFirst(RateLimitStatus.REMAINING_HEADER));
+  }
+
+  @Test
+  void testCancellingFutureAbortsExchange() {
+    respondWith(null);
+
+    CompletableFuture<String> future =
+        asyncHttpRequestService.executeRequestAsync(URL, String.class);
+    future.cancel(true);
+
+    assertTrue(future.isCancelled());
+    verify(exchange).cancel(true);
+  }
+
+  @Test
+  void testPassedDeadlineAbortsExchange() {
+    respondWith(null);
+
+    CompletableFuture<String> future =
+        asyncHttpRequestService.executeRequestAsync(
+            URL, String.class, Deadline.after(Duration.ofMillis(20)));
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertInstanceOf(TimeoutException.class, exception.getCause());
+    // The exchange is aborted on the timer thread that timed the request out
+    verify(exchange, timeout(1000)).cancel(true);
+  }
+
+  @Test
+  void testCancelledDeadlineAbortsExchange() {
+    respondWith(null);
+    Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+
+    CompletableFuture<String> future =
+        asyncHttpRequestService.executeRequestAsync(URL, String.class, deadline);
+    deadline.cancel();
+
+    assertTrue(future.isCancelled());
+    verify(exchange).cancel(true);
+  }
+}
@@ -0,0 +1,132 @@
+package org.discogs.query.service.requests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.discogs.query.interfaces.CircuitBreakerService.Endpoint;
+import org.discogs.query.interfaces.RateLimiterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class HedgingServiceImplTest {
+
+  private RateLimiterService rateLimiterService;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    rateLimiterService = mock(RateLimiterService.class);
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  private HedgingServiceImpl hedgingService(final double maxHedgeRatio) {
+    return new HedgingServiceImpl(
+        true,
+        Set.of(Endpoint.RELEASE),
+        50,
+        maxHedgeRatio,
+        1,
+        1,
+        rateLimiterService,
+        meterRegistry);
+  }
+
+  @Test
+  void testDisabledEndpointIsNotHedged() {
+    HedgingServiceImpl hedgingService = hedgingService(1);
+    CompletableFuture<String> response = CompletableFuture.completedFuture("search");
+
+    assertFalse(hedgingService.isEnabled(Endpoint.SEARCH));
+    assertSame(response, hedgingService.hedge(Endpoint.SEARCH, () -> response));
+  }
+
+  @Test
+  @Timeout(5)
+  void testSlowRequestIsHedgedAndLoserCancelled() {
+    HedgingServiceImpl hedgingService = hedgingService(1);
+    when(rateLimiterService.tryAcquireRateLimit()).thenReturn(true);
+    hedgingService.hedge(Endpoint.RELEASE, () -> CompletableFuture.completedFuture("warm")).join();
+
+    CompletableFuture<String> slow = new CompletableFuture<>();
+    AtomicInteger copies = new AtomicInteger();
+    CompletableFuture<String> result =
+        hedgingService.hedge(
+            Endpoint.RELEASE,
+            () ->
+                copies.incrementAndGet() == 1
+                    ? slow
+                    : CompletableFuture.completedFuture("hedge"));
+
+    assertEquals("hedge", result.join());
+    assertEquals(2, copies.get());
+    assertTrue(slow.isCancelled());
+    assertEquals(
+        1.0,
+        meterRegistry
+            .counter(HedgingServiceImpl.HEDGES_METRIC, "endpoint", "release", "outcome", "won")
+            .count());
+  }
+
+  @Test
+  @Timeout(5)
+  void testHedgeRatioCapsHedges() throws Exception {
+    HedgingServiceImpl hedgingService = hedgingService(0.1);
+    hedgingService.hedge(Endpoint.RELEASE, () -> CompletableFuture.completedFuture("warm")).join();
+
+    CompletableFuture<String> slow = new CompletableFuture<>();
+    AtomicInteger copies = new AtomicInteger();
+    CompletableFuture<String> result =
+        hedgingService.hedge(
+            Endpoint.RELEASE,
+            () -> {
+              copies.incrementAndGet();
+              return slow;
+            });
+    Thread.sleep(50);
+    slow.complete("original");
+
+    assertEquals("original", result.join());
+    assertEquals(1, copies.get());
+    verify(rateLimiterService, never()).tryAcquireRateLimit();
+  }
+
+  @Test
+  void testFailureIsReportedOnceEveryCopyFails() {
+    HedgingServiceImpl hedgingService = hedgingService(1);
+    IllegalStateException failure = new IllegalStateException("boom");
+
+    CompletableFuture<String> result =
+        hedgingService.hedge(Endpoint.RELEASE, () -> CompletableFuture.failedFuture(failure));
+
+    CompletionException exception =
+        assertThrows(CompletionException.class, result::join);
+    assertSame(failure, exception.getCause());
+  }
+
+  @Test
+  void testLatencyTrackerComputesPercentileAfterMinimumSamples() {
+    HedgingServiceImpl.LatencyTracker tracker = new HedgingServiceImpl.LatencyTracker(50, 4);
+    tracker.record(TimeUnit.MILLISECONDS.toNanos(10));
+    tracker.record(TimeUnit.MILLISECONDS.toNanos(20));
+    tracker.record(TimeUnit.MILLISECONDS.toNanos(30));
+    assertEquals(-1, tracker.percentileMillis());
+
+    tracker.record(TimeUnit.MILLISECONDS.toNanos(40));
+
+    assertEquals(20, tracker.percentileMillis());
+  }
+}
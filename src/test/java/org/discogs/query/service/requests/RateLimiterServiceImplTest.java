@@ -1,17 +1,27 @@
 package org.discogs.query.service.requests;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.discogs.query.exceptions.DiscogsSearchException;
+import org.discogs.query.exceptions.RateLimitTimeoutException;
 import org.discogs.query.interfaces.RateLimiterService;
+import org.discogs.query.limits.Deadline;
+import org.discogs.query.limits.RateLimitStatus;
 import org.discogs.query.limits.RateLimiter;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 
-@Disabled
 class RateLimiterServiceImplTest {
 
   private RateLimiterService rateLimiterService;
@@ -25,19 +35,71 @@ class RateLimiterServiceImplTest {
 
   @Test
   void testWaitForRateLimit() {
-    when(rateLimiter.tryAcquire()).thenReturn(false).thenReturn(true);
+    when(rateLimiter.acquireAsync(RateLimiter.Priority.NORMAL, Deadline.none()))
+        .thenReturn(CompletableFuture.completedFuture(null));
 
     rateLimiterService.waitForRateLimit();
 
-    verify(rateLimiter, times(2)).tryAcquire();
+    verify(rateLimiter).acquireAsync(RateLimiter.Priority.NORMAL, Deadline.none());
   }
 
   @Test
-  void testRateLimiterImmediateAcquire() {
+  void testWaitForRateLimitPropagatesTimeout() {
+    Deadline deadline = Deadline.after(Duration.ofMillis(10));
+    when(rateLimiter.acquireAsync(RateLimiter.Priority.NORMAL, deadline))
+        .thenReturn(CompletableFuture.failedFuture(new RateLimitTimeoutException("timed out")));
+
+    assertThrows(
+        RateLimitTimeoutException.class, () -> rateLimiterService.waitForRateLimit(deadline));
+  }
+
+  @Test
+  void testInterruptedWaiterAbandonsTheCall() {
+    Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+    CompletableFuture<Void> permit = new CompletableFuture<>();
+    when(rateLimiter.acquireAsync(RateLimiter.Priority.NORMAL, deadline)).thenReturn(permit);
+    AtomicBoolean actionRan = new AtomicBoolean();
+
+    Thread.currentThread().interrupt();
+    try {
+      assertThrows(
+          DiscogsSearchException.class,
+          () -> {
+            rateLimiterService.waitForRateLimit(deadline);
+            actionRan.set(true);
+          });
+      assertTrue(Thread.currentThread().isInterrupted());
+    } finally {
+      Thread.interrupted();
+    }
+
+    assertFalse(actionRan.get());
+    assertTrue(permit.isCancelled());
+  }
+
+  @Test
+  void testTryAcquireRateLimitDelegatesToLimiter() {
     when(rateLimiter.tryAcquire()).thenReturn(true);
 
-    rateLimiterService.waitForRateLimit();
+    assertTrue(rateLimiterService.tryAcquireRateLimit());
+  }
+
+  @Test
+  void testRecordResponseHeadersRecalibratesLimiter() {
+    HttpHeaders headers = new HttpHeaders();
+    headers.add(RateLimitStatus.LIMIT_HEADER, "60");
+    headers.add(RateLimitStatus.USED_HEADER, "12");
+    headers.add(RateLimitStatus.REMAINING_HEADER, "48");
+
+    rateLimiterService.recordResponseHeaders(headers);
+
+    verify(rateLimiter).recalibrate(new RateLimitStatus(60, 12, 48));
+  }
+
+  @Test
+  void testRecordResponseHeadersIgnoresMissingHeaders() {
+    rateLimiterService.recordResponseHeaders(new HttpHeaders());
 
-    verify(rateLimiter, times(1)).tryAcquire();
+    verify(rateLimiter, never()).recalibrate(any());
   }
 }
@@ -10,21 +10,29 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.discogs.query.exceptions.DiscogsSearchException;
+import org.discogs.query.limits.Deadline;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 
-@Disabled
 class RetryServiceImplTest {
 
   private RetryServiceImpl retryService;
 
   @BeforeEach
   void setUp() {
-    retryService = new RetryServiceImpl();
+    retryService = new RetryServiceImpl(3, 10, 50);
   }
 
   @Test
@@ -45,7 +53,9 @@ class RetryServiceImplTest {
   void testExecuteWithRetry_SuccessOnRetry() throws Exception {
     // Arrange
     Callable<String> mockAction = mock(Callable.class);
-    when(mockAction.call()).thenThrow(new RuntimeException("First Failure")).thenReturn("Success");
+    when(mockAction.call())
+        .thenThrow(new DiscogsSearchException("First Failure", serverError()))
+        .thenReturn("Success");
 
     // Act
     String result = retryService.executeWithRetry(mockAction, "Test Action");
@@ -58,6 +68,19 @@ class RetryServiceImplTest {
 
   @Test
   void testExecuteWithRetry_ExceedsRetryLimit() throws Exception {
+    // Arrange
+    Callable<String> mockAction = mock(Callable.class);
+    when(mockAction.call()).thenThrow(serverError());
+
+    // Act & Assert
+    assertThrows(
+        HttpServerErrorException.class,
+        () -> retryService.executeWithRetry(mockAction, "Test Action"));
+    verify(mockAction, times(3)).call(); // Should be called 3 times before giving up
+  }
+
+  @Test
+  void testExecuteWithRetry_NonRetryableFailsImmediately() throws Exception {
     // Arrange
     Callable<String> mockAction = mock(Callable.class);
     when(mockAction.call()).thenThrow(new RuntimeException("Failure"));
@@ -66,9 +89,8 @@ class RetryServiceImplTest {
     Exception exception =
         assertThrows(
             RuntimeException.class, () -> retryService.executeWithRetry(mockAction, "Test Action"));
-
     assertEquals("Failure", exception.getMessage());
-    verify(mockAction, times(3)).call(); // Should be called 3 times before giving up
+    verify(mockAction, times(1)).call();
   }
 
   @Test
@@ -88,6 +110,114 @@ class RetryServiceImplTest {
     verify(mockAction, times(3)).call(); // Should be called 3 times
   }
 
+  @Test
+  void testExecuteWithRetryAsync_InvokesSupplierPerAttempt() {
+    AtomicInteger attempts = new AtomicInteger();
+
+    String result =
+        retryService
+            .executeWithRetryAsync(
+                () ->
+                    attempts.incrementAndGet() < 3
+                        ? CompletableFuture.failedFuture(serverError())
+                        : CompletableFuture.completedFuture("Success"),
+                "Test Action",
+                Deadline.none())
+            .join();
+
+    assertEquals("Success", result);
+    assertEquals(3, attempts.get());
+  }
+
+  @Test
+  void testExecuteWithRetryAsync_DeadlineStopsRetries() {
+    AtomicInteger attempts = new AtomicInteger();
+    retryService = new RetryServiceImpl(3, 10_000, 10_000);
+    HttpClientErrorException tooManyRequests = tooManyRequestsWithRetryAfter("5");
+
+    CompletableFuture<String> future =
+        retryService.executeWithRetryAsync(
+            () -> {
+              attempts.incrementAndGet();
+              return CompletableFuture.failedFuture(tooManyRequests);
+            },
+            "Test Action",
+            Deadline.after(Duration.ofSeconds(1)));
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertEquals(tooManyRequests, exception.getCause());
+    assertEquals(1, attempts.get());
+  }
+
+  @Test
+  void testExecuteWithRetry_InterruptCancelsScheduledRetry() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+    retryService = new RetryServiceImpl(3, 10, 5_000);
+    AtomicReference<Exception> thrown = new AtomicReference<>();
+    Thread caller =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  try {
+                    retryService.executeWithRetry(
+                        () -> {
+                          attempts.incrementAndGet();
+                          throw tooManyRequestsWithRetryAfter("1");
+                        },
+                        "Test Action");
+                  } catch (final Exception e) {
+                    thrown.set(e);
+                  }
+                });
+    while (attempts.get() == 0) {
+      Thread.onSpinWait();
+    }
+
+    caller.interrupt();
+    caller.join();
+    Thread.sleep(1_200);
+
+    assertInstanceOf(InterruptedException.class, thrown.get());
+    assertEquals(1, attempts.get());
+  }
+
+  @Test
+  void testComputeDelayCapsRetryAfter() {
+    assertEquals(
+        50,
+        retryService.computeDelayMillis(
+            new DiscogsSearchException(
+                "HTTP request failed", tooManyRequestsWithRetryAfter("86400")),
+            1));
+  }
+
+  @Test
+  void testComputeDelayUsesRetryAfterSeconds() {
+    retryService = new RetryServiceImpl(3, 10, 30_000);
+    assertEquals(
+        7000,
+        retryService.computeDelayMillis(
+            new DiscogsSearchException("HTTP request failed", tooManyRequestsWithRetryAfter("7")),
+            1));
+  }
+
+  @Test
+  void testFindRetryAfterParsesHttpDate() {
+    String httpDate =
+        "Wed, 21 Oct 2015 07:28:00 GMT"; // In the past, so the delay is negative and clamped
+    assertTrue(retryService.findRetryAfter(tooManyRequestsWithRetryAfter(httpDate)).isPresent());
+    assertEquals(
+        0, retryService.computeDelayMillis(tooManyRequestsWithRetryAfter(httpDate), 1));
+  }
+
+  @Test
+  void testComputeDelayUsesJitteredBackoff() {
+    for (int i = 0; i < 20; i++) {
+      long delay = retryService.computeDelayMillis(serverError(), 3);
+      assertTrue(delay >= 0 && delay <= 40, "Delay should be within base * 2^(attempt - 1)");
+    }
+  }
+
   @Test
   void testIs429StatusCodeException() {
     // Arrange
@@ -108,4 +238,19 @@ class RetryServiceImplTest {
     // Assert
     assertFalse(result);
   }
+
+  private static HttpServerErrorException serverError() {
+    return new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  private static HttpClientErrorException tooManyRequestsWithRetryAfter(final String retryAfter) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.add(HttpHeaders.RETRY_AFTER, retryAfter);
+    return HttpClientErrorException.create(
+        HttpStatus.TOO_MANY_REQUESTS,
+        "Too Many Requests",
+        headers,
+        new byte[0],
+        StandardCharsets.UTF_8);
+  }
 }
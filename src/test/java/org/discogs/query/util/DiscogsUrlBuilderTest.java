@@ -1,8 +1,11 @@
 package org.discogs.query.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import org.discogs.query.cache.ResourceKey;
+import org.discogs.query.cache.ResourceRequest;
 import org.discogs.query.domain.api.DiscogsEntry;
 import org.discogs.query.model.DiscogsQueryDTO;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,7 +17,8 @@ import org.springframework.boot.test.context.SpringBootTest;
     properties = {
       "discogs.agent=test-agent",
       "discogs.token=test-token",
-      "spring.security.allowed-origins="
+      "spring.security.allowed-origins=",
+      "cache.data-directory="
     })
 class DiscogsUrlBuilderTest {
 
@@ -78,4 +82,34 @@ class DiscogsUrlBuilderTest {
     String actualUrl = discogsUrlBuilder.buildReleaseUrl(entry);
     assertEquals(expectedUrl, actualUrl);
   }
+
+  /** Tests that search keys ignore the API token and the case of parameter values. */
+  @Test
+  void testSearchRequestKeyIgnoresTokenAndCase() {
+    ResourceRequest first =
+        discogsUrlBuilder.buildSearchRequest(
+            new DiscogsQueryDTO("Artist A", null, "Track A", null, null, null, null, null));
+    discogsUrlBuilder.token = "rotatedToken";
+    ResourceRequest second =
+        discogsUrlBuilder.buildSearchRequest(
+            new DiscogsQueryDTO("artist a", null, "TRACK A", null, null, null, null, null));
+
+    assertNotEquals(first.url(), second.url());
+    assertEquals(first.key(), second.key());
+    assertEquals(
+        new ResourceKey.Search("artist=artist%20a&per_page=50&track=track%20a&type=release", 1),
+        first.key());
+  }
+
+  /** Tests that release requests are keyed by release ID and currency. */
+  @Test
+  void testBuildReleaseRequest() {
+    ResourceRequest request =
+        discogsUrlBuilder.buildReleaseRequest(DiscogsEntry.builder().id(123).build());
+
+    assertEquals(new ResourceKey.Release(123, "GBP"), request.key());
+    assertEquals(
+        discogsUrlBuilder.buildReleaseUrl(DiscogsEntry.builder().id(123).build()), request.url());
+    assertEquals(request.key().toString(), request.toString());
+  }
 }